@@ -6,7 +6,7 @@ import { CheckCircle, AlertTriangle, HelpCircle } from "lucide-react";
 import { Link } from 'react-router-dom';
 
 const ProductCard = ({ product }) => {
-  const { id, name, priceMarket, images, condition, aiAnalysis } = product;
+  const { id, name, priceMarket, thumbnailUrl, condition, aiAnalysis } = product;
   
   const getStatusBadge = (status) => {
     switch (status) {
@@ -36,7 +36,7 @@ const ProductCard = ({ product }) => {
       <Card className="h-full overflow-hidden hover:shadow-lg transition-shadow duration-300 group">
         <div className="relative aspect-square overflow-hidden bg-muted">
           <img 
-            src={images[0].imageUrl} 
+            src={thumbnailUrl} 
             alt={name} 
             className="object-cover w-full h-full transition-transform duration-300 group-hover:scale-105"
             loading="lazy"
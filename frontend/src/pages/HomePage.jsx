@@ -19,12 +19,12 @@ const HomePage = () => {
         // For now assuming API returns list of products similar to mock
         
         // Ensure data is an array
-        const productList = Array.isArray(data) ? data : (data.result || []);
+        const productList = Array.isArray(data) ? data : (data.result?.items || []);
         console.log("productlist",productList);
         // Add mock images/AI data if missing from backend for demo purposes
         const enhancedData = productList.map(p => ({
             ...p,
-            images: p.images || ["https://images.unsplash.com/photo-1620336655052-b57986f5a26a?q=80&w=1000&auto=format&fit=crop"],
+            thumbnailUrl: p.thumbnailUrl || "https://images.unsplash.com/photo-1620336655052-b57986f5a26a?q=80&w=1000&auto=format&fit=crop",
             aiAnalysis: p.aiAnalysis || { status: "Unverified", authenticityScore: 0 }
         }));
         
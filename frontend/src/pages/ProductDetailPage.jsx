@@ -1,6 +1,6 @@
 import React, { useEffect, useState } from 'react';
 import { useParams, Link } from 'react-router-dom';
-import { fetchProductById } from '../services/productService';
+import { fetchProductById, fetchSuggestedPrice } from '../services/productService';
 import { Button } from "@/components/ui/button";
 import { Badge } from "@/components/ui/badge";
 import { Progress } from "@/components/ui/progress";
@@ -30,6 +30,8 @@ const ProductDetailPage = () => {
         const data = await fetchProductById(id);
         console.log("Product data:",data);
         if (data) {
+           // Falls back to +/-10% of the listing when the product has no priced peers yet
+           const range = await fetchSuggestedPrice(id).catch(() => null);
            // Enrich with mock data for missing fields
            const enrichedData = {
                ...data,
@@ -40,7 +42,9 @@ const ProductDetailPage = () => {
                    authenticityScore: 98,
                    confidence: "High",
                    analyzedAt: new Date().toISOString(),
-                   suggestedPriceRange: { min: data.priceMarket * 0.9, max: data.priceMarket * 1.1 }
+                   suggestedPriceRange: range
+                       ? { min: range.min, median: range.median, max: range.max }
+                       : { min: data.priceMarket * 0.9, max: data.priceMarket * 1.1 }
                }
            };
            setProduct(enrichedData);
@@ -1,6 +1,6 @@
 export const fetchProducts = async () => {
   try {
-    const response = await fetch('http://localhost:8083/api/products');
+    const response = await fetch('http://localhost:8083/api/products?view=SUMMARY');
     if (!response.ok) {
       throw new Error(`Error: ${response.status}`);
     }
@@ -34,3 +34,33 @@ export const fetchProductById = async (id) => {
     throw error;
   }
 };
+
+// Min, median and max market price of the product's series (or scale, or manufacturer when the series is too small)
+export const fetchSuggestedPrice = async (id) => {
+  const response = await fetch(`http://localhost:8083/api/products/${id}/suggested-price`);
+  if (!response.ok) {
+    throw new Error(`Error: ${response.status}`);
+  }
+  const data = await response.json();
+  return data.result.suggestedPriceRange;
+};
+
+// Files are sent as multipart; the backend answers 202 and generates the resized variants in the background
+export const uploadProductImages = async (productId, files, { type = 'FRONT', isThumbnail = false } = {}) => {
+  const body = new FormData();
+  body.append('productId', productId);
+  body.append('type', type);
+  body.append('isThumbnail', isThumbnail);
+  files.forEach(file => body.append('files', file));
+
+  const response = await fetch('http://localhost:8083/api/product-images/upload', { method: 'POST', body });
+  if (response.status === 503) {
+    const retryAfter = Number(response.headers.get('Retry-After') || 5);
+    throw new Error(`Image processing is busy, retry in ${retryAfter}s`);
+  }
+  if (!response.ok) {
+    throw new Error(`Error: ${response.status}`);
+  }
+  const data = await response.json();
+  return data.result;
+};
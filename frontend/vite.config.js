@@ -16,6 +16,11 @@ export default defineConfig({
         target: 'http://localhost:8083',
         changeOrigin: true,
       },
+      // Uploaded images are served by product-service under the relative URLs it returns
+      '/media': {
+        target: 'http://localhost:8083',
+        changeOrigin: true,
+      },
     },
   },
 })
@@ -0,0 +1,107 @@
+package com.silverviking.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Diffs two JMH JSON results, typically from the parent commit and the current one, on the primary score
+ * and on bytes allocated per operation. Scores are compared in the direction of their mode, so a throughput
+ * that dropped is a regression just like an average time that grew. Exits with 1 when any benchmark got
+ * slower or allocates more than the allowed ratio, so it can gate a CI job:
+ * <pre>
+ * java -jar target/benchmarks.jar -prof gc -rf json -rff target/jmh-result.json
+ * java -cp target/benchmarks.jar com.silverviking.benchmark.BenchmarkComparison baseline.json target/jmh-result.json [time-ratio] [alloc-ratio]
+ * </pre>
+ * Time may drift by 10% and allocation by 5% by default; allocation is far less noisy than time.
+ */
+public final class BenchmarkComparison {
+
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+
+    private BenchmarkComparison() {
+    }
+
+    record Result(String mode, double score, String unit, Double allocation) {
+
+        // Throughput counts operations per unit of time; every other mode measures time per operation
+        boolean higherIsBetter() {
+            return "thrpt".equals(mode);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: BenchmarkComparison <baseline.json> <candidate.json> [time-ratio] [alloc-ratio]");
+            System.exit(2);
+        }
+        double timeRatio = args.length > 2 ? Double.parseDouble(args[2]) : 1.10;
+        double allocationRatio = args.length > 3 ? Double.parseDouble(args[3]) : 1.05;
+        Map<String, Result> baseline = read(Path.of(args[0]));
+        Map<String, Result> candidate = read(Path.of(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-70s %14s %14s %-12s %8s %12s %12s %8s%n", "benchmark", "base", "new", "unit", "ratio", "base B/op", "new B/op", "ratio");
+        for (Map.Entry<String, Result> entry : candidate.entrySet()) {
+            Result before = baseline.get(entry.getKey());
+            Result after = entry.getValue();
+            if (before == null) {
+                System.out.printf("%-70s %14s %14.3f %-12s %8s%n", entry.getKey(), "-", after.score(), after.unit(), "new");
+                continue;
+            }
+            if (!before.mode().equals(after.mode()) || !before.unit().equals(after.unit())) {
+                System.out.printf("%-70s %14s %14s %-12s  not comparable%n", entry.getKey(), before.mode() + " " + before.unit(),
+                        after.mode() + " " + after.unit(), "");
+                continue;
+            }
+            double ratio = after.score() / before.score();
+            // How many times slower the candidate is, whichever way the score points
+            double slowdown = after.higherIsBetter() ? 1 / ratio : ratio;
+            Double allocation = before.allocation() != null && after.allocation() != null && before.allocation() > 0
+                    ? after.allocation() / before.allocation() : null;
+            boolean regressed = slowdown > timeRatio || allocation != null && allocation > allocationRatio;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-70s %14.3f %14.3f %-12s %8.3f %12s %12s %8s%s%n", entry.getKey(), before.score(), after.score(), after.unit(), ratio,
+                    format(before.allocation()), format(after.allocation()), allocation != null ? String.format("%.3f", allocation) : "-",
+                    regressed ? "  REGRESSION" : "");
+        }
+        baseline.keySet().stream().filter(key -> !candidate.containsKey(key))
+                .forEach(key -> System.out.printf("%-70s %14s%n", key, "removed"));
+
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed beyond time x%.2f or allocation x%.2f%n", regressions, timeRatio, allocationRatio);
+            System.exit(1);
+        }
+    }
+
+    static Map<String, Result> read(Path file) throws IOException {
+        Map<String, Result> results = new TreeMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file.toFile())) {
+            JsonNode primary = run.path("primaryMetric");
+            JsonNode allocation = run.path("secondaryMetrics").path(ALLOCATION);
+            results.put(key(run), new Result(run.path("mode").asText(), primary.path("score").asDouble(), primary.path("scoreUnit").asText(),
+                    allocation.isMissingNode() ? null : allocation.path("score").asDouble()));
+        }
+        return results;
+    }
+
+    // Benchmark method plus its parameters, e.g. ProductSerializationBenchmark.serialize[products=100]
+    private static String key(JsonNode run) {
+        String benchmark = run.path("benchmark").asText();
+        String name = benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1);
+        Map<String, String> params = new LinkedHashMap<>();
+        run.path("params").properties().forEach(param -> params.put(param.getKey(), param.getValue().asText()));
+        return params.isEmpty() ? name : name + params.toString().replace('{', '[').replace('}', ']').replace(" ", "");
+    }
+
+    private static String format(Double allocation) {
+        return allocation != null ? String.format("%.1f", allocation) : "-";
+    }
+}
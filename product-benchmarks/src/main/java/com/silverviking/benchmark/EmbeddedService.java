@@ -0,0 +1,47 @@
+package com.silverviking.benchmark;
+
+import com.silverviking.EcommerceApiApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Boots product-service in the benchmark fork on its own in-memory H2 database, as the offline load test
+ * does, so benchmarks that go through Spring need no running database or registry.
+ */
+final class EmbeddedService {
+
+    private EmbeddedService() {
+    }
+
+    static ConfigurableApplicationContext start(String name, Map<String, String> overrides, Class<?>... sources) throws IOException {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.datasource.url", "jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        properties.put("spring.datasource.driverClassName", "org.h2.Driver");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create");
+        properties.put("eureka.client.enabled", "false");
+        properties.put("image-upload.storage-root", Files.createTempDirectory(name).toString());
+        properties.put("logging.level.root", "WARN");
+        properties.putAll(overrides);
+        // Command-line arguments, as defaults would lose to application.yaml
+        String[] arguments = properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+        Class<?>[] all = new Class<?>[sources.length + 1];
+        all[0] = EcommerceApiApplication.class;
+        System.arraycopy(sources, 0, all, 1, sources.length);
+        return new SpringApplicationBuilder(all).run(arguments);
+    }
+
+    static String baseUrl(ConfigurableApplicationContext context) {
+        return "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+}
@@ -0,0 +1,165 @@
+package com.silverviking.benchmark;
+
+import com.silverviking.configuration.ImageUploadProperties;
+import com.silverviking.search.HammingIndex;
+import com.silverviking.storage.ContentAddressedStorage;
+import com.silverviking.storage.ImageFingerprint;
+import com.silverviking.storage.ImageProcessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fingerprints the sample photos (see {@link SamplePhotos}), then scales them up to a synthetic catalog of
+ * near duplicates (a few bits flipped, as re-encoded or cropped copies are) and unrelated hashes. Measures
+ * hashing one photo, building the index, and a top-10 query against the brute-force scan it replaces.
+ * Setup fails if the index misses any result the scan finds.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImageFingerprintBenchmark {
+
+    private static final int MAX_DISTANCE = 12;
+    private static final int LIMIT = 10;
+    private static final int QUERIES = 20_000;
+    private static final int RECALL_QUERIES = 200;
+
+    @Param({"1000000"})
+    private int hashes;
+
+    private ImageProcessor processor;
+    private List<byte[]> photos;
+    private long[] primaries;
+    private long[] secondaries;
+    private HammingIndex index;
+    private long[] queryPrimaries;
+    private long[] querySecondaries;
+    private int nextPhoto;
+    private int nextQuery;
+
+    @Setup
+    public void setUp() throws IOException {
+        ImageUploadProperties properties = new ImageUploadProperties();
+        properties.setStorageRoot(Files.createTempDirectory("fingerprint-benchmark"));
+        processor = new ImageProcessor(new ContentAddressedStorage(properties), properties);
+        photos = new ArrayList<>();
+        List<ImageFingerprint> real = new ArrayList<>();
+        for (Path file : SamplePhotos.list()) {
+            byte[] photo = Files.readAllBytes(file);
+            photos.add(photo);
+            real.add(processor.fingerprint(new ByteArrayInputStream(photo)));
+        }
+
+        // Half the catalog are near-duplicates of the real photos, the rest unrelated images
+        Random random = new Random(7);
+        primaries = new long[hashes];
+        secondaries = new long[hashes];
+        for (int i = 0; i < hashes; i++) {
+            if (i < real.size()) {
+                primaries[i] = real.get(i).phash();
+                secondaries[i] = real.get(i).dhash();
+            } else if (i % 2 == 0) {
+                ImageFingerprint source = real.get(random.nextInt(real.size()));
+                primaries[i] = flip(source.phash(), random, 1 + random.nextInt(10));
+                secondaries[i] = flip(source.dhash(), random, 1 + random.nextInt(10));
+            } else {
+                primaries[i] = random.nextLong();
+                secondaries[i] = random.nextLong();
+            }
+        }
+        index = build();
+
+        queryPrimaries = new long[QUERIES];
+        querySecondaries = new long[QUERIES];
+        for (int q = 0; q < QUERIES; q++) {
+            ImageFingerprint source = real.get(q % real.size());
+            queryPrimaries[q] = flip(source.phash(), random, random.nextInt(5));
+            querySecondaries[q] = flip(source.dhash(), random, random.nextInt(5));
+        }
+        for (int q = 0; q < RECALL_QUERIES; q++) {
+            List<Long> exact = bruteForce(queryPrimaries[q], querySecondaries[q]);
+            List<Long> indexed = index.search(queryPrimaries[q], querySecondaries[q], LIMIT, MAX_DISTANCE).stream()
+                    .map(HammingIndex.Match::id)
+                    .toList();
+            if (!indexed.containsAll(exact)) {
+                throw new IllegalStateException("Index missed exact matches for query " + q + ": " + exact + " vs " + indexed);
+            }
+        }
+    }
+
+    // Decode, scale, pHash and dHash
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ImageFingerprint fingerprint() throws IOException {
+        byte[] photo = photos.get(nextPhoto++ % photos.size());
+        return processor.fingerprint(new ByteArrayInputStream(photo));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public HammingIndex build() {
+        HammingIndex built = new HammingIndex();
+        UUID owner = new UUID(0, 1);
+        for (int i = 0; i < hashes; i++) {
+            built.put(i, owner, primaries[i], secondaries[i]);
+        }
+        return built;
+    }
+
+    @Benchmark
+    public List<HammingIndex.Match> search() {
+        int q = nextQuery++ % QUERIES;
+        return index.search(queryPrimaries[q], querySecondaries[q], LIMIT, MAX_DISTANCE);
+    }
+
+    @Benchmark
+    public List<Long> bruteForce() {
+        int q = nextQuery++ % QUERIES;
+        return bruteForce(queryPrimaries[q], querySecondaries[q]);
+    }
+
+    private List<Long> bruteForce(long primary, long secondary) {
+        List<long[]> hits = new ArrayList<>();
+        for (int i = 0; i < primaries.length; i++) {
+            int distance = Long.bitCount(primaries[i] ^ primary);
+            if (distance <= MAX_DISTANCE) {
+                hits.add(new long[]{distance, Long.bitCount(secondaries[i] ^ secondary), i});
+            }
+        }
+        return hits.stream()
+                .sorted(Comparator.<long[]>comparingLong(hit -> hit[0]).thenComparingLong(hit -> hit[1]).thenComparingLong(hit -> hit[2]))
+                .limit(LIMIT)
+                .map(hit -> hit[2])
+                .toList();
+    }
+
+    private static long flip(long hash, Random random, int bits) {
+        for (int i = 0; i < bits; i++) {
+            hash ^= 1L << random.nextInt(64);
+        }
+        return hash;
+    }
+}
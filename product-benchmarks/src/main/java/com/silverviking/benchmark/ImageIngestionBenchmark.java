@@ -0,0 +1,112 @@
+package com.silverviking.benchmark;
+
+import com.silverviking.configuration.ImageUploadProperties;
+import com.silverviking.storage.ContentAddressedStorage;
+import com.silverviking.storage.ImageProcessor;
+import com.silverviking.storage.StoredBlob;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stores and processes every sample photo (see {@link SamplePhotos}) once per operation, on one thread
+ * and with one thread per core. Identical files are deduplicated by content, as they would be in
+ * production, so each operation starts from an empty storage root. The corpus size is printed at setup;
+ * divide it by the score for MB/s.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ImageIngestionBenchmark {
+
+    private List<Path> files;
+    private ExecutorService executor;
+    private Path root;
+    private ContentAddressedStorage storage;
+    private ImageProcessor processor;
+
+    @Setup
+    public void setUp() throws IOException {
+        files = SamplePhotos.list();
+        long bytes = 0;
+        for (Path file : files) {
+            bytes += Files.size(file);
+        }
+        System.out.printf("%nImage ingestion corpus: %d files, %.1f MB%n", files.size(), bytes / (1024.0 * 1024));
+        executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @Setup(Level.Iteration)
+    public void emptyStorage() throws IOException {
+        root = Files.createTempDirectory("ingestion-benchmark");
+        ImageUploadProperties properties = new ImageUploadProperties();
+        properties.setStorageRoot(root);
+        storage = new ContentAddressedStorage(properties);
+        processor = new ImageProcessor(storage, properties);
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteStorage() throws IOException {
+        FileSystemUtils.deleteRecursively(root);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public int ingestCorpus() throws IOException {
+        for (Path file : files) {
+            ingest(file);
+        }
+        return files.size();
+    }
+
+    @Benchmark
+    public int ingestCorpusInParallel() throws Exception {
+        List<Future<?>> futures = new ArrayList<>(files.size());
+        for (Path file : files) {
+            futures.add(executor.submit(() -> {
+                ingest(file);
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        return files.size();
+    }
+
+    private void ingest(Path file) throws IOException {
+        StoredBlob blob;
+        try (InputStream in = Files.newInputStream(file)) {
+            blob = storage.store(in);
+        }
+        processor.process(blob);
+    }
+}
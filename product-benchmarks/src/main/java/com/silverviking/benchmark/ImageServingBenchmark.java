@@ -0,0 +1,123 @@
+package com.silverviking.benchmark;
+
+import com.silverviking.storage.ContentAddressedStorage;
+import com.silverviking.storage.ImageFormat;
+import com.silverviking.storage.StoredBlob;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serving the sample photos (see {@link SamplePhotos}) over a real Tomcat port from eight client threads:
+ * the media endpoint, which hands the file to sendfile, against a naive handler that reads each file into
+ * a {@code byte[]} and writes it out. The server runs in the benchmark fork, so with {@code -prof gc} the
+ * allocation per operation shows whether the image passed through the heap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class ImageServingBenchmark {
+
+    private final AtomicInteger next = new AtomicInteger();
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private List<URI> zeroCopy;
+    private List<URI> naive;
+
+    @Setup
+    public void setUp() throws IOException {
+        context = EmbeddedService.start("image-serving", Map.of(), NaiveImageController.class);
+        ContentAddressedStorage storage = context.getBean(ContentAddressedStorage.class);
+        String base = EmbeddedService.baseUrl(context);
+        zeroCopy = new ArrayList<>();
+        naive = new ArrayList<>();
+        for (Path file : SamplePhotos.list()) {
+            StoredBlob blob;
+            try (InputStream in = Files.newInputStream(file)) {
+                blob = storage.store(in);
+            }
+            zeroCopy.add(URI.create(base + storage.originalUrl(blob.hash(), blob.format())));
+            naive.add(URI.create(base + "/benchmark/naive/" + blob.format() + "/" + blob.hash()));
+        }
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long sendfile() throws Exception {
+        return fetch(zeroCopy);
+    }
+
+    @Benchmark
+    public long naiveByteArray() throws Exception {
+        return fetch(naive);
+    }
+
+    private long fetch(List<URI> uris) throws Exception {
+        URI uri = uris.get(Math.floorMod(next.getAndIncrement(), uris.size()));
+        HttpResponse<InputStream> response = client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream body = response.body()) {
+            long bytes = body.transferTo(OutputStream.nullOutputStream());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException(uri + " answered " + response.statusCode());
+            }
+            return bytes;
+        }
+    }
+
+    // What serving looked like before: the whole file on the heap, then copied to the response
+    @RestController
+    public static class NaiveImageController {
+
+        private final ContentAddressedStorage storage;
+
+        public NaiveImageController(ContentAddressedStorage storage) {
+            this.storage = storage;
+        }
+
+        @GetMapping("/benchmark/naive/{format}/{hash}")
+        public void serve(@PathVariable ImageFormat format, @PathVariable String hash, HttpServletResponse response) throws IOException {
+            byte[] bytes = Files.readAllBytes(storage.originalPath(hash, format));
+            response.setContentType(format.getContentType());
+            response.setContentLength(bytes.length);
+            response.getOutputStream().write(bytes);
+        }
+    }
+}
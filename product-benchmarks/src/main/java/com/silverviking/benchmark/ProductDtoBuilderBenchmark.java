@@ -0,0 +1,83 @@
+package com.silverviking.benchmark;
+
+import com.silverviking.dto.response.CategoryResponse;
+import com.silverviking.dto.response.ManufacturerResponse;
+import com.silverviking.dto.response.ProductImageResponse;
+import com.silverviking.dto.response.ProductResponse;
+import com.silverviking.dto.response.SeriesResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the Lombok builders themselves, without the mapper's lookups: each builder is one extra
+ * object per DTO, so the allocation figures of this benchmark are the floor of the mapping benchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ProductDtoBuilderBenchmark {
+
+    private final UUID id = UUID.fromString("01890a5d-ac96-774b-bcce-b302099a8057");
+    private final BigDecimal price = BigDecimal.valueOf(3_500_000);
+    private final Date releaseDate = Date.valueOf("2025-06-15");
+    private final Instant updatedAt = Instant.parse("2026-01-01T00:00:00Z");
+    private final Map<String, String> variants = Map.of("card", "/media/ab/cd/abcd-card.webp", "detail", "/media/ab/cd/abcd-detail.webp");
+
+    @Benchmark
+    public ProductImageResponse imageResponse() {
+        return image(1L);
+    }
+
+    @Benchmark
+    public ProductResponse productResponse() {
+        return ProductResponse.builder()
+                .id(id)
+                .name("Scale Figure 1/7 Complete Figure")
+                .slug("scale-figure")
+                .priceMarket(price)
+                .isReleased(true)
+                .releaseDate(releaseDate)
+                .scale("1/7")
+                .height(24.5)
+                .material("PVC, ABS")
+                .description("Painted, non-articulated figure with display base.")
+                .category(CategoryResponse.builder().id(3L).name("Scale Figures").description("Scale and prize figures").build())
+                .series(SeriesResponse.builder().id(7L).name("Evangelion").build())
+                .manufacturer(ManufacturerResponse.builder().id(2L).name("Alter").originCountry("Japan").build())
+                .images(List.of(image(1L), image(2L), image(3L), image(4L)))
+                .version(2)
+                .updatedAt(updatedAt)
+                .build();
+    }
+
+    private ProductImageResponse image(Long imageId) {
+        return ProductImageResponse.builder()
+                .id(imageId)
+                .imageUrl(null)
+                .type("FRONT")
+                .isThumbnail(imageId == 1L)
+                .status("READY")
+                .width(1600)
+                .height(2000)
+                .variants(variants)
+                .build();
+    }
+}
@@ -0,0 +1,129 @@
+package com.silverviking.benchmark;
+
+import com.silverviking.cache.LongKeyMap;
+import com.silverviking.cache.ReferenceDataRegistry;
+import com.silverviking.cache.ReferenceDataSnapshot;
+import com.silverviking.configuration.ImageUploadProperties;
+import com.silverviking.domain.Category;
+import com.silverviking.domain.Manufacturer;
+import com.silverviking.domain.Product;
+import com.silverviking.domain.ProductImage;
+import com.silverviking.domain.Series;
+import com.silverviking.domain.TimeOrderedUuidGenerator;
+import com.silverviking.dto.response.CategoryResponse;
+import com.silverviking.dto.response.ManufacturerResponse;
+import com.silverviking.dto.response.SeriesResponse;
+import com.silverviking.enums.ImageStatus;
+import com.silverviking.enums.ImageType;
+import com.silverviking.mapper.ProductMapper;
+import com.silverviking.storage.ContentAddressedStorage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.sql.Date;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Detached entities shaped like the seeded catalog, built from a fixed seed so every run and every
+ * commit maps and serializes the same bytes.
+ */
+final class ProductFixtures {
+
+    static final int CATEGORY_COUNT = 12;
+    static final int SERIES_COUNT = 40;
+    static final int MANUFACTURER_COUNT = 25;
+    static final int IMAGES_PER_PRODUCT = 4;
+
+    private static final ImageType[] IMAGE_TYPES = {ImageType.FRONT, ImageType.BACK, ImageType.BOX, ImageType.LEFT};
+
+    private ProductFixtures() {
+    }
+
+    static List<Product> products(int count) {
+        Random random = new Random(42);
+        HexFormat hex = HexFormat.of();
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Product product = Product.builder()
+                    .id(TimeOrderedUuidGenerator.generate())
+                    .name("Scale Figure " + i + " 1/7 Complete Figure")
+                    .slug("scale-figure-" + i)
+                    .priceMarket(BigDecimal.valueOf(1_500_000 + random.nextInt(8_000_000)))
+                    .isReleased(random.nextBoolean())
+                    .releaseDate(Date.valueOf("2025-0" + (1 + random.nextInt(9)) + "-15"))
+                    .scale("1/7")
+                    .height(18 + random.nextInt(200) / 10.0)
+                    .material("PVC, ABS")
+                    .description("Painted, non-articulated figure with display base. Sculpted in cooperation with the original illustrator.")
+                    .category(Category.builder().id((long) random.nextInt(CATEGORY_COUNT) + 1).build())
+                    .series(i % 5 == 0 ? null : Series.builder().id((long) random.nextInt(SERIES_COUNT) + 1).build())
+                    .manufacturer(Manufacturer.builder().id((long) random.nextInt(MANUFACTURER_COUNT) + 1).build())
+                    .version(random.nextInt(4))
+                    .updatedAt(Instant.parse("2026-01-01T00:00:00Z").plusSeconds(random.nextInt(10_000_000)))
+                    .build();
+            List<ProductImage> images = new ArrayList<>(IMAGES_PER_PRODUCT);
+            for (int j = 0; j < IMAGES_PER_PRODUCT; j++) {
+                byte[] hash = new byte[32];
+                random.nextBytes(hash);
+                // Half the images are processed uploads that carry variant URLs, the rest are external links
+                boolean uploaded = j % 2 == 0;
+                images.add(ProductImage.builder()
+                        .id((long) i * IMAGES_PER_PRODUCT + j + 1)
+                        .imageUrl(uploaded ? null : "https://img.example.com/figures/" + i + "/" + j + ".jpg")
+                        .isThumbnail(j == 0)
+                        .type(IMAGE_TYPES[j % IMAGE_TYPES.length])
+                        .contentHash(uploaded ? hex.formatHex(hash) : null)
+                        .status(uploaded ? ImageStatus.READY : null)
+                        .width(uploaded ? 1600 : null)
+                        .height(uploaded ? 2000 : null)
+                        .product(product)
+                        .build());
+            }
+            product.setImages(images);
+            products.add(product);
+        }
+        return products;
+    }
+
+    static ReferenceDataSnapshot snapshot() {
+        List<CategoryResponse> categories = new ArrayList<>();
+        for (long id = 1; id <= CATEGORY_COUNT; id++) {
+            categories.add(CategoryResponse.builder().id(id).name("Category " + id).description("Scale and prize figures").build());
+        }
+        List<SeriesResponse> series = new ArrayList<>();
+        for (long id = 1; id <= SERIES_COUNT; id++) {
+            series.add(SeriesResponse.builder().id(id).name("Series " + id).build());
+        }
+        List<ManufacturerResponse> manufacturers = new ArrayList<>();
+        for (long id = 1; id <= MANUFACTURER_COUNT; id++) {
+            manufacturers.add(ManufacturerResponse.builder().id(id).name("Manufacturer " + id).originCountry("Japan").build());
+        }
+        return new ReferenceDataSnapshot(LongKeyMap.of(categories, CategoryResponse::getId),
+                LongKeyMap.of(series, SeriesResponse::getId),
+                LongKeyMap.of(manufacturers, ManufacturerResponse::getId));
+    }
+
+    // The mapper as wired in the service, minus the repositories: the registry only ever hands out the fixed snapshot
+    static ProductMapper mapper() {
+        ReferenceDataSnapshot snapshot = snapshot();
+        ReferenceDataRegistry registry = new ReferenceDataRegistry(null, null, null, null) {
+            @Override
+            public ReferenceDataSnapshot snapshot() {
+                return snapshot;
+            }
+        };
+        ImageUploadProperties properties = new ImageUploadProperties();
+        try {
+            properties.setStorageRoot(Files.createTempDirectory("product-benchmarks"));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return new ProductMapper(registry, new ContentAddressedStorage(properties));
+    }
+}
@@ -0,0 +1,133 @@
+package com.silverviking.benchmark;
+
+import com.silverviking.domain.TimeOrderedUuidGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserting {@code rows} rows into a product-shaped table keyed by text UUIDs, random binary UUIDs and
+ * time-ordered binary UUIDs. The gap only shows once the index outgrows the buffer pool, so run it
+ * against MySQL with a few million rows:
+ * <pre>
+ * java -Dbenchmark.jdbc-url=jdbc:mysql://localhost:3306/benchmark -Dbenchmark.jdbc-user=root -Dbenchmark.jdbc-password=... \
+ *     -jar target/benchmarks.jar ProductIdBenchmark -p rows=3000000
+ * </pre>
+ * Without a URL it runs on in-memory H2. On MySQL the table sizes from information_schema are printed
+ * after every iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ProductIdBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"char36_v4", "binary_v4", "binary_v7"})
+    private String layout;
+
+    @Param({"200000"})
+    private int rows;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private boolean mysql;
+    private String table;
+
+    @Setup
+    public void setUp() {
+        dataSource = new SingleConnectionDataSource(
+                System.getProperty("benchmark.jdbc-url", "jdbc:h2:mem:product-ids;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"),
+                System.getProperty("benchmark.jdbc-user", "sa"),
+                System.getProperty("benchmark.jdbc-password", ""),
+                true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        mysql = Boolean.TRUE.equals(jdbcTemplate.execute((Connection connection) ->
+                connection.getMetaData().getDatabaseProductName().equalsIgnoreCase("MySQL")));
+        table = "bench_ids_" + layout;
+    }
+
+    @Setup(Level.Iteration)
+    public void createTable() {
+        String idType = layout.startsWith("char36") ? "char(36)" : "binary(16)";
+        jdbcTemplate.execute("drop table if exists " + table);
+        jdbcTemplate.execute("create table " + table + " (id " + idType + " not null primary key, "
+                + "name varchar(255) not null, market_price decimal(38, 2), slug varchar(255) not null)");
+        // Secondary indexes carry the primary key, so its width shows up here as well
+        jdbcTemplate.execute("create index idx_" + table + "_name_id on " + table + " (name, id)");
+    }
+
+    @TearDown(Level.Iteration)
+    public void dropTable() {
+        Long inserted = jdbcTemplate.queryForObject("select count(*) from " + table, Long.class);
+        if (inserted == null || inserted != rows) {
+            throw new IllegalStateException(table + " holds " + inserted + " rows, expected " + rows);
+        }
+        if (mysql) {
+            jdbcTemplate.execute("analyze table " + table);
+            Map<String, Object> stats = jdbcTemplate.queryForMap("select data_length, index_length from information_schema.tables "
+                    + "where table_schema = database() and table_name = ?", table);
+            System.out.printf("%n%s: data %.1f MB, index %.1f MB%n", table, megabytes(stats.get("data_length")), megabytes(stats.get("index_length")));
+        }
+        jdbcTemplate.execute("drop table if exists " + table);
+    }
+
+    @TearDown
+    public void tearDown() {
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    public int insert() {
+        String insert = "insert into " + table + " (id, name, market_price, slug) values (?, ?, ?, ?)";
+        for (int from = 0; from < rows; from += BATCH_SIZE) {
+            List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = from; i < Math.min(from + BATCH_SIZE, rows); i++) {
+                batch.add(new Object[]{nextId(), "Figure " + i, BigDecimal.valueOf(50 + i % 400), "figure-" + i});
+            }
+            jdbcTemplate.batchUpdate(insert, batch);
+        }
+        return rows;
+    }
+
+    private Object nextId() {
+        return switch (layout) {
+            case "char36_v4" -> UUID.randomUUID().toString();
+            case "binary_v4" -> toBytes(UUID.randomUUID());
+            case "binary_v7" -> toBytes(TimeOrderedUuidGenerator.generate());
+            default -> throw new IllegalArgumentException("Unknown layout " + layout);
+        };
+    }
+
+    private static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits()).array();
+    }
+
+    private static double megabytes(Object bytes) {
+        return ((Number) bytes).doubleValue() / (1024 * 1024);
+    }
+}
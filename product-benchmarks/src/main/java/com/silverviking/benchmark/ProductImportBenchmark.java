@@ -0,0 +1,129 @@
+package com.silverviking.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.silverviking.dto.request.CategoryRequest;
+import com.silverviking.dto.request.ManufacturerRequest;
+import com.silverviking.dto.request.ProductImageRequest;
+import com.silverviking.dto.request.ProductRequest;
+import com.silverviking.dto.response.ProductImportResult;
+import com.silverviking.service.CategoryService;
+import com.silverviking.service.ManufacturerService;
+import com.silverviking.service.ProductImportService;
+import com.silverviking.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing {@code rows} products with three images each through the single-row create path against the
+ * bulk import, on the service's own embedded H2 database (see {@link EmbeddedService}). Rows per second
+ * is {@code rows} divided by the score.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ProductImportBenchmark {
+
+    @Param({"5000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private ProductImportService productImportService;
+    private ObjectMapper objectMapper;
+    private long categoryId;
+    private long manufacturerId;
+    private int run;
+    private List<ProductRequest> requests;
+    private byte[] body;
+
+    @Setup
+    public void setUp() throws IOException {
+        context = EmbeddedService.start("product-import", Map.of("spring.main.web-application-type", "none"));
+        productService = context.getBean(ProductService.class);
+        productImportService = context.getBean(ProductImportService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        CategoryRequest category = new CategoryRequest();
+        category.setName("Benchmark Category");
+        ManufacturerRequest manufacturer = new ManufacturerRequest();
+        manufacturer.setName("Benchmark Manufacturer");
+        categoryId = context.getBean(CategoryService.class).createCategory(category).getId();
+        manufacturerId = context.getBean(ManufacturerService.class).createManufacturer(manufacturer).getId();
+    }
+
+    // Fresh slugs for every operation, since they are unique
+    @Setup(Level.Iteration)
+    public void nextRequests() throws IOException {
+        requests = requests("run" + run++);
+        body = objectMapper.writeValueAsBytes(requests);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int singleRow() {
+        requests.forEach(productService::createProduct);
+        return requests.size();
+    }
+
+    @Benchmark
+    public long bulkImport() throws IOException {
+        ProductImportResult result = productImportService.importProducts(new ByteArrayInputStream(body), MediaType.APPLICATION_JSON, null);
+        if (result.getImported() != rows) {
+            throw new IllegalStateException("Imported " + result.getImported() + " of " + rows + " rows: " + result.getErrors());
+        }
+        return result.getImported();
+    }
+
+    private List<ProductRequest> requests(String prefix) {
+        List<ProductRequest> requests = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            ProductRequest request = new ProductRequest();
+            request.setName("Figure " + prefix + " " + i);
+            request.setSlug(prefix + "-" + i);
+            request.setPriceMarket(BigDecimal.valueOf(50 + i % 400));
+            request.setScale("1/7");
+            request.setMaterial("PVC, ABS");
+            request.setDescription("Synthetic benchmark figure number " + i);
+            request.setCategoryId(categoryId);
+            request.setManufacturerId(manufacturerId);
+            List<ProductImageRequest> images = new ArrayList<>();
+            for (String type : List.of("FRONT", "BACK", "BOX")) {
+                ProductImageRequest image = new ProductImageRequest();
+                image.setImageUrl("https://images.example/" + prefix + "/" + i + "/" + type.toLowerCase() + ".jpg");
+                image.setType(type);
+                image.setIsThumbnail("FRONT".equals(type));
+                images.add(image);
+            }
+            request.setImages(images);
+            requests.add(request);
+        }
+        return requests;
+    }
+}
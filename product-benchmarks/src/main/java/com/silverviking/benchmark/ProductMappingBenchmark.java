@@ -0,0 +1,61 @@
+package com.silverviking.benchmark;
+
+import com.silverviking.domain.Product;
+import com.silverviking.dto.response.ProductResponse;
+import com.silverviking.mapper.ProductMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping behind every product read. {@code ProductServiceImpl.mapToResponse} only
+ * delegates to {@link ProductMapper#toResponse}, so the mapper is measured directly, with reference
+ * data served from the snapshot as in the running service.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ProductMappingBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private ProductMapper mapper;
+    private List<Product> products;
+    private Product product;
+
+    @Setup
+    public void setUp() {
+        mapper = ProductFixtures.mapper();
+        products = ProductFixtures.products(PAGE_SIZE);
+        product = products.get(1);
+    }
+
+    @Benchmark
+    public ProductResponse mapOne() {
+        return mapper.toResponse(product);
+    }
+
+    // A default listing page
+    @Benchmark
+    public List<ProductResponse> mapPage() {
+        List<ProductResponse> page = new ArrayList<>(products.size());
+        for (Product each : products) {
+            page.add(mapper.toResponse(each));
+        }
+        return page;
+    }
+}
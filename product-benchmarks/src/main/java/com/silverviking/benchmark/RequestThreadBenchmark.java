@@ -0,0 +1,157 @@
+package com.silverviking.benchmark;
+
+import jakarta.annotation.PostConstruct;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Platform against virtual request threads when every request waits on a slow database. The endpoint
+ * runs one query that sleeps {@code dbLatencyMs} inside H2, so it holds a pooled connection for that
+ * long, like a slow MySQL round trip. One operation sends {@code connections} requests at once, each
+ * over its own connection, and waits for all of them; requests per second is {@code connections}
+ * divided by the score. Failed requests are counted and printed after each iteration.
+ * <pre>
+ * java -jar target/benchmarks.jar RequestThreadBenchmark -p connections=1000,5000,10000 -p poolSize=400
+ * </pre>
+ * Virtual threads need Java 21; on older JVMs that half fails at setup. Client and server share the
+ * fork, so 10k connections need {@code ulimit -n} above 25000. The class is public so that H2 can
+ * call {@link #sleep} as a SQL function.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RequestThreadBenchmark {
+
+    @Param({"platform", "virtual"})
+    private String threads;
+
+    @Param({"1000"})
+    private int connections;
+
+    @Param({"50"})
+    private int dbLatencyMs;
+
+    // Connection pool size and admitted concurrent requests alike
+    @Param({"400"})
+    private int poolSize;
+
+    private final AtomicLong errors = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private ExecutorService clientExecutor;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup
+    public void setUp() throws IOException {
+        boolean virtual = "virtual".equals(threads);
+        if (virtual && !JavaVersion.getJavaVersion().isEqualOrNewerThan(JavaVersion.TWENTY_ONE)) {
+            throw new IllegalStateException("Virtual threads need Java 21, running " + JavaVersion.getJavaVersion());
+        }
+        int maxConnections = connections + 1000;
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("spring.threads.virtual.enabled", String.valueOf(virtual));
+        properties.put("server.tomcat.max-connections", String.valueOf(maxConnections));
+        properties.put("server.tomcat.accept-count", String.valueOf(maxConnections));
+        properties.put("spring.datasource.hikari.maximum-pool-size", String.valueOf(poolSize));
+        properties.put("request-execution.max-concurrent-requests", String.valueOf(poolSize));
+        properties.put("request-execution.queue-timeout", "30s");
+        context = EmbeddedService.start("request-threads-" + threads, properties, SlowQueryController.class);
+        clientExecutor = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(clientExecutor)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        request = HttpRequest.newBuilder(URI.create(EmbeddedService.baseUrl(context) + "/benchmark/slow-query?ms=" + dbLatencyMs))
+                .timeout(Duration.ofSeconds(60))
+                .build();
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportErrors() {
+        long failed = errors.getAndSet(0);
+        if (failed > 0) {
+            System.out.printf("%n%d requests failed%n", failed);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        clientExecutor.shutdown();
+    }
+
+    @Benchmark
+    public int concurrentRequests() {
+        CompletableFuture<?>[] responses = new CompletableFuture<?>[connections];
+        for (int i = 0; i < connections; i++) {
+            responses[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+                if (failure != null || response.statusCode() != 200) {
+                    errors.incrementAndGet();
+                }
+            });
+        }
+        CompletableFuture.allOf(responses).exceptionally(failure -> null).join();
+        return connections;
+    }
+
+    // One query that holds its connection for the requested time, as a slow database would
+    @RestController
+    public static class SlowQueryController {
+
+        private final JdbcTemplate jdbcTemplate;
+
+        public SlowQueryController(JdbcTemplate jdbcTemplate) {
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        @PostConstruct
+        void createFunction() {
+            jdbcTemplate.execute("CREATE ALIAS IF NOT EXISTS BENCH_SLEEP FOR '" + RequestThreadBenchmark.class.getName() + ".sleep'");
+        }
+
+        @GetMapping("/benchmark/slow-query")
+        public Integer slowQuery(@RequestParam int ms) {
+            return jdbcTemplate.queryForObject("SELECT BENCH_SLEEP(?)", Integer.class, ms);
+        }
+    }
+
+    public static int sleep(int ms) throws InterruptedException {
+        Thread.sleep(ms);
+        return ms;
+    }
+}
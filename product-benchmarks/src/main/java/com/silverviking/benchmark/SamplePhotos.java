@@ -0,0 +1,35 @@
+package com.silverviking.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * The sample photos the image benchmarks run on, {@code ../real} from product-benchmarks unless
+ * {@code -Dbenchmark.images} points elsewhere. JMH forks inherit the system properties of the launching JVM.
+ */
+final class SamplePhotos {
+
+    private SamplePhotos() {
+    }
+
+    static List<Path> list() throws IOException {
+        Path corpus = Path.of(System.getProperty("benchmark.images", "../real"));
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(corpus)) {
+            files = listing.filter(SamplePhotos::isImage).sorted().toList();
+        }
+        if (files.isEmpty()) {
+            throw new IllegalStateException("No images in " + corpus.toAbsolutePath());
+        }
+        return files;
+    }
+
+    private static boolean isImage(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".jpg") || name.endsWith(".jpeg") || name.endsWith(".png") || name.endsWith(".webp");
+    }
+}
@@ -0,0 +1,344 @@
+package com.silverviking.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.silverviking.EcommerceApiApplication;
+import com.silverviking.generator.ZipfSampler;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Replays a mix of product listing, detail, category and series requests against product-service and
+ * reports throughput and latency percentiles per request type. Without {@code --target} it boots the
+ * service in-process on an embedded H2 database filled by the catalog generator, so it runs fully
+ * offline:
+ * <pre>
+ * java -cp target/benchmarks.jar com.silverviking.loadtest.CatalogLoadTest --products=50000 --concurrency=32 --duration=60s
+ * java -cp target/benchmarks.jar com.silverviking.loadtest.CatalogLoadTest --target=http://localhost:8083 --json=target/load.json
+ * </pre>
+ * A local service gets its data from the same generator: start it with {@code CATALOG_GENERATOR=true}.
+ * <p>
+ * Options: {@code --mix=detail:50,list:20,category:15,series:15} (relative weights), {@code --skew=1.1}
+ * (Zipf exponent of product, category and series popularity), {@code --warmup=15s}, {@code --seed}, and
+ * {@code --max-products} (ids sampled from a running catalog). Workers are closed-loop: each sends its
+ * next request when the previous one returns, so under overload latencies understate what an open
+ * arrival rate would see and the throughput column is the figure to compare.
+ */
+public final class CatalogLoadTest {
+
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final String[] SORTS = {"NAME", "PRICE", "RELEASE_DATE"};
+    private static final long MAX_LATENCY_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final String target;
+
+    private CatalogLoadTest(String target) {
+        this.target = target;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        ConfigurableApplicationContext embedded = null;
+        String target = options.get("target");
+        if (target == null) {
+            embedded = startEmbedded(options);
+            target = "http://localhost:" + ((WebServerApplicationContext) embedded).getWebServer().getPort();
+        }
+        try {
+            new CatalogLoadTest(target).run(options);
+        } finally {
+            if (embedded != null) {
+                embedded.close();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startEmbedded(Map<String, String> options) throws IOException {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.datasource.url", "jdbc:h2:mem:loadtest;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        properties.put("spring.datasource.driverClassName", "org.h2.Driver");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create");
+        // Nothing to register with, and the client would keep retrying the default Eureka server
+        properties.put("eureka.client.enabled", "false");
+        properties.put("image-upload.storage-root", Files.createTempDirectory("catalog-load-test").toString());
+        properties.put("catalog-generator.enabled", "true");
+        properties.put("catalog-generator.products", options.getOrDefault("products", "20000"));
+        properties.put("catalog-generator.seed", options.getOrDefault("seed", "42"));
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.com.silverviking.generator", "INFO");
+        System.out.println("Starting product-service on an embedded H2 database");
+        // Command-line arguments, as defaults would lose to application.yaml
+        String[] arguments = properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(EcommerceApiApplication.class).run(arguments);
+    }
+
+    private void run(Map<String, String> options) throws Exception {
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "16"));
+        Duration warmup = duration(options.getOrDefault("warmup", "15s"));
+        Duration measured = duration(options.getOrDefault("duration", "60s"));
+        double skew = Double.parseDouble(options.getOrDefault("skew", "1.1"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        int maxProducts = Integer.parseInt(options.getOrDefault("max-products", "100000"));
+
+        Random shuffle = new Random(seed);
+        List<String> products = shuffled(productIds(maxProducts), shuffle);
+        List<String> categories = shuffled(ids("/api/categories"), shuffle);
+        List<String> series = shuffled(ids("/api/series"), shuffle);
+        if (products.isEmpty() || categories.isEmpty()) {
+            throw new IllegalStateException("No products or categories at " + target + "; generate a catalog first");
+        }
+        System.out.printf("Target %s: %d products, %d categories, %d series%n", target, products.size(), categories.size(), series.size());
+
+        // Popularity is a Zipf rank over a seeded shuffle, so the hottest products are not simply the first by name
+        ZipfSampler productPopularity = new ZipfSampler(products.size(), skew);
+        ZipfSampler categoryPopularity = new ZipfSampler(categories.size(), skew);
+        ZipfSampler seriesPopularity = series.isEmpty() ? null : new ZipfSampler(series.size(), skew);
+        Map<String, Function<SplittableRandom, String>> requests = new LinkedHashMap<>();
+        requests.put("detail", random -> "/api/products/" + products.get(productPopularity.next(random)));
+        requests.put("list", random -> "/api/products?size=20&sort=" + SORTS[random.nextInt(SORTS.length)]
+                + "&direction=" + (random.nextBoolean() ? "ASC" : "DESC"));
+        requests.put("category", random -> "/api/products/category/" + categories.get(categoryPopularity.next(random)) + "?size=20");
+        if (seriesPopularity != null) {
+            requests.put("series", random -> "/api/products/series/" + series.get(seriesPopularity.next(random)) + "?size=20");
+        }
+        List<Operation> mix = mix(options.getOrDefault("mix", "detail:50,list:20,category:15,series:15"), requests);
+
+        System.out.printf("Warming up for %ds with %d workers%n", warmup.toSeconds(), concurrency);
+        drive(mix, concurrency, warmup, seed);
+        mix.forEach(Operation::reset);
+        System.out.printf("Measuring for %ds%n", measured.toSeconds());
+        long elapsedNanos = drive(mix, concurrency, measured, seed + 1);
+
+        Map<String, Object> report = report(mix, elapsedNanos, concurrency, products.size());
+        if (options.containsKey("json")) {
+            Path file = Path.of(options.get("json"));
+            JSON.writeValue(file.toFile(), report);
+            System.out.println("Result written to " + file);
+        }
+    }
+
+    private long drive(List<Operation> mix, int concurrency, Duration duration, long seed) throws InterruptedException {
+        double[] cumulative = new double[mix.size()];
+        double total = mix.stream().mapToDouble(Operation::weight).sum();
+        double sum = 0;
+        for (int i = 0; i < mix.size(); i++) {
+            sum += mix.get(i).weight() / total;
+            cumulative[i] = sum;
+        }
+        long started = System.nanoTime();
+        long deadline = started + duration.toNanos();
+        CountDownLatch done = new CountDownLatch(concurrency);
+        SplittableRandom seeds = new SplittableRandom(seed);
+        for (int w = 0; w < concurrency; w++) {
+            SplittableRandom random = seeds.split();
+            Thread worker = new Thread(() -> {
+                try {
+                    while (System.nanoTime() < deadline) {
+                        double pick = random.nextDouble();
+                        int index = 0;
+                        while (index < cumulative.length - 1 && pick >= cumulative[index]) {
+                            index++;
+                        }
+                        send(mix.get(index), random);
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }, "load-worker-" + w);
+            worker.setDaemon(true);
+            worker.start();
+        }
+        done.await();
+        return System.nanoTime() - started;
+    }
+
+    private void send(Operation operation, SplittableRandom random) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(target + operation.path().apply(random)))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        long started = System.nanoTime();
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            long latency = System.nanoTime() - started;
+            if (response.statusCode() >= 400) {
+                operation.errors().incrementAndGet();
+                return;
+            }
+            operation.latencies().recordValue(Math.min(latency, MAX_LATENCY_NANOS));
+        } catch (IOException ex) {
+            operation.errors().incrementAndGet();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Map<String, Object> report(List<Operation> mix, long elapsedNanos, int concurrency, int products) {
+        double seconds = elapsedNanos / 1e9;
+        Histogram all = new Histogram(MAX_LATENCY_NANOS, 3);
+        long allErrors = 0;
+        List<Map<String, Object>> rows = new ArrayList<>();
+        System.out.printf("%n%-10s %10s %8s %10s %9s %9s %9s %9s %9s%n", "request", "count", "errors", "req/s",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Operation operation : mix) {
+            Histogram latencies = operation.latencies().getIntervalHistogram();
+            long errors = operation.errors().get();
+            all.add(latencies);
+            allErrors += errors;
+            rows.add(row(operation.name(), latencies, errors, seconds));
+        }
+        rows.add(row("total", all, allErrors, seconds));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("concurrency", concurrency);
+        report.put("products", products);
+        report.put("durationSeconds", seconds);
+        report.put("operations", rows);
+        return report;
+    }
+
+    private static Map<String, Object> row(String name, Histogram latencies, long errors, double seconds) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("name", name);
+        row.put("count", latencies.getTotalCount());
+        row.put("errors", errors);
+        row.put("throughput", latencies.getTotalCount() / seconds);
+        row.put("p50Millis", millis(latencies.getValueAtPercentile(50)));
+        row.put("p90Millis", millis(latencies.getValueAtPercentile(90)));
+        row.put("p99Millis", millis(latencies.getValueAtPercentile(99)));
+        row.put("p999Millis", millis(latencies.getValueAtPercentile(99.9)));
+        row.put("maxMillis", millis(latencies.getMaxValue()));
+        System.out.printf("%-10s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, latencies.getTotalCount(), errors,
+                row.get("throughput"), row.get("p50Millis"), row.get("p90Millis"), row.get("p99Millis"), row.get("p999Millis"),
+                row.get("maxMillis"));
+        return row;
+    }
+
+    // Walks the catalog in SUMMARY pages, the cheapest listing, until maxProducts ids are collected
+    private List<String> productIds(int maxProducts) throws IOException, InterruptedException {
+        List<String> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            JsonNode page = get("/api/products?view=SUMMARY&size=100"
+                    + (cursor != null ? "&cursor=" + URLEncoder.encode(cursor, StandardCharsets.UTF_8) : "")).path("result");
+            page.path("items").forEach(item -> ids.add(item.path("id").asText()));
+            cursor = page.path("hasNext").asBoolean() ? page.path("nextCursor").asText(null) : null;
+        } while (cursor != null && ids.size() < maxProducts);
+        return ids.size() > maxProducts ? ids.subList(0, maxProducts) : ids;
+    }
+
+    private List<String> ids(String path) throws IOException, InterruptedException {
+        List<String> ids = new ArrayList<>();
+        get(path).path("result").forEach(item -> ids.add(item.path("id").asText()));
+        return ids;
+    }
+
+    private JsonNode get(String path) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(URI.create(target + path)).GET().build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET " + path + " returned " + response.statusCode());
+        }
+        return JSON.readTree(response.body());
+    }
+
+    private static List<Operation> mix(String spec, Map<String, Function<SplittableRandom, String>> requests) {
+        List<Operation> mix = new ArrayList<>();
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split(":");
+            Function<SplittableRandom, String> path = requests.get(parts[0]);
+            if (path == null) {
+                System.out.println("Skipping request type " + parts[0] + ", expected one of " + requests.keySet());
+                continue;
+            }
+            double weight = parts.length > 1 ? Double.parseDouble(parts[1]) : 1;
+            if (weight > 0) {
+                mix.add(new Operation(parts[0], weight, path, new Recorder(MAX_LATENCY_NANOS, 3), new AtomicLong()));
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("Empty request mix: " + spec);
+        }
+        return mix;
+    }
+
+    private static <T> List<T> shuffled(List<T> items, Random random) {
+        List<T> copy = new ArrayList<>(items);
+        Collections.shuffle(copy, random);
+        return copy;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        return options;
+    }
+
+    // 90s, 5m or an ISO-8601 duration
+    private static Duration duration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.parse(value);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private record Operation(String name, double weight, Function<SplittableRandom, String> path, Recorder latencies,
+                             AtomicLong errors) {
+
+        void reset() {
+            latencies.reset();
+            errors.set(0);
+        }
+    }
+}
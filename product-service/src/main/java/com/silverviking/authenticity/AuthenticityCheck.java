@@ -0,0 +1,24 @@
+package com.silverviking.authenticity;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+/**
+ * One photo to be scored against the reference images of a product. {@code photo} is a private
+ * temporary copy, deleted by {@link AuthenticityJobEngine} once the photo no longer needs scoring.
+ */
+@Slf4j
+public record AuthenticityCheck(UUID productId, String contentHash, Path photo) {
+
+    public void discard() {
+        try {
+            Files.deleteIfExists(photo);
+        } catch (IOException ex) {
+            log.warn("Could not delete authenticity photo {}: {}", photo, ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.silverviking.authenticity;
+
+import com.silverviking.enums.JobPriority;
+import com.silverviking.enums.JobStatus;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * One submitted batch of photos. Workers fill in results slot by slot; the job completes when the
+ * last slot is filled. Safe to read while workers are still writing.
+ */
+@Getter
+public final class AuthenticityJob {
+
+    private final UUID id;
+    private final UUID productId;
+    private final JobPriority priority;
+    private final Instant submittedAt = Instant.now();
+    private final List<String> fileNames;
+    private final List<String> contentHashes;
+    private final AtomicReferenceArray<AuthenticityResult> results;
+    private final AtomicInteger remaining;
+    private volatile Instant startedAt;
+    private volatile Instant completedAt;
+
+    public AuthenticityJob(UUID id, UUID productId, JobPriority priority, List<String> fileNames, List<String> contentHashes) {
+        this.id = id;
+        this.productId = productId;
+        this.priority = priority;
+        this.fileNames = List.copyOf(fileNames);
+        this.contentHashes = List.copyOf(contentHashes);
+        this.results = new AtomicReferenceArray<>(fileNames.size());
+        this.remaining = new AtomicInteger(fileNames.size());
+    }
+
+    public JobStatus getStatus() {
+        if (completedAt != null) {
+            return JobStatus.COMPLETED;
+        }
+        return startedAt != null ? JobStatus.RUNNING : JobStatus.QUEUED;
+    }
+
+    public int getTotal() {
+        return results.length();
+    }
+
+    public int getCompleted() {
+        return results.length() - remaining.get();
+    }
+
+    // Results in submission order; slots still being scored are left out
+    public List<AuthenticityResult> getResults() {
+        List<AuthenticityResult> finished = new ArrayList<>(results.length());
+        for (int i = 0; i < results.length(); i++) {
+            AuthenticityResult result = results.get(i);
+            if (result != null) {
+                finished.add(result);
+            }
+        }
+        return finished;
+    }
+
+    void markStarted() {
+        if (startedAt == null) {
+            startedAt = Instant.now();
+        }
+    }
+
+    void complete(int index, AuthenticityScore score, boolean cached) {
+        finish(index, new AuthenticityResult(fileNames.get(index), contentHashes.get(index), score, cached, null));
+    }
+
+    void fail(int index, String error) {
+        finish(index, new AuthenticityResult(fileNames.get(index), contentHashes.get(index), null, false, error));
+    }
+
+    private void finish(int index, AuthenticityResult result) {
+        if (results.compareAndSet(index, null, result) && remaining.decrementAndGet() == 0) {
+            markStarted();
+            completedAt = Instant.now();
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.silverviking.authenticity;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.silverviking.configuration.AuthenticityProperties;
+import com.silverviking.configuration.WorkerThreads;
+import com.silverviking.enums.JobPriority;
+import com.silverviking.exception.ServiceBusyException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Runs authenticity jobs off the request threads. Each photo of a job becomes one task in a priority
+ * queue (priority first, then submission order) bounded by {@code authenticity.queue-capacity}; a full
+ * queue rejects the whole job up front, before any photo is written. One worker per core takes the head task plus whatever else is
+ * queued, up to {@code authenticity.batch-size}, and scores them in one {@link AuthenticityScorer} call.
+ * Photos already in {@link AuthenticityResultCache} are answered at submission and never queued. Every
+ * photo is deleted once it is answered.
+ */
+@Slf4j
+@Component
+public class AuthenticityJobEngine {
+
+    private static final Comparator<ScoringTask> QUEUE_ORDER = Comparator
+            .comparing((ScoringTask task) -> task.job().getPriority())
+            .thenComparingLong(ScoringTask::sequence);
+
+    private final AuthenticityScorer scorer;
+    private final AuthenticityResultCache resultCache;
+    private final AuthenticityProperties properties;
+    private final PriorityBlockingQueue<ScoringTask> queue;
+    private final Semaphore capacity;
+    private final Cache<UUID, AuthenticityJob> jobs;
+    private final ExecutorService workers;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public AuthenticityJobEngine(AuthenticityScorer scorer, AuthenticityResultCache resultCache, AuthenticityProperties properties,
+                                 WorkerThreads workerThreads) {
+        this.scorer = scorer;
+        this.resultCache = resultCache;
+        this.properties = properties;
+        this.queue = new PriorityBlockingQueue<>(properties.getQueueCapacity(), QUEUE_ORDER);
+        // Held from enqueue until the task is scored, so queued plus in-progress photos never exceed the capacity
+        this.capacity = new Semaphore(properties.getQueueCapacity());
+        this.jobs = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxJobs())
+                .expireAfterWrite(properties.getJobRetention())
+                .build();
+        this.workers = Executors.newFixedThreadPool(properties.getWorkers(), workerThreads.factory("authenticity-worker-"));
+        for (int i = 0; i < properties.getWorkers(); i++) {
+            workers.execute(this::work);
+        }
+    }
+
+    /**
+     * Registers a job for the photos {@code fileNames}, all of one product. Queue room for every photo is
+     * reserved before {@code stage} writes them, one check per file name in the same order; photos answered
+     * from the cache give their room back. Throws {@link ServiceBusyException} when the queue is full.
+     */
+    public AuthenticityJob submit(UUID productId, JobPriority priority, List<String> fileNames,
+                                  Supplier<List<AuthenticityCheck>> stage) {
+        if (!capacity.tryAcquire(fileNames.size())) {
+            throw new ServiceBusyException("Authenticity queue is full, retry later", properties.getRetryAfter());
+        }
+        List<AuthenticityCheck> checks;
+        try {
+            checks = stage.get();
+        } catch (RuntimeException ex) {
+            capacity.release(fileNames.size());
+            throw ex;
+        }
+        AuthenticityJob job = new AuthenticityJob(UUID.randomUUID(), productId, priority, fileNames,
+                checks.stream().map(AuthenticityCheck::contentHash).toList());
+        List<ScoringTask> tasks = new ArrayList<>();
+        for (int i = 0; i < checks.size(); i++) {
+            AuthenticityScore cached = resultCache.get(productId, checks.get(i).contentHash());
+            if (cached != null) {
+                job.complete(i, cached, true);
+                checks.get(i).discard();
+            } else {
+                tasks.add(new ScoringTask(job, i, checks.get(i), sequence.incrementAndGet()));
+            }
+        }
+        capacity.release(fileNames.size() - tasks.size());
+        // Registered before any task is queued, so a worker never completes a job nobody can poll
+        jobs.put(job.getId(), job);
+        queue.addAll(tasks);
+        return job;
+    }
+
+    public Optional<AuthenticityJob> find(UUID jobId) {
+        return Optional.ofNullable(jobs.getIfPresent(jobId));
+    }
+
+    public int queued() {
+        return queue.size();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdownNow();
+        if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Authenticity workers still running at shutdown");
+        }
+        queue.forEach(task -> task.check().discard());
+    }
+
+    private void work() {
+        List<ScoringTask> batch = new ArrayList<>(properties.getBatchSize());
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(batch, properties.getBatchSize() - 1);
+            try {
+                score(batch);
+            } catch (RuntimeException ex) {
+                log.error("Authenticity batch of {} photos failed", batch.size(), ex);
+                batch.forEach(task -> task.job().fail(task.index(), "Scoring failed"));
+            } finally {
+                batch.forEach(task -> task.check().discard());
+                capacity.release(batch.size());
+                batch.clear();
+            }
+        }
+    }
+
+    private void score(List<ScoringTask> batch) {
+        // A photo queued twice (a resubmission racing the first job) is scored once
+        Map<String, List<ScoringTask>> distinct = new LinkedHashMap<>();
+        for (ScoringTask task : batch) {
+            task.job().markStarted();
+            distinct.computeIfAbsent(task.check().productId() + "/" + task.check().contentHash(), key -> new ArrayList<>()).add(task);
+        }
+        List<List<ScoringTask>> groups = new ArrayList<>(distinct.values());
+        List<AuthenticityCheck> checks = groups.stream().map(group -> group.get(0).check()).toList();
+        try {
+            List<AuthenticityScore> scores = scorer.score(checks);
+            if (scores.size() != checks.size()) {
+                throw new IllegalStateException("Scorer returned " + scores.size() + " scores for " + checks.size() + " photos");
+            }
+            for (int i = 0; i < groups.size(); i++) {
+                complete(groups.get(i), scores.get(i));
+            }
+        } catch (Exception ex) {
+            if (groups.size() == 1) {
+                fail(groups.get(0), ex);
+                return;
+            }
+            // One unreadable photo must not fail the rest of the batch; score them one by one to isolate it
+            for (List<ScoringTask> group : groups) {
+                try {
+                    complete(group, scorer.score(List.of(group.get(0).check())).get(0));
+                } catch (Exception single) {
+                    fail(group, single);
+                }
+            }
+        }
+    }
+
+    private void complete(List<ScoringTask> group, AuthenticityScore score) {
+        AuthenticityCheck check = group.get(0).check();
+        resultCache.put(check.productId(), check.contentHash(), score);
+        group.forEach(task -> task.job().complete(task.index(), score, false));
+    }
+
+    private static void fail(List<ScoringTask> group, Exception ex) {
+        log.warn("Could not score photo {}: {}", group.get(0).check().contentHash(), ex.getMessage());
+        group.forEach(task -> task.job().fail(task.index(), "Could not score photo: " + ex.getMessage()));
+    }
+
+    private record ScoringTask(AuthenticityJob job, int index, AuthenticityCheck check, long sequence) {
+    }
+}
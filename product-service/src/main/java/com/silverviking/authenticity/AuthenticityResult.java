@@ -0,0 +1,8 @@
+package com.silverviking.authenticity;
+
+/**
+ * The answer for one photo of a job. {@code score} is null when scoring failed, with the reason in
+ * {@code error}; {@code cached} marks answers served from {@link AuthenticityResultCache}.
+ */
+public record AuthenticityResult(String fileName, String contentHash, AuthenticityScore score, boolean cached, String error) {
+}
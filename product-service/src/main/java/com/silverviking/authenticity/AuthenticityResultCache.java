@@ -0,0 +1,52 @@
+package com.silverviking.authenticity;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.silverviking.configuration.AuthenticityProperties;
+import com.silverviking.event.ProductChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.UUID;
+
+/**
+ * Scores by photo content hash, so a re-submitted photo is answered without queueing. The key also
+ * carries the product, because the same photo scores differently against another product's references;
+ * a product's entries are dropped when its images change.
+ */
+@Component
+public class AuthenticityResultCache {
+
+    private final Cache<Key, AuthenticityScore> cache;
+
+    public AuthenticityResultCache(AuthenticityProperties properties) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getResultCacheSize())
+                .expireAfterWrite(properties.getResultTimeToLive())
+                .recordStats()
+                .build();
+    }
+
+    public AuthenticityScore get(UUID productId, String contentHash) {
+        return cache.getIfPresent(new Key(productId, contentHash));
+    }
+
+    public void put(UUID productId, String contentHash, AuthenticityScore score) {
+        cache.put(new Key(productId, contentHash), score);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.type() == ProductChangedEvent.Type.IMAGES_CHANGED || event.type() == ProductChangedEvent.Type.DELETED) {
+            cache.asMap().keySet().removeIf(key -> key.productId().equals(event.productId()));
+        }
+    }
+
+    record Key(UUID productId, String contentHash) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.silverviking.authenticity;
+
+import com.silverviking.enums.AuthenticityVerdict;
+
+/**
+ * Outcome of one {@link AuthenticityCheck}: a score in [0, 1], the verdict it leads to and, when one
+ * matched, the reference image and its distance in scorer-specific units.
+ */
+public record AuthenticityScore(double score, AuthenticityVerdict verdict, Long referenceImageId, Integer distance) {
+}
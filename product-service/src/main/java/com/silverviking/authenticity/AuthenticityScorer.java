@@ -0,0 +1,17 @@
+package com.silverviking.authenticity;
+
+import java.util.List;
+
+/**
+ * Scores seller photos against reference images. Called from the authenticity workers with a batch
+ * of checks at a time, so an implementation can share work across them (load each product's
+ * references once, run one model pass). Must return one score per check, in order, and must be
+ * deterministic for a given photo and reference set, since scores are cached by content hash.
+ * <p>
+ * {@link FingerprintAuthenticityScorer} is the default; declare a {@code @Primary} bean of this type
+ * to replace it.
+ */
+public interface AuthenticityScorer {
+
+    List<AuthenticityScore> score(List<AuthenticityCheck> checks) throws Exception;
+}
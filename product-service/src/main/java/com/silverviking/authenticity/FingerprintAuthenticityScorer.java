@@ -0,0 +1,86 @@
+package com.silverviking.authenticity;
+
+import com.silverviking.configuration.AuthenticityProperties;
+import com.silverviking.enums.AuthenticityVerdict;
+import com.silverviking.repository.ProductImageRepository;
+import com.silverviking.search.ImageFingerprintDocument;
+import com.silverviking.storage.ImageFingerprint;
+import com.silverviking.storage.ImageProcessor;
+import com.silverviking.storage.PerceptualHash;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Offline, deterministic scorer: compares the perceptual fingerprint of each photo with those of the
+ * product's processed catalog images. The score blends pHash and dHash similarity to the closest
+ * reference; the verdict is GENUINE when that reference is within
+ * {@code authenticity.genuine-max-distance} pHash bits. References are loaded once per product per batch.
+ */
+@Component
+@RequiredArgsConstructor
+public class FingerprintAuthenticityScorer implements AuthenticityScorer {
+
+    private static final double HASH_BITS = 64;
+
+    private final ImageProcessor imageProcessor;
+    private final ProductImageRepository productImageRepository;
+    private final AuthenticityProperties properties;
+    private final PlatformTransactionManager transactionManager;
+
+    @Override
+    public List<AuthenticityScore> score(List<AuthenticityCheck> checks) throws IOException {
+        Map<UUID, List<ImageFingerprintDocument>> references = new HashMap<>();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> checks.forEach(check -> references.computeIfAbsent(check.productId(),
+                productImageRepository::findFingerprintsByProductId)));
+
+        List<AuthenticityScore> scores = new ArrayList<>(checks.size());
+        for (AuthenticityCheck check : checks) {
+            scores.add(score(fingerprint(check), references.get(check.productId())));
+        }
+        return scores;
+    }
+
+    private AuthenticityScore score(ImageFingerprint photo, List<ImageFingerprintDocument> references) {
+        if (references.isEmpty()) {
+            return new AuthenticityScore(0, AuthenticityVerdict.UNVERIFIABLE, null, null);
+        }
+        ImageFingerprintDocument closest = null;
+        int closestPhash = Integer.MAX_VALUE;
+        int closestDhash = Integer.MAX_VALUE;
+        // Nearest by pHash, then dHash, then lowest image id, so equal inputs always pick the same reference
+        for (ImageFingerprintDocument reference : references) {
+            int phash = PerceptualHash.distance(photo.phash(), reference.phash());
+            int dhash = PerceptualHash.distance(photo.dhash(), reference.dhash());
+            if (phash < closestPhash || phash == closestPhash && (dhash < closestDhash
+                    || dhash == closestDhash && reference.imageId() < closest.imageId())) {
+                closest = reference;
+                closestPhash = phash;
+                closestDhash = dhash;
+            }
+        }
+        double score = 1 - (0.75 * closestPhash + 0.25 * closestDhash) / HASH_BITS;
+        AuthenticityVerdict verdict = closestPhash <= properties.getGenuineMaxDistance()
+                ? AuthenticityVerdict.GENUINE
+                : AuthenticityVerdict.SUSPECT;
+        return new AuthenticityScore(score, verdict, closest.imageId(), closestPhash);
+    }
+
+    private ImageFingerprint fingerprint(AuthenticityCheck check) throws IOException {
+        try (InputStream in = Files.newInputStream(check.photo())) {
+            return imageProcessor.fingerprint(in);
+        }
+    }
+}
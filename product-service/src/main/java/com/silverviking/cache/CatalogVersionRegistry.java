@@ -0,0 +1,160 @@
+package com.silverviking.cache;
+
+import com.silverviking.configuration.CatalogVersionProperties;
+import com.silverviking.domain.CatalogVersion;
+import com.silverviking.enums.CatalogScope;
+import com.silverviking.event.ProductChangedEvent;
+import com.silverviking.event.ReferenceDataChangedEvent;
+import com.silverviking.index.IndexReloader;
+import com.silverviking.repository.CatalogVersionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Catalog-wide version counters, one row per {@link CatalogScope}. Every write transaction bumps the
+ * affected rows once, right before it commits, so the row lock is held only for the commit itself.
+ * Reads are served from memory and reloaded after a local write or once
+ * {@code catalog-version.max-staleness} has passed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CatalogVersionRegistry {
+
+    private final CatalogVersionRepository catalogVersionRepository;
+    private final CatalogVersionProperties properties;
+    private final PlatformTransactionManager transactionManager;
+    private final IndexReloader reloader;
+
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private volatile CatalogVersions versions = CatalogVersions.INITIAL;
+    // Bumped after every local write; versions are fresh while they were loaded at the current count
+    private final AtomicLong invalidations = new AtomicLong();
+    private volatile long loadedAtInvalidation = -1;
+    private volatile long loadedAtNanos;
+
+    public CatalogVersions current() {
+        return isFresh() ? versions : reload();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        for (CatalogScope scope : CatalogScope.values()) {
+            try {
+                transaction.executeWithoutResult(status -> {
+                    if (!catalogVersionRepository.existsById(scope)) {
+                        catalogVersionRepository.save(new CatalogVersion(scope, 0, Instant.now()));
+                    }
+                });
+            } catch (DataIntegrityViolationException ex) {
+                // Another instance inserted it first
+                log.debug("Catalog version row {} already exists", scope);
+            }
+        }
+        reloadLock.lock();
+        try {
+            load();
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        pendingScopes().add(CatalogScope.CATALOG);
+    }
+
+    @EventListener
+    public void onReferenceDataChanged(ReferenceDataChangedEvent event) {
+        Set<CatalogScope> scopes = pendingScopes();
+        scopes.add(CatalogScope.CATALOG);
+        scopes.add(CatalogScope.REFERENCE_DATA);
+    }
+
+    // A lock rather than synchronized: this queries the database on request threads, and a virtual
+    // thread blocked inside synchronized would pin its carrier
+    private CatalogVersions reload() {
+        reloadLock.lock();
+        try {
+            // Threads that queued behind the one that just reloaded take its result
+            return isFresh() ? versions : load();
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private CatalogVersions load() {
+        // Read before querying, so a commit landing during the query leaves the result stale
+        long invalidation = invalidations.get();
+        Map<CatalogScope, CatalogVersion> rows = reloader.read(() -> catalogVersionRepository.findAll().stream()
+                .collect(Collectors.toMap(CatalogVersion::getScope, Function.identity())));
+        CatalogVersions loaded = new CatalogVersions(
+                toEntityVersion(rows.get(CatalogScope.CATALOG)),
+                toEntityVersion(rows.get(CatalogScope.REFERENCE_DATA)));
+        versions = loaded;
+        loadedAtNanos = System.nanoTime();
+        loadedAtInvalidation = invalidation;
+        return loaded;
+    }
+
+    private boolean isFresh() {
+        return loadedAtInvalidation == invalidations.get() && System.nanoTime() - loadedAtNanos <= properties.getMaxStaleness().toNanos();
+    }
+
+    private static EntityVersion toEntityVersion(CatalogVersion row) {
+        return row != null ? new EntityVersion(row.getVersion(), row.getUpdatedAt()) : EntityVersion.INITIAL;
+    }
+
+    private Set<CatalogScope> pendingScopes() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Writes always run in a transaction; without one there is nothing to attach the bump to
+            invalidations.incrementAndGet();
+            return EnumSet.noneOf(CatalogScope.class);
+        }
+        PendingIncrement pending = (PendingIncrement) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingIncrement();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending.scopes;
+    }
+
+    private final class PendingIncrement implements TransactionSynchronization {
+
+        private final Set<CatalogScope> scopes = EnumSet.noneOf(CatalogScope.class);
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            catalogVersionRepository.increment(scopes, Instant.now());
+        }
+
+        @Override
+        public void afterCommit() {
+            invalidations.incrementAndGet();
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(CatalogVersionRegistry.this);
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.silverviking.cache;
+
+public record CatalogVersions(EntityVersion catalog, EntityVersion referenceData) {
+
+    public static final CatalogVersions INITIAL = new CatalogVersions(EntityVersion.INITIAL, EntityVersion.INITIAL);
+}
@@ -0,0 +1,8 @@
+package com.silverviking.cache;
+
+import java.time.Instant;
+
+public record EntityVersion(long version, Instant updatedAt) {
+
+    public static final EntityVersion INITIAL = new EntityVersion(0, null);
+}
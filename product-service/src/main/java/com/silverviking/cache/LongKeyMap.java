@@ -0,0 +1,48 @@
+package com.silverviking.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Immutable map keyed by primitive longs: sorted key array plus parallel value array, looked up by
+ * binary search. No boxing on lookup and two arrays instead of one node per entry.
+ */
+public final class LongKeyMap<V> {
+
+    private final long[] keys;
+    private final Object[] values;
+
+    private LongKeyMap(long[] keys, Object[] values) {
+        this.keys = keys;
+        this.values = values;
+    }
+
+    public static <V> LongKeyMap<V> of(Collection<V> items, ToLongFunction<V> keyFunction) {
+        List<V> sorted = new ArrayList<>(items);
+        sorted.sort(Comparator.comparingLong(keyFunction));
+        long[] keys = new long[sorted.size()];
+        Object[] values = new Object[sorted.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = keyFunction.applyAsLong(sorted.get(i));
+            values[i] = sorted.get(i);
+            if (i > 0 && keys[i] == keys[i - 1]) {
+                throw new IllegalArgumentException("Duplicate key: " + keys[i]);
+            }
+        }
+        return new LongKeyMap<>(keys, values);
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int index = Arrays.binarySearch(keys, key);
+        return index >= 0 ? (V) values[index] : null;
+    }
+
+    public int size() {
+        return keys.length;
+    }
+}
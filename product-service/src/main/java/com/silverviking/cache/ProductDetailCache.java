@@ -0,0 +1,120 @@
+package com.silverviking.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.silverviking.configuration.ProductCacheProperties;
+import com.silverviking.datasource.PrimaryReads;
+import com.silverviking.dto.response.ProductImageResponse;
+import com.silverviking.dto.response.ProductResponse;
+import com.silverviking.event.ProductChangedEvent;
+import com.silverviking.event.ReferenceDataChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of fully built product detail responses. Caffeine gives W-TinyLFU admission and
+ * eviction by estimated size; entries are dropped once the writing transaction has committed so a
+ * concurrent reader cannot put the pre-commit state back. Responses embed their category, series and
+ * manufacturer, so a change to one of those drops every product that references it. Loaders read from
+ * the primary, so a miss right after an eviction cannot cache what a lagging replica still holds.
+ */
+@Component
+public class ProductDetailCache {
+
+    private final Cache<UUID, ProductResponse> cache;
+
+    public ProductDetailCache(ProductCacheProperties properties) {
+        ProductCacheProperties.Detail detail = properties.getDetail();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(detail.getMaximumWeightBytes())
+                .weigher((UUID id, ProductResponse response) -> estimateSize(response))
+                .expireAfterWrite(detail.getTimeToLive())
+                .recordStats()
+                .build();
+    }
+
+    // Concurrent misses for the same id share a single load
+    public ProductResponse get(UUID id, Function<UUID, ProductResponse> loader) {
+        return cache.get(id, key -> PrimaryReads.call(() -> loader.apply(key)));
+    }
+
+    // Misses are handed to the loader together; ids it does not return are absent from the result
+    public Map<UUID, ProductResponse> getAll(Collection<UUID> ids, Function<Set<? extends UUID>, Map<UUID, ProductResponse>> loader) {
+        return cache.getAll(ids, keys -> PrimaryReads.call(() -> loader.apply(keys)));
+    }
+
+    public ProductResponse getIfPresent(UUID id) {
+        return cache.getIfPresent(id);
+    }
+
+    public void invalidate(UUID id) {
+        cache.invalidate(id);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        cache.invalidate(event.productId());
+    }
+
+    // A scan of the whole cache, but reference data changes are rare next to product writes
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReferenceDataChanged(ReferenceDataChangedEvent event) {
+        cache.asMap().values().removeIf(response -> references(response, event));
+    }
+
+    private static boolean references(ProductResponse response, ReferenceDataChangedEvent event) {
+        return switch (event.type()) {
+            case CATEGORY -> response.getCategory() != null && event.id().equals(response.getCategory().getId());
+            case SERIES -> response.getSeries() != null && event.id().equals(response.getSeries().getId());
+            case MANUFACTURER -> response.getManufacturer() != null && event.id().equals(response.getManufacturer().getId());
+        };
+    }
+
+    static int estimateSize(ProductResponse response) {
+        long size = 256
+                + sizeOf(response.getName())
+                + sizeOf(response.getSlug())
+                + sizeOf(response.getScale())
+                + sizeOf(response.getMaterial())
+                + sizeOf(response.getDescription());
+        if (response.getCategory() != null) {
+            size += 64 + sizeOf(response.getCategory().getName()) + sizeOf(response.getCategory().getDescription());
+        }
+        if (response.getSeries() != null) {
+            size += 48 + sizeOf(response.getSeries().getName());
+        }
+        if (response.getManufacturer() != null) {
+            size += 64 + sizeOf(response.getManufacturer().getName()) + sizeOf(response.getManufacturer().getOriginCountry());
+        }
+        if (response.getImages() != null) {
+            for (ProductImageResponse image : response.getImages()) {
+                size += 80 + sizeOf(image.getImageUrl());
+                if (image.getVariants() != null) {
+                    for (String url : image.getVariants().values()) {
+                        size += 64 + sizeOf(url);
+                    }
+                }
+            }
+        }
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    private static long sizeOf(String value) {
+        return value == null ? 0 : 40 + value.length() * 2L;
+    }
+}
@@ -0,0 +1,16 @@
+package com.silverviking.cache;
+
+/**
+ * One encoded product detail response: the UTF-8 JSON bytes and, when it was worth compressing,
+ * their gzip encoding. Tagged with the ETag of the product version it was built from.
+ */
+public record ProductPayload(String etag, byte[] json, byte[] gzip) {
+
+    public boolean hasGzip() {
+        return gzip != null;
+    }
+
+    int weight() {
+        return 64 + etag.length() * 2 + json.length + (gzip != null ? gzip.length : 0);
+    }
+}
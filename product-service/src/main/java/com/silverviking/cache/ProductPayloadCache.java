@@ -0,0 +1,94 @@
+package com.silverviking.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.silverviking.configuration.ProductCacheProperties;
+import com.silverviking.event.ProductChangedEvent;
+import com.silverviking.event.ReferenceDataChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized product detail responses, so a hot product is encoded by Jackson once per version
+ * instead of once per request. An entry is only served while its ETag matches the current one. Like
+ * {@link ProductDetailCache}, product writes drop their entry after commit; reference data changes
+ * drop them all, since the encoded bytes do not say which category, series or manufacturer they embed.
+ */
+@Component
+public class ProductPayloadCache {
+
+    private final Cache<UUID, ProductPayload> cache;
+    private final ObjectMapper objectMapper;
+    private final ProductCacheProperties.Payload properties;
+
+    public ProductPayloadCache(ProductCacheProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties.getPayload();
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(this.properties.getMaximumWeightBytes())
+                .weigher((UUID id, ProductPayload payload) -> payload.weight())
+                .expireAfterWrite(this.properties.getTimeToLive())
+                .recordStats()
+                .build();
+    }
+
+    // Concurrent misses for the same product wait for a single encoding
+    public ProductPayload get(UUID id, String etag, Supplier<?> body) {
+        ProductPayload cached = cache.getIfPresent(id);
+        if (cached != null && cached.etag().equals(etag)) {
+            return cached;
+        }
+        return cache.asMap().compute(id, (key, existing) ->
+                existing != null && existing.etag().equals(etag) ? existing : encode(etag, body.get()));
+    }
+
+    public void invalidate(UUID id) {
+        cache.invalidate(id);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        cache.invalidate(event.productId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReferenceDataChanged(ReferenceDataChangedEvent event) {
+        cache.invalidateAll();
+    }
+
+    private ProductPayload encode(String etag, Object body) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize product response", ex);
+        }
+        // Small bodies do not shrink enough to pay for the gzip framing
+        byte[] gzip = properties.isGzip() && json.length >= properties.getGzipMinBytes() ? gzip(json) : null;
+        return new ProductPayload(etag, json, gzip);
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 3 + 32);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(json);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,51 @@
+package com.silverviking.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.silverviking.configuration.ProductCacheProperties;
+import com.silverviking.datasource.PrimaryReads;
+import com.silverviking.event.ProductChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Slug to product id, so a slug lookup goes straight to {@link ProductDetailCache}. Entries pointing at
+ * a product are dropped once a write to it commits, since the write may have changed or freed its slug.
+ */
+@Component
+public class ProductSlugCache {
+
+    private final Cache<String, UUID> cache;
+
+    public ProductSlugCache(ProductCacheProperties properties) {
+        ProductCacheProperties.Slug slug = properties.getSlug();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(slug.getMaximumSize())
+                .expireAfterWrite(slug.getTimeToLive())
+                .recordStats()
+                .build();
+    }
+
+    // The resolver may throw; failed lookups are not cached. It reads from the primary, like detail loads
+    public UUID get(String slug, Function<String, UUID> resolver) {
+        return cache.get(slug, key -> PrimaryReads.call(() -> resolver.apply(key)));
+    }
+
+    public void invalidate(String slug) {
+        cache.invalidate(slug);
+    }
+
+    // Keyed by slug, so the entries of one product are found by scanning; old and new slug both go
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        cache.asMap().values().removeIf(event.productId()::equals);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
@@ -0,0 +1,146 @@
+package com.silverviking.cache;
+
+import com.silverviking.dto.response.CategoryResponse;
+import com.silverviking.dto.response.ManufacturerResponse;
+import com.silverviking.dto.response.SeriesResponse;
+import com.silverviking.event.ReferenceDataChangedEvent;
+import com.silverviking.exception.BadRequestException;
+import com.silverviking.exception.EntityNotFoundException;
+import com.silverviking.index.IndexReloader;
+import com.silverviking.repository.CategoryRepository;
+import com.silverviking.repository.ManufacturerRepository;
+import com.silverviking.repository.SeriesRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Holds the current {@link ReferenceDataSnapshot}. The snapshot is rebuilt after every committed
+ * category, series or manufacturer write on this instance, periodically to pick up writes made by
+ * other instances, and at most once per second when a lookup misses.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReferenceDataRegistry {
+
+    private static final long MISS_REFRESH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final CategoryRepository categoryRepository;
+    private final SeriesRepository seriesRepository;
+    private final ManufacturerRepository manufacturerRepository;
+    private final IndexReloader reloader;
+
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private volatile ReferenceDataSnapshot snapshot;
+    private volatile long lastRefreshNanos;
+
+    public ReferenceDataSnapshot snapshot() {
+        long seenRefreshNanos = lastRefreshNanos;
+        ReferenceDataSnapshot current = snapshot;
+        return current != null ? current : refreshUnlessRefreshedSince(seenRefreshNanos);
+    }
+
+    public CategoryResponse requireCategory(Long id) {
+        return require(id, ReferenceDataSnapshot::categories, "Category");
+    }
+
+    public SeriesResponse requireSeries(Long id) {
+        return require(id, ReferenceDataSnapshot::series, "Series");
+    }
+
+    public ManufacturerResponse requireManufacturer(Long id) {
+        return require(id, ReferenceDataSnapshot::manufacturers, "Manufacturer");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${reference-data.refresh-interval:PT5M}",
+            initialDelayString = "${reference-data.refresh-interval:PT5M}")
+    public void scheduledRefresh() {
+        refresh();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReferenceDataChanged(ReferenceDataChangedEvent event) {
+        refresh();
+    }
+
+    // A lock rather than synchronized: lookups that miss refresh on request threads, and a virtual
+    // thread blocked inside synchronized would pin its carrier
+    public ReferenceDataSnapshot refresh() {
+        refreshLock.lock();
+        try {
+            return load();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    // For reads rather than writes: threads that queued behind the one that just refreshed take its result
+    private ReferenceDataSnapshot refreshUnlessRefreshedSince(long seenRefreshNanos) {
+        refreshLock.lock();
+        try {
+            ReferenceDataSnapshot current = snapshot;
+            return current != null && lastRefreshNanos != seenRefreshNanos ? current : load();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private ReferenceDataSnapshot load() {
+        ReferenceDataSnapshot refreshed = reloader.read(() -> new ReferenceDataSnapshot(
+                LongKeyMap.of(categoryRepository.findAll().stream()
+                        .map(category -> CategoryResponse.builder()
+                                .id(category.getId())
+                                .name(category.getName())
+                                .description(category.getDescription())
+                                .build())
+                        .toList(), CategoryResponse::getId),
+                LongKeyMap.of(seriesRepository.findAll().stream()
+                        .map(series -> SeriesResponse.builder()
+                                .id(series.getId())
+                                .name(series.getName())
+                                .build())
+                        .toList(), SeriesResponse::getId),
+                LongKeyMap.of(manufacturerRepository.findAll().stream()
+                        .map(manufacturer -> ManufacturerResponse.builder()
+                                .id(manufacturer.getId())
+                                .name(manufacturer.getName())
+                                .originCountry(manufacturer.getOriginCountry())
+                                .build())
+                        .toList(), ManufacturerResponse::getId)));
+        snapshot = refreshed;
+        lastRefreshNanos = System.nanoTime();
+        log.debug("Reference data refreshed: {} categories, {} series, {} manufacturers",
+                refreshed.categories().size(), refreshed.series().size(), refreshed.manufacturers().size());
+        return refreshed;
+    }
+
+    private <T> T require(Long id, Function<ReferenceDataSnapshot, LongKeyMap<T>> table, String label) {
+        if (id == null) {
+            throw new BadRequestException(label + " id is required");
+        }
+        long seenRefreshNanos = lastRefreshNanos;
+        T value = table.apply(snapshot()).get(id);
+        if (value == null && System.nanoTime() - seenRefreshNanos > MISS_REFRESH_INTERVAL_NANOS) {
+            // Another instance may have written it since our last refresh
+            value = table.apply(refreshUnlessRefreshedSince(seenRefreshNanos)).get(id);
+        }
+        if (value == null) {
+            throw new EntityNotFoundException(label + " not found with id: " + id);
+        }
+        return value;
+    }
+}
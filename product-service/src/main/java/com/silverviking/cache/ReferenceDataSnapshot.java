@@ -0,0 +1,14 @@
+package com.silverviking.cache;
+
+import com.silverviking.dto.response.CategoryResponse;
+import com.silverviking.dto.response.ManufacturerResponse;
+import com.silverviking.dto.response.SeriesResponse;
+
+/**
+ * Point-in-time copy of the category, series and manufacturer tables. Never mutated; a refresh
+ * builds a new snapshot and swaps the reference.
+ */
+public record ReferenceDataSnapshot(LongKeyMap<CategoryResponse> categories,
+                                    LongKeyMap<SeriesResponse> series,
+                                    LongKeyMap<ManufacturerResponse> manufacturers) {
+}
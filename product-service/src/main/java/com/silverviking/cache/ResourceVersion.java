@@ -0,0 +1,34 @@
+package com.silverviking.cache;
+
+import java.time.Instant;
+
+/**
+ * Validators for a conditional GET. The ETag is strong: it changes whenever any byte of the
+ * representation can change.
+ */
+public record ResourceVersion(String etag, Instant lastModified) {
+
+    // Lists, category and other catalog-wide responses change with any catalog write
+    public static ResourceVersion ofCatalog(CatalogVersions versions) {
+        return new ResourceVersion("c" + versions.catalog().version(), versions.catalog().updatedAt());
+    }
+
+    // A product response embeds reference data names, so its tag covers both
+    public static ResourceVersion ofProduct(EntityVersion product, CatalogVersions versions) {
+        EntityVersion referenceData = versions.referenceData();
+        Instant lastModified = product.updatedAt();
+        if (lastModified == null || (referenceData.updatedAt() != null && referenceData.updatedAt().isAfter(lastModified))) {
+            lastModified = referenceData.updatedAt();
+        }
+        return new ResourceVersion("p" + product.version() + "." + referenceData.version(), lastModified);
+    }
+
+    // The gzip body of a version is a different representation, so it needs a strong tag of its own
+    public ResourceVersion gzipVariant() {
+        return new ResourceVersion(etag + "-gzip", lastModified);
+    }
+
+    public long lastModifiedMillis() {
+        return lastModified != null ? lastModified.toEpochMilli() : -1;
+    }
+}
@@ -0,0 +1,25 @@
+package com.silverviking.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "authenticity")
+public class AuthenticityProperties {
+    private int workers = Runtime.getRuntime().availableProcessors();
+    // Photos waiting to be scored; submissions beyond this are turned away with 503
+    private int queueCapacity = 256;
+    // Photos a worker hands to the scorer in one call, taken from whatever is already queued
+    private int batchSize = 8;
+    private Duration retryAfter = Duration.ofSeconds(5);
+    private int maxPhotosPerJob = 20;
+    // Finished and running jobs are kept this long for polling
+    private Duration jobRetention = Duration.ofHours(1);
+    private long maxJobs = 10_000;
+    private long resultCacheSize = 100_000;
+    private Duration resultTimeToLive = Duration.ofDays(1);
+    // Largest pHash distance to the closest reference that the default scorer still calls genuine
+    private int genuineMaxDistance = 10;
+}
@@ -0,0 +1,21 @@
+package com.silverviking.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "catalog-generator")
+public class CatalogGeneratorProperties {
+    // Fills the database with a synthetic catalog on startup; skipped when one is already there
+    private boolean enabled = false;
+    private long seed = 42;
+    private int categories = 20;
+    private int series = 200;
+    private int manufacturers = 40;
+    private int products = 100_000;
+    private int imagesPerProduct = 4;
+    // Zipf exponent of how products spread over categories, series and manufacturers; 0 is uniform
+    private double skew = 1.1;
+    // Rows per transaction, sent as one JDBC batch
+    private int batchSize = 1000;
+}
@@ -0,0 +1,13 @@
+package com.silverviking.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "catalog-version")
+public class CatalogVersionProperties {
+    // How long a validator may lag behind writes made by other instances
+    private Duration maxStaleness = Duration.ofSeconds(1);
+}
@@ -0,0 +1,74 @@
+package com.silverviking.configuration;
+
+import com.silverviking.datasource.ReadYourWrites;
+import com.silverviking.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Sends read-only transactions to replicas and everything else to the primary. The application's
+ * DataSource fetches its physical connection lazily, once the transaction has marked it read-only
+ * or not, and then takes it from the primary pool or from {@link ReplicaRoutingDataSource}.
+ * The primary pool is still configured through {@code spring.datasource}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "datasource-routing", name = "enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+        return primary;
+    }
+
+    @Bean
+    public ReadYourWrites readYourWrites(DataSourceRoutingProperties properties) {
+        return new ReadYourWrites(properties.getReadYourWritesWindow());
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource, DataSourceRoutingProperties properties,
+                                                             ReadYourWrites readYourWrites, ObjectProvider<MeterRegistry> meterRegistry) {
+        List<HikariDataSource> replicas = properties.getReplicas().stream()
+                .map(replica -> replicaPool(replica, properties.getReplicas().indexOf(replica)))
+                .toList();
+        // Not beans, so Boot does not bind their pool metrics itself
+        meterRegistry.ifAvailable(registry -> replicas.forEach(pool -> pool.setMetricRegistry(registry)));
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, properties, readYourWrites);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+        return dataSource;
+    }
+
+    // A replica that is down at startup must not stop the service; it stays out of rotation until it answers
+    private static HikariDataSource replicaPool(DataSourceRoutingProperties.Replica replica, int index) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(replica.getName() != null ? replica.getName() : "replica-" + (index + 1));
+        pool.setJdbcUrl(replica.getUrl());
+        pool.setUsername(replica.getUsername());
+        pool.setPassword(replica.getPassword());
+        pool.setMaximumPoolSize(replica.getMaximumPoolSize());
+        pool.setConnectionTimeout(replica.getConnectionTimeout().toMillis());
+        pool.setReadOnly(true);
+        pool.setInitializationFailTimeout(-1);
+        return pool;
+    }
+}
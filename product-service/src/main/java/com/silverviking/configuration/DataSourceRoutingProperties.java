@@ -0,0 +1,34 @@
+package com.silverviking.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "datasource-routing")
+public class DataSourceRoutingProperties {
+    // Off: everything uses spring.datasource as before
+    private boolean enabled = false;
+    private List<Replica> replicas = new ArrayList<>();
+    // Replicas further behind than this, or failing their check, get no reads until they catch up
+    private Duration maxLag = Duration.ofSeconds(5);
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+    // Must return one row with the lag in seconds in lagColumn; no row or null means replication is stopped
+    private String lagQuery = "SHOW REPLICA STATUS";
+    private String lagColumn = "Seconds_Behind_Source";
+    // After a client's write commits, its reads go to the primary for this long; zero disables it
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    @Data
+    public static class Replica {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+        private Duration connectionTimeout = Duration.ofSeconds(2);
+    }
+}
@@ -0,0 +1,44 @@
+package com.silverviking.configuration;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves the product_images id generator past ids already handed out by the former AUTO_INCREMENT
+ * column. Runs during context refresh, after Hibernate has updated the schema and before the web
+ * server accepts requests. Relies on the pooled-lo optimizer, where the stored value is the next
+ * block's lowest id.
+ */
+@Slf4j
+@Component
+public class IdGeneratorAligner implements InitializingBean {
+
+    private static final String GENERATOR_TABLE = "id_generators";
+    private static final String PRODUCT_IMAGES = "product_images";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // The EntityManagerFactory dependency only orders this bean after schema generation
+    public IdGeneratorAligner(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        long nextId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) + 1 from " + PRODUCT_IMAGES, Long.class);
+        int updated = jdbcTemplate.update("update " + GENERATOR_TABLE + " set next_val = ? where sequence_name = ? and next_val < ?",
+                nextId, PRODUCT_IMAGES, nextId);
+        Integer rows = jdbcTemplate.queryForObject("select count(*) from " + GENERATOR_TABLE + " where sequence_name = ?",
+                Integer.class, PRODUCT_IMAGES);
+        if (rows == null || rows == 0) {
+            jdbcTemplate.update("insert into " + GENERATOR_TABLE + " (sequence_name, next_val) values (?, ?)", PRODUCT_IMAGES, nextId);
+            updated = 1;
+        }
+        if (updated > 0) {
+            log.info("Aligned {} id generator to {}", PRODUCT_IMAGES, nextId);
+        }
+    }
+}
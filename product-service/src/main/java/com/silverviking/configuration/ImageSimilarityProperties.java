@@ -0,0 +1,12 @@
+package com.silverviking.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "image-similarity")
+public class ImageSimilarityProperties {
+    // Out of 64 pHash bits; resized or recompressed copies of one photo usually stay below 10
+    private int defaultMaxDistance = 16;
+    private int maxResults = 50;
+}
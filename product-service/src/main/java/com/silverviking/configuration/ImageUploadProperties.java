@@ -0,0 +1,22 @@
+package com.silverviking.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "image-upload")
+public class ImageUploadProperties {
+    // Originals and variants live below this directory, named by the SHA-256 of the original
+    private Path storageRoot = Path.of("data/media");
+    private String publicPath = "/media";
+    private int workers = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    // Uploads beyond workers + queueCapacity pending images are turned away with 503
+    private int queueCapacity = 64;
+    private Duration retryAfter = Duration.ofSeconds(5);
+    // Refuses to decode anything larger, so a tiny file claiming huge dimensions cannot exhaust the heap
+    private long maxPixels = 64_000_000;
+    private float jpegQuality = 0.85f;
+}
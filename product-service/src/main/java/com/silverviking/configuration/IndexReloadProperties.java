@@ -0,0 +1,15 @@
+package com.silverviking.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "index-reload")
+public class IndexReloadProperties {
+    // Full rebuild of the in-memory indexes, to pick up writes made by other instances
+    private Duration rebuildInterval = Duration.ofMinutes(15);
+    // Products reloaded per query after a commit
+    private int chunkSize = 500;
+}
@@ -0,0 +1,13 @@
+package com.silverviking.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "instrumentation")
+public class InstrumentationProperties {
+    // Fraction of *ServiceImpl calls timed, 0 to 1; controller endpoints are always timed by Spring
+    private double serviceSampleRate = 0.05;
+    // Fraction of requests whose SQL statements and fetched rows are counted
+    private double sqlSampleRate = 0.05;
+}
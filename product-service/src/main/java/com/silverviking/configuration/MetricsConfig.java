@@ -0,0 +1,23 @@
+package com.silverviking.configuration;
+
+import com.silverviking.monitoring.SqlActivity;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class MetricsConfig {
+
+    // Wraps the DataSource that JPA and JdbcTemplate use, not the pools behind it, so each statement is counted once
+    @Bean
+    static BeanPostProcessor sqlActivityDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return "dataSource".equals(beanName) && bean instanceof DataSource dataSource ? SqlActivity.counting(dataSource) : bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,13 @@
+package com.silverviking.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "price-aggregates")
+public class PriceAggregateProperties {
+    // Quantiles are reported within this fraction of the true value
+    private double relativeAccuracy = 0.01;
+    // A group with fewer priced products is skipped in favour of the next, broader one
+    private int minSamples = 3;
+}
@@ -0,0 +1,37 @@
+package com.silverviking.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "product-cache")
+public class ProductCacheProperties {
+
+    private Detail detail = new Detail();
+    private Slug slug = new Slug();
+    private Payload payload = new Payload();
+
+    @Data
+    public static class Detail {
+        // Upper bound of the estimated heap footprint of all cached ProductResponse graphs
+        private long maximumWeightBytes = 64L * 1024 * 1024;
+        private Duration timeToLive = Duration.ofMinutes(10);
+    }
+
+    @Data
+    public static class Slug {
+        private long maximumSize = 100_000;
+        private Duration timeToLive = Duration.ofHours(1);
+    }
+
+    @Data
+    public static class Payload {
+        // Upper bound of the encoded JSON and gzip bytes held for product detail responses
+        private long maximumWeightBytes = 32L * 1024 * 1024;
+        private Duration timeToLive = Duration.ofMinutes(10);
+        private boolean gzip = true;
+        private int gzipMinBytes = 1024;
+    }
+}
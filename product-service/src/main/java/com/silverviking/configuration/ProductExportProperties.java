@@ -0,0 +1,12 @@
+package com.silverviking.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "product-export")
+public class ProductExportProperties {
+    // Products per keyset query; the images of a chunk are loaded with one more query
+    private int chunkSize = 1000;
+    private int outputBufferBytes = 64 * 1024;
+}
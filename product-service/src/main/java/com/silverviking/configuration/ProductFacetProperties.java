@@ -0,0 +1,18 @@
+package com.silverviking.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "product-facets")
+public class ProductFacetProperties {
+    // Ascending upper bounds of the price bands; prices at or above the last bound fall in an open band
+    private List<BigDecimal> priceBands = List.of(
+            BigDecimal.valueOf(500_000),
+            BigDecimal.valueOf(1_000_000),
+            BigDecimal.valueOf(2_000_000),
+            BigDecimal.valueOf(5_000_000));
+}
@@ -0,0 +1,14 @@
+package com.silverviking.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "product-import")
+public class ProductImportProperties {
+    // Rows written per transaction; each transaction flushes as JDBC batches of hibernate.jdbc.batch_size
+    private int batchSize = 500;
+    private int maxBatchSize = 5000;
+    // Failed rows beyond this are counted but not listed, so a bad file cannot blow up the response
+    private int maxReportedErrors = 1000;
+}
@@ -0,0 +1,55 @@
+package com.silverviking.configuration;
+
+import com.silverviking.exception.ServiceBusyException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the requests in progress at {@code request-execution.max-concurrent-requests}. On platform
+ * threads the Tomcat pool already does this; on virtual threads nothing else does, and thousands of
+ * requests would queue inside Hikari until its connection timeout. A request that cannot get a slot
+ * within {@code queue-timeout} is answered with 503 and Retry-After instead.
+ */
+@Component
+public class RequestConcurrencyLimiter implements HandlerInterceptor {
+
+    private static final String PERMIT = RequestConcurrencyLimiter.class.getName() + ".permit";
+
+    private final RequestExecutionProperties properties;
+    private final Semaphore permits;
+
+    public RequestConcurrencyLimiter(RequestExecutionProperties properties) {
+        this.properties = properties;
+        this.permits = new Semaphore(properties.getMaxConcurrentRequests());
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws InterruptedException {
+        // An async dispatch of the same request keeps the permit taken by the first dispatch
+        if (request.getAttribute(PERMIT) != null) {
+            return true;
+        }
+        if (!permits.tryAcquire(properties.getQueueTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+            throw new ServiceBusyException("Too many requests in progress, retry later", properties.getRetryAfter());
+        }
+        request.setAttribute(PERMIT, Boolean.TRUE);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(PERMIT) != null) {
+            request.removeAttribute(PERMIT);
+            permits.release();
+        }
+    }
+
+    public int inProgress() {
+        return properties.getMaxConcurrentRequests() - permits.availablePermits();
+    }
+}
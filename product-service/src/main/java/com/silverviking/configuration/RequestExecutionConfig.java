@@ -0,0 +1,18 @@
+package com.silverviking.configuration;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class RequestExecutionConfig implements WebMvcConfigurer {
+
+    private final RequestConcurrencyLimiter requestConcurrencyLimiter;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(requestConcurrencyLimiter);
+    }
+}
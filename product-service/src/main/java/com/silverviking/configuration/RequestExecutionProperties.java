@@ -0,0 +1,18 @@
+package com.silverviking.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "request-execution")
+public class RequestExecutionProperties {
+    // Requests handled at once; on virtual threads this, not the Tomcat pool, bounds the waiters on the connection pool
+    private int maxConcurrentRequests = 200;
+    // How long a request waits for a slot before it is answered with 503
+    private Duration queueTimeout = Duration.ofSeconds(2);
+    private Duration retryAfter = Duration.ofSeconds(1);
+    // Virtual threads pinned to their carrier for longer than this are logged
+    private Duration pinnedThreshold = Duration.ofMillis(20);
+}
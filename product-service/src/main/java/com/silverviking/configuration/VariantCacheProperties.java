@@ -0,0 +1,19 @@
+package com.silverviking.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "variant-cache")
+public class VariantCacheProperties {
+    // Total size of the resized files kept below <storage-root>/cache; least recently used go first
+    private DataSize maxSize = DataSize.ofGigabytes(1);
+    // Evicted files are deleted only after this, so responses already handed to sendfile can finish
+    private Duration evictionGracePeriod = Duration.ofMinutes(1);
+    // Requested widths are rounded up to a multiple of this, so arbitrary widths cannot fill the cache
+    private int widthStep = 40;
+    private int maxWidth = 2400;
+}
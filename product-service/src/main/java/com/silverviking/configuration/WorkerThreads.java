@@ -0,0 +1,42 @@
+package com.silverviking.configuration;
+
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Threads for the background worker pools. With {@code spring.threads.virtual.enabled} on Java 21+
+ * (the same switch that moves Tomcat, {@code @Async} and scheduling onto virtual threads) the workers
+ * are virtual threads too; otherwise they are daemon platform threads. Either way the pools keep their
+ * configured size, so a virtual worker pool is no more concurrent than a platform one.
+ */
+@Component
+public class WorkerThreads {
+
+    private final boolean virtual;
+
+    public WorkerThreads(Environment environment) {
+        this.virtual = Threading.VIRTUAL.isActive(environment);
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    public ThreadFactory factory(String prefix) {
+        return virtual ? new VirtualThreadTaskExecutor(prefix).getVirtualThreadFactory() : platform(prefix);
+    }
+
+    public static ThreadFactory platform(String prefix) {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,48 @@
+package com.silverviking.controller;
+
+import com.silverviking.dto.ApiResponse;
+import com.silverviking.dto.response.AuthenticityJobResponse;
+import com.silverviking.enums.JobStatus;
+import com.silverviking.service.AuthenticityJobService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/authenticity/jobs")
+@RequiredArgsConstructor
+public class AuthenticityController {
+
+    private final AuthenticityJobService authenticityJobService;
+
+    // Answers 202 with the job; poll its Location until the status is COMPLETED, then fetch the result
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiResponse<AuthenticityJobResponse>> submitJob(@RequestParam UUID productId,
+                                                                          @RequestParam("files") List<MultipartFile> files,
+                                                                          @RequestParam(defaultValue = "NORMAL") String priority) {
+        AuthenticityJobResponse job = authenticityJobService.submit(productId, files, priority);
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}").buildAndExpand(job.getId()).toUri())
+                .body(ApiResponse.success(job, "Authenticity job accepted"));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<AuthenticityJobResponse>> getJob(@PathVariable UUID id) {
+        return ResponseEntity.ok(ApiResponse.success(authenticityJobService.getJob(id), "Job retrieved successfully"));
+    }
+
+    // 202 while the job is still running, 200 with every photo's result once it has completed
+    @GetMapping("/{id}/result")
+    public ResponseEntity<ApiResponse<AuthenticityJobResponse>> getResult(@PathVariable UUID id) {
+        AuthenticityJobResponse job = authenticityJobService.getResult(id);
+        HttpStatus status = JobStatus.COMPLETED.name().equals(job.getStatus()) ? HttpStatus.OK : HttpStatus.ACCEPTED;
+        return ResponseEntity.status(status).body(ApiResponse.success(job, "Job result retrieved"));
+    }
+}
@@ -1,14 +1,18 @@
 package com.silverviking.controller;
 
+import com.silverviking.cache.CatalogVersionRegistry;
+import com.silverviking.cache.ResourceVersion;
 import com.silverviking.dto.ApiResponse;
 import com.silverviking.dto.request.CategoryRequest;
 import com.silverviking.dto.response.CategoryResponse;
 import com.silverviking.service.CategoryService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -18,15 +22,22 @@ import java.util.List;
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final CatalogVersionRegistry catalogVersions;
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<CategoryResponse>>> getAllCategories() {
-        return ResponseEntity.ok(ApiResponse.success(categoryService.getAllCategories(), "Categories retrieved successfully"));
+    public ResponseEntity<ApiResponse<List<CategoryResponse>>> getAllCategories(WebRequest webRequest) {
+        if (notModified(webRequest)) {
+            return null;
+        }
+        return revalidated(ApiResponse.success(categoryService.getAllCategories(), "Categories retrieved successfully"));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<CategoryResponse>> getCategoryById(@PathVariable Long id) {
-        return ResponseEntity.ok(ApiResponse.success(categoryService.getCategoryById(id), "Category found"));
+    public ResponseEntity<ApiResponse<CategoryResponse>> getCategoryById(@PathVariable Long id, WebRequest webRequest) {
+        if (notModified(webRequest)) {
+            return null;
+        }
+        return revalidated(ApiResponse.success(categoryService.getCategoryById(id), "Category found"));
     }
 
     @PostMapping
@@ -44,4 +55,14 @@ public class CategoryController {
         categoryService.deleteCategory(id);
         return ResponseEntity.ok(ApiResponse.success(null, "Category deleted successfully"));
     }
+
+    // Category data changes bump the catalog version, so it validates these responses too
+    private boolean notModified(WebRequest webRequest) {
+        ResourceVersion version = ResourceVersion.ofCatalog(catalogVersions.current());
+        return webRequest.checkNotModified(version.etag(), version.lastModifiedMillis());
+    }
+
+    private static <T> ResponseEntity<T> revalidated(T body) {
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(body);
+    }
 }
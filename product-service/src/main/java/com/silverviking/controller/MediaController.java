@@ -0,0 +1,93 @@
+package com.silverviking.controller;
+
+import com.silverviking.enums.ImageVariant;
+import com.silverviking.exception.EntityNotFoundException;
+import com.silverviking.service.ImageResizeService;
+import com.silverviking.storage.ContentAddressedStorage;
+import com.silverviking.storage.ImageFileSender;
+import com.silverviking.storage.ImageFormat;
+import com.silverviking.storage.ResizedImage;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+// Serves the files written by ContentAddressedStorage at the URLs it hands out
+@RestController
+@RequiredArgsConstructor
+public class MediaController {
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+
+    private final ContentAddressedStorage storage;
+    private final ImageFileSender imageFileSender;
+    private final ImageResizeService imageResizeService;
+
+    @GetMapping("${image-upload.public-path:/media}/originals/{shard}/{fileName}")
+    public void getOriginal(@PathVariable String shard, @PathVariable String fileName,
+                            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        int dot = fileName.lastIndexOf('.');
+        String hash = dot > 0 ? fileName.substring(0, dot) : fileName;
+        String extension = fileName.substring(dot + 1);
+        ImageFormat format = Arrays.stream(ImageFormat.values())
+                .filter(candidate -> candidate.getExtension().equals(extension))
+                .findFirst()
+                .orElseThrow(() -> notFound(fileName));
+        checkHash(shard, hash);
+        send(request, response, storage.originalPath(hash, format), "\"" + hash + "\"", format.getContentType());
+    }
+
+    @GetMapping("${image-upload.public-path:/media}/variants/{shard}/{hash}/{fileName}")
+    public void getVariant(@PathVariable String shard, @PathVariable String hash, @PathVariable String fileName,
+                           HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ImageVariant variant = Arrays.stream(ImageVariant.values())
+                .filter(candidate -> candidate.fileName().equals(fileName))
+                .findFirst()
+                .orElseThrow(() -> notFound(fileName));
+        checkHash(shard, hash);
+        send(request, response, storage.variantPath(hash, variant), "\"" + hash + "-" + variant.name().toLowerCase(Locale.ROOT) + "\"",
+                ImageFormat.JPEG.getContentType());
+    }
+
+    // Resized on first request and cached on disk; w is rounded up to the configured width step
+    @GetMapping("${image-upload.public-path:/media}/resized/{shard}/{hash}")
+    public void getResized(@PathVariable String shard, @PathVariable String hash, @RequestParam("w") int width,
+                           @RequestParam(value = "fmt", required = false) String format,
+                           HttpServletRequest request, HttpServletResponse response) throws IOException {
+        checkHash(shard, hash);
+        try (ResizedImage resized = imageResizeService.getResized(hash, width, format)) {
+            imageFileSender.send(request, response, resized.channel(), resized.path(), resized.etag(),
+                    resized.format().getContentType());
+        }
+    }
+
+    private void send(HttpServletRequest request, HttpServletResponse response, Path file, String etag,
+                      String contentType) throws IOException {
+        try {
+            imageFileSender.send(request, response, file, etag, contentType);
+        } catch (NoSuchFileException ex) {
+            throw new EntityNotFoundException("Image not found");
+        }
+    }
+
+    // Only names the storage itself produces, so a path can never leave the storage root
+    private static void checkHash(String shard, String hash) {
+        if (!HASH.matcher(hash).matches() || !hash.substring(0, 2).equals(shard)) {
+            throw notFound(hash);
+        }
+    }
+
+    private static EntityNotFoundException notFound(String name) {
+        return new EntityNotFoundException("Image not found: " + name);
+    }
+}
@@ -1,17 +1,50 @@
 package com.silverviking.controller;
 
+import com.silverviking.cache.CatalogVersionRegistry;
+import com.silverviking.cache.ProductPayload;
+import com.silverviking.cache.ProductPayloadCache;
+import com.silverviking.cache.ResourceVersion;
+import com.silverviking.configuration.ProductExportProperties;
 import com.silverviking.dto.ApiResponse;
+import com.silverviking.dto.request.ProductExportFilter;
+import com.silverviking.dto.request.ProductFilterRequest;
+import com.silverviking.dto.request.ProductPageRequest;
 import com.silverviking.dto.request.ProductRequest;
+import com.silverviking.dto.request.ProductSearchRequest;
+import com.silverviking.dto.response.CursorPageResponse;
+import com.silverviking.dto.response.PriceSuggestionResponse;
+import com.silverviking.dto.response.ProductFilterResponse;
+import com.silverviking.dto.response.ProductImportResult;
 import com.silverviking.dto.response.ProductResponse;
+import com.silverviking.dto.response.ProductSearchResponse;
+import com.silverviking.enums.ProductView;
+import com.silverviking.mapper.ProductFieldSelector;
+import com.silverviking.service.PriceSuggestionService;
+import com.silverviking.service.ProductExportService;
+import com.silverviking.service.ProductFacetService;
+import com.silverviking.service.ProductImportService;
+import com.silverviking.service.ProductSearchService;
 import com.silverviking.service.ProductService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.List;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/products")
@@ -19,15 +52,106 @@ import java.util.UUID;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductExportService productExportService;
+    private final ProductImportService productImportService;
+    private final ProductSearchService productSearchService;
+    private final ProductFacetService productFacetService;
+    private final ProductExportProperties exportProperties;
+    private final CatalogVersionRegistry catalogVersions;
+    private final ProductFieldSelector fieldSelector;
+    private final ProductPayloadCache payloadCache;
+    private final PriceSuggestionService priceSuggestionService;
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<ProductResponse>>> getAllProducts() {
-        return ResponseEntity.ok(ApiResponse.success(productService.getAllProducts(), "Products retrieved successfully"));
+    public ResponseEntity<ApiResponse<CursorPageResponse<?>>> getAllProducts(@Valid ProductPageRequest pageRequest, WebRequest webRequest) {
+        if (notModified(webRequest, catalogVersion())) {
+            return null;
+        }
+        CursorPageResponse<?> page = pageRequest.getView() == ProductView.SUMMARY
+                ? productService.getAllProductSummaries(pageRequest)
+                : productService.getAllProducts(pageRequest);
+        return revalidated(ApiResponse.success(page, "Products retrieved successfully"));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<ProductSearchResponse>> searchProducts(@Valid ProductSearchRequest request, WebRequest webRequest) {
+        if (notModified(webRequest, catalogVersion())) {
+            return null;
+        }
+        return revalidated(ApiResponse.success(productSearchService.search(request), "Search completed"));
+    }
+
+    @GetMapping("/filter")
+    public ResponseEntity<ApiResponse<ProductFilterResponse>> filterProducts(@Valid ProductFilterRequest request, WebRequest webRequest) {
+        if (notModified(webRequest, catalogVersion())) {
+            return null;
+        }
+        return revalidated(ApiResponse.success(productFacetService.filter(request), "Products filtered successfully"));
+    }
+
+    @GetMapping("/export")
+    public void exportProducts(ProductExportFilter filter, HttpServletResponse response) throws IOException {
+        productExportService.validateFilter(filter);
+
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"products.ndjson\"");
+        OutputStream out = new BufferedOutputStream(response.getOutputStream(), exportProperties.getOutputBufferBytes());
+        if (filter.isGzip()) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            out = new GZIPOutputStream(out, exportProperties.getOutputBufferBytes());
+        }
+        try (OutputStream body = out) {
+            productExportService.exportProducts(filter, body);
+        }
+    }
+
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public ResponseEntity<ApiResponse<ProductImportResult>> importProducts(HttpServletRequest request,
+                                                                           @RequestParam(required = false) Integer batchSize) throws IOException {
+        // Read the raw body so rows are parsed and written while the upload is still arriving
+        ProductImportResult result = productImportService.importProducts(request.getInputStream(),
+                MediaType.parseMediaType(request.getContentType()), batchSize);
+        return ResponseEntity.ok(ApiResponse.success(result, "Import finished"));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<ProductResponse>> getProductById(@PathVariable UUID id) {
-        return ResponseEntity.ok(ApiResponse.success(productService.getProductById(id), "Product found"));
+    public ResponseEntity<?> getProductById(@PathVariable UUID id, @RequestParam(required = false) String fields,
+                                            WebRequest webRequest) {
+        // Answered from version metadata alone; the product graph is only loaded for a 200
+        ResourceVersion version = productService.getProductVersion(id);
+        if (fields == null ? encodedNotModified(webRequest, version) : notModified(webRequest, version)) {
+            return null;
+        }
+        if (fields == null) {
+            return encoded(webRequest, version, payloadCache.get(id, version.etag(),
+                    () -> ApiResponse.success(productService.getProductById(id), "Product found")));
+        }
+        return revalidated(ApiResponse.success(fieldSelector.select(productService.getProductById(id), fields), "Product found"));
+    }
+
+    @GetMapping("/slug/{slug}")
+    public ResponseEntity<?> getProductBySlug(@PathVariable String slug, @RequestParam(required = false) String fields,
+                                              WebRequest webRequest) {
+        ResourceVersion version = productService.getProductVersionBySlug(slug);
+        if (fields == null ? encodedNotModified(webRequest, version) : notModified(webRequest, version)) {
+            return null;
+        }
+        ProductResponse product = productService.getProductBySlug(slug);
+        if (fields == null) {
+            return encoded(webRequest, version, payloadCache.get(product.getId(), version.etag(),
+                    () -> ApiResponse.success(product, "Product found")));
+        }
+        return revalidated(ApiResponse.success(fieldSelector.select(product, fields), "Product found"));
+    }
+
+    // Depends on every product of the product's groups, so it is versioned with the whole catalog
+    @GetMapping("/{id}/suggested-price")
+    public ResponseEntity<ApiResponse<PriceSuggestionResponse>> getSuggestedPrice(@PathVariable UUID id, WebRequest webRequest) {
+        if (notModified(webRequest, catalogVersion())) {
+            return null;
+        }
+        return revalidated(ApiResponse.success(priceSuggestionService.getSuggestedPrice(id), "Price suggestion computed"));
     }
 
     @PostMapping
@@ -47,12 +171,79 @@ public class ProductController {
     }
     
     @GetMapping("/category/{categoryId}")
-    public ResponseEntity<ApiResponse<List<ProductResponse>>> getProductsByCategoryId(@PathVariable Long categoryId) {
-        return ResponseEntity.ok(ApiResponse.success(productService.getProductsByCategoryId(categoryId), "Products retrieved successfully"));
+    public ResponseEntity<ApiResponse<CursorPageResponse<?>>> getProductsByCategoryId(@PathVariable Long categoryId, @Valid ProductPageRequest pageRequest,
+                                                                                    WebRequest webRequest) {
+        if (notModified(webRequest, catalogVersion())) {
+            return null;
+        }
+        CursorPageResponse<?> page = pageRequest.getView() == ProductView.SUMMARY
+                ? productService.getProductSummariesByCategoryId(categoryId, pageRequest)
+                : productService.getProductsByCategoryId(categoryId, pageRequest);
+        return revalidated(ApiResponse.success(page, "Products retrieved successfully"));
     }
 
     @GetMapping("/series/{seriesId}")
-    public ResponseEntity<ApiResponse<List<ProductResponse>>> getProductsBySeriesId(@PathVariable Long seriesId) {
-        return ResponseEntity.ok(ApiResponse.success(productService.getProductsBySeriesId(seriesId), "Products retrieved successfully"));
+    public ResponseEntity<ApiResponse<CursorPageResponse<?>>> getProductsBySeriesId(@PathVariable Long seriesId, @Valid ProductPageRequest pageRequest,
+                                                                                  WebRequest webRequest) {
+        if (notModified(webRequest, catalogVersion())) {
+            return null;
+        }
+        CursorPageResponse<?> page = pageRequest.getView() == ProductView.SUMMARY
+                ? productService.getProductSummariesBySeriesId(seriesId, pageRequest)
+                : productService.getProductsBySeriesId(seriesId, pageRequest);
+        return revalidated(ApiResponse.success(page, "Products retrieved successfully"));
+    }
+
+    // Writes the cached bytes as they are; gzip is chosen when the client accepts it and a compressed copy exists
+    private static ResponseEntity<byte[]> encoded(WebRequest webRequest, ResourceVersion version, ProductPayload payload) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (payload.hasGzip() && acceptsGzip(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            // Replaces the identity tag the conditional check already wrote, rather than adding a second one
+            HttpServletResponse servletResponse = ((NativeWebRequest) webRequest).getNativeResponse(HttpServletResponse.class);
+            if (servletResponse != null) {
+                servletResponse.setHeader(HttpHeaders.ETAG, '"' + version.gzipVariant().etag() + '"');
+            }
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(payload.gzip());
+        }
+        return response.body(payload.json());
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private ResourceVersion catalogVersion() {
+        return ResourceVersion.ofCatalog(catalogVersions.current());
+    }
+
+    // Sets ETag and Last-Modified on the response; true means a 304 has already been prepared
+    private static boolean notModified(WebRequest webRequest, ResourceVersion version) {
+        return webRequest.checkNotModified(version.etag(), version.lastModifiedMillis());
+    }
+
+    // A client revalidates with the tag of whichever encoding it stored, and its 304 repeats that tag
+    private static boolean encodedNotModified(WebRequest webRequest, ResourceVersion version) {
+        ResourceVersion gzip = version.gzipVariant();
+        String[] ifNoneMatch = webRequest.getHeaderValues(HttpHeaders.IF_NONE_MATCH);
+        boolean storedGzip = ifNoneMatch != null
+                && Arrays.stream(ifNoneMatch).anyMatch(tags -> tags.contains('"' + gzip.etag() + '"'));
+        return notModified(webRequest, storedGzip ? gzip : version);
+    }
+
+    // Clients and caches may store the body but must revalidate it with the ETag before reuse
+    private static <T> ResponseEntity<T> revalidated(T body) {
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(body);
     }
 }
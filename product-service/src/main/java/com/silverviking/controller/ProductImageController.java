@@ -2,13 +2,18 @@ package com.silverviking.controller;
 
 import com.silverviking.dto.ApiResponse;
 import com.silverviking.dto.request.ProductImageRequest;
+import com.silverviking.dto.response.ImageSimilarityResponse;
 import com.silverviking.dto.response.ProductImageResponse;
+import com.silverviking.service.ImageSimilarityService;
 import com.silverviking.service.ProductImageService;
+import com.silverviking.service.ProductImageUploadService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
 import java.util.UUID;
@@ -19,12 +24,33 @@ import java.util.UUID;
 public class ProductImageController {
 
     private final ProductImageService productImageService;
+    private final ProductImageUploadService productImageUploadService;
+    private final ImageSimilarityService imageSimilarityService;
 
     @PostMapping
     public ResponseEntity<ApiResponse<ProductImageResponse>> addImage(@Valid @RequestBody ProductImageRequest request) {
         return new ResponseEntity<>(ApiResponse.success(productImageService.addImage(request), "Image added successfully"), HttpStatus.CREATED);
     }
 
+    // Answers 202 once the files are stored; variants appear when the image status turns READY
+    @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiResponse<List<ProductImageResponse>>> uploadImages(@RequestParam UUID productId,
+                                                                                @RequestParam("files") List<MultipartFile> files,
+                                                                                @RequestParam(defaultValue = "FRONT") String type,
+                                                                                @RequestParam(defaultValue = "false") boolean isThumbnail) {
+        return new ResponseEntity<>(ApiResponse.success(productImageUploadService.uploadImages(productId, files, type, isThumbnail),
+                "Images accepted for processing"), HttpStatus.ACCEPTED);
+    }
+
+    // Catalog images that look like the uploaded photo, nearest first; maxDistance is in pHash bits out of 64
+    @PostMapping(value = "/similar", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiResponse<ImageSimilarityResponse>> findSimilar(@RequestParam("file") MultipartFile file,
+                                                                           @RequestParam(required = false) Integer limit,
+                                                                           @RequestParam(required = false) Integer maxDistance) {
+        return ResponseEntity.ok(ApiResponse.success(imageSimilarityService.findSimilar(file, limit, maxDistance),
+                "Similar images retrieved"));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<ApiResponse<Void>> deleteImage(@PathVariable Long id) {
         productImageService.deleteImage(id);
@@ -0,0 +1,32 @@
+package com.silverviking.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Marks reads that must see the latest commit, such as reloading a cache or index after a write. Read-only
+ * connections opened on the current thread while the work runs come from the primary instead of a replica
+ * that may not have replayed the commit yet.
+ */
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    public static <T> T call(Supplier<T> work) {
+        if (isActive()) {
+            return work.get();
+        }
+        ACTIVE.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            ACTIVE.remove();
+        }
+    }
+
+    public static boolean isActive() {
+        return ACTIVE.get() != null;
+    }
+}
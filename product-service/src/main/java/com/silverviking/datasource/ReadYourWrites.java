@@ -0,0 +1,77 @@
+package com.silverviking.datasource;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+
+/**
+ * Keeps a client's reads on the primary for a short window after one of its writes commits, so it
+ * never reads a replica that has not caught up with its own change. The rest of the request that
+ * wrote is pinned through a request attribute, and later requests through a cookie holding the end
+ * of the window. Writes outside a web request, such as background jobs, pin nothing.
+ */
+public class ReadYourWrites implements TransactionExecutionListener {
+
+    static final String COOKIE = "primary-reads-until";
+    private static final String PINNED_UNTIL = ReadYourWrites.class.getName() + ".pinnedUntil";
+
+    private final Duration window;
+
+    public ReadYourWrites(Duration window) {
+        this.window = window;
+    }
+
+    public boolean isPinnedToPrimary() {
+        if (window.isZero() || !(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return false;
+        }
+        Long until = (Long) attributes.getAttribute(PINNED_UNTIL, RequestAttributes.SCOPE_REQUEST);
+        if (until == null) {
+            until = fromCookie(attributes.getRequest());
+            attributes.setAttribute(PINNED_UNTIL, until, RequestAttributes.SCOPE_REQUEST);
+        }
+        return System.currentTimeMillis() < until;
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        if (commitFailure != null || transaction.isReadOnly() || !transaction.isNewTransaction() || window.isZero()
+                || !(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return;
+        }
+        long until = System.currentTimeMillis() + window.toMillis();
+        attributes.setAttribute(PINNED_UNTIL, until, RequestAttributes.SCOPE_REQUEST);
+        HttpServletResponse response = attributes.getResponse();
+        if (response != null && !response.isCommitted()) {
+            Cookie cookie = new Cookie(COOKIE, Long.toString(until));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+            response.addCookie(cookie);
+        }
+    }
+
+    // Capped at one window from now, so a forged cookie cannot pin a client to the primary for good
+    private long fromCookie(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (COOKIE.equals(cookie.getName())) {
+                    try {
+                        return Math.min(Long.parseLong(cookie.getValue()), System.currentTimeMillis() + window.toMillis());
+                    } catch (NumberFormatException ex) {
+                        return 0;
+                    }
+                }
+            }
+        }
+        return 0;
+    }
+}
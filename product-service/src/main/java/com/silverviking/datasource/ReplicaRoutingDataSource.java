@@ -0,0 +1,150 @@
+package com.silverviking.datasource;
+
+import com.silverviking.configuration.DataSourceRoutingProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The target of read-only connections: one of the replica pools, or the primary when none qualifies.
+ * A replica qualifies while its last health check succeeded with a lag of at most
+ * {@code datasource-routing.max-lag}. Among those, reads go to the pool with the fewest connections in
+ * use, round robin on ties. Clients pinned by {@link ReadYourWrites} and work run through
+ * {@link PrimaryReads} always read from the primary.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private final List<Replica> replicas;
+    private final DataSourceRoutingProperties properties;
+    private final ReadYourWrites readYourWrites;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicaPools,
+                                    DataSourceRoutingProperties properties, ReadYourWrites readYourWrites) {
+        this.replicas = replicaPools.stream().map(Replica::new).toList();
+        this.properties = properties;
+        this.readYourWrites = readYourWrites;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicas.forEach(replica -> targets.put(replica.name(), replica.pool));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (PrimaryReads.isActive() || readYourWrites.isPinnedToPrimary()) {
+            return PRIMARY;
+        }
+        Replica chosen = null;
+        int fewest = Integer.MAX_VALUE;
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(1, replicas.size()));
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.available) {
+                continue;
+            }
+            int active = replica.activeConnections();
+            if (active < fewest) {
+                chosen = replica;
+                fewest = active;
+            }
+        }
+        return chosen != null ? chosen.name() : PRIMARY;
+    }
+
+    /**
+     * Checks every replica now; also runs every {@code datasource-routing.health-check-interval}.
+     */
+    @Scheduled(fixedDelayString = "${datasource-routing.health-check-interval:PT5S}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            Long lag = null;
+            String problem;
+            try {
+                lag = lagSeconds(replica.pool);
+                problem = lag == null ? "replication is not running"
+                        : lag > properties.getMaxLag().toSeconds() ? "lag of " + lag + "s exceeds " + properties.getMaxLag().toSeconds() + "s"
+                        : null;
+            } catch (SQLException | RuntimeException ex) {
+                problem = "check failed: " + ex.getMessage();
+            }
+            boolean available = problem == null;
+            if (available != replica.available) {
+                if (available) {
+                    log.info("Replica {} is back in rotation, lag {}s", replica.name(), lag);
+                } else {
+                    log.warn("Replica {} taken out of rotation: {}", replica.name(), problem);
+                }
+            }
+            replica.lagSeconds = lag;
+            replica.available = available;
+        }
+    }
+
+    public List<ReplicaStatus> status() {
+        return replicas.stream()
+                .map(replica -> new ReplicaStatus(replica.name(), replica.available, replica.lagSeconds, replica.activeConnections()))
+                .toList();
+    }
+
+    @PreDestroy
+    public void close() {
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    private Long lagSeconds(DataSource pool) throws SQLException {
+        try (Connection connection = pool.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout((int) Math.max(1, properties.getHealthCheckInterval().toSeconds()));
+            try (ResultSet rows = statement.executeQuery(properties.getLagQuery())) {
+                if (!rows.next()) {
+                    return null;
+                }
+                long lag = rows.getLong(properties.getLagColumn());
+                return rows.wasNull() ? null : lag;
+            }
+        }
+    }
+
+    public record ReplicaStatus(String name, boolean available, Long lagSeconds, int activeConnections) {
+    }
+
+    private static final class Replica {
+
+        private final HikariDataSource pool;
+        // Out of rotation until the first check has passed
+        private volatile boolean available;
+        private volatile Long lagSeconds;
+
+        Replica(HikariDataSource pool) {
+            this.pool = pool;
+        }
+
+        String name() {
+            return pool.getPoolName();
+        }
+
+        int activeConnections() {
+            HikariPoolMXBean bean = pool.getHikariPoolMXBean();
+            return bean != null ? bean.getActiveConnections() : 0;
+        }
+    }
+}
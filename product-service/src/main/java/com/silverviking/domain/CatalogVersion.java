@@ -0,0 +1,27 @@
+package com.silverviking.domain;
+
+import com.silverviking.enums.CatalogScope;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "catalog_versions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CatalogVersion {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 32)
+    private CatalogScope scope;
+
+    @Column(nullable = false)
+    private long version;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
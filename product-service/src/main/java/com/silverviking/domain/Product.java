@@ -5,21 +5,40 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.UuidGenerator;
+import org.hibernate.type.SqlTypes;
 import java.math.BigDecimal;
 import java.sql.Date;
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", uniqueConstraints = {
+        @UniqueConstraint(name = Product.SLUG_CONSTRAINT, columnNames = "slug")
+}, indexes = {
+        @Index(name = "idx_products_name_id", columnList = "name, id"),
+        @Index(name = "idx_products_price_id", columnList = "market_price, id"),
+        @Index(name = "idx_products_release_date_id", columnList = "release_date, id"),
+        @Index(name = "idx_products_category_name_id", columnList = "category_id, name, id"),
+        @Index(name = "idx_products_series_name_id", columnList = "series_id, name, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Product {
 
+    public static final String SLUG_CONSTRAINT = "uk_products_slug";
+
+    // Time-ordered ids stored as 16 raw bytes keep inserts appending to the clustered index
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidGenerator(algorithm = TimeOrderedUuidGenerator.class)
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(length = 16)
     private UUID id;
 
     @NotBlank(message = "Name is required")
@@ -64,5 +83,26 @@ public class Product {
     private Manufacturer manufacturer;
 
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 100)
     private List<ProductImage> images;
+
+    // Incremented by Hibernate on every update; together with updatedAt it backs the product ETag
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    // Image writes do not touch the product row, so they call this to bump version and updatedAt
+    public void touch() {
+        this.updatedAt = Instant.now();
+    }
+
+    @PrePersist
+    @PreUpdate
+    void onWrite() {
+        touch();
+    }
 }
@@ -1,5 +1,6 @@
 package com.silverviking.domain;
 
+import com.silverviking.enums.ImageStatus;
 import com.silverviking.enums.ImageType;
 
 import jakarta.persistence.*;
@@ -7,15 +8,21 @@ import jakarta.validation.constraints.NotBlank;
 import lombok.*;
 
 @Entity
-@Table(name = "product_images")
+@Table(name = "product_images", indexes = {
+        // Covers the thumbnail lookup of the summary listing
+        @Index(name = "idx_product_images_product_thumbnail_id", columnList = "product_id, is_thumbnail, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class ProductImage {
 
+    // Table-backed pooled ids: unlike IDENTITY, Hibernate can batch the inserts since ids are known before flush
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "product_image_id")
+    @TableGenerator(name = "product_image_id", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "product_images", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "URL is required")
@@ -30,6 +37,24 @@ public class ProductImage {
     @Column(name = "image_type")
     private ImageType type;
 
+    // Set for uploaded images; null for images registered by URL
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private ImageStatus status;
+
+    private Integer width;
+    private Integer height;
+
+    @Column(name = "byte_size")
+    private Long byteSize;
+
+    // 64-bit perceptual hashes of the thumbnail variant, compared by Hamming distance
+    private Long phash;
+    private Long dhash;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id", nullable = false)
     private Product product;
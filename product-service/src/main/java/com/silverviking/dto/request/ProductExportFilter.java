@@ -0,0 +1,11 @@
+package com.silverviking.dto.request;
+
+import lombok.Data;
+
+@Data
+public class ProductExportFilter {
+    private Long categoryId;
+    private Long seriesId;
+    private Long manufacturerId;
+    private boolean gzip;
+}
@@ -0,0 +1,27 @@
+package com.silverviking.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class ProductFilterRequest {
+    // Repeat a parameter to select several values of one facet (OR); different facets are AND-ed
+    private List<Long> categoryId;
+    // Series ids, or "none" for products without a series
+    private List<String> seriesId;
+    private List<Long> manufacturerId;
+    private List<String> scale;
+    private List<String> material;
+    private Boolean released;
+    // Band keys as returned in the PRICE facet, e.g. "500000-1000000" or "5000000+"
+    private List<String> priceBand;
+
+    @Min(value = 1, message = "Size must be at least 1")
+    @Max(value = 500, message = "Size must be at most 500")
+    private int size = 50;
+
+    @Min(value = 0, message = "Offset must not be negative")
+    private int offset = 0;
+}
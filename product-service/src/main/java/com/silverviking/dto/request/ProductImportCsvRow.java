@@ -0,0 +1,24 @@
+package com.silverviking.dto.request;
+
+import lombok.Data;
+import java.math.BigDecimal;
+
+/**
+ * One line of a CSV import. Image URLs are separated by '|'; the first one becomes the thumbnail.
+ */
+@Data
+public class ProductImportCsvRow {
+    private String name;
+    private String slug;
+    private BigDecimal priceMarket;
+    private boolean released;
+    private java.sql.Date releaseDate;
+    private String scale;
+    private Double height;
+    private String material;
+    private String description;
+    private Long categoryId;
+    private Long manufacturerId;
+    private Long seriesId;
+    private String imageUrls;
+}
@@ -0,0 +1,24 @@
+package com.silverviking.dto.request;
+
+import com.silverviking.enums.ProductSortField;
+import com.silverviking.enums.ProductView;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.data.domain.Sort;
+
+@Data
+public class ProductPageRequest {
+    @Min(value = 1, message = "Size must be at least 1")
+    @Max(value = 100, message = "Size must be at most 100")
+    private int size = 20;
+
+    private ProductSortField sort = ProductSortField.NAME;
+
+    private Sort.Direction direction = Sort.Direction.ASC;
+
+    // Opaque continuation token returned as nextCursor by the previous page
+    private String cursor;
+
+    private ProductView view = ProductView.FULL;
+}
@@ -1,5 +1,6 @@
 package com.silverviking.dto.request;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
@@ -42,4 +43,23 @@ public class ProductRequest {
     private Long seriesId;
     
     private List<ProductImageRequest> images;
+
+    // Exports nest the reference data as objects; reading their ids lets an export be imported as is
+    @JsonProperty("category")
+    private void setCategory(Reference category) {
+        this.categoryId = category != null ? category.id() : null;
+    }
+
+    @JsonProperty("manufacturer")
+    private void setManufacturer(Reference manufacturer) {
+        this.manufacturerId = manufacturer != null ? manufacturer.id() : null;
+    }
+
+    @JsonProperty("series")
+    private void setSeries(Reference series) {
+        this.seriesId = series != null ? series.id() : null;
+    }
+
+    private record Reference(Long id) {
+    }
 }
@@ -0,0 +1,22 @@
+package com.silverviking.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class ProductSearchRequest {
+    @NotBlank(message = "Query is required")
+    @Size(max = 200, message = "Query must be at most 200 characters")
+    private String q;
+
+    @Min(value = 1, message = "Size must be at least 1")
+    @Max(value = 100, message = "Size must be at most 100")
+    private int size = 20;
+
+    @Min(value = 0, message = "Offset must not be negative")
+    @Max(value = 1000, message = "Offset must be at most 1000")
+    private int offset = 0;
+}
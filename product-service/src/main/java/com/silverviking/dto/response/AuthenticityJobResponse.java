@@ -0,0 +1,24 @@
+package com.silverviking.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+public class AuthenticityJobResponse {
+    private UUID id;
+    private UUID productId;
+    private String status;
+    private String priority;
+    private int total;
+    private int completed;
+    private Instant submittedAt;
+    private Instant startedAt;
+    private Instant completedAt;
+    // Only filled in by the result endpoint
+    private List<AuthenticityResultResponse> results;
+}
@@ -0,0 +1,18 @@
+package com.silverviking.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class AuthenticityResultResponse {
+    private String fileName;
+    private String contentHash;
+    private Double score;
+    private String verdict;
+    // The closest reference image of the product, when one matched
+    private Long referenceImageId;
+    private Integer distance;
+    private boolean cached;
+    private String error;
+}
@@ -0,0 +1,13 @@
+package com.silverviking.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class FacetCountResponse {
+    private String value;
+    private String label;
+    private int count;
+    private boolean selected;
+}
@@ -0,0 +1,14 @@
+package com.silverviking.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ImageMatchResponse {
+    private Long imageId;
+    // Differing pHash bits out of 64; similarity is 1 - distance / 64
+    private int distance;
+    private double similarity;
+    private ProductResponse product;
+}
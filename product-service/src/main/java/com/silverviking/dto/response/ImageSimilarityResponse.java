@@ -0,0 +1,14 @@
+package com.silverviking.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+import java.util.List;
+
+@Data
+@Builder
+public class ImageSimilarityResponse {
+    private String fingerprint;
+    private int indexedImages;
+    private long tookMicros;
+    private List<ImageMatchResponse> matches;
+}
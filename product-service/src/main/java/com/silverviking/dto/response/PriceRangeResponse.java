@@ -0,0 +1,18 @@
+package com.silverviking.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+public class PriceRangeResponse {
+    private String dimension;
+    private String key;
+    private long count;
+    private BigDecimal mean;
+    private BigDecimal min;
+    private BigDecimal median;
+    private BigDecimal max;
+}
@@ -0,0 +1,16 @@
+package com.silverviking.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+public class PriceSuggestionResponse {
+    private UUID productId;
+    // The most specific group with enough priced products; null when the product has no price groups
+    private PriceRangeResponse suggestedPriceRange;
+    private List<PriceRangeResponse> groups;
+}
@@ -0,0 +1,17 @@
+package com.silverviking.dto.response;
+
+import com.silverviking.enums.ProductFacet;
+import lombok.Builder;
+import lombok.Data;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Data
+@Builder
+public class ProductFilterResponse {
+    private int total;
+    private int offset;
+    private List<UUID> ids;
+    private Map<ProductFacet, List<FacetCountResponse>> facets;
+}
@@ -3,6 +3,8 @@ package com.silverviking.dto.response;
 import lombok.Builder;
 import lombok.Data;
 
+import java.util.Map;
+
 @Data
 @Builder
 public class ProductImageResponse {
@@ -10,4 +12,9 @@ public class ProductImageResponse {
     private String imageUrl;
     private String type;
     private Boolean isThumbnail;
+    private String status;
+    private Integer width;
+    private Integer height;
+    // Resized copies by variant name, present once an uploaded image has been processed
+    private Map<String, String> variants;
 }
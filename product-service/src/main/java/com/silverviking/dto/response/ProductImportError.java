@@ -0,0 +1,12 @@
+package com.silverviking.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ProductImportError {
+    private long row;
+    private String slug;
+    private String message;
+}
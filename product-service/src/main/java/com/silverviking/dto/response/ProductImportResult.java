@@ -0,0 +1,18 @@
+package com.silverviking.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+import java.util.List;
+
+@Data
+@Builder
+public class ProductImportResult {
+    private long received;
+    private long imported;
+    private long failed;
+    // Row at which unreadable input stopped the import; null when the whole input was read
+    private Long abortedAtRow;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    private List<ProductImportError> errors;
+}
@@ -24,4 +24,7 @@ public class ProductResponse {
     private SeriesResponse series;
     private ManufacturerResponse manufacturer;
     private List<ProductImageResponse> images;
+
+    private long version;
+    private java.time.Instant updatedAt;
 }
@@ -0,0 +1,11 @@
+package com.silverviking.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ProductSearchHit {
+    private float score;
+    private ProductResponse product;
+}
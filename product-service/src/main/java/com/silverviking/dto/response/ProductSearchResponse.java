@@ -0,0 +1,14 @@
+package com.silverviking.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+import java.util.List;
+
+@Data
+@Builder
+public class ProductSearchResponse {
+    private String query;
+    private int totalHits;
+    private int offset;
+    private List<ProductSearchHit> hits;
+}
@@ -0,0 +1,20 @@
+package com.silverviking.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Data
+@Builder
+public class ProductSummaryResponse {
+    private UUID id;
+    private String name;
+    private String slug;
+    private BigDecimal priceMarket;
+    private boolean isReleased;
+    private java.sql.Date releaseDate;
+    private String thumbnailUrl;
+
+    private SeriesResponse series;
+}
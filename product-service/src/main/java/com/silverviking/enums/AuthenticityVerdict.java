@@ -0,0 +1,8 @@
+package com.silverviking.enums;
+
+public enum AuthenticityVerdict {
+    GENUINE,
+    SUSPECT,
+    // The product has no processed reference images to compare against
+    UNVERIFIABLE
+}
@@ -0,0 +1,8 @@
+package com.silverviking.enums;
+
+public enum CatalogScope {
+    // Any product, image or reference data write
+    CATALOG,
+    // Category, series and manufacturer writes; these are embedded in every product response
+    REFERENCE_DATA
+}
@@ -0,0 +1,7 @@
+package com.silverviking.enums;
+
+public enum ImageStatus {
+    PROCESSING,
+    READY,
+    FAILED
+}
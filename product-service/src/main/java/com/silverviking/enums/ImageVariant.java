@@ -0,0 +1,23 @@
+package com.silverviking.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Locale;
+
+/**
+ * Resized copies generated for every uploaded image, bounded by their longest edge and stored as JPEG.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ImageVariant {
+    THUMBNAIL(200),
+    CARD(480),
+    DETAIL(1200);
+
+    private final int maxEdge;
+
+    public String fileName() {
+        return name().toLowerCase(Locale.ROOT) + ".jpg";
+    }
+}
@@ -0,0 +1,8 @@
+package com.silverviking.enums;
+
+// Declaration order is queue order: every queued HIGH photo is scored before any NORMAL one
+public enum JobPriority {
+    HIGH,
+    NORMAL,
+    LOW
+}
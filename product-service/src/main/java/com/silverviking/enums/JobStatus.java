@@ -0,0 +1,7 @@
+package com.silverviking.enums;
+
+public enum JobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED
+}
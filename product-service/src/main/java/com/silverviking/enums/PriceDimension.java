@@ -0,0 +1,8 @@
+package com.silverviking.enums;
+
+// Most specific first: a series says more about a figure's price than its scale or manufacturer
+public enum PriceDimension {
+    SERIES,
+    SCALE,
+    MANUFACTURER
+}
@@ -0,0 +1,11 @@
+package com.silverviking.enums;
+
+public enum ProductFacet {
+    CATEGORY,
+    SERIES,
+    MANUFACTURER,
+    SCALE,
+    MATERIAL,
+    RELEASED,
+    PRICE
+}
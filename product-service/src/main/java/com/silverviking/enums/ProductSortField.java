@@ -0,0 +1,14 @@
+package com.silverviking.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum ProductSortField {
+    NAME("name"),
+    PRICE("priceMarket"),
+    RELEASE_DATE("releaseDate");
+
+    private final String attribute;
+}
@@ -0,0 +1,10 @@
+package com.silverviking.enums;
+
+/**
+ * Representation returned by the list endpoints. SUMMARY leaves out the description, the image list and
+ * the nested category and manufacturer.
+ */
+public enum ProductView {
+    FULL,
+    SUMMARY
+}
@@ -0,0 +1,57 @@
+package com.silverviking.event;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Collects the {@link ProductChangedEvent}s of the current transaction and republishes them as a
+ * single {@link ProductsCommittedEvent} once it commits, so a bulk import batch reaches listeners
+ * as one event. Image changes are left out: nothing indexed depends on them.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductChangeCollector {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.type() == ProductChangedEvent.Type.IMAGES_CHANGED) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eventPublisher.publishEvent(new ProductsCommittedEvent(Set.of(event.productId())));
+            return;
+        }
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.productIds.add(event.productId());
+    }
+
+    private final class PendingChanges implements TransactionSynchronization {
+
+        private final Set<UUID> productIds = new LinkedHashSet<>();
+
+        @Override
+        public void afterCommit() {
+            eventPublisher.publishEvent(new ProductsCommittedEvent(Set.copyOf(productIds)));
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ProductChangeCollector.this);
+        }
+    }
+}
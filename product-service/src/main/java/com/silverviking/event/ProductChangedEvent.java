@@ -0,0 +1,17 @@
+package com.silverviking.event;
+
+import java.util.UUID;
+
+/**
+ * Published inside the writing transaction whenever a product or one of its images changes.
+ * Listeners that keep derived state (caches, indexes) react after the transaction commits.
+ */
+public record ProductChangedEvent(UUID productId, Type type) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        IMAGES_CHANGED
+    }
+}
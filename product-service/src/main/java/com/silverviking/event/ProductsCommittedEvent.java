@@ -0,0 +1,11 @@
+package com.silverviking.event;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Published once after a transaction commits, carrying every product it created, updated or
+ * deleted. In-memory indexes reload these ids in one query instead of one per product.
+ */
+public record ProductsCommittedEvent(Set<UUID> productIds) {
+}
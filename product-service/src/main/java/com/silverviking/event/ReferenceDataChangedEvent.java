@@ -0,0 +1,13 @@
+package com.silverviking.event;
+
+/**
+ * Published inside the writing transaction when a category, series or manufacturer changes.
+ */
+public record ReferenceDataChangedEvent(Type type, Long id) {
+
+    public enum Type {
+        CATEGORY,
+        SERIES,
+        MANUFACTURER
+    }
+}
@@ -0,0 +1,25 @@
+package com.silverviking.exception;
+
+import org.hibernate.exception.ConstraintViolationException;
+
+import java.util.Locale;
+
+public final class ConstraintViolations {
+
+    private ConstraintViolations() {
+    }
+
+    /**
+     * Whether the failure was caused by the named constraint. Drivers decorate the name differently
+     * (MySQL reports "table.name", H2 appends an index suffix), so this matches on containment.
+     */
+    public static boolean isViolationOf(Throwable failure, String constraintName) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null
+                    && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(constraintName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
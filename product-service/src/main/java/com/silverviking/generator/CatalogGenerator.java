@@ -0,0 +1,226 @@
+package com.silverviking.generator;
+
+import com.silverviking.configuration.CatalogGeneratorProperties;
+import com.silverviking.enums.ImageType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Writes a deterministic synthetic catalog straight into the product-service schema with batched
+ * JDBC inserts, for load tests against realistic data volumes. The same seed always yields the same
+ * rows, ids included. Enable it with {@code catalog-generator.enabled=true}; it runs once the schema
+ * exists and before the search, facet and reference data indexes warm up, so they load the new rows.
+ * Afterwards it bumps the catalog version rows, so ETags handed out before the run stop matching.
+ * <p>
+ * Products spread over categories, series and manufacturers following a Zipf distribution, so a few
+ * series hold most of the catalog. Images are external URLs, like products created through the API.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CatalogGenerator implements ApplicationRunner {
+
+    public static final String SLUG_PREFIX = "synthetic-";
+    public static final String CATEGORY_PREFIX = "Synthetic Category ";
+    public static final String SERIES_PREFIX = "Synthetic Series ";
+    public static final String MANUFACTURER_PREFIX = "Synthetic Manufacturer ";
+
+    // 2025-01-01T00:00:00Z; ids are version 7 UUIDs stamped from here, one millisecond per 4096 products
+    private static final long ID_EPOCH_MILLIS = 1_735_689_600_000L;
+    private static final String IMAGE_GENERATOR = "product_images";
+
+    private static final String[] ADJECTIVES = {"Crimson", "Silent", "Eternal", "Azure", "Midnight", "Golden", "Frozen",
+            "Radiant", "Wandering", "Iron", "Celestial", "Phantom", "Scarlet", "Emerald", "Stellar", "Twilight"};
+    private static final String[] SUBJECTS = {"Valkyrie", "Swordmaster", "Witch", "Idol", "Pilot", "Knight", "Maid",
+            "Archer", "Shrine Maiden", "Detective", "Dragon Rider", "Gunslinger", "Alchemist", "Songstress"};
+    private static final String[] EDITIONS = {"", " Deluxe Edition", " Swimsuit Ver.", " Winter Ver.", " Bunny Ver.",
+            " Limited Edition", " Re-release", " DX Ver."};
+    private static final String[] SCALES = {"1/4", "1/6", "1/7", "1/7", "1/7", "1/8", "Non-scale"};
+    private static final String[] MATERIALS = {"PVC, ABS", "PVC, ABS", "PVC, ABS, Diecast", "Polystone", "PVC, Fabric"};
+    private static final String[] COUNTRIES = {"Japan", "Japan", "Japan", "China", "South Korea", "United States"};
+    private static final ImageType[] IMAGE_TYPES = ImageType.values();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final CatalogGeneratorProperties properties;
+
+    public record Result(int categories, int series, int manufacturers, long products, long images,
+                         long elapsedMillis, double rowsPerSecond) {
+    }
+
+    private record ReferenceIds(List<Long> categories, List<Long> series, List<Long> manufacturers) {
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Integer existing = jdbcTemplate.queryForObject("select count(*) from products where slug like ?", Integer.class,
+                SLUG_PREFIX + "%");
+        if (existing != null && existing > 0) {
+            log.info("Synthetic catalog already present ({} products), not generating", existing);
+            return;
+        }
+        generate(properties);
+    }
+
+    public Result generate(CatalogGeneratorProperties spec) {
+        if (spec.getCategories() < 1 || spec.getManufacturers() < 1 || spec.getBatchSize() < 1) {
+            throw new IllegalArgumentException("A synthetic catalog needs at least one category, one manufacturer and a positive batch size");
+        }
+        long started = System.nanoTime();
+        Random random = new Random(spec.getSeed());
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        ReferenceIds reference = transaction.execute(status -> insertReferenceData(random, spec));
+        ZipfSampler categories = new ZipfSampler(reference.categories().size(), spec.getSkew());
+        ZipfSampler series = reference.series().isEmpty() ? null : new ZipfSampler(reference.series().size(), spec.getSkew());
+        ZipfSampler manufacturers = new ZipfSampler(reference.manufacturers().size(), spec.getSkew());
+        long imageCount = (long) spec.getProducts() * spec.getImagesPerProduct();
+        long firstImageId = transaction.execute(status -> reserveImageIds(imageCount));
+
+        List<Object[]> productRows = new ArrayList<>(spec.getBatchSize());
+        List<Object[]> imageRows = new ArrayList<>(spec.getBatchSize() * spec.getImagesPerProduct());
+        long imageId = firstImageId;
+        for (int i = 0; i < spec.getProducts(); i++) {
+            byte[] id = toBytes(productId(i, random));
+            // One product in ten belongs to no series
+            Long seriesId = series != null && random.nextInt(10) > 0 ? reference.series().get(series.next(random)) : null;
+            productRows.add(productRow(i, id, random, reference.categories().get(categories.next(random)), seriesId,
+                    reference.manufacturers().get(manufacturers.next(random))));
+            for (int j = 0; j < spec.getImagesPerProduct(); j++) {
+                imageRows.add(new Object[]{imageId++, "https://img.example.com/synthetic/" + i + "/" + j + ".jpg", j == 0,
+                        IMAGE_TYPES[j % IMAGE_TYPES.length].name(), id});
+            }
+            if (productRows.size() == spec.getBatchSize() || i == spec.getProducts() - 1) {
+                writeBatch(transaction, productRows, imageRows);
+                productRows.clear();
+                imageRows.clear();
+                if ((i + 1) % (spec.getBatchSize() * 50) == 0) {
+                    log.info("Generated {} of {} synthetic products", i + 1, spec.getProducts());
+                }
+            }
+        }
+
+        transaction.executeWithoutResult(status -> bumpCatalogVersions());
+
+        long elapsedNanos = System.nanoTime() - started;
+        long rows = spec.getCategories() + spec.getSeries() + spec.getManufacturers() + spec.getProducts() + imageCount;
+        Result result = new Result(spec.getCategories(), spec.getSeries(), spec.getManufacturers(), spec.getProducts(),
+                imageCount, elapsedNanos / 1_000_000, elapsedNanos > 0 ? rows * 1e9 / elapsedNanos : 0);
+        log.info("Generated synthetic catalog: {}", result);
+        return result;
+    }
+
+    private ReferenceIds insertReferenceData(Random random, CatalogGeneratorProperties spec) {
+        List<Object[]> categories = new ArrayList<>();
+        for (int i = 1; i <= spec.getCategories(); i++) {
+            categories.add(new Object[]{name(CATEGORY_PREFIX, i, spec.getCategories()), "Synthetic category " + i + " of scale and prize figures"});
+        }
+        jdbcTemplate.batchUpdate("insert into categories (name, description) values (?, ?)", categories);
+        List<Object[]> series = new ArrayList<>();
+        for (int i = 1; i <= spec.getSeries(); i++) {
+            series.add(new Object[]{name(SERIES_PREFIX, i, spec.getSeries())});
+        }
+        jdbcTemplate.batchUpdate("insert into series (name) values (?)", series);
+        List<Object[]> manufacturers = new ArrayList<>();
+        for (int i = 1; i <= spec.getManufacturers(); i++) {
+            manufacturers.add(new Object[]{name(MANUFACTURER_PREFIX, i, spec.getManufacturers()), COUNTRIES[random.nextInt(COUNTRIES.length)]});
+        }
+        jdbcTemplate.batchUpdate("insert into manufacturers (name, origin_country) values (?, ?)", manufacturers);
+
+        return new ReferenceIds(idsByName("categories", CATEGORY_PREFIX), idsByName("series", SERIES_PREFIX),
+                idsByName("manufacturers", MANUFACTURER_PREFIX));
+    }
+
+    // On a fresh schema the rows do not exist yet; the service creates them at startup, after this runs
+    private void bumpCatalogVersions() {
+        jdbcTemplate.update("update catalog_versions set version = version + 1, updated_at = ?", Timestamp.from(Instant.now()));
+    }
+
+    private List<Long> idsByName(String table, String prefix) {
+        // Zero-padded names sort like their numbers, so rank k of the Zipf sampler is always the same row
+        return jdbcTemplate.queryForList("select id from " + table + " where name like ? order by name", Long.class, prefix + "%");
+    }
+
+    // Takes the whole id range from the shared generator row, so Hibernate's pooled-lo blocks never overlap it
+    private long reserveImageIds(long count) {
+        Long next = jdbcTemplate.queryForObject("select next_val from id_generators where sequence_name = ? for update",
+                Long.class, IMAGE_GENERATOR);
+        jdbcTemplate.update("update id_generators set next_val = ? where sequence_name = ?", next + count, IMAGE_GENERATOR);
+        return next;
+    }
+
+    private Object[] productRow(int index, byte[] id, Random random, Long categoryId, Long seriesId, Long manufacturerId) {
+        String name = ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + SUBJECTS[random.nextInt(SUBJECTS.length)]
+                + EDITIONS[random.nextInt(EDITIONS.length)] + " #" + index;
+        LocalDate releaseDate = LocalDate.of(2018, 1, 1).plusDays(random.nextInt(3650));
+        // Log-normal around 3,000,000, the shape of real figure prices
+        long price = Math.round(Math.exp(Math.log(3_000_000) + random.nextGaussian() * 0.6) / 10_000) * 10_000;
+        String scale = SCALES[random.nextInt(SCALES.length)];
+        String material = MATERIALS[random.nextInt(MATERIALS.length)];
+        return new Object[]{
+                id,
+                name,
+                SLUG_PREFIX + index,
+                BigDecimal.valueOf(Math.max(price, 100_000)),
+                Date.valueOf(releaseDate),
+                releaseDate.isBefore(LocalDate.of(2026, 1, 1)),
+                scale,
+                Math.round((15 + random.nextDouble() * 30) * 10) / 10.0,
+                material,
+                name + ". " + scale + " scale figure in " + material + ", painted and assembled, with display base.",
+                categoryId,
+                seriesId,
+                manufacturerId,
+                Timestamp.from(Instant.ofEpochMilli(ID_EPOCH_MILLIS + index))
+        };
+    }
+
+    private void writeBatch(TransactionTemplate transaction, List<Object[]> products, List<Object[]> images) {
+        transaction.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate("insert into products (id, name, slug, market_price, release_date, is_released, scale, height,"
+                    + " material, description, category_id, series_id, manufacturer_id, version, updated_at)"
+                    + " values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?)", products);
+            if (!images.isEmpty()) {
+                jdbcTemplate.batchUpdate("insert into product_images (id, image_url, is_thumbnail, image_type, product_id)"
+                        + " values (?, ?, ?, ?, ?)", images);
+            }
+        });
+    }
+
+    // Same layout as TimeOrderedUuidGenerator, with the timestamp taken from the index and the random bits from the seed
+    static UUID productId(int index, Random random) {
+        long millis = ID_EPOCH_MILLIS + index / 4096;
+        long mostSignificant = millis << 16 | 0x7000L | index % 4096;
+        long leastSignificant = random.nextLong() & 0x3FFF_FFFF_FFFF_FFFFL | 0x8000_0000_0000_0000L;
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    private static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits()).array();
+    }
+
+    // Padded to the digits of the largest number, so names sort like their numbers at any volume
+    private static String name(String prefix, int number, int count) {
+        return prefix + String.format("%0" + String.valueOf(count).length() + "d", number);
+    }
+}
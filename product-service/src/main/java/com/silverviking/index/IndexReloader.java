@@ -0,0 +1,60 @@
+package com.silverviking.index;
+
+import com.silverviking.configuration.IndexReloadProperties;
+import com.silverviking.datasource.PrimaryReads;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Database reads behind the in-memory indexes and caches: full rebuilds every
+ * {@code index-reload.rebuild-interval}, and incremental reloads of the products a commit touched.
+ */
+@Component
+@RequiredArgsConstructor
+public class IndexReloader {
+
+    private final PlatformTransactionManager transactionManager;
+    private final IndexReloadProperties properties;
+
+    // REQUIRES_NEW: reloads run from after-commit callbacks, where the finished transaction is still bound.
+    // On the primary, since a replica may not have replayed the commit that triggered the reload yet
+    public <T> T read(Supplier<T> work) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return PrimaryReads.call(() -> transaction.execute(status -> work.get()));
+    }
+
+    /**
+     * Loads the documents of the given products, {@code index-reload.chunk-size} ids per query, and
+     * hands each to {@code put}. Ids that were requested but not found have been deleted and go to
+     * {@code remove}.
+     */
+    public <D> void reload(Collection<UUID> productIds, Function<List<UUID>, List<D>> loader, Function<D, UUID> idOf,
+                           Consumer<D> put, Consumer<UUID> remove) {
+        List<UUID> ids = new ArrayList<>(productIds);
+        int chunkSize = properties.getChunkSize();
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<UUID> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            Set<UUID> missing = new LinkedHashSet<>(chunk);
+            for (D document : read(() -> loader.apply(chunk))) {
+                put.accept(document);
+                missing.remove(idOf.apply(document));
+            }
+            missing.forEach(remove);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.silverviking.index;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Lets an in-memory index rebuild from scratch without blocking, or losing, the incremental updates that
+ * keep it current. The rebuild reads outside any lock; updates that land meanwhile still go to the live
+ * index and are also recorded, then replayed onto the rebuilt one right after it is swapped in.
+ * <p>
+ * Updates read and apply under one lock, so two reloads of the same product cannot land out of order.
+ * It is a {@link ReentrantLock} rather than a monitor: updates run JDBC on the writer's request thread
+ * after commit, and a virtual thread blocked inside synchronized would pin its carrier.
+ */
+public final class RebuildCoordinator {
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final ReentrantLock updateLock = new ReentrantLock();
+    // Products updated since the running rebuild started reading; null while no rebuild runs
+    private Set<UUID> changedDuringRebuild;
+
+    public void update(Collection<UUID> productIds, Runnable apply) {
+        updateLock.lock();
+        try {
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.addAll(productIds);
+            }
+            apply.run();
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    /**
+     * Builds a new index with {@code build}, then hands it to {@code swap} and the products updated while
+     * it was being built to {@code replay}, both under the update lock. Rebuilds run one at a time.
+     */
+    public <I> I rebuild(Supplier<I> build, Consumer<I> swap, Consumer<Set<UUID>> replay) {
+        rebuildLock.lock();
+        try {
+            updateLock.lock();
+            try {
+                changedDuringRebuild = new HashSet<>();
+            } finally {
+                updateLock.unlock();
+            }
+            I rebuilt = null;
+            try {
+                rebuilt = build.get();
+                return rebuilt;
+            } finally {
+                updateLock.lock();
+                try {
+                    Set<UUID> changed = changedDuringRebuild;
+                    changedDuringRebuild = null;
+                    if (rebuilt != null) {
+                        swap.accept(rebuilt);
+                        if (!changed.isEmpty()) {
+                            replay.accept(changed);
+                        }
+                    }
+                } finally {
+                    updateLock.unlock();
+                }
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.silverviking.mapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.silverviking.dto.response.ProductResponse;
+import com.silverviking.exception.BadRequestException;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Sparse fieldsets for product detail responses: {@code fields=name,priceMarket,images} keeps only the
+ * listed JSON properties. The id is always kept.
+ */
+@Component
+public class ProductFieldSelector {
+
+    private static final String ID = "id";
+
+    private final ObjectMapper objectMapper;
+    private final Set<String> knownFields;
+
+    public ProductFieldSelector(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.knownFields = objectMapper.getSerializationConfig()
+                .introspect(objectMapper.constructType(ProductResponse.class))
+                .findProperties().stream()
+                .map(BeanPropertyDefinition::getName)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    public Object select(ProductResponse product, String fields) {
+        if (fields == null || fields.isBlank()) {
+            return product;
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add(ID);
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!knownFields.contains(name)) {
+                throw new BadRequestException("Unknown product field: " + name);
+            }
+            selected.add(name);
+        }
+        ObjectNode node = objectMapper.valueToTree(product);
+        return node.retain(selected);
+    }
+}
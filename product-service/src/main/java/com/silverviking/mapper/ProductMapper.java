@@ -0,0 +1,161 @@
+package com.silverviking.mapper;
+
+import com.silverviking.cache.ReferenceDataRegistry;
+import com.silverviking.cache.ReferenceDataSnapshot;
+import com.silverviking.domain.Category;
+import com.silverviking.domain.Manufacturer;
+import com.silverviking.domain.Product;
+import com.silverviking.domain.ProductImage;
+import com.silverviking.domain.Series;
+import com.silverviking.dto.request.ProductRequest;
+import com.silverviking.dto.response.CategoryResponse;
+import com.silverviking.dto.response.ManufacturerResponse;
+import com.silverviking.dto.response.ProductImageResponse;
+import com.silverviking.dto.response.ProductResponse;
+import com.silverviking.dto.response.ProductSummaryResponse;
+import com.silverviking.dto.response.SeriesResponse;
+import com.silverviking.enums.ImageStatus;
+import com.silverviking.enums.ImageType;
+import com.silverviking.enums.ImageVariant;
+import com.silverviking.repository.ProductSummaryRow;
+import com.silverviking.storage.ContentAddressedStorage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+public class ProductMapper {
+
+    private final ReferenceDataRegistry referenceData;
+    private final ContentAddressedStorage storage;
+
+    public ProductResponse toResponse(Product product) {
+        // Reading the id of an unloaded association does not initialize it, so the nested DTOs cost no query
+        ReferenceDataSnapshot snapshot = referenceData.snapshot();
+        CategoryResponse categoryResponse = snapshot.categories().get(product.getCategory().getId());
+        if (categoryResponse == null) {
+            categoryResponse = CategoryResponse.builder()
+                    .id(product.getCategory().getId())
+                    .name(product.getCategory().getName())
+                    .description(product.getCategory().getDescription())
+                    .build();
+        }
+
+        SeriesResponse seriesResponse = null;
+        if (product.getSeries() != null) {
+            seriesResponse = snapshot.series().get(product.getSeries().getId());
+            if (seriesResponse == null) {
+                seriesResponse = SeriesResponse.builder()
+                        .id(product.getSeries().getId())
+                        .name(product.getSeries().getName())
+                        .build();
+            }
+        }
+
+        ManufacturerResponse manufacturerResponse = null;
+        if (product.getManufacturer() != null) {
+            manufacturerResponse = snapshot.manufacturers().get(product.getManufacturer().getId());
+            if (manufacturerResponse == null) {
+                manufacturerResponse = ManufacturerResponse.builder()
+                        .id(product.getManufacturer().getId())
+                        .name(product.getManufacturer().getName())
+                        .originCountry(product.getManufacturer().getOriginCountry())
+                        .build();
+            }
+        }
+
+        List<ProductImageResponse> imageResponses = product.getImages() != null ? 
+                product.getImages().stream()
+                    .map(this::toImageResponse)
+                    .collect(Collectors.toList()) : java.util.Collections.emptyList();
+
+        return ProductResponse.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .slug(product.getSlug())
+                .priceMarket(product.getPriceMarket())
+                .isReleased(product.isReleased())
+                .releaseDate(product.getReleaseDate())
+                .scale(product.getScale())
+                .height(product.getHeight())
+                .material(product.getMaterial())
+                .description(product.getDescription())
+                .category(categoryResponse)
+                .series(seriesResponse)
+                .manufacturer(manufacturerResponse)
+                .images(imageResponses)
+                .version(product.getVersion())
+                .updatedAt(product.getUpdatedAt())
+                .build();
+    }
+
+    public ProductImageResponse toImageResponse(ProductImage image) {
+        return ProductImageResponse.builder()
+                .id(image.getId())
+                .imageUrl(image.getImageUrl())
+                .isThumbnail(image.getIsThumbnail())
+                .type(image.getType() != null ? image.getType().name() : null)
+                .status(image.getStatus() != null ? image.getStatus().name() : null)
+                .width(image.getWidth())
+                .height(image.getHeight())
+                .variants(image.getStatus() == ImageStatus.READY ? storage.variantUrls(image.getContentHash()) : null)
+                .build();
+    }
+
+    public ProductSummaryResponse toSummary(ProductSummaryRow row) {
+        SeriesResponse seriesResponse = null;
+        if (row.seriesId() != null) {
+            seriesResponse = referenceData.snapshot().series().get(row.seriesId());
+            if (seriesResponse == null) {
+                seriesResponse = SeriesResponse.builder().id(row.seriesId()).build();
+            }
+        }
+
+        return ProductSummaryResponse.builder()
+                .id(row.id())
+                .name(row.name())
+                .slug(row.slug())
+                .priceMarket(row.priceMarket())
+                .isReleased(row.released())
+                .releaseDate(row.releaseDate())
+                .thumbnailUrl(row.thumbnailStatus() == ImageStatus.READY
+                        ? storage.variantUrl(row.thumbnailHash(), ImageVariant.CARD)
+                        : row.thumbnailUrl())
+                .series(seriesResponse)
+                .build();
+    }
+
+    public Product toEntity(ProductRequest request, Category category, Series series, Manufacturer manufacturer) {
+        Product product = Product.builder()
+                .name(request.getName())
+                .slug(request.getSlug())
+                .priceMarket(request.getPriceMarket())
+                .isReleased(request.isReleased())
+                .releaseDate(request.getReleaseDate())
+                .scale(request.getScale())
+                .height(request.getHeight())
+                .material(request.getMaterial())
+                .description(request.getDescription())
+                .category(category)
+                .series(series)
+                .manufacturer(manufacturer)
+                .build();
+
+        if (request.getImages() != null && !request.getImages().isEmpty()) {
+            List<ProductImage> images = request.getImages().stream()
+                    .map(imgRequest -> ProductImage.builder()
+                            .imageUrl(imgRequest.getImageUrl())
+                            .isThumbnail(imgRequest.getIsThumbnail())
+                            .type(imgRequest.getType() != null ? ImageType.valueOf(imgRequest.getType()) : null)
+                            .product(product)
+                            .build())
+                    .collect(Collectors.toList());
+            product.setImages(images);
+        }
+
+        return product;
+    }
+}
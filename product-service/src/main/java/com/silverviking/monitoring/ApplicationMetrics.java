@@ -0,0 +1,114 @@
+package com.silverviking.monitoring;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.silverviking.authenticity.AuthenticityResultCache;
+import com.silverviking.cache.ProductDetailCache;
+import com.silverviking.cache.ProductPayloadCache;
+import com.silverviking.cache.ProductSlugCache;
+import com.silverviking.configuration.RequestConcurrencyLimiter;
+import com.silverviking.datasource.ReplicaRoutingDataSource;
+import com.silverviking.storage.VariantDiskCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Meters for the in-process caches, the request limiter, virtual-thread pinning and the read
+ * replicas. Everything is read from the components' own counters when scraped, so the hot paths pay
+ * nothing extra. Cache meters follow Micrometer's names: the hit ratio over any window is
+ * {@code cache_gets_total{result="hit"}} over all {@code cache_gets_total}.
+ */
+@Component
+@RequiredArgsConstructor
+public class ApplicationMetrics implements MeterBinder {
+
+    private final ProductDetailCache productDetailCache;
+    private final ProductPayloadCache productPayloadCache;
+    private final ProductSlugCache productSlugCache;
+    private final AuthenticityResultCache authenticityResultCache;
+    private final VariantDiskCache variantDiskCache;
+    private final RequestConcurrencyLimiter requestConcurrencyLimiter;
+    private final VirtualThreadPinningMonitor pinningMonitor;
+    private final ObjectProvider<ReplicaRoutingDataSource> replicaRouting;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bindCache(registry, "product-detail", productDetailCache::stats);
+        bindCache(registry, "product-payload", productPayloadCache::stats);
+        bindCache(registry, "product-slug", productSlugCache::stats);
+        bindCache(registry, "authenticity-result", authenticityResultCache::stats);
+        bindVariantCache(registry);
+
+        Gauge.builder("http.server.requests.admitted", requestConcurrencyLimiter, RequestConcurrencyLimiter::inProgress)
+                .description("Requests holding a slot of request-execution.max-concurrent-requests")
+                .register(registry);
+        FunctionCounter.builder("jvm.threads.virtual.pinned", pinningMonitor, VirtualThreadPinningMonitor::pinnedCount)
+                .description("Virtual threads pinned to their carrier above request-execution.pinned-threshold")
+                .register(registry);
+        replicaRouting.ifAvailable(routing -> bindReplicas(registry, routing));
+    }
+
+    private static void bindCache(MeterRegistry registry, String name, Supplier<CacheStats> stats) {
+        cacheCounter(registry, name, "hit", stats, CacheStats::hitCount);
+        cacheCounter(registry, name, "miss", stats, CacheStats::missCount);
+        FunctionCounter.builder("cache.evictions", stats, source -> source.get().evictionCount())
+                .tag("cache", name)
+                .description("Entries evicted from the cache")
+                .register(registry);
+    }
+
+    private static void cacheCounter(MeterRegistry registry, String name, String result, Supplier<CacheStats> stats,
+                                     ToLongFunction<CacheStats> count) {
+        FunctionCounter.builder("cache.gets", stats, source -> count.applyAsLong(source.get()))
+                .tags("cache", name, "result", result)
+                .description("Cache lookups")
+                .register(registry);
+    }
+
+    private void bindVariantCache(MeterRegistry registry) {
+        String name = "image-variant";
+        FunctionCounter.builder("cache.gets", variantDiskCache, cache -> cache.stats().hits())
+                .tags("cache", name, "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", variantDiskCache, cache -> cache.stats().misses())
+                .tags("cache", name, "result", "miss")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", variantDiskCache, cache -> cache.stats().evictions())
+                .tag("cache", name)
+                .register(registry);
+        Gauge.builder("cache.size", variantDiskCache, cache -> cache.stats().entries())
+                .tag("cache", name)
+                .register(registry);
+        Gauge.builder("cache.disk.usage", variantDiskCache, cache -> cache.stats().bytesOnDisk())
+                .tag("cache", name)
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private static void bindReplicas(MeterRegistry registry, ReplicaRoutingDataSource routing) {
+        for (ReplicaRoutingDataSource.ReplicaStatus replica : routing.status()) {
+            Gauge.builder("datasource.replica.available", routing, source -> status(source, replica.name()).available() ? 1 : 0)
+                    .tag("replica", replica.name())
+                    .description("1 while the replica receives reads")
+                    .register(registry);
+            Gauge.builder("datasource.replica.lag", routing, source -> {
+                        Long lag = status(source, replica.name()).lagSeconds();
+                        return lag != null ? lag : Double.NaN;
+                    })
+                    .tag("replica", replica.name())
+                    .baseUnit("seconds")
+                    .register(registry);
+        }
+    }
+
+    private static ReplicaRoutingDataSource.ReplicaStatus status(ReplicaRoutingDataSource routing, String name) {
+        return routing.status().stream().filter(replica -> replica.name().equals(name)).findFirst().orElseThrow();
+    }
+}
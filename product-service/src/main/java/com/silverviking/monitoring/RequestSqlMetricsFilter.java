@@ -0,0 +1,60 @@
+package com.silverviking.monitoring;
+
+import com.silverviking.configuration.InstrumentationProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Records how many SQL statements a request executed and how many rows it read, per endpoint, as
+ * {@code request.sql.statements} and {@code request.sql.rows}. A request that suddenly runs hundreds
+ * of statements is an N+1 query. Only the fraction of requests set by
+ * {@code instrumentation.sql-sample-rate} is counted.
+ */
+@Component
+public class RequestSqlMetricsFilter extends OncePerRequestFilter {
+
+    private final DistributionSummary.MeterProvider<DistributionSummary> statements;
+    private final DistributionSummary.MeterProvider<DistributionSummary> rows;
+    private final double sampleRate;
+
+    public RequestSqlMetricsFilter(MeterRegistry registry, InstrumentationProperties properties) {
+        this.statements = DistributionSummary.builder("request.sql.statements")
+                .description("SQL statements executed per request")
+                .baseUnit("statements")
+                .withRegistry(registry);
+        this.rows = DistributionSummary.builder("request.sql.rows")
+                .description("Rows read from SQL result sets per request")
+                .baseUnit("rows")
+                .withRegistry(registry);
+        this.sampleRate = properties.getSqlSampleRate();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (sampleRate <= 0 || sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            chain.doFilter(request, response);
+            return;
+        }
+        SqlActivity.Counts counts = SqlActivity.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SqlActivity.end();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            statements.withTags("method", request.getMethod(), "uri", uri).record(counts.statements());
+            rows.withTags("method", request.getMethod(), "uri", uri).record(counts.rows());
+        }
+    }
+}
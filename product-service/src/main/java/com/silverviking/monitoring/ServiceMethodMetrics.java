@@ -0,0 +1,100 @@
+package com.silverviking.monitoring;
+
+import com.silverviking.configuration.InstrumentationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.MethodMatcher;
+import org.springframework.aop.framework.AbstractAdvisingBeanPostProcessor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every public method of the {@code *ServiceImpl} beans as {@code service.method}, tagged with
+ * class, method and exception. The timer wraps the transaction, so it includes commit time. Which
+ * calls are timed is decided by {@code instrumentation.service-sample-rate}; the percentile settings
+ * come from {@code management.metrics.distribution.*.service.method}.
+ */
+@Component
+public class ServiceMethodMetrics extends AbstractAdvisingBeanPostProcessor {
+
+    static final String METER = "service.method";
+    private static final String SERVICE_PACKAGE = "com.silverviking.service.impl";
+
+    public ServiceMethodMetrics(ObjectProvider<MeterRegistry> registry, ObjectProvider<InstrumentationProperties> properties) {
+        ClassFilter services = type -> SERVICE_PACKAGE.equals(type.getPackageName()) && type.getSimpleName().endsWith("ServiceImpl");
+        MethodMatcher publicMethods = new StaticMethodMatcher() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return Modifier.isPublic(method.getModifiers()) && method.getDeclaringClass() != Object.class;
+            }
+        };
+        this.advisor = new DefaultPointcutAdvisor(new ComposablePointcut(services, publicMethods), new TimingInterceptor(registry, properties));
+        // Outermost, so that transaction commit counts towards the call
+        this.beforeExistingAdvisors = true;
+    }
+
+    private static final class TimingInterceptor implements MethodInterceptor {
+
+        private final ObjectProvider<MeterRegistry> registryProvider;
+        private final ObjectProvider<InstrumentationProperties> propertiesProvider;
+        private volatile Timer.MeterProvider<Timer> timers;
+        private volatile double sampleRate = -1;
+
+        TimingInterceptor(ObjectProvider<MeterRegistry> registry, ObjectProvider<InstrumentationProperties> properties) {
+            this.registryProvider = registry;
+            this.propertiesProvider = properties;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            if (!sampled()) {
+                return invocation.proceed();
+            }
+            long started = System.nanoTime();
+            Throwable failure = null;
+            try {
+                return invocation.proceed();
+            } catch (Throwable ex) {
+                failure = ex;
+                throw ex;
+            } finally {
+                timers().withTags(
+                                "class", ClassUtils.getUserClass(invocation.getThis()).getSimpleName(),
+                                "method", invocation.getMethod().getName(),
+                                "exception", failure == null ? "none" : failure.getClass().getSimpleName())
+                        .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        private boolean sampled() {
+            double rate = sampleRate;
+            if (rate < 0) {
+                InstrumentationProperties properties = propertiesProvider.getIfAvailable(InstrumentationProperties::new);
+                rate = sampleRate = properties.getServiceSampleRate();
+            }
+            return rate >= 1 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+        }
+
+        private Timer.MeterProvider<Timer> timers() {
+            Timer.MeterProvider<Timer> provider = timers;
+            if (provider == null) {
+                provider = timers = Timer.builder(METER)
+                        .description("Calls to service implementations")
+                        .withRegistry(registryProvider.getObject());
+            }
+            return provider;
+        }
+    }
+}
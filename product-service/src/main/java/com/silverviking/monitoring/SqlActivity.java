@@ -0,0 +1,195 @@
+package com.silverviking.monitoring;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Counts the JDBC statements executed, by type, and rows read on behalf of the current request or
+ * block. Only connections taken while the thread is inside {@link #begin()} are wrapped, so unsampled
+ * requests and background work use the pooled connections untouched. Scopes nest: a statement counts
+ * towards every scope open on the thread.
+ */
+public final class SqlActivity {
+
+    private static final ThreadLocal<Counts> CURRENT = new ThreadLocal<>();
+
+    private SqlActivity() {
+    }
+
+    public static Counts begin() {
+        Counts counts = new Counts(CURRENT.get());
+        CURRENT.set(counts);
+        return counts;
+    }
+
+    public static void end() {
+        Counts counts = CURRENT.get();
+        if (counts == null || counts.parent == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(counts.parent);
+        }
+    }
+
+    public static DataSource counting(DataSource dataSource) {
+        return new CountingDataSource(dataSource);
+    }
+
+    public enum StatementType {
+        SELECT, INSERT, UPDATE, DELETE, OTHER;
+
+        static StatementType of(String sql) {
+            if (sql == null) {
+                return OTHER;
+            }
+            String statement = sql.stripLeading();
+            while (statement.startsWith("(") || statement.startsWith("/*") && statement.contains("*/")) {
+                statement = statement.substring(statement.startsWith("(") ? 1 : statement.indexOf("*/") + 2).stripLeading();
+            }
+            String keyword = statement.split("[\\s(]", 2)[0].toUpperCase(Locale.ROOT);
+            return switch (keyword) {
+                case "SELECT", "WITH" -> SELECT;
+                case "INSERT" -> INSERT;
+                case "UPDATE" -> UPDATE;
+                case "DELETE" -> DELETE;
+                default -> OTHER;
+            };
+        }
+    }
+
+    public static final class Counts {
+
+        private final Counts parent;
+        private final long[] statements = new long[StatementType.values().length];
+        private long rows;
+
+        private Counts(Counts parent) {
+            this.parent = parent;
+        }
+
+        public long statements() {
+            return Arrays.stream(statements).sum();
+        }
+
+        public long statements(StatementType type) {
+            return statements[type.ordinal()];
+        }
+
+        public long selects() {
+            return statements(StatementType.SELECT);
+        }
+
+        public long writes() {
+            return statements(StatementType.INSERT) + statements(StatementType.UPDATE) + statements(StatementType.DELETE);
+        }
+
+        public long rows() {
+            return rows;
+        }
+
+        private void executed(StatementType type) {
+            for (Counts scope = this; scope != null; scope = scope.parent) {
+                scope.statements[type.ordinal()]++;
+            }
+        }
+
+        private void read() {
+            for (Counts scope = this; scope != null; scope = scope.parent) {
+                scope.rows++;
+            }
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder description = new StringBuilder().append(statements()).append(" statements (");
+            for (StatementType type : StatementType.values()) {
+                if (statements(type) > 0) {
+                    description.append(type).append(' ').append(statements(type)).append(", ");
+                }
+            }
+            return description.append(rows).append(" rows)").toString();
+        }
+    }
+
+    private static final class CountingDataSource extends DelegatingDataSource {
+
+        CountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return wrap(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return wrap(super.getConnection(username, password));
+        }
+
+        private static Connection wrap(Connection connection) {
+            Counts counts = CURRENT.get();
+            return counts == null ? connection : proxy(Connection.class, connection, (target, method, args) -> {
+                Object result = method.invoke(target, args);
+                if (!(result instanceof Statement)) {
+                    return result;
+                }
+                String sql = method.getName().startsWith("prepare") ? (String) args[0] : null;
+                return proxy(method.getReturnType(), result, statementHandler(counts, sql));
+            });
+        }
+
+        // Prepared statements carry their SQL from the start; plain ones get it with each execute or addBatch
+        private static Handler statementHandler(Counts counts, String preparedSql) {
+            String[] sql = {preparedSql};
+            return (target, method, args) -> {
+                String name = method.getName();
+                if ((name.startsWith("execute") || name.equals("addBatch")) && args != null && args.length > 0 && args[0] instanceof String text) {
+                    sql[0] = text;
+                }
+                if (name.startsWith("execute")) {
+                    counts.executed(StatementType.of(sql[0]));
+                }
+                Object result = method.invoke(target, args);
+                return result instanceof ResultSet ? proxy(ResultSet.class, result, (resultSet, next, nextArgs) -> {
+                    Object value = next.invoke(resultSet, nextArgs);
+                    if (next.getName().equals("next") && Boolean.TRUE.equals(value)) {
+                        counts.read();
+                    }
+                    return value;
+                }) : result;
+            };
+        }
+    }
+
+    private interface Handler {
+        Object invoke(Object target, Method method, Object[] args) throws Throwable;
+    }
+
+    // equals and hashCode stay on the proxy, so JDBC resources can still be tracked in hash maps
+    private static <T> T proxy(Class<T> type, Object target, Handler handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> switch (method.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            default -> {
+                try {
+                    yield handler.invoke(target, method, args);
+                } catch (InvocationTargetException ex) {
+                    throw ex.getCause();
+                }
+            }
+        };
+        return type.cast(Proxy.newProxyInstance(SqlActivity.class.getClassLoader(), new Class<?>[]{type}, invocationHandler));
+    }
+}
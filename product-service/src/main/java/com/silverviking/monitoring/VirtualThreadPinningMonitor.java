@@ -0,0 +1,94 @@
+package com.silverviking.monitoring;
+
+import com.silverviking.configuration.RequestExecutionProperties;
+import com.silverviking.configuration.WorkerThreads;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier, typically by blocking I/O such as a JDBC
+ * call inside a {@code synchronized} block, while every other virtual thread waits for a carrier.
+ * Listens to the JDK's {@code jdk.VirtualThreadPinned} flight-recorder event in-process, so it needs
+ * no command-line flags. Each distinct pinning stack is logged once with its frames; later
+ * occurrences are only counted.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 12;
+
+    private final WorkerThreads workerThreads;
+    private final RequestExecutionProperties properties;
+    private final AtomicLong pinned = new AtomicLong();
+    private final Map<String, AtomicLong> pinnedByStack = new ConcurrentHashMap<>();
+    private RecordingStream stream;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!workerThreads.isVirtual() || stream != null) {
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(properties.getPinnedThreshold()).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("Reporting virtual threads pinned for more than {} ms", properties.getPinnedThreshold().toMillis());
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    public long pinnedCount() {
+        return pinned.get();
+    }
+
+    // Occurrences per pinning stack, keyed by its top frames
+    public Map<String, Long> pinnedByStack() {
+        return pinnedByStack.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().get()));
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.incrementAndGet();
+        String stack = describe(event.getStackTrace());
+        AtomicLong count = pinnedByStack.computeIfAbsent(stack, ignored -> new AtomicLong());
+        if (count.getAndIncrement() == 0) {
+            log.warn("Virtual thread pinned for {} ms on {}:{}", event.getDuration().toMillis(),
+                    event.getThread() != null ? event.getThread().getJavaName() : "?", stack);
+        }
+    }
+
+    private static String describe(RecordedStackTrace trace) {
+        if (trace == null) {
+            return " (no stack trace)";
+        }
+        List<RecordedFrame> frames = trace.getFrames();
+        return frames.stream()
+                .limit(LOGGED_FRAMES)
+                .map(frame -> "\n\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber())
+                .collect(Collectors.joining());
+    }
+}
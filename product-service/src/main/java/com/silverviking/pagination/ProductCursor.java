@@ -0,0 +1,79 @@
+package com.silverviking.pagination;
+
+import com.silverviking.domain.Product;
+import com.silverviking.enums.ProductSortField;
+import com.silverviking.exception.BadRequestException;
+import com.silverviking.repository.ProductSummaryRow;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position of the last row of a keyset page: the sort key of that row plus its id as tie-breaker.
+ * Encoded as an opaque base64url token so clients never depend on its layout.
+ */
+public record ProductCursor(ProductSortField sort, Sort.Direction direction, Comparable<?> value, UUID id) {
+
+    private static final String VERSION = "v1";
+
+    // Products without a release date sort after every dated product
+    public static final Date UNDATED = Date.valueOf("9999-12-31");
+
+    public static ProductCursor after(Product product, ProductSortField sort, Sort.Direction direction) {
+        return new ProductCursor(sort, direction, sortKey(product, sort), product.getId());
+    }
+
+    public static ProductCursor after(ProductSummaryRow row, ProductSortField sort, Sort.Direction direction) {
+        Comparable<?> value = switch (sort) {
+            case NAME -> row.name();
+            case PRICE -> row.priceMarket();
+            case RELEASE_DATE -> row.releaseDate() != null ? row.releaseDate() : UNDATED;
+        };
+        return new ProductCursor(sort, direction, value, row.id());
+    }
+
+    public static Comparable<?> sortKey(Product product, ProductSortField sort) {
+        return switch (sort) {
+            case NAME -> product.getName();
+            case PRICE -> product.getPriceMarket();
+            case RELEASE_DATE -> product.getReleaseDate() != null ? product.getReleaseDate() : UNDATED;
+        };
+    }
+
+    public String encode() {
+        String raw = String.join(":", VERSION, sort.name(), direction.name(), id.toString(), String.valueOf(value));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ProductCursor decode(String token, ProductSortField sort, Sort.Direction direction) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":", 5);
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        if (parts.length != 5 || !VERSION.equals(parts[0])) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        if (!sort.name().equals(parts[1]) || !direction.name().equals(parts[2])) {
+            throw new BadRequestException("Cursor was issued for a different sort order");
+        }
+        try {
+            return new ProductCursor(sort, direction, parseValue(sort, parts[4]), UUID.fromString(parts[3]));
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    private static Comparable<?> parseValue(ProductSortField sort, String value) {
+        return switch (sort) {
+            case NAME -> value;
+            case PRICE -> new BigDecimal(value);
+            case RELEASE_DATE -> Date.valueOf(value);
+        };
+    }
+}
@@ -0,0 +1,90 @@
+package com.silverviking.pricing;
+
+import com.silverviking.configuration.PriceAggregateProperties;
+import com.silverviking.enums.PriceDimension;
+import com.silverviking.event.ProductsCommittedEvent;
+import com.silverviking.index.IndexReloader;
+import com.silverviking.index.RebuildCoordinator;
+import com.silverviking.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Price aggregates per series, scale and manufacturer, answered from memory. Built at startup and
+ * periodically, and kept current from {@link ProductsCommittedEvent}, which covers every product
+ * created, updated or deleted by the product service and the importer. A rebuild never holds up those
+ * updates; see {@link RebuildCoordinator}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PriceAggregateIndex {
+
+    private final ProductRepository productRepository;
+    private final PriceAggregateProperties properties;
+    private final IndexReloader reloader;
+
+    private final RebuildCoordinator coordinator = new RebuildCoordinator();
+    private volatile PriceAggregates aggregates;
+
+    @PostConstruct
+    void init() {
+        aggregates = new PriceAggregates(properties.getRelativeAccuracy());
+    }
+
+    public Map<PriceDimension, String> groupsOf(UUID productId) {
+        return aggregates.groupsOf(productId);
+    }
+
+    public Optional<PriceSummary> summary(PriceDimension dimension, String key) {
+        return aggregates.summary(dimension, key);
+    }
+
+    public int size() {
+        return aggregates.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${index-reload.rebuild-interval:PT15M}",
+            initialDelayString = "${index-reload.rebuild-interval:PT15M}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    // A rebuild also corrects any floating-point drift of the running sums
+    public void rebuild() {
+        long started = System.nanoTime();
+        PriceAggregates rebuilt = coordinator.rebuild(() -> reloader.read(() -> {
+            try (Stream<PriceDocument> documents = productRepository.streamPriceDocuments()) {
+                return PriceAggregates.build(documents, properties.getRelativeAccuracy());
+            }
+        }), built -> aggregates = built, this::reload);
+        log.info("Price aggregates built: {} priced products in {} ms",
+                rebuilt.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @EventListener
+    public void onProductsCommitted(ProductsCommittedEvent event) {
+        coordinator.update(event.productIds(), () -> reload(event.productIds()));
+    }
+
+    private void reload(Collection<UUID> productIds) {
+        reloader.reload(productIds, productRepository::findPriceDocumentsByIdIn, PriceDocument::id,
+                document -> aggregates.put(document), id -> aggregates.remove(id));
+    }
+}
@@ -0,0 +1,201 @@
+package com.silverviking.pricing;
+
+import com.silverviking.enums.PriceDimension;
+import com.silverviking.search.ProductFacetIndex;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * One {@link PriceSketch} per series, scale and manufacturer. Each product's last recorded price and
+ * groups are remembered, so an update or deletion takes out exactly what was put in.
+ * <p>
+ * Reads run under a read lock; writes take the write lock.
+ */
+public final class PriceAggregates {
+
+    private final double relativeAccuracy;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, Entry> products = new HashMap<>();
+    private final Map<PriceDimension, Map<String, PriceSketch>> sketches = new EnumMap<>(PriceDimension.class);
+    // Group keys repeat across thousands of products; one String per distinct key is kept
+    private final Map<String, String> keys = new HashMap<>();
+
+    public PriceAggregates(double relativeAccuracy) {
+        this.relativeAccuracy = relativeAccuracy;
+        for (PriceDimension dimension : PriceDimension.values()) {
+            sketches.put(dimension, new HashMap<>());
+        }
+    }
+
+    /**
+     * Builds the aggregates of {@code documents} in parallel: each worker sketches one slice and the
+     * partial sketches are merged, which is exact for bucket histograms.
+     */
+    public static PriceAggregates build(Stream<PriceDocument> documents, double relativeAccuracy) {
+        PriceAggregates aggregates = new PriceAggregates(relativeAccuracy);
+        List<Entry> entries = new ArrayList<>();
+        documents.forEach(document -> {
+            Entry entry = aggregates.entry(document);
+            if (entry != null) {
+                aggregates.products.put(document.id(), entry);
+                entries.add(entry);
+            }
+        });
+        int slices = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), entries.size() / 10_000));
+        IntStream.range(0, slices).parallel()
+                .mapToObj(slice -> {
+                    PriceAggregates partial = new PriceAggregates(relativeAccuracy);
+                    entries.subList(slice * entries.size() / slices, (slice + 1) * entries.size() / slices)
+                            .forEach(entry -> partial.record(entry, true));
+                    return partial;
+                })
+                .toList()
+                .forEach(aggregates::mergeSketches);
+        return aggregates;
+    }
+
+    /**
+     * Adds or replaces a product; one without a price only has its previous contribution removed.
+     */
+    public void put(PriceDocument document) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(document.id());
+            Entry entry = entry(document);
+            if (entry != null) {
+                products.put(document.id(), entry);
+                record(entry, true);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return products.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The group keys of a priced product by dimension; empty when the product is unknown or unpriced.
+     */
+    public Map<PriceDimension, String> groupsOf(UUID id) {
+        lock.readLock().lock();
+        try {
+            Entry entry = products.get(id);
+            if (entry == null) {
+                return Map.of();
+            }
+            Map<PriceDimension, String> groups = new EnumMap<>(PriceDimension.class);
+            for (PriceDimension dimension : PriceDimension.values()) {
+                String key = entry.key(dimension);
+                if (key != null) {
+                    groups.put(dimension, key);
+                }
+            }
+            return groups;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Optional<PriceSummary> summary(PriceDimension dimension, String key) {
+        lock.readLock().lock();
+        try {
+            PriceSketch sketch = sketches.get(dimension).get(key);
+            if (sketch == null || sketch.isEmpty()) {
+                return Optional.empty();
+            }
+            return Optional.of(new PriceSummary(sketch.count(), sketch.mean(),
+                    sketch.quantile(0), sketch.quantile(0.5), sketch.quantile(1)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Same normalization as the scale facet, so its keys can be used to look groups up
+    public static String scaleKey(String scale) {
+        return scale == null || scale.isBlank() ? null : ProductFacetIndex.normalizeKey(scale);
+    }
+
+    private void removeLocked(UUID id) {
+        Entry previous = products.remove(id);
+        if (previous != null) {
+            record(previous, false);
+        }
+    }
+
+    private void record(Entry entry, boolean add) {
+        for (PriceDimension dimension : PriceDimension.values()) {
+            String key = entry.key(dimension);
+            if (key == null) {
+                continue;
+            }
+            Map<String, PriceSketch> groups = sketches.get(dimension);
+            if (add) {
+                groups.computeIfAbsent(key, ignored -> new PriceSketch(relativeAccuracy)).add(entry.price());
+            } else {
+                PriceSketch sketch = groups.get(key);
+                sketch.remove(entry.price());
+                if (sketch.isEmpty()) {
+                    groups.remove(key);
+                }
+            }
+        }
+    }
+
+    private void mergeSketches(PriceAggregates partial) {
+        partial.sketches.forEach((dimension, groups) -> groups.forEach((key, sketch) ->
+                sketches.get(dimension).computeIfAbsent(key, ignored -> new PriceSketch(relativeAccuracy)).merge(sketch)));
+    }
+
+    private Entry entry(PriceDocument document) {
+        BigDecimal price = document.priceMarket();
+        if (price == null) {
+            return null;
+        }
+        return new Entry(canonical(document.seriesId() != null ? document.seriesId().toString() : null),
+                canonical(document.manufacturerId() != null ? document.manufacturerId().toString() : null),
+                canonical(scaleKey(document.scale())),
+                price.doubleValue());
+    }
+
+    private String canonical(String key) {
+        return key != null ? keys.computeIfAbsent(key, ignored -> key) : null;
+    }
+
+    private record Entry(String seriesId, String manufacturerId, String scale, double price) {
+
+        String key(PriceDimension dimension) {
+            return switch (dimension) {
+                case SERIES -> seriesId;
+                case SCALE -> scale;
+                case MANUFACTURER -> manufacturerId;
+            };
+        }
+    }
+}
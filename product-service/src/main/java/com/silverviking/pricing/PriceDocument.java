@@ -0,0 +1,10 @@
+package com.silverviking.pricing;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * The price-relevant columns of one product, read with a projection query.
+ */
+public record PriceDocument(UUID id, Long seriesId, Long manufacturerId, String scale, BigDecimal priceMarket) {
+}
@@ -0,0 +1,141 @@
+package com.silverviking.pricing;
+
+import java.util.Arrays;
+
+/**
+ * Streaming count, mean and quantiles of positive prices in a log-bucketed histogram (the DDSketch
+ * layout): bucket {@code i} counts the values in {@code (gamma^(i-1), gamma^i]}, so every quantile is
+ * answered within the configured relative error whatever the distribution. Unlike a t-digest or KLL
+ * sketch, a value can be taken out again exactly, which is what price updates and deletions need,
+ * and two sketches merge by adding their buckets.
+ * <p>
+ * Memory is one int per bucket between the smallest and largest price seen: about 1,200 buckets
+ * span 1 to 10^10 at 1% error. Not thread-safe; {@link PriceAggregates} guards it.
+ */
+public final class PriceSketch {
+
+    private final double gamma;
+    private final double logGamma;
+
+    private int[] counts = new int[0];
+    // Index of counts[0]
+    private int offset;
+    private long zeroCount;
+    private long count;
+    private double sum;
+
+    public PriceSketch(double relativeAccuracy) {
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+            throw new IllegalArgumentException("relativeAccuracy must be in (0, 1)");
+        }
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+    }
+
+    public void add(double value) {
+        if (value <= 0) {
+            zeroCount++;
+        } else {
+            int index = index(value);
+            grow(index);
+            counts[index - offset]++;
+        }
+        count++;
+        sum += value;
+    }
+
+    /**
+     * Takes out one earlier {@link #add} of {@code value}. Removing a value that was never added
+     * corrupts the sketch, so callers remove exactly what they recorded.
+     */
+    public void remove(double value) {
+        if (value <= 0) {
+            zeroCount--;
+        } else {
+            counts[index(value) - offset]--;
+        }
+        count--;
+        sum -= value;
+        if (count == 0) {
+            // Also clears the rounding drift that repeated add/remove leaves in the sum
+            sum = 0;
+        }
+    }
+
+    public void merge(PriceSketch other) {
+        if (other.gamma != gamma) {
+            throw new IllegalArgumentException("Sketches of different accuracy cannot be merged");
+        }
+        if (other.counts.length > 0) {
+            grow(other.offset);
+            grow(other.offset + other.counts.length - 1);
+            for (int i = 0; i < other.counts.length; i++) {
+                counts[other.offset + i - offset] += other.counts[i];
+            }
+        }
+        zeroCount += other.zeroCount;
+        count += other.count;
+        sum += other.sum;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public double mean() {
+        return count == 0 ? Double.NaN : sum / count;
+    }
+
+    /**
+     * The value at {@code quantile} (0 = minimum, 1 = maximum) within the relative error, or NaN for
+     * an empty sketch.
+     */
+    public double quantile(double quantile) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = (long) Math.floor(quantile * (count - 1));
+        if (rank < zeroCount) {
+            return 0;
+        }
+        long seen = zeroCount;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen > rank) {
+                return value(i + offset);
+            }
+        }
+        return value(offset + counts.length - 1);
+    }
+
+    private int index(double value) {
+        return (int) Math.ceil(Math.log(value) / logGamma);
+    }
+
+    // The point with equal relative distance to both bucket bounds
+    private double value(int index) {
+        return 2 * Math.pow(gamma, index) / (gamma + 1);
+    }
+
+    private void grow(int index) {
+        if (counts.length == 0) {
+            counts = new int[16];
+            offset = index - 8;
+            return;
+        }
+        if (index < offset) {
+            // Grows by at least half again, so a slowly widening range is not copied on every value
+            int extra = Math.max(offset - index, counts.length / 2);
+            int[] grown = new int[counts.length + extra];
+            System.arraycopy(counts, 0, grown, extra, counts.length);
+            counts = grown;
+            offset -= extra;
+        } else if (index >= offset + counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(index - offset + 1, counts.length + counts.length / 2));
+        }
+    }
+}
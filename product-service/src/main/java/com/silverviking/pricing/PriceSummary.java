@@ -0,0 +1,7 @@
+package com.silverviking.pricing;
+
+/**
+ * Aggregates of one series, scale or manufacturer; quantiles are within the sketch's relative error.
+ */
+public record PriceSummary(long count, double mean, double min, double median, double max) {
+}
@@ -0,0 +1,20 @@
+package com.silverviking.repository;
+
+import com.silverviking.domain.CatalogVersion;
+import com.silverviking.enums.CatalogScope;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+
+@Repository
+public interface CatalogVersionRepository extends JpaRepository<CatalogVersion, CatalogScope> {
+
+    @Modifying
+    @Query("update CatalogVersion v set v.version = v.version + 1, v.updatedAt = :now where v.scope in :scopes")
+    int increment(@Param("scopes") Collection<CatalogScope> scopes, @Param("now") Instant now);
+}
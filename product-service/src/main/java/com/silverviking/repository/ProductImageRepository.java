@@ -1,9 +1,26 @@
 package com.silverviking.repository;
 
 import com.silverviking.domain.ProductImage;
+import com.silverviking.search.ImageFingerprintDocument;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
 @Repository
 public interface ProductImageRepository extends JpaRepository<ProductImage, Long> {
+
+    String FINGERPRINT_SELECT = "select new com.silverviking.search.ImageFingerprintDocument("
+            + "i.id, i.product.id, i.phash, i.dhash) "
+            + "from ProductImage i where i.phash is not null";
+
+    @Query(FINGERPRINT_SELECT)
+    Stream<ImageFingerprintDocument> streamFingerprints();
+
+    @Query(FINGERPRINT_SELECT + " and i.product.id = :productId")
+    List<ImageFingerprintDocument> findFingerprintsByProductId(@Param("productId") UUID productId);
 }
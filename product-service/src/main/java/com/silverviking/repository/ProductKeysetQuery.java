@@ -0,0 +1,12 @@
+package com.silverviking.repository;
+
+import com.silverviking.enums.ProductSortField;
+import com.silverviking.pagination.ProductCursor;
+import org.springframework.data.domain.Sort;
+
+/**
+ * One keyset page request: optional category/series scope, sort order, the position to resume after and the row limit.
+ */
+public record ProductKeysetQuery(Long categoryId, Long seriesId, ProductSortField sort, Sort.Direction direction,
+                                 ProductCursor after, int limit) {
+}
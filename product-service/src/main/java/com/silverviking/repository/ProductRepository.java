@@ -1,15 +1,67 @@
 package com.silverviking.repository;
 
+import com.silverviking.cache.EntityVersion;
 import com.silverviking.domain.Product;
+import com.silverviking.pricing.PriceDocument;
+import com.silverviking.search.ProductFacetDocument;
+import com.silverviking.search.ProductSearchDocument;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, UUID> {
+public interface ProductRepository extends JpaRepository<Product, UUID>, ProductRepositoryCustom {
+
+    String SEARCH_DOCUMENT_SELECT = "select new com.silverviking.search.ProductSearchDocument("
+            + "p.id, p.name, p.description, p.material, s.name, m.name) "
+            + "from Product p left join p.series s left join p.manufacturer m";
+
+    String FACET_DOCUMENT_SELECT = "select new com.silverviking.search.ProductFacetDocument("
+            + "p.id, p.category.id, p.series.id, p.manufacturer.id, p.scale, p.material, p.isReleased, p.priceMarket) "
+            + "from Product p";
+
+    String PRICE_DOCUMENT_SELECT = "select new com.silverviking.pricing.PriceDocument("
+            + "p.id, p.series.id, p.manufacturer.id, p.scale, p.priceMarket) "
+            + "from Product p";
+
     List<Product> findByCategoryId(Long categoryId);
     List<Product> findBySeriesId(Long seriesId);
     List<Product> findByManufacturerId(Long manufacturerId);
+
+    @Query("select p.id from Product p where p.slug = :slug")
+    Optional<UUID> findIdBySlug(@Param("slug") String slug);
+
+    @Query("select new com.silverviking.cache.EntityVersion(p.version, p.updatedAt) from Product p where p.id = :id")
+    Optional<EntityVersion> findVersionById(@Param("id") UUID id);
+
+    @Query(SEARCH_DOCUMENT_SELECT)
+    Stream<ProductSearchDocument> streamSearchDocuments();
+
+    @Query(SEARCH_DOCUMENT_SELECT + " where p.id in :ids")
+    List<ProductSearchDocument> findSearchDocumentsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query(SEARCH_DOCUMENT_SELECT + " where s.id = :seriesId")
+    List<ProductSearchDocument> findSearchDocumentsBySeriesId(@Param("seriesId") Long seriesId);
+
+    @Query(SEARCH_DOCUMENT_SELECT + " where m.id = :manufacturerId")
+    List<ProductSearchDocument> findSearchDocumentsByManufacturerId(@Param("manufacturerId") Long manufacturerId);
+
+    @Query(FACET_DOCUMENT_SELECT)
+    Stream<ProductFacetDocument> streamFacetDocuments();
+
+    @Query(FACET_DOCUMENT_SELECT + " where p.id in :ids")
+    List<ProductFacetDocument> findFacetDocumentsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query(PRICE_DOCUMENT_SELECT)
+    Stream<PriceDocument> streamPriceDocuments();
+
+    @Query(PRICE_DOCUMENT_SELECT + " where p.id in :ids")
+    List<PriceDocument> findPriceDocumentsByIdIn(@Param("ids") Collection<UUID> ids);
 }
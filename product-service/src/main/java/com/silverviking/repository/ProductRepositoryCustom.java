@@ -0,0 +1,10 @@
+package com.silverviking.repository;
+
+import com.silverviking.domain.Product;
+
+import java.util.List;
+
+public interface ProductRepositoryCustom {
+    List<Product> findKeysetPage(ProductKeysetQuery query);
+    List<ProductSummaryRow> findKeysetSummaryPage(ProductKeysetQuery query);
+}
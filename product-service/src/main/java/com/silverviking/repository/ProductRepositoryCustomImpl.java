@@ -0,0 +1,162 @@
+package com.silverviking.repository;
+
+import com.silverviking.domain.Product;
+import com.silverviking.domain.ProductImage;
+import com.silverviking.enums.ProductSortField;
+import com.silverviking.pagination.ProductCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Product> findKeysetPage(ProductKeysetQuery query) {
+        return page(query, cb -> {
+            CriteriaQuery<Product> cq = cb.createQuery(Product.class);
+            Root<Product> root = cq.from(Product.class);
+            // Nested category/series/manufacturer come from the reference snapshot; images are batch loaded for the page
+            cq.select(root);
+            return new Selection<>(cq, root);
+        });
+    }
+
+    @Override
+    public List<ProductSummaryRow> findKeysetSummaryPage(ProductKeysetQuery query) {
+        return page(query, cb -> {
+            CriteriaQuery<ProductSummaryRow> cq = cb.createQuery(ProductSummaryRow.class);
+            Root<Product> root = cq.from(Product.class);
+
+            // At most one image row per product: the first flagged thumbnail, else the first image
+            Join<Product, ProductImage> thumbnail = root.join("images", JoinType.LEFT);
+            thumbnail.on(cb.equal(thumbnail.get("id"),
+                    cb.coalesce(firstImageId(cb, cq, root, true), firstImageId(cb, cq, root, false))));
+
+            cq.select(cb.construct(ProductSummaryRow.class,
+                    root.get("id"),
+                    root.get("name"),
+                    root.get("slug"),
+                    root.get("priceMarket"),
+                    root.get("isReleased"),
+                    root.get("releaseDate"),
+                    root.get("series").get("id"),
+                    thumbnail.get("imageUrl"),
+                    thumbnail.get("contentHash"),
+                    thumbnail.get("status")));
+            return new Selection<>(cq, root);
+        });
+    }
+
+    private static Subquery<Long> firstImageId(CriteriaBuilder cb, CriteriaQuery<?> cq, Root<Product> product,
+                                               boolean thumbnailOnly) {
+        Subquery<Long> subquery = cq.subquery(Long.class);
+        Root<ProductImage> image = subquery.from(ProductImage.class);
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(image.get("product"), product));
+        if (thumbnailOnly) {
+            predicates.add(cb.isTrue(image.get("isThumbnail")));
+        }
+        return subquery.select(cb.min(image.get("id"))).where(predicates.toArray(Predicate[]::new));
+    }
+
+    /**
+     * Undated products sort after every dated one. Comparing a coalesced date would keep the database
+     * off the (release_date, id) index, so dated and undated rows are read as two range scans on the
+     * raw column, in sort order; the second only runs when the first does not fill the page.
+     */
+    private <T> List<T> page(ProductKeysetQuery query, Function<CriteriaBuilder, Selection<T>> select) {
+        if (query.sort() != ProductSortField.RELEASE_DATE) {
+            return fetch(query, select, Segment.ALL, query.after(), query.limit());
+        }
+        ProductCursor after = query.after();
+        boolean afterUndated = after != null && ProductCursor.UNDATED.equals(after.value());
+        List<Segment> segments = query.direction() == Sort.Direction.ASC
+                ? List.of(Segment.DATED, Segment.UNDATED)
+                : List.of(Segment.UNDATED, Segment.DATED);
+        List<T> rows = new ArrayList<>();
+        // Segments before the one holding the cursor are skipped, those after it are read from their start
+        boolean pastCursor = after == null;
+        for (Segment segment : segments) {
+            boolean holdsCursor = after != null && afterUndated == (segment == Segment.UNDATED);
+            if (!pastCursor && !holdsCursor) {
+                continue;
+            }
+            rows.addAll(fetch(query, select, segment, holdsCursor ? after : null, query.limit() - rows.size()));
+            pastCursor = true;
+            if (rows.size() == query.limit()) {
+                break;
+            }
+        }
+        return rows;
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private <T> List<T> fetch(ProductKeysetQuery query, Function<CriteriaBuilder, Selection<T>> select, Segment segment,
+                              ProductCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        Selection<T> selection = select.apply(cb);
+        Root<Product> root = selection.root();
+        List<Predicate> predicates = new ArrayList<>();
+        if (query.categoryId() != null) {
+            predicates.add(cb.equal(root.get("category").get("id"), query.categoryId()));
+        }
+        if (query.seriesId() != null) {
+            predicates.add(cb.equal(root.get("series").get("id"), query.seriesId()));
+        }
+
+        Expression<Comparable> key = root.get(query.sort().getAttribute());
+        Expression<UUID> id = root.get("id");
+        boolean ascending = query.direction() == Sort.Direction.ASC;
+        List<Order> order;
+        if (segment == Segment.UNDATED) {
+            predicates.add(cb.isNull(key));
+            if (after != null) {
+                predicates.add(ascending ? cb.greaterThan(id, after.id()) : cb.lessThan(id, after.id()));
+            }
+            order = List.of(ascending ? cb.asc(id) : cb.desc(id));
+        } else {
+            if (segment == Segment.DATED) {
+                predicates.add(cb.isNotNull(key));
+            }
+            if (after != null) {
+                // (key, id) > (cursorKey, cursorId) expanded into a form every dialect can use with a (key, id) index
+                Comparable value = after.value();
+                predicates.add(ascending
+                        ? cb.or(cb.greaterThan(key, value), cb.and(cb.equal(key, value), cb.greaterThan(id, after.id())))
+                        : cb.or(cb.lessThan(key, value), cb.and(cb.equal(key, value), cb.lessThan(id, after.id()))));
+            }
+            order = ascending ? List.of(cb.asc(key), cb.asc(id)) : List.of(cb.desc(key), cb.desc(id));
+        }
+
+        selection.query().where(predicates.toArray(Predicate[]::new)).orderBy(order);
+        return entityManager.createQuery(selection.query())
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private enum Segment {
+        ALL,
+        DATED,
+        UNDATED
+    }
+
+    private record Selection<T>(CriteriaQuery<T> query, Root<Product> root) {
+    }
+}
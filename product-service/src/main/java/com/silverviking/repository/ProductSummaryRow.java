@@ -0,0 +1,23 @@
+package com.silverviking.repository;
+
+import com.silverviking.enums.ImageStatus;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.util.UUID;
+
+/**
+ * The listing columns of one product plus its thumbnail URL, read with a constructor projection so
+ * the description and the image collection are never loaded.
+ */
+public record ProductSummaryRow(UUID id,
+                                String name,
+                                String slug,
+                                BigDecimal priceMarket,
+                                boolean released,
+                                Date releaseDate,
+                                Long seriesId,
+                                String thumbnailUrl,
+                                String thumbnailHash,
+                                ImageStatus thumbnailStatus) {
+}
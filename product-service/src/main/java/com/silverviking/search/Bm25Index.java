@@ -0,0 +1,275 @@
+package com.silverviking.search;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index ranked with Okapi BM25. Every document occupies an int slot; a posting
+ * list is a pair of parallel arrays (slot, weighted term frequency), so a query touches primitive
+ * arrays only. Slots of removed documents are reused, and each slot remembers its terms so a
+ * document can be removed without scanning the whole dictionary.
+ * <p>
+ * Searches run concurrently under a read lock; writes take the write lock.
+ */
+public final class Bm25Index {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<UUID, Integer> slotsById = new HashMap<>();
+
+    private UUID[] ids = new UUID[INITIAL_CAPACITY];
+    private float[] lengths = new float[INITIAL_CAPACITY];
+    private String[][] slotTerms = new String[INITIAL_CAPACITY][];
+    private int[] freeSlots = new int[INITIAL_CAPACITY];
+    private int freeCount;
+    private int slotCount;
+    private double totalLength;
+
+    /**
+     * Adds or replaces a document. {@code termFrequencies} maps each term to its (field weighted)
+     * frequency; the document length is their sum.
+     */
+    public void put(UUID id, Map<String, Float> termFrequencies) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            if (termFrequencies.isEmpty()) {
+                return;
+            }
+            int slot = allocateSlot();
+            String[] terms = new String[termFrequencies.size()];
+            float length = 0;
+            int i = 0;
+            for (Map.Entry<String, Float> entry : termFrequencies.entrySet()) {
+                terms[i++] = entry.getKey();
+                length += entry.getValue();
+                postings.computeIfAbsent(entry.getKey(), term -> new Postings()).add(slot, entry.getValue());
+            }
+            ids[slot] = id;
+            lengths[slot] = length;
+            slotTerms[slot] = terms;
+            slotsById.put(id, slot);
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            return removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Scores every document containing at least one of the terms and returns hits
+     * {@code [offset, offset + limit)} by descending score.
+     */
+    public SearchResult search(Collection<String> terms, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            int documentCount = slotsById.size();
+            if (documentCount == 0 || terms.isEmpty()) {
+                return SearchResult.EMPTY;
+            }
+            float averageLength = (float) (totalLength / documentCount);
+            Set<String> distinct = new LinkedHashSet<>(terms);
+            Postings[] lists = new Postings[distinct.size()];
+            float[] idfs = new float[lists.length];
+            int listCount = 0;
+            int postingHits = 0;
+            for (String term : distinct) {
+                Postings list = postings.get(term);
+                if (list != null) {
+                    lists[listCount] = list;
+                    idfs[listCount++] = (float) Math.log(1 + (documentCount - list.size + 0.5) / (list.size + 0.5));
+                    postingHits += list.size;
+                }
+            }
+            if (listCount == 0) {
+                return SearchResult.EMPTY;
+            }
+
+            SlotScores scores = new SlotScores(Math.min(postingHits, slotCount));
+            for (int t = 0; t < listCount; t++) {
+                Postings list = lists[t];
+                for (int i = 0; i < list.size; i++) {
+                    int slot = list.slots[i];
+                    float tf = list.frequencies[i];
+                    float norm = K1 * (1 - B + B * lengths[slot] / averageLength);
+                    scores.add(slot, idfs[t] * tf * (K1 + 1) / (tf + norm));
+                }
+            }
+            return new SearchResult(scores.size, topHits(scores, offset, limit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<SearchHit> topHits(SlotScores scores, int offset, int limit) {
+        int wanted = offset + limit;
+        if (offset >= scores.size || limit <= 0) {
+            return List.of();
+        }
+        // Min-heap of the best "wanted" matches; ties broken by id so paging is stable
+        Comparator<Integer> order = Comparator.<Integer>comparingDouble(scores::score)
+                .thenComparing(match -> ids[scores.slot(match)], Comparator.reverseOrder());
+        PriorityQueue<Integer> heap = new PriorityQueue<>(Math.min(wanted, scores.size) + 1, order);
+        for (int i = 0; i < scores.size; i++) {
+            heap.offer(i);
+            if (heap.size() > wanted) {
+                heap.poll();
+            }
+        }
+        SearchHit[] ranked = new SearchHit[heap.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            int match = heap.poll();
+            ranked[i] = new SearchHit(ids[scores.slot(match)], scores.score(match));
+        }
+        return List.of(Arrays.copyOfRange(ranked, offset, ranked.length));
+    }
+
+    private boolean removeLocked(UUID id) {
+        Integer slot = slotsById.remove(id);
+        if (slot == null) {
+            return false;
+        }
+        for (String term : slotTerms[slot]) {
+            Postings list = postings.get(term);
+            list.remove(slot);
+            if (list.size == 0) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= lengths[slot];
+        ids[slot] = null;
+        lengths[slot] = 0;
+        slotTerms[slot] = null;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+        return true;
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (slotCount == ids.length) {
+            int capacity = slotCount * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            slotTerms = Arrays.copyOf(slotTerms, capacity);
+        }
+        return slotCount++;
+    }
+
+    private static final class Postings {
+
+        private int[] slots = new int[4];
+        private float[] frequencies = new float[4];
+        private int size;
+
+        void add(int slot, float frequency) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            slots[size] = slot;
+            frequencies[size] = frequency;
+            size++;
+        }
+
+        // Order inside a posting list does not matter, so removal swaps the last entry in
+        void remove(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    size--;
+                    slots[i] = slots[size];
+                    frequencies[i] = frequencies[size];
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Open-addressing map from slot to accumulated score, sized by the postings a query touches rather
+     * than by the number of slots, so a selective query over a large index allocates little. Matches are
+     * numbered in insertion order for ranking.
+     */
+    private static final class SlotScores {
+
+        // slot + 1, so 0 marks an empty bucket
+        private final int[] keys;
+        private final float[] values;
+        private final int[] buckets;
+        private final int mask;
+        private int size;
+
+        SlotScores(int expected) {
+            // At most half full
+            int capacity = Integer.highestOneBit(Math.max(expected, 1) * 2 - 1) << 1;
+            keys = new int[capacity];
+            values = new float[capacity];
+            buckets = new int[expected];
+            mask = capacity - 1;
+        }
+
+        void add(int slot, float score) {
+            int hash = slot * 0x9E3779B9;
+            int bucket = (hash ^ hash >>> 16) & mask;
+            while (keys[bucket] != 0 && keys[bucket] != slot + 1) {
+                bucket = (bucket + 1) & mask;
+            }
+            if (keys[bucket] == 0) {
+                keys[bucket] = slot + 1;
+                buckets[size++] = bucket;
+            }
+            values[bucket] += score;
+        }
+
+        int slot(int match) {
+            return keys[buckets[match]] - 1;
+        }
+
+        float score(int match) {
+            return values[buckets[match]];
+        }
+    }
+
+    public record SearchHit(UUID id, float score) {
+    }
+
+    public record SearchResult(int totalHits, List<SearchHit> hits) {
+
+        public static final SearchResult EMPTY = new SearchResult(0, List.of());
+    }
+}
@@ -0,0 +1,195 @@
+package com.silverviking.search;
+
+import com.silverviking.enums.ProductFacet;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * One compressed bitmap of document slots per facet value. Filtering is a bitmap intersection and
+ * every facet count is an intersection cardinality, so one query answers both without touching
+ * the database.
+ * <p>
+ * Slots are handed out in increasing order and not reused; a rebuild compacts them. Queries run
+ * under a read lock; writes take the write lock.
+ */
+public final class FacetIndex {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<ProductFacet, Map<String, RoaringBitmap>> bitmaps = new EnumMap<>(ProductFacet.class);
+    private final Map<ProductFacet, Map<String, String>> labels = new EnumMap<>(ProductFacet.class);
+    private final RoaringBitmap live = new RoaringBitmap();
+    private final Map<UUID, Integer> slotsById = new HashMap<>();
+
+    private UUID[] ids = new UUID[INITIAL_CAPACITY];
+    private Map<ProductFacet, List<FacetValue>>[] slotValues = newSlotValues(INITIAL_CAPACITY);
+    private int slotCount;
+
+    public FacetIndex() {
+        for (ProductFacet facet : ProductFacet.values()) {
+            bitmaps.put(facet, new HashMap<>());
+            labels.put(facet, new HashMap<>());
+        }
+    }
+
+    public void put(UUID id, Map<ProductFacet, List<FacetValue>> values) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            if (slotCount == ids.length) {
+                ids = Arrays.copyOf(ids, slotCount * 2);
+                slotValues = Arrays.copyOf(slotValues, slotCount * 2);
+            }
+            int slot = slotCount++;
+            values.forEach((facet, facetValues) -> {
+                for (FacetValue value : facetValues) {
+                    bitmaps.get(facet).computeIfAbsent(value.key(), key -> new RoaringBitmap()).add(slot);
+                    if (value.label() != null) {
+                        labels.get(facet).putIfAbsent(value.key(), value.label());
+                    }
+                }
+            });
+            ids[slot] = id;
+            slotValues[slot] = values;
+            slotsById.put(id, slot);
+            live.add(slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            return removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Run containers shrink the mostly contiguous bitmaps a full rebuild produces
+    public void optimize() {
+        lock.writeLock().lock();
+        try {
+            live.runOptimize();
+            bitmaps.values().forEach(values -> values.values().forEach(RoaringBitmap::runOptimize));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Values selected within one facet are OR-ed, facets are AND-ed. The counts of a facet are taken
+     * with every other facet's selection applied but not its own, so unselected alternatives keep
+     * showing how many products they would add.
+     */
+    public FacetResult query(Map<ProductFacet, Set<String>> selected, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            Map<ProductFacet, RoaringBitmap> selections = new EnumMap<>(ProductFacet.class);
+            selected.forEach((facet, keys) -> {
+                if (!keys.isEmpty()) {
+                    RoaringBitmap union = new RoaringBitmap();
+                    for (String key : keys) {
+                        RoaringBitmap bitmap = bitmaps.get(facet).get(key);
+                        if (bitmap != null) {
+                            union.or(bitmap);
+                        }
+                    }
+                    selections.put(facet, union);
+                }
+            });
+
+            RoaringBitmap matching = intersect(selections, null);
+            int total = matching.getCardinality();
+            List<UUID> page = new ArrayList<>(Math.max(0, Math.min(limit, total - offset)));
+            for (int rank = offset; rank < total && page.size() < limit; rank++) {
+                page.add(ids[matching.select(rank)]);
+            }
+
+            Map<ProductFacet, List<FacetCount>> counts = new EnumMap<>(ProductFacet.class);
+            for (ProductFacet facet : ProductFacet.values()) {
+                RoaringBitmap base = selections.containsKey(facet) ? intersect(selections, facet) : matching;
+                Set<String> selectedKeys = selected.getOrDefault(facet, Set.of());
+                List<FacetCount> facetCounts = new ArrayList<>();
+                bitmaps.get(facet).forEach((key, bitmap) -> {
+                    int count = RoaringBitmap.andCardinality(base, bitmap);
+                    if (count > 0 || selectedKeys.contains(key)) {
+                        facetCounts.add(new FacetCount(key, labels.get(facet).get(key), count));
+                    }
+                });
+                facetCounts.sort(Comparator.comparingInt(FacetCount::count).reversed().thenComparing(FacetCount::key));
+                counts.put(facet, facetCounts);
+            }
+            return new FacetResult(total, page, counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private RoaringBitmap intersect(Map<ProductFacet, RoaringBitmap> selections, ProductFacet skipped) {
+        RoaringBitmap result = live.clone();
+        selections.forEach((facet, bitmap) -> {
+            if (facet != skipped) {
+                result.and(bitmap);
+            }
+        });
+        return result;
+    }
+
+    private boolean removeLocked(UUID id) {
+        Integer slot = slotsById.remove(id);
+        if (slot == null) {
+            return false;
+        }
+        slotValues[slot].forEach((facet, facetValues) -> {
+            for (FacetValue value : facetValues) {
+                RoaringBitmap bitmap = bitmaps.get(facet).get(value.key());
+                bitmap.remove(slot);
+                if (bitmap.isEmpty()) {
+                    bitmaps.get(facet).remove(value.key());
+                    labels.get(facet).remove(value.key());
+                }
+            }
+        });
+        live.remove(slot);
+        ids[slot] = null;
+        slotValues[slot] = null;
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<ProductFacet, List<FacetValue>>[] newSlotValues(int capacity) {
+        return new Map[capacity];
+    }
+
+    public record FacetValue(String key, String label) {
+    }
+
+    public record FacetCount(String key, String label, int count) {
+    }
+
+    public record FacetResult(int total, List<UUID> ids, Map<ProductFacet, List<FacetCount>> counts) {
+    }
+}
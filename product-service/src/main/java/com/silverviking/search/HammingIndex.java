@@ -0,0 +1,252 @@
+package com.silverviking.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Nearest-neighbour index over 64-bit perceptual hashes by Hamming distance, using multi-index
+ * hashing: the primary hash is split into four 16-bit chunks, each with its own table from chunk
+ * value to slots. Two hashes within distance {@code r} agree to within {@code r / 4} bits on at
+ * least one chunk, so a query probes every chunk value within radius 0, 1, 2... of its own chunks
+ * and stops as soon as nothing unseen can beat the current results. A near-duplicate is found in a
+ * handful of bucket reads instead of a scan of every hash.
+ * <p>
+ * Matches rank by primary distance, then by the secondary hash. Slots of removed images are reused,
+ * and queries run concurrently under a read lock; writes take the write lock.
+ */
+public final class HammingIndex {
+
+    private static final int CHUNKS = 4;
+    private static final int CHUNK_BITS = 16;
+    private static final int CHUNK_VALUES = 1 << CHUNK_BITS;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final int[][][] buckets = new int[CHUNKS][CHUNK_VALUES][];
+    private final int[][] bucketSizes = new int[CHUNKS][CHUNK_VALUES];
+    private final Map<Long, Integer> slotsById = new HashMap<>();
+    private final Map<UUID, List<Long>> idsByOwner = new HashMap<>();
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private UUID[] owners = new UUID[INITIAL_CAPACITY];
+    private long[] primaries = new long[INITIAL_CAPACITY];
+    private long[] secondaries = new long[INITIAL_CAPACITY];
+    private int[] freeSlots = new int[INITIAL_CAPACITY];
+    private int freeCount;
+    private int slotCount;
+
+    /**
+     * Adds or replaces the hashes of one image.
+     */
+    public void put(long id, UUID owner, long primary, long secondary) {
+        lock.writeLock().lock();
+        try {
+            putLocked(new Entry(id, owner, primary, secondary));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces every image of {@code owner} with {@code entries}; an empty list removes the owner.
+     */
+    public void replaceOwner(UUID owner, List<Entry> entries) {
+        lock.writeLock().lock();
+        try {
+            List<Long> previous = idsByOwner.get(owner);
+            if (previous != null) {
+                List.copyOf(previous).forEach(this::removeLocked);
+            }
+            entries.forEach(this::putLocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(long id) {
+        lock.writeLock().lock();
+        try {
+            return removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} images whose primary hash is within {@code maxDistance} bits of
+     * {@code primary}, nearest first.
+     */
+    public List<Match> search(long primary, long secondary, int limit, int maxDistance) {
+        if (limit <= 0 || maxDistance < 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            if (slotsById.isEmpty()) {
+                return List.of();
+            }
+            // Max-heap of the best matches so far; the worst one is evicted first
+            Comparator<Match> nearestFirst = Comparator.comparingInt(Match::distance)
+                    .thenComparingInt(Match::secondaryDistance)
+                    .thenComparingLong(Match::id);
+            PriorityQueue<Match> best = new PriorityQueue<>(limit + 1, nearestFirst.reversed());
+            long[] seen = new long[(slotCount + 63) >>> 6];
+            int maxRadius = Math.min(maxDistance / CHUNKS, CHUNK_BITS);
+
+            for (int radius = 0; radius <= maxRadius; radius++) {
+                for (int chunk = 0; chunk < CHUNKS; chunk++) {
+                    int value = chunk(primary, chunk);
+                    // Every mask with exactly "radius" bits set, in increasing order (Gosper's hack)
+                    int mask = (1 << radius) - 1;
+                    while (mask < CHUNK_VALUES) {
+                        probe(chunk, value ^ mask, primary, secondary, limit, maxDistance, seen, best);
+                        if (mask == 0) {
+                            break;
+                        }
+                        int lowest = mask & -mask;
+                        int ripple = mask + lowest;
+                        mask = (((ripple ^ mask) >>> 2) / lowest) | ripple;
+                    }
+                }
+                // Every hash within 4 * radius + 3 bits has now been seen
+                if (best.size() == limit && best.peek().distance() <= CHUNKS * radius + CHUNKS - 1) {
+                    break;
+                }
+            }
+
+            Match[] ranked = new Match[best.size()];
+            for (int i = ranked.length - 1; i >= 0; i--) {
+                ranked[i] = best.poll();
+            }
+            return List.of(ranked);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void probe(int chunk, int value, long primary, long secondary, int limit, int maxDistance,
+                       long[] seen, PriorityQueue<Match> best) {
+        int[] slots = buckets[chunk][value];
+        int size = bucketSizes[chunk][value];
+        for (int i = 0; i < size; i++) {
+            int slot = slots[i];
+            long bit = 1L << slot;
+            if ((seen[slot >>> 6] & bit) != 0) {
+                continue;
+            }
+            seen[slot >>> 6] |= bit;
+            int distance = Long.bitCount(primaries[slot] ^ primary);
+            if (distance > maxDistance) {
+                continue;
+            }
+            Match match = new Match(ids[slot], owners[slot], distance, Long.bitCount(secondaries[slot] ^ secondary));
+            if (best.size() < limit) {
+                best.offer(match);
+            } else if (best.comparator().compare(match, best.peek()) > 0) {
+                best.poll();
+                best.offer(match);
+            }
+        }
+    }
+
+    private void putLocked(Entry entry) {
+        removeLocked(entry.id());
+        int slot = allocateSlot();
+        ids[slot] = entry.id();
+        owners[slot] = entry.owner();
+        primaries[slot] = entry.primary();
+        secondaries[slot] = entry.secondary();
+        for (int chunk = 0; chunk < CHUNKS; chunk++) {
+            addToBucket(chunk, chunk(entry.primary(), chunk), slot);
+        }
+        slotsById.put(entry.id(), slot);
+        idsByOwner.computeIfAbsent(entry.owner(), owner -> new ArrayList<>(2)).add(entry.id());
+    }
+
+    private boolean removeLocked(long id) {
+        Integer slot = slotsById.remove(id);
+        if (slot == null) {
+            return false;
+        }
+        for (int chunk = 0; chunk < CHUNKS; chunk++) {
+            removeFromBucket(chunk, chunk(primaries[slot], chunk), slot);
+        }
+        List<Long> siblings = idsByOwner.get(owners[slot]);
+        siblings.remove(id);
+        if (siblings.isEmpty()) {
+            idsByOwner.remove(owners[slot]);
+        }
+        owners[slot] = null;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+        return true;
+    }
+
+    private void addToBucket(int chunk, int value, int slot) {
+        int[] slots = buckets[chunk][value];
+        int size = bucketSizes[chunk][value];
+        if (slots == null) {
+            slots = buckets[chunk][value] = new int[2];
+        } else if (size == slots.length) {
+            slots = buckets[chunk][value] = Arrays.copyOf(slots, size * 2);
+        }
+        slots[size] = slot;
+        bucketSizes[chunk][value] = size + 1;
+    }
+
+    // Order inside a bucket does not matter, so removal swaps the last entry in
+    private void removeFromBucket(int chunk, int value, int slot) {
+        int[] slots = buckets[chunk][value];
+        int size = bucketSizes[chunk][value];
+        for (int i = 0; i < size; i++) {
+            if (slots[i] == slot) {
+                slots[i] = slots[size - 1];
+                bucketSizes[chunk][value] = size - 1;
+                return;
+            }
+        }
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (slotCount == ids.length) {
+            int capacity = slotCount * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            owners = Arrays.copyOf(owners, capacity);
+            primaries = Arrays.copyOf(primaries, capacity);
+            secondaries = Arrays.copyOf(secondaries, capacity);
+        }
+        return slotCount++;
+    }
+
+    private static int chunk(long hash, int chunk) {
+        return (int) (hash >>> (chunk * CHUNK_BITS)) & (CHUNK_VALUES - 1);
+    }
+
+    public record Entry(long id, UUID owner, long primary, long secondary) {
+    }
+
+    public record Match(long id, UUID owner, int distance, int secondaryDistance) {
+    }
+}
@@ -0,0 +1,9 @@
+package com.silverviking.search;
+
+import java.util.UUID;
+
+/**
+ * The fingerprint of one processed image, read with a projection query.
+ */
+public record ImageFingerprintDocument(Long imageId, UUID productId, Long phash, Long dhash) {
+}
@@ -0,0 +1,86 @@
+package com.silverviking.search;
+
+import com.silverviking.event.ProductChangedEvent;
+import com.silverviking.index.IndexReloader;
+import com.silverviking.index.RebuildCoordinator;
+import com.silverviking.repository.ProductImageRepository;
+import com.silverviking.storage.ImageFingerprint;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Perceptual fingerprints of every processed product image, searchable by Hamming distance. Built
+ * at startup and periodically, and kept current as images are processed or products deleted. A rebuild
+ * never holds up those updates; see {@link RebuildCoordinator}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ImageFingerprintIndex {
+
+    private final ProductImageRepository productImageRepository;
+    private final IndexReloader reloader;
+
+    private final RebuildCoordinator coordinator = new RebuildCoordinator();
+    private volatile HammingIndex index = new HammingIndex();
+
+    public List<HammingIndex.Match> search(ImageFingerprint fingerprint, int limit, int maxDistance) {
+        return index.search(fingerprint.phash(), fingerprint.dhash(), limit, maxDistance);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${index-reload.rebuild-interval:PT15M}",
+            initialDelayString = "${index-reload.rebuild-interval:PT15M}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        long started = System.nanoTime();
+        HammingIndex rebuilt = coordinator.rebuild(() -> reloader.read(() -> {
+            HammingIndex built = new HammingIndex();
+            try (Stream<ImageFingerprintDocument> documents = productImageRepository.streamFingerprints()) {
+                documents.forEach(document -> built.put(document.imageId(), document.productId(),
+                        document.phash(), document.dhash()));
+            }
+            return built;
+        }), built -> index = built, productIds -> productIds.forEach(this::reload));
+        log.info("Image fingerprint index built: {} images in {} ms",
+                rebuilt.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // A deleted product simply has no fingerprints left to load
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.type() != ProductChangedEvent.Type.IMAGES_CHANGED && event.type() != ProductChangedEvent.Type.DELETED) {
+            return;
+        }
+        coordinator.update(Set.of(event.productId()), () -> reload(event.productId()));
+    }
+
+    private void reload(UUID productId) {
+        List<HammingIndex.Entry> entries = reloader.read(() -> productImageRepository.findFingerprintsByProductId(productId))
+                .stream()
+                .map(document -> new HammingIndex.Entry(document.imageId(), document.productId(), document.phash(), document.dhash()))
+                .toList();
+        index.replaceOwner(productId, entries);
+    }
+}
@@ -0,0 +1,17 @@
+package com.silverviking.search;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * The facet-relevant columns of one product, read with a projection query.
+ */
+public record ProductFacetDocument(UUID id,
+                                   Long categoryId,
+                                   Long seriesId,
+                                   Long manufacturerId,
+                                   String scale,
+                                   String material,
+                                   boolean released,
+                                   BigDecimal priceMarket) {
+}
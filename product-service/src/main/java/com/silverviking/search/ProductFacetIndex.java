@@ -0,0 +1,148 @@
+package com.silverviking.search;
+
+import com.silverviking.configuration.ProductFacetProperties;
+import com.silverviking.enums.ProductFacet;
+import com.silverviking.event.ProductsCommittedEvent;
+import com.silverviking.index.IndexReloader;
+import com.silverviking.index.RebuildCoordinator;
+import com.silverviking.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Facet bitmaps over category, series, manufacturer, scale, material, release state and price band.
+ * Built at startup and periodically, and kept current from {@link ProductsCommittedEvent}; a rebuild
+ * never holds up those updates, see {@link RebuildCoordinator}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductFacetIndex {
+
+    public static final String NO_SERIES = "none";
+
+    private final ProductRepository productRepository;
+    private final ProductFacetProperties properties;
+    private final IndexReloader reloader;
+
+    private final RebuildCoordinator coordinator = new RebuildCoordinator();
+    private volatile FacetIndex index = new FacetIndex();
+
+    public FacetIndex.FacetResult query(Map<ProductFacet, Set<String>> selected, int offset, int limit) {
+        return index.query(selected, offset, limit);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${index-reload.rebuild-interval:PT15M}",
+            initialDelayString = "${index-reload.rebuild-interval:PT15M}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        long started = System.nanoTime();
+        FacetIndex rebuilt = coordinator.rebuild(() -> reloader.read(() -> {
+            FacetIndex built = new FacetIndex();
+            try (Stream<ProductFacetDocument> documents = productRepository.streamFacetDocuments()) {
+                documents.forEach(document -> built.put(document.id(), values(document)));
+            }
+            built.optimize();
+            return built;
+        }), built -> index = built, this::reload);
+        log.info("Product facet index built: {} products in {} ms",
+                rebuilt.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @EventListener
+    public void onProductsCommitted(ProductsCommittedEvent event) {
+        coordinator.update(event.productIds(), () -> reload(event.productIds()));
+    }
+
+    private void reload(Collection<UUID> productIds) {
+        reloader.reload(productIds, productRepository::findFacetDocumentsByIdIn, ProductFacetDocument::id,
+                document -> index.put(document.id(), values(document)), id -> index.remove(id));
+    }
+
+    Map<ProductFacet, List<FacetIndex.FacetValue>> values(ProductFacetDocument document) {
+        Map<ProductFacet, List<FacetIndex.FacetValue>> values = new EnumMap<>(ProductFacet.class);
+        values.put(ProductFacet.CATEGORY, idValue(document.categoryId()));
+        values.put(ProductFacet.SERIES, document.seriesId() != null
+                ? idValue(document.seriesId())
+                : List.of(new FacetIndex.FacetValue(NO_SERIES, null)));
+        values.put(ProductFacet.MANUFACTURER, idValue(document.manufacturerId()));
+        values.put(ProductFacet.SCALE, textValues(document.scale(), false));
+        values.put(ProductFacet.MATERIAL, textValues(document.material(), true));
+        values.put(ProductFacet.RELEASED, List.of(new FacetIndex.FacetValue(
+                String.valueOf(document.released()), document.released() ? "Released" : "Upcoming")));
+        values.put(ProductFacet.PRICE, document.priceMarket() != null
+                ? List.of(priceBand(document.priceMarket()))
+                : List.of());
+        return values;
+    }
+
+    /**
+     * Band keys read "lower-upper" (upper exclusive) or "lower+" for the open band, built from
+     * {@code product-facets.price-bands}.
+     */
+    FacetIndex.FacetValue priceBand(BigDecimal price) {
+        BigDecimal lower = BigDecimal.ZERO;
+        for (BigDecimal upper : properties.getPriceBands()) {
+            if (price.compareTo(upper) < 0) {
+                String key = lower.toPlainString() + "-" + upper.toPlainString();
+                return new FacetIndex.FacetValue(key, key);
+            }
+            lower = upper;
+        }
+        String key = lower.toPlainString() + "+";
+        return new FacetIndex.FacetValue(key, key);
+    }
+
+    private static List<FacetIndex.FacetValue> idValue(Long id) {
+        return id != null ? List.of(new FacetIndex.FacetValue(id.toString(), null)) : List.of();
+    }
+
+    /**
+     * Keys are trimmed and lower-cased so "PVC" and "pvc " land in one bucket; the first spelling seen
+     * becomes the label. Materials are often lists ("PVC, ABS"), so each part is its own value.
+     */
+    private static List<FacetIndex.FacetValue> textValues(String text, boolean multiValued) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        Map<String, FacetIndex.FacetValue> values = new LinkedHashMap<>();
+        for (String part : multiValued ? text.split("[,/;&+]") : new String[]{text}) {
+            String label = part.trim();
+            if (!label.isEmpty()) {
+                values.putIfAbsent(normalizeKey(label), new FacetIndex.FacetValue(normalizeKey(label), label));
+            }
+        }
+        return List.copyOf(values.values());
+    }
+
+    public static String normalizeKey(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
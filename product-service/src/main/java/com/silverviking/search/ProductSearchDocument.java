@@ -0,0 +1,15 @@
+package com.silverviking.search;
+
+import java.util.UUID;
+
+/**
+ * The searchable text of one product, read with a single projection query instead of loading the
+ * entity graph.
+ */
+public record ProductSearchDocument(UUID id,
+                                    String name,
+                                    String description,
+                                    String material,
+                                    String seriesName,
+                                    String manufacturerName) {
+}
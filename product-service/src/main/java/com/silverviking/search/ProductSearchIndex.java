@@ -0,0 +1,130 @@
+package com.silverviking.search;
+
+import com.silverviking.event.ProductsCommittedEvent;
+import com.silverviking.event.ReferenceDataChangedEvent;
+import com.silverviking.index.IndexReloader;
+import com.silverviking.index.RebuildCoordinator;
+import com.silverviking.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Full-text index over product name, description, material, series name and manufacturer name.
+ * Built at startup and periodically (to pick up writes made by other instances), and kept current
+ * from {@link ProductsCommittedEvent} after every committed product write on this instance. A rebuild
+ * never holds up those updates; see {@link RebuildCoordinator}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductSearchIndex {
+
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float SERIES_WEIGHT = 2.0f;
+    private static final float MANUFACTURER_WEIGHT = 1.5f;
+    private static final float MATERIAL_WEIGHT = 1.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+    private static final int MAX_QUERY_TERMS = 32;
+
+    private final ProductRepository productRepository;
+    private final IndexReloader reloader;
+
+    private final RebuildCoordinator coordinator = new RebuildCoordinator();
+    private volatile Bm25Index index = new Bm25Index();
+
+    public Bm25Index.SearchResult search(String query, int offset, int limit) {
+        List<String> terms = SearchAnalyzer.analyze(query);
+        if (terms.size() > MAX_QUERY_TERMS) {
+            terms = terms.subList(0, MAX_QUERY_TERMS);
+        }
+        return index.search(terms, offset, limit);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${index-reload.rebuild-interval:PT15M}",
+            initialDelayString = "${index-reload.rebuild-interval:PT15M}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        long started = System.nanoTime();
+        Bm25Index rebuilt = coordinator.rebuild(() -> reloader.read(() -> {
+            Bm25Index built = new Bm25Index();
+            try (Stream<ProductSearchDocument> documents = productRepository.streamSearchDocuments()) {
+                documents.forEach(document -> built.put(document.id(), termFrequencies(document)));
+            }
+            return built;
+        }), built -> index = built, this::reload);
+        log.info("Product search index built: {} products in {} ms",
+                rebuilt.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @EventListener
+    public void onProductsCommitted(ProductsCommittedEvent event) {
+        reindex(event.productIds());
+    }
+
+    // Finds the affected products, then reloads them like any other update so they are ordered with those
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReferenceDataChanged(ReferenceDataChangedEvent event) {
+        List<ProductSearchDocument> affected = switch (event.type()) {
+            case SERIES -> reloader.read(() -> productRepository.findSearchDocumentsBySeriesId(event.id()));
+            case MANUFACTURER -> reloader.read(() -> productRepository.findSearchDocumentsByManufacturerId(event.id()));
+            // Category names are not indexed
+            case CATEGORY -> List.of();
+        };
+        if (!affected.isEmpty()) {
+            reindex(affected.stream().map(ProductSearchDocument::id).toList());
+        }
+    }
+
+    void reindex(Collection<UUID> productIds) {
+        coordinator.update(productIds, () -> reload(productIds));
+    }
+
+    private void reload(Collection<UUID> productIds) {
+        reloader.reload(productIds, productRepository::findSearchDocumentsByIdIn, ProductSearchDocument::id,
+                this::put, id -> index.remove(id));
+    }
+
+    private void put(ProductSearchDocument document) {
+        index.put(document.id(), termFrequencies(document));
+    }
+
+    static Map<String, Float> termFrequencies(ProductSearchDocument document) {
+        Map<String, Float> frequencies = new HashMap<>();
+        addField(frequencies, document.name(), NAME_WEIGHT);
+        addField(frequencies, document.seriesName(), SERIES_WEIGHT);
+        addField(frequencies, document.manufacturerName(), MANUFACTURER_WEIGHT);
+        addField(frequencies, document.material(), MATERIAL_WEIGHT);
+        addField(frequencies, document.description(), DESCRIPTION_WEIGHT);
+        return frequencies;
+    }
+
+    private static void addField(Map<String, Float> frequencies, String text, float weight) {
+        for (String term : SearchAnalyzer.analyze(text)) {
+            frequencies.merge(term, weight, Float::sum);
+        }
+    }
+}
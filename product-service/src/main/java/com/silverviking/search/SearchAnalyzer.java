@@ -0,0 +1,188 @@
+package com.silverviking.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Turns free text into index terms. The same analysis runs on documents and queries, so every
+ * spelling it folds together matches in both directions:
+ * <ul>
+ *     <li>Vietnamese diacritics and tone marks are stripped and đ becomes d ("Mô hình" = "mo hinh")</li>
+ *     <li>full-width forms are folded to ASCII (NFKC)</li>
+ *     <li>Japanese romanization is reduced to one spelling: long vowels collapse ("Tōkyō", "Toukyou",
+ *     "Tohkyoh" = "tokyo"), Kunrei and Nihon-shiki syllables become Hepburn ("tukihime" = "tsukihime",
+ *     "huzi" = "fuji"), m before b/p becomes n ("shimbun" = "shinbun") and syllable apostrophes are dropped</li>
+ * </ul>
+ * The romanization rules also rewrite some English words ("group" to "grop"); that only matters if
+ * two different words collapse to the same term, which is rare enough to accept.
+ */
+public final class SearchAnalyzer {
+
+    private static final int MAX_TERM_LENGTH = 64;
+
+    private SearchAnalyzer() {
+    }
+
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return terms;
+        }
+        String folded = fold(text);
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                token.append(c);
+            } else if (c == '\'' && token.length() > 0) {
+                // Ken'ichi, Shin'ya: the apostrophe only separates syllables
+                continue;
+            } else {
+                emit(token, terms);
+            }
+        }
+        emit(token, terms);
+        return terms;
+    }
+
+    static String fold(String text) {
+        String compatible = Normalizer.normalize(text, Normalizer.Form.NFKC)
+                .replace('đ', 'd')
+                .replace('Đ', 'D')
+                .replace('’', '\'');
+        String decomposed = Normalizer.normalize(compatible, Normalizer.Form.NFD);
+        StringBuilder out = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                out.append(c);
+            }
+        }
+        return out.toString().toLowerCase(Locale.ROOT);
+    }
+
+    static String romanize(String token) {
+        int n = token.length();
+        StringBuilder out = new StringBuilder(n + 4);
+        int i = 0;
+        while (i < n) {
+            char c = token.charAt(i);
+            char next = i + 1 < n ? token.charAt(i + 1) : 0;
+            char afterNext = i + 2 < n ? token.charAt(i + 2) : 0;
+            switch (c) {
+                case 'o' -> {
+                    if (next == 'u' || next == 'o' || (next == 'h' && !isVowel(afterNext))) {
+                        out.append('o');
+                        i += 2;
+                        continue;
+                    }
+                }
+                case 'u' -> {
+                    if (next == 'u') {
+                        out.append('u');
+                        i += 2;
+                        continue;
+                    }
+                }
+                case 's' -> {
+                    if (next == 'y') {
+                        out.append("sh");
+                        i += 2;
+                        continue;
+                    }
+                    if (next == 'i') {
+                        out.append("shi");
+                        i += 2;
+                        continue;
+                    }
+                }
+                case 't' -> {
+                    if (next == 'y') {
+                        out.append("ch");
+                        i += 2;
+                        continue;
+                    }
+                    if (next == 'i') {
+                        out.append("chi");
+                        i += 2;
+                        continue;
+                    }
+                    if (next == 'u') {
+                        out.append("tsu");
+                        i += 2;
+                        continue;
+                    }
+                }
+                case 'z', 'd' -> {
+                    if (next == 'i') {
+                        out.append("ji");
+                        i += 2;
+                        continue;
+                    }
+                    if (c == 'z' && next == 'y') {
+                        out.append('j');
+                        i += 2;
+                        continue;
+                    }
+                    if (c == 'd' && next == 'u') {
+                        out.append("zu");
+                        i += 2;
+                        continue;
+                    }
+                }
+                case 'j' -> {
+                    if (next == 'y') {
+                        out.append('j');
+                        i += 2;
+                        continue;
+                    }
+                }
+                case 'h' -> {
+                    // Only at a syllable start, so "shu" and "chu" keep their h
+                    if (next == 'u' && (out.isEmpty() || isVowel(out.charAt(out.length() - 1)) || out.charAt(out.length() - 1) == 'n')) {
+                        out.append("fu");
+                        i += 2;
+                        continue;
+                    }
+                }
+                case 'm' -> {
+                    if (next == 'b' || next == 'p') {
+                        out.append('n');
+                        i++;
+                        continue;
+                    }
+                }
+                default -> {
+                }
+            }
+            out.append(c);
+            i++;
+        }
+        return out.toString();
+    }
+
+    private static void emit(StringBuilder token, List<String> terms) {
+        if (token.length() == 0) {
+            return;
+        }
+        String term = token.length() > MAX_TERM_LENGTH ? token.substring(0, MAX_TERM_LENGTH) : token.toString();
+        terms.add(isAsciiLetters(term) ? romanize(term) : term);
+        token.setLength(0);
+    }
+
+    private static boolean isAsciiLetters(String term) {
+        for (int i = 0; i < term.length(); i++) {
+            char c = term.charAt(i);
+            if (c < 'a' || c > 'z') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isVowel(char c) {
+        return c == 'a' || c == 'e' || c == 'i' || c == 'o' || c == 'u';
+    }
+}
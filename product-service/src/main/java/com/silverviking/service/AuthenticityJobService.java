@@ -0,0 +1,13 @@
+package com.silverviking.service;
+
+import com.silverviking.dto.response.AuthenticityJobResponse;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface AuthenticityJobService {
+    AuthenticityJobResponse submit(UUID productId, List<MultipartFile> files, String priority);
+    AuthenticityJobResponse getJob(UUID jobId);
+    AuthenticityJobResponse getResult(UUID jobId);
+}
@@ -0,0 +1,7 @@
+package com.silverviking.service;
+
+import com.silverviking.storage.ResizedImage;
+
+public interface ImageResizeService {
+    ResizedImage getResized(String hash, int width, String format);
+}
@@ -0,0 +1,8 @@
+package com.silverviking.service;
+
+import com.silverviking.dto.response.ImageSimilarityResponse;
+import org.springframework.web.multipart.MultipartFile;
+
+public interface ImageSimilarityService {
+    ImageSimilarityResponse findSimilar(MultipartFile photo, Integer limit, Integer maxDistance);
+}
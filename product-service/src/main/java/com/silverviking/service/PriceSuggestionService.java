@@ -0,0 +1,9 @@
+package com.silverviking.service;
+
+import com.silverviking.dto.response.PriceSuggestionResponse;
+
+import java.util.UUID;
+
+public interface PriceSuggestionService {
+    PriceSuggestionResponse getSuggestedPrice(UUID productId);
+}
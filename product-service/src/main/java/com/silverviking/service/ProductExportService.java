@@ -0,0 +1,11 @@
+package com.silverviking.service;
+
+import com.silverviking.dto.request.ProductExportFilter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ProductExportService {
+    void validateFilter(ProductExportFilter filter);
+    long exportProducts(ProductExportFilter filter, OutputStream out) throws IOException;
+}
@@ -0,0 +1,8 @@
+package com.silverviking.service;
+
+import com.silverviking.dto.request.ProductFilterRequest;
+import com.silverviking.dto.response.ProductFilterResponse;
+
+public interface ProductFacetService {
+    ProductFilterResponse filter(ProductFilterRequest request);
+}
@@ -0,0 +1,11 @@
+package com.silverviking.service;
+
+import com.silverviking.dto.response.ProductImageResponse;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface ProductImageUploadService {
+    List<ProductImageResponse> uploadImages(UUID productId, List<MultipartFile> files, String type, boolean isThumbnail);
+}
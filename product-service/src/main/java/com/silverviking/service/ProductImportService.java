@@ -0,0 +1,11 @@
+package com.silverviking.service;
+
+import com.silverviking.dto.response.ProductImportResult;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface ProductImportService {
+    ProductImportResult importProducts(InputStream in, MediaType contentType, Integer batchSize) throws IOException;
+}
@@ -0,0 +1,8 @@
+package com.silverviking.service;
+
+import com.silverviking.dto.request.ProductSearchRequest;
+import com.silverviking.dto.response.ProductSearchResponse;
+
+public interface ProductSearchService {
+    ProductSearchResponse search(ProductSearchRequest request);
+}
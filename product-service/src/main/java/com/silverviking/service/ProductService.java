@@ -1,16 +1,25 @@
 package com.silverviking.service;
 
+import com.silverviking.cache.ResourceVersion;
+import com.silverviking.dto.request.ProductPageRequest;
 import com.silverviking.dto.request.ProductRequest;
+import com.silverviking.dto.response.CursorPageResponse;
 import com.silverviking.dto.response.ProductResponse;
-import java.util.List;
+import com.silverviking.dto.response.ProductSummaryResponse;
 import java.util.UUID;
 
 public interface ProductService {
-    List<ProductResponse> getAllProducts();
+    CursorPageResponse<ProductResponse> getAllProducts(ProductPageRequest pageRequest);
     ProductResponse getProductById(UUID id);
+    ProductResponse getProductBySlug(String slug);
+    ResourceVersion getProductVersion(UUID id);
+    ResourceVersion getProductVersionBySlug(String slug);
     ProductResponse createProduct(ProductRequest request);
     ProductResponse updateProduct(UUID id, ProductRequest request);
     void deleteProduct(UUID id);
-    List<ProductResponse> getProductsByCategoryId(Long categoryId);
-    List<ProductResponse> getProductsBySeriesId(Long seriesId);
+    CursorPageResponse<ProductResponse> getProductsByCategoryId(Long categoryId, ProductPageRequest pageRequest);
+    CursorPageResponse<ProductResponse> getProductsBySeriesId(Long seriesId, ProductPageRequest pageRequest);
+    CursorPageResponse<ProductSummaryResponse> getAllProductSummaries(ProductPageRequest pageRequest);
+    CursorPageResponse<ProductSummaryResponse> getProductSummariesByCategoryId(Long categoryId, ProductPageRequest pageRequest);
+    CursorPageResponse<ProductSummaryResponse> getProductSummariesBySeriesId(Long seriesId, ProductPageRequest pageRequest);
 }
@@ -0,0 +1,133 @@
+package com.silverviking.service.impl;
+
+import com.silverviking.authenticity.AuthenticityCheck;
+import com.silverviking.authenticity.AuthenticityJob;
+import com.silverviking.authenticity.AuthenticityJobEngine;
+import com.silverviking.authenticity.AuthenticityResult;
+import com.silverviking.configuration.AuthenticityProperties;
+import com.silverviking.dto.response.AuthenticityJobResponse;
+import com.silverviking.dto.response.AuthenticityResultResponse;
+import com.silverviking.enums.JobPriority;
+import com.silverviking.exception.BadRequestException;
+import com.silverviking.exception.EntityNotFoundException;
+import com.silverviking.repository.ProductRepository;
+import com.silverviking.service.AuthenticityJobService;
+import com.silverviking.storage.ContentAddressedStorage;
+import com.silverviking.storage.StoredBlob;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Hands the seller photos to {@link AuthenticityJobEngine} as private temporary files; they never reach
+ * the public media store, and scoring never happens on the request thread.
+ */
+@Service
+@RequiredArgsConstructor
+public class AuthenticityJobServiceImpl implements AuthenticityJobService {
+
+    private final AuthenticityJobEngine engine;
+    private final ContentAddressedStorage storage;
+    private final ProductRepository productRepository;
+    private final AuthenticityProperties properties;
+
+    @Override
+    public AuthenticityJobResponse submit(UUID productId, List<MultipartFile> files, String priority) {
+        if (files == null || files.isEmpty()) {
+            throw new BadRequestException("At least one photo is required");
+        }
+        if (files.size() > properties.getMaxPhotosPerJob()) {
+            throw new BadRequestException("At most " + properties.getMaxPhotosPerJob() + " photos per job");
+        }
+        JobPriority jobPriority = parsePriority(priority);
+        if (!productRepository.existsById(productId)) {
+            throw new EntityNotFoundException("Product not found with id: " + productId);
+        }
+
+        List<String> fileNames = files.stream().map(MultipartFile::getOriginalFilename).toList();
+        return toResponse(engine.submit(productId, jobPriority, fileNames, () -> stage(productId, files)), false);
+    }
+
+    @Override
+    public AuthenticityJobResponse getJob(UUID jobId) {
+        return toResponse(findJob(jobId), false);
+    }
+
+    @Override
+    public AuthenticityJobResponse getResult(UUID jobId) {
+        return toResponse(findJob(jobId), true);
+    }
+
+    private AuthenticityJob findJob(UUID jobId) {
+        return engine.find(jobId)
+                .orElseThrow(() -> new EntityNotFoundException("Authenticity job not found with id: " + jobId));
+    }
+
+    private List<AuthenticityCheck> stage(UUID productId, List<MultipartFile> files) {
+        List<AuthenticityCheck> checks = new ArrayList<>(files.size());
+        try {
+            for (MultipartFile file : files) {
+                StoredBlob blob = storeTemporary(file);
+                checks.add(new AuthenticityCheck(productId, blob.hash(), blob.path()));
+            }
+            return checks;
+        } catch (RuntimeException ex) {
+            checks.forEach(AuthenticityCheck::discard);
+            throw ex;
+        }
+    }
+
+    private StoredBlob storeTemporary(MultipartFile file) {
+        try (InputStream in = file.getInputStream()) {
+            return storage.storeTemporary(in);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not store photo " + file.getOriginalFilename(), ex);
+        }
+    }
+
+    private static AuthenticityJobResponse toResponse(AuthenticityJob job, boolean withResults) {
+        return AuthenticityJobResponse.builder()
+                .id(job.getId())
+                .productId(job.getProductId())
+                .status(job.getStatus().name())
+                .priority(job.getPriority().name())
+                .total(job.getTotal())
+                .completed(job.getCompleted())
+                .submittedAt(job.getSubmittedAt())
+                .startedAt(job.getStartedAt())
+                .completedAt(job.getCompletedAt())
+                .results(withResults ? job.getResults().stream().map(AuthenticityJobServiceImpl::toResponse).toList() : null)
+                .build();
+    }
+
+    private static AuthenticityResultResponse toResponse(AuthenticityResult result) {
+        AuthenticityResultResponse.AuthenticityResultResponseBuilder response = AuthenticityResultResponse.builder()
+                .fileName(result.fileName())
+                .contentHash(result.contentHash())
+                .cached(result.cached())
+                .error(result.error());
+        if (result.score() != null) {
+            response.score(result.score().score())
+                    .verdict(result.score().verdict().name())
+                    .referenceImageId(result.score().referenceImageId())
+                    .distance(result.score().distance());
+        }
+        return response.build();
+    }
+
+    private static JobPriority parsePriority(String priority) {
+        try {
+            return JobPriority.valueOf(priority.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Unknown priority: " + priority);
+        }
+    }
+}
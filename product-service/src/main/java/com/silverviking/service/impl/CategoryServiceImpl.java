@@ -3,10 +3,12 @@ package com.silverviking.service.impl;
 import com.silverviking.domain.Category;
 import com.silverviking.dto.request.CategoryRequest;
 import com.silverviking.dto.response.CategoryResponse;
+import com.silverviking.event.ReferenceDataChangedEvent;
 import com.silverviking.exception.EntityNotFoundException;
 import com.silverviking.repository.CategoryRepository;
 import com.silverviking.service.CategoryService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,6 +20,7 @@ import java.util.stream.Collectors;
 public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional(readOnly = true)
@@ -43,6 +46,7 @@ public class CategoryServiceImpl implements CategoryService {
                 .description(request.getDescription())
                 .build();
         Category saved = categoryRepository.save(category);
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(ReferenceDataChangedEvent.Type.CATEGORY, saved.getId()));
         return mapToResponse(saved);
     }
 
@@ -56,6 +60,7 @@ public class CategoryServiceImpl implements CategoryService {
         category.setDescription(request.getDescription());
         
         Category updated = categoryRepository.save(category);
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(ReferenceDataChangedEvent.Type.CATEGORY, id));
         return mapToResponse(updated);
     }
 
@@ -66,6 +71,7 @@ public class CategoryServiceImpl implements CategoryService {
             throw new EntityNotFoundException("Category not found with id: " + id);
         }
         categoryRepository.deleteById(id);
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(ReferenceDataChangedEvent.Type.CATEGORY, id));
     }
 
     private CategoryResponse mapToResponse(Category category) {
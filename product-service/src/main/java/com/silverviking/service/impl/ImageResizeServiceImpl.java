@@ -0,0 +1,71 @@
+package com.silverviking.service.impl;
+
+import com.silverviking.configuration.VariantCacheProperties;
+import com.silverviking.exception.BadRequestException;
+import com.silverviking.exception.EntityNotFoundException;
+import com.silverviking.service.ImageResizeService;
+import com.silverviking.storage.ContentAddressedStorage;
+import com.silverviking.storage.ImageFormat;
+import com.silverviking.storage.ImageProcessor;
+import com.silverviking.storage.ResizedImage;
+import com.silverviking.storage.VariantDiskCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Resizes originals on demand through {@link VariantDiskCache}. The width is rounded up to
+ * {@code variant-cache.width-step} so that only a bounded set of sizes per image can be cached.
+ */
+@Service
+@RequiredArgsConstructor
+public class ImageResizeServiceImpl implements ImageResizeService {
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+
+    private final ContentAddressedStorage storage;
+    private final ImageProcessor imageProcessor;
+    private final VariantDiskCache variantDiskCache;
+    private final VariantCacheProperties properties;
+
+    @Override
+    public ResizedImage getResized(String hash, int width, String format) {
+        if (width < 1 || width > properties.getMaxWidth()) {
+            throw new BadRequestException("w must be between 1 and " + properties.getMaxWidth());
+        }
+        ImageFormat output = outputFormat(format);
+        if (!HASH.matcher(hash).matches()) {
+            throw new EntityNotFoundException("Image not found: " + hash);
+        }
+        ImageFormat originalFormat = storage.originalFormat(hash)
+                .orElseThrow(() -> new EntityNotFoundException("Image not found: " + hash));
+
+        int step = properties.getWidthStep();
+        int snapped = Math.min(properties.getMaxWidth(), (width + step - 1) / step * step);
+        String name = "w" + snapped + "." + output.getExtension();
+        Path original = storage.originalPath(hash, originalFormat);
+        String key = hash.substring(0, 2) + "/" + hash + "/" + name;
+        try {
+            // Opened here, so an eviction between the lookup and the response cannot turn into a 404
+            FileChannel channel = variantDiskCache.open(key, out -> imageProcessor.writeResized(original, snapped, output, out));
+            return new ResizedImage(channel, variantDiskCache.path(key), "\"" + hash + "-" + name + "\"", output);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not resize image " + hash, ex);
+        }
+    }
+
+    // ImageIO ships JPEG and PNG encoders only, so WebP can be read but not produced
+    private static ImageFormat outputFormat(String format) {
+        return switch (format == null ? "jpg" : format.toLowerCase(Locale.ROOT)) {
+            case "jpg", "jpeg" -> ImageFormat.JPEG;
+            case "png" -> ImageFormat.PNG;
+            default -> throw new BadRequestException("fmt must be jpg or png");
+        };
+    }
+}
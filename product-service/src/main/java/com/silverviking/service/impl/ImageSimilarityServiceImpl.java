@@ -0,0 +1,101 @@
+package com.silverviking.service.impl;
+
+import com.silverviking.cache.ProductDetailCache;
+import com.silverviking.configuration.ImageSimilarityProperties;
+import com.silverviking.domain.Product;
+import com.silverviking.dto.response.ImageMatchResponse;
+import com.silverviking.dto.response.ImageSimilarityResponse;
+import com.silverviking.dto.response.ProductResponse;
+import com.silverviking.exception.BadRequestException;
+import com.silverviking.mapper.ProductMapper;
+import com.silverviking.repository.ProductRepository;
+import com.silverviking.search.HammingIndex;
+import com.silverviking.search.ImageFingerprintIndex;
+import com.silverviking.service.ImageSimilarityService;
+import com.silverviking.storage.ImageFingerprint;
+import com.silverviking.storage.ImageProcessor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Fingerprints the query photo the way stored images are fingerprinted and looks its nearest
+ * neighbours up in {@link ImageFingerprintIndex}. The photo itself is never stored.
+ */
+@Service
+@RequiredArgsConstructor
+public class ImageSimilarityServiceImpl implements ImageSimilarityService {
+
+    private static final double HASH_BITS = 64;
+
+    private final ImageFingerprintIndex fingerprintIndex;
+    private final ImageProcessor imageProcessor;
+    private final ImageSimilarityProperties properties;
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final ProductDetailCache productDetailCache;
+    private final PlatformTransactionManager transactionManager;
+
+    @Override
+    public ImageSimilarityResponse findSimilar(MultipartFile photo, Integer limit, Integer maxDistance) {
+        int resultLimit = limit != null ? limit : 10;
+        int distanceLimit = maxDistance != null ? maxDistance : properties.getDefaultMaxDistance();
+        if (resultLimit < 1 || resultLimit > properties.getMaxResults()) {
+            throw new BadRequestException("limit must be between 1 and " + properties.getMaxResults());
+        }
+        if (distanceLimit < 0 || distanceLimit > HASH_BITS) {
+            throw new BadRequestException("maxDistance must be between 0 and 64");
+        }
+
+        ImageFingerprint fingerprint = fingerprint(photo);
+        long started = System.nanoTime();
+        List<HammingIndex.Match> matches = fingerprintIndex.search(fingerprint, resultLimit, distanceLimit);
+        long tookMicros = (System.nanoTime() - started) / 1_000;
+
+        List<UUID> ids = matches.stream().map(HammingIndex.Match::owner).distinct().toList();
+        Map<UUID, ProductResponse> products = ids.isEmpty() ? Map.of() : productDetailCache.getAll(ids, this::loadProducts);
+
+        return ImageSimilarityResponse.builder()
+                .fingerprint(fingerprint.hex())
+                .indexedImages(fingerprintIndex.size())
+                .tookMicros(tookMicros)
+                .matches(matches.stream()
+                        .filter(match -> products.containsKey(match.owner()))
+                        .map(match -> ImageMatchResponse.builder()
+                                .imageId(match.id())
+                                .distance(match.distance())
+                                .similarity(1 - match.distance() / HASH_BITS)
+                                .product(products.get(match.owner()))
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    private ImageFingerprint fingerprint(MultipartFile photo) {
+        if (photo == null || photo.isEmpty()) {
+            throw new BadRequestException("An image file is required");
+        }
+        try (InputStream in = photo.getInputStream()) {
+            return imageProcessor.fingerprint(in);
+        } catch (IOException ex) {
+            throw new BadRequestException("Could not read image: " + ex.getMessage());
+        }
+    }
+
+    private Map<UUID, ProductResponse> loadProducts(Set<? extends UUID> ids) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        return transaction.execute(status -> productRepository.findAllById(List.copyOf(ids)).stream()
+                .collect(Collectors.toMap(Product::getId, productMapper::toResponse)));
+    }
+}
@@ -3,10 +3,12 @@ package com.silverviking.service.impl;
 import com.silverviking.domain.Manufacturer;
 import com.silverviking.dto.request.ManufacturerRequest;
 import com.silverviking.dto.response.ManufacturerResponse;
+import com.silverviking.event.ReferenceDataChangedEvent;
 import com.silverviking.exception.EntityNotFoundException;
 import com.silverviking.repository.ManufacturerRepository;
 import com.silverviking.service.ManufacturerService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,6 +20,7 @@ import java.util.stream.Collectors;
 public class ManufacturerServiceImpl implements ManufacturerService {
 
     private final ManufacturerRepository manufacturerRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional(readOnly = true)
@@ -43,6 +46,7 @@ public class ManufacturerServiceImpl implements ManufacturerService {
                 .originCountry(request.getOriginCountry())
                 .build();
         Manufacturer saved = manufacturerRepository.save(manufacturer);
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(ReferenceDataChangedEvent.Type.MANUFACTURER, saved.getId()));
         return mapToResponse(saved);
     }
 
@@ -56,6 +60,7 @@ public class ManufacturerServiceImpl implements ManufacturerService {
         manufacturer.setOriginCountry(request.getOriginCountry());
         
         Manufacturer updated = manufacturerRepository.save(manufacturer);
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(ReferenceDataChangedEvent.Type.MANUFACTURER, id));
         return mapToResponse(updated);
     }
 
@@ -66,6 +71,7 @@ public class ManufacturerServiceImpl implements ManufacturerService {
             throw new EntityNotFoundException("Manufacturer not found with id: " + id);
         }
         manufacturerRepository.deleteById(id);
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(ReferenceDataChangedEvent.Type.MANUFACTURER, id));
     }
 
     private ManufacturerResponse mapToResponse(Manufacturer manufacturer) {
@@ -0,0 +1,71 @@
+package com.silverviking.service.impl;
+
+import com.silverviking.configuration.PriceAggregateProperties;
+import com.silverviking.dto.response.PriceRangeResponse;
+import com.silverviking.dto.response.PriceSuggestionResponse;
+import com.silverviking.enums.PriceDimension;
+import com.silverviking.exception.EntityNotFoundException;
+import com.silverviking.pricing.PriceAggregateIndex;
+import com.silverviking.pricing.PriceSummary;
+import com.silverviking.repository.ProductRepository;
+import com.silverviking.service.PriceSuggestionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class PriceSuggestionServiceImpl implements PriceSuggestionService {
+
+    private final PriceAggregateIndex priceAggregateIndex;
+    private final ProductRepository productRepository;
+    private final PriceAggregateProperties properties;
+
+    @Override
+    public PriceSuggestionResponse getSuggestedPrice(UUID productId) {
+        Map<PriceDimension, String> groupKeys = priceAggregateIndex.groupsOf(productId);
+        // Only an unpriced or unknown product misses the index; the existence check is needed just then
+        if (groupKeys.isEmpty() && !productRepository.existsById(productId)) {
+            throw new EntityNotFoundException("Product not found with id: " + productId);
+        }
+
+        List<PriceRangeResponse> groups = new ArrayList<>();
+        groupKeys.forEach((dimension, key) -> priceAggregateIndex.summary(dimension, key)
+                .ifPresent(summary -> groups.add(toResponse(dimension, key, summary))));
+
+        // Groups are in PriceDimension order, most specific first
+        PriceRangeResponse suggested = groups.stream()
+                .filter(group -> group.getCount() >= properties.getMinSamples())
+                .findFirst()
+                .orElseGet(() -> groups.stream().max(Comparator.comparingLong(PriceRangeResponse::getCount)).orElse(null));
+
+        return PriceSuggestionResponse.builder()
+                .productId(productId)
+                .suggestedPriceRange(suggested)
+                .groups(groups)
+                .build();
+    }
+
+    private static PriceRangeResponse toResponse(PriceDimension dimension, String key, PriceSummary summary) {
+        return PriceRangeResponse.builder()
+                .dimension(dimension.name())
+                .key(key)
+                .count(summary.count())
+                .mean(price(summary.mean()))
+                .min(price(summary.min()))
+                .median(price(summary.median()))
+                .max(price(summary.max()))
+                .build();
+    }
+
+    private static BigDecimal price(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+}
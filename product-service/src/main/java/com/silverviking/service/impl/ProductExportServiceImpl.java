@@ -0,0 +1,198 @@
+package com.silverviking.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.silverviking.cache.ReferenceDataRegistry;
+import com.silverviking.cache.ReferenceDataSnapshot;
+import com.silverviking.configuration.ProductExportProperties;
+import com.silverviking.dto.request.ProductExportFilter;
+import com.silverviking.dto.response.CategoryResponse;
+import com.silverviking.dto.response.ManufacturerResponse;
+import com.silverviking.dto.response.ProductImageResponse;
+import com.silverviking.dto.response.ProductResponse;
+import com.silverviking.dto.response.SeriesResponse;
+import com.silverviking.enums.ImageStatus;
+import com.silverviking.enums.ImageType;
+import com.silverviking.service.ProductExportService;
+import com.silverviking.storage.ContentAddressedStorage;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.query.SelectionQuery;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Writes products as newline-delimited JSON in the shape of {@link ProductResponse}, which the bulk
+ * import reads back. Products are read in id order, {@code product-export.chunk-size} at a time with
+ * a keyset query, and the images of each chunk with one more query, so neither the database nor the
+ * heap ever holds more than one chunk.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductExportServiceImpl implements ProductExportService {
+
+    private static final String PRODUCT_QUERY = """
+            select p.id, p.name, p.slug, p.priceMarket, p.isReleased, p.releaseDate, p.scale, p.height,
+                   p.material, p.description, p.category.id, p.series.id, p.manufacturer.id, p.version, p.updatedAt
+            from Product p""";
+
+    private static final String IMAGE_QUERY = """
+            select i.product.id, i.id, i.imageUrl, i.type, i.isThumbnail, i.status, i.width, i.height, i.contentHash
+            from ProductImage i
+            where i.product.id in :ids
+            order by i.id""";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ReferenceDataRegistry referenceData;
+    private final ObjectMapper objectMapper;
+    private final ContentAddressedStorage storage;
+    private final ProductExportProperties properties;
+
+    @Override
+    public void validateFilter(ProductExportFilter filter) {
+        if (filter.getCategoryId() != null) {
+            referenceData.requireCategory(filter.getCategoryId());
+        }
+        if (filter.getSeriesId() != null) {
+            referenceData.requireSeries(filter.getSeriesId());
+        }
+        if (filter.getManufacturerId() != null) {
+            referenceData.requireManufacturer(filter.getManufacturerId());
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportProducts(ProductExportFilter filter, OutputStream out) throws IOException {
+        ReferenceDataSnapshot snapshot = referenceData.snapshot();
+        ObjectWriter writer = objectMapper.writerFor(ProductResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long exported = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            UUID after = null;
+            List<ProductResponse> chunk;
+            do {
+                chunk = nextChunk(filter, after, snapshot);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                addImages(chunk);
+                for (ProductResponse product : chunk) {
+                    writer.writeValue(generator, product);
+                    generator.writeRaw('\n');
+                }
+                exported += chunk.size();
+                after = chunk.get(chunk.size() - 1).getId();
+            } while (chunk.size() == properties.getChunkSize());
+            generator.flush();
+        }
+        return exported;
+    }
+
+    // Scalar rows: nothing enters the persistence context, so memory stays flat however many chunks go by
+    private List<ProductResponse> nextChunk(ProductExportFilter filter, UUID after, ReferenceDataSnapshot snapshot) {
+        List<String> conditions = new ArrayList<>();
+        if (after != null) {
+            conditions.add("p.id > :after");
+        }
+        if (filter.getCategoryId() != null) {
+            conditions.add("p.category.id = :categoryId");
+        }
+        if (filter.getSeriesId() != null) {
+            conditions.add("p.series.id = :seriesId");
+        }
+        if (filter.getManufacturerId() != null) {
+            conditions.add("p.manufacturer.id = :manufacturerId");
+        }
+        String hql = PRODUCT_QUERY + (conditions.isEmpty() ? "" : " where " + String.join(" and ", conditions)) + " order by p.id";
+
+        SelectionQuery<Object[]> query = entityManager.unwrap(Session.class)
+                .createSelectionQuery(hql, Object[].class)
+                .setReadOnly(true)
+                .setCacheMode(CacheMode.IGNORE)
+                .setMaxResults(properties.getChunkSize());
+        if (after != null) {
+            query.setParameter("after", after);
+        }
+        if (filter.getCategoryId() != null) {
+            query.setParameter("categoryId", filter.getCategoryId());
+        }
+        if (filter.getSeriesId() != null) {
+            query.setParameter("seriesId", filter.getSeriesId());
+        }
+        if (filter.getManufacturerId() != null) {
+            query.setParameter("manufacturerId", filter.getManufacturerId());
+        }
+        return query.getResultList().stream().map(row -> toResponse(row, snapshot)).toList();
+    }
+
+    private void addImages(List<ProductResponse> chunk) {
+        Map<UUID, ProductResponse> byId = new LinkedHashMap<>();
+        chunk.forEach(product -> byId.put(product.getId(), product));
+        List<Object[]> rows = entityManager.unwrap(Session.class)
+                .createSelectionQuery(IMAGE_QUERY, Object[].class)
+                .setParameter("ids", byId.keySet())
+                .setReadOnly(true)
+                .setCacheMode(CacheMode.IGNORE)
+                .getResultList();
+        for (Object[] row : rows) {
+            ImageStatus status = (ImageStatus) row[5];
+            byId.get((UUID) row[0]).getImages().add(ProductImageResponse.builder()
+                    .id((Long) row[1])
+                    .imageUrl((String) row[2])
+                    .type(row[3] != null ? ((ImageType) row[3]).name() : null)
+                    .isThumbnail((Boolean) row[4])
+                    .status(status != null ? status.name() : null)
+                    .width((Integer) row[6])
+                    .height((Integer) row[7])
+                    .variants(status == ImageStatus.READY ? storage.variantUrls((String) row[8]) : null)
+                    .build());
+        }
+    }
+
+    private static ProductResponse toResponse(Object[] row, ReferenceDataSnapshot snapshot) {
+        Long categoryId = (Long) row[10];
+        Long seriesId = (Long) row[11];
+        Long manufacturerId = (Long) row[12];
+        CategoryResponse category = snapshot.categories().get(categoryId);
+        SeriesResponse series = seriesId != null ? snapshot.series().get(seriesId) : null;
+        ManufacturerResponse manufacturer = snapshot.manufacturers().get(manufacturerId);
+        return ProductResponse.builder()
+                .id((UUID) row[0])
+                .name((String) row[1])
+                .slug((String) row[2])
+                .priceMarket((BigDecimal) row[3])
+                .isReleased((Boolean) row[4])
+                .releaseDate((Date) row[5])
+                .scale((String) row[6])
+                .height((Double) row[7])
+                .material((String) row[8])
+                .description((String) row[9])
+                .category(category != null ? category : CategoryResponse.builder().id(categoryId).build())
+                .series(series != null || seriesId == null ? series : SeriesResponse.builder().id(seriesId).build())
+                .manufacturer(manufacturer != null ? manufacturer : ManufacturerResponse.builder().id(manufacturerId).build())
+                .images(new ArrayList<>(4))
+                .version((Long) row[13])
+                .updatedAt((Instant) row[14])
+                .build();
+    }
+}
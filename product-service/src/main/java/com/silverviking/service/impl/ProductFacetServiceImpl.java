@@ -0,0 +1,90 @@
+package com.silverviking.service.impl;
+
+import com.silverviking.cache.LongKeyMap;
+import com.silverviking.cache.ReferenceDataRegistry;
+import com.silverviking.cache.ReferenceDataSnapshot;
+import com.silverviking.dto.request.ProductFilterRequest;
+import com.silverviking.dto.response.CategoryResponse;
+import com.silverviking.dto.response.FacetCountResponse;
+import com.silverviking.dto.response.ManufacturerResponse;
+import com.silverviking.dto.response.ProductFilterResponse;
+import com.silverviking.dto.response.SeriesResponse;
+import com.silverviking.enums.ProductFacet;
+import com.silverviking.search.FacetIndex;
+import com.silverviking.search.ProductFacetIndex;
+import com.silverviking.service.ProductFacetService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class ProductFacetServiceImpl implements ProductFacetService {
+
+    private final ProductFacetIndex productFacetIndex;
+    private final ReferenceDataRegistry referenceData;
+
+    @Override
+    public ProductFilterResponse filter(ProductFilterRequest request) {
+        Map<ProductFacet, Set<String>> selected = new EnumMap<>(ProductFacet.class);
+        select(selected, ProductFacet.CATEGORY, request.getCategoryId(), String::valueOf);
+        select(selected, ProductFacet.SERIES, request.getSeriesId(), ProductFacetIndex::normalizeKey);
+        select(selected, ProductFacet.MANUFACTURER, request.getManufacturerId(), String::valueOf);
+        select(selected, ProductFacet.SCALE, request.getScale(), ProductFacetIndex::normalizeKey);
+        select(selected, ProductFacet.MATERIAL, request.getMaterial(), ProductFacetIndex::normalizeKey);
+        select(selected, ProductFacet.PRICE, request.getPriceBand(), String::trim);
+        if (request.getReleased() != null) {
+            selected.put(ProductFacet.RELEASED, Set.of(request.getReleased().toString()));
+        }
+
+        FacetIndex.FacetResult result = productFacetIndex.query(selected, request.getOffset(), request.getSize());
+
+        // Reference names come from the current snapshot so renames show up without reindexing
+        ReferenceDataSnapshot snapshot = referenceData.snapshot();
+        Map<ProductFacet, List<FacetCountResponse>> facets = new EnumMap<>(ProductFacet.class);
+        result.counts().forEach((facet, counts) -> facets.put(facet, counts.stream()
+                .map(count -> FacetCountResponse.builder()
+                        .value(count.key())
+                        .label(label(snapshot, facet, count))
+                        .count(count.count())
+                        .selected(selected.getOrDefault(facet, Set.of()).contains(count.key()))
+                        .build())
+                .collect(Collectors.toList())));
+
+        return ProductFilterResponse.builder()
+                .total(result.total())
+                .offset(request.getOffset())
+                .ids(result.ids())
+                .facets(facets)
+                .build();
+    }
+
+    private static <T> void select(Map<ProductFacet, Set<String>> selected, ProductFacet facet,
+                                   List<T> values, Function<T, String> toKey) {
+        if (values != null && !values.isEmpty()) {
+            selected.put(facet, values.stream().map(toKey).collect(Collectors.toSet()));
+        }
+    }
+
+    private static String label(ReferenceDataSnapshot snapshot, ProductFacet facet, FacetIndex.FacetCount count) {
+        return switch (facet) {
+            case CATEGORY -> name(snapshot.categories(), count.key(), CategoryResponse::getName);
+            case SERIES -> ProductFacetIndex.NO_SERIES.equals(count.key())
+                    ? "No series"
+                    : name(snapshot.series(), count.key(), SeriesResponse::getName);
+            case MANUFACTURER -> name(snapshot.manufacturers(), count.key(), ManufacturerResponse::getName);
+            default -> count.label();
+        };
+    }
+
+    private static <T> String name(LongKeyMap<T> table, String key, Function<T, String> name) {
+        T value = table.get(Long.parseLong(key));
+        return value != null ? name.apply(value) : key;
+    }
+}
@@ -4,11 +4,14 @@ import com.silverviking.domain.Product;
 import com.silverviking.domain.ProductImage;
 import com.silverviking.dto.request.ProductImageRequest;
 import com.silverviking.dto.response.ProductImageResponse;
+import com.silverviking.event.ProductChangedEvent;
 import com.silverviking.exception.EntityNotFoundException;
+import com.silverviking.mapper.ProductMapper;
 import com.silverviking.repository.ProductImageRepository;
 import com.silverviking.repository.ProductRepository;
 import com.silverviking.service.ProductImageService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,6 +25,8 @@ public class ProductImageServiceImpl implements ProductImageService {
 
     private final ProductImageRepository productImageRepository;
     private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductMapper productMapper;
 
     @Override
     @Transactional
@@ -36,16 +41,19 @@ public class ProductImageServiceImpl implements ProductImageService {
                 .product(product)
                 .build();
         ProductImage saved = productImageRepository.save(image);
+        product.touch();
+        eventPublisher.publishEvent(new ProductChangedEvent(product.getId(), ProductChangedEvent.Type.IMAGES_CHANGED));
         return mapToResponse(saved);
     }
 
     @Override
     @Transactional
     public void deleteImage(Long id) {
-        if (!productImageRepository.existsById(id)) {
-            throw new EntityNotFoundException("Image not found with id: " + id);
-        }
-        productImageRepository.deleteById(id);
+        ProductImage image = productImageRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Image not found with id: " + id));
+        productImageRepository.delete(image);
+        image.getProduct().touch();
+        eventPublisher.publishEvent(new ProductChangedEvent(image.getProduct().getId(), ProductChangedEvent.Type.IMAGES_CHANGED));
     }
 
     @Override
@@ -73,15 +81,12 @@ public class ProductImageServiceImpl implements ProductImageService {
         image.setIsThumbnail(request.getIsThumbnail());
         
         ProductImage updated = productImageRepository.save(image);
+        image.getProduct().touch();
+        eventPublisher.publishEvent(new ProductChangedEvent(image.getProduct().getId(), ProductChangedEvent.Type.IMAGES_CHANGED));
         return mapToResponse(updated);
     }
 
     private ProductImageResponse mapToResponse(ProductImage image) {
-        return ProductImageResponse.builder()
-                .id(image.getId())
-                .imageUrl(image.getImageUrl())
-                .type(image.getType().name())
-                .isThumbnail(image.getIsThumbnail())
-                .build();
+        return productMapper.toImageResponse(image);
     }
 }
@@ -0,0 +1,180 @@
+package com.silverviking.service.impl;
+
+import com.silverviking.configuration.ImageUploadProperties;
+import com.silverviking.domain.Product;
+import com.silverviking.domain.ProductImage;
+import com.silverviking.dto.response.ProductImageResponse;
+import com.silverviking.enums.ImageStatus;
+import com.silverviking.enums.ImageType;
+import com.silverviking.enums.ImageVariant;
+import com.silverviking.event.ProductChangedEvent;
+import com.silverviking.exception.BadRequestException;
+import com.silverviking.exception.EntityNotFoundException;
+import com.silverviking.exception.ServiceBusyException;
+import com.silverviking.mapper.ProductMapper;
+import com.silverviking.repository.ProductImageRepository;
+import com.silverviking.repository.ProductRepository;
+import com.silverviking.service.ProductImageUploadService;
+import com.silverviking.storage.ContentAddressedStorage;
+import com.silverviking.storage.ImageFormat;
+import com.silverviking.storage.ImageProcessingPool;
+import com.silverviking.storage.ImageProcessor;
+import com.silverviking.storage.ProcessedImage;
+import com.silverviking.storage.StoredBlob;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Stores each upload under its content hash and records it as a PROCESSING image straight away. The
+ * variants are generated on {@link ImageProcessingPool}, which marks the image READY or FAILED.
+ * Not @Transactional: the files are written before the row exists and the row commits before a
+ * worker can look for it.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductImageUploadServiceImpl implements ProductImageUploadService {
+
+    private final ProductRepository productRepository;
+    private final ProductImageRepository productImageRepository;
+    private final ContentAddressedStorage storage;
+    private final ImageProcessor imageProcessor;
+    private final ImageProcessingPool processingPool;
+    private final ImageUploadProperties properties;
+    private final ProductMapper productMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+
+    @Override
+    public List<ProductImageResponse> uploadImages(UUID productId, List<MultipartFile> files, String type, boolean isThumbnail) {
+        if (files == null || files.isEmpty()) {
+            throw new BadRequestException("At least one file is required");
+        }
+        ImageType imageType = parseType(type);
+        // All or nothing: one unreadable file must not leave the others stored and recorded
+        files.forEach(ProductImageUploadServiceImpl::checkFormat);
+        if (!productRepository.existsById(productId)) {
+            throw new EntityNotFoundException("Product not found with id: " + productId);
+        }
+        if (!processingPool.tryReserve(files.size())) {
+            throw new ServiceBusyException("Image processing is at capacity, retry later", properties.getRetryAfter());
+        }
+
+        List<ProductImageResponse> accepted = new ArrayList<>(files.size());
+        int submitted = 0;
+        try {
+            for (MultipartFile file : files) {
+                StoredBlob blob = store(file);
+                ProductImage image = record(productId, blob, imageType, isThumbnail && accepted.isEmpty());
+                try {
+                    processingPool.submit(() -> process(image.getId(), blob));
+                    submitted++;
+                } catch (RejectedExecutionException ex) {
+                    // Only while shutting down; the committed row must not stay PROCESSING
+                    log.warn("Could not queue image {} for processing: {}", image.getId(), ex.getMessage());
+                    complete(image.getId(), failed -> failed.setStatus(ImageStatus.FAILED));
+                    image.setStatus(ImageStatus.FAILED);
+                }
+                accepted.add(productMapper.toImageResponse(image));
+            }
+        } finally {
+            processingPool.release(files.size() - submitted);
+        }
+        return accepted;
+    }
+
+    private StoredBlob store(MultipartFile file) {
+        // The multipart part is already spooled to disk by the servlet container; this streams it on
+        try (InputStream in = file.getInputStream()) {
+            return storage.store(in);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not store upload " + file.getOriginalFilename(), ex);
+        }
+    }
+
+    private static void checkFormat(MultipartFile file) {
+        try (InputStream in = file.getInputStream()) {
+            byte[] header = in.readNBytes(ImageFormat.SIGNATURE_BYTES);
+            if (ImageFormat.detect(header, header.length).isEmpty()) {
+                throw new BadRequestException("Unsupported image format in " + file.getOriginalFilename()
+                        + ", expected JPEG, PNG or WebP");
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not read upload " + file.getOriginalFilename(), ex);
+        }
+    }
+
+    private ProductImage record(UUID productId, StoredBlob blob, ImageType type, boolean isThumbnail) {
+        return transaction().execute(status -> {
+            Product product = productRepository.findById(productId)
+                    .orElseThrow(() -> new EntityNotFoundException("Product not found with id: " + productId));
+            ProductImage saved = productImageRepository.save(ProductImage.builder()
+                    .imageUrl(storage.originalUrl(blob.hash(), blob.format()))
+                    .type(type)
+                    .isThumbnail(isThumbnail)
+                    .contentHash(blob.hash())
+                    .byteSize(blob.size())
+                    .status(ImageStatus.PROCESSING)
+                    .product(product)
+                    .build());
+            product.touch();
+            eventPublisher.publishEvent(new ProductChangedEvent(productId, ProductChangedEvent.Type.IMAGES_CHANGED));
+            return saved;
+        });
+    }
+
+    private void process(Long imageId, StoredBlob blob) {
+        long started = System.nanoTime();
+        try {
+            ProcessedImage result = imageProcessor.process(blob);
+            complete(imageId, image -> {
+                image.setWidth(result.width());
+                image.setHeight(result.height());
+                image.setPhash(result.fingerprint().phash());
+                image.setDhash(result.fingerprint().dhash());
+                image.setImageUrl(storage.variantUrl(blob.hash(), ImageVariant.DETAIL));
+                image.setStatus(ImageStatus.READY);
+            });
+            log.debug("Processed image {} ({} bytes) in {} ms", imageId, blob.size(), (System.nanoTime() - started) / 1_000_000);
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Could not process image {} ({}): {}", imageId, blob.hash(), ex.getMessage());
+            complete(imageId, image -> image.setStatus(ImageStatus.FAILED));
+        }
+    }
+
+    // The image may have been deleted while it was queued; then there is nothing to update
+    private void complete(Long imageId, Consumer<ProductImage> update) {
+        transaction().executeWithoutResult(status -> productImageRepository.findById(imageId).ifPresent(image -> {
+            update.accept(image);
+            image.getProduct().touch();
+            eventPublisher.publishEvent(new ProductChangedEvent(image.getProduct().getId(), ProductChangedEvent.Type.IMAGES_CHANGED));
+        }));
+    }
+
+    private static ImageType parseType(String type) {
+        try {
+            return ImageType.valueOf(type.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Unknown image type: " + type);
+        }
+    }
+
+    private TransactionTemplate transaction() {
+        return new TransactionTemplate(transactionManager);
+    }
+}
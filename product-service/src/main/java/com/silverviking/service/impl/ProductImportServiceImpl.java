@@ -0,0 +1,293 @@
+package com.silverviking.service.impl;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.silverviking.cache.ReferenceDataRegistry;
+import com.silverviking.configuration.ProductImportProperties;
+import com.silverviking.domain.Category;
+import com.silverviking.domain.Manufacturer;
+import com.silverviking.domain.Product;
+import com.silverviking.domain.Series;
+import com.silverviking.dto.request.ProductImageRequest;
+import com.silverviking.dto.request.ProductImportCsvRow;
+import com.silverviking.dto.request.ProductRequest;
+import com.silverviking.dto.response.ProductImportError;
+import com.silverviking.dto.response.ProductImportResult;
+import com.silverviking.enums.ImageType;
+import com.silverviking.event.ProductChangedEvent;
+import com.silverviking.exception.BadRequestException;
+import com.silverviking.exception.ConstraintViolations;
+import com.silverviking.exception.EntityNotFoundException;
+import com.silverviking.mapper.ProductMapper;
+import com.silverviking.service.ProductImportService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductImportServiceImpl implements ProductImportService {
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+    private static final CsvMapper CSV_MAPPER = new CsvMapper();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ReferenceDataRegistry referenceData;
+    private final ProductMapper productMapper;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductImportProperties properties;
+
+    @Override
+    public ProductImportResult importProducts(InputStream in, MediaType contentType, Integer batchSize) throws IOException {
+        int size = batchSize != null ? batchSize : properties.getBatchSize();
+        if (size < 1 || size > properties.getMaxBatchSize()) {
+            throw new BadRequestException("Batch size must be between 1 and " + properties.getMaxBatchSize());
+        }
+
+        long started = System.nanoTime();
+        ImportProgress progress = new ImportProgress(properties.getMaxReportedErrors());
+        List<PendingRow> batch = new ArrayList<>(size);
+        try (RowSource rows = openRows(in, contentType)) {
+            long rowNumber = 0;
+            while (true) {
+                ProductRequest request;
+                rowNumber++;
+                try {
+                    if (!rows.hasNext()) {
+                        break;
+                    }
+                    request = rows.next();
+                } catch (JsonParseException ex) {
+                    // Broken syntax: the parser cannot find where the next row starts, so the rest of the stream is dropped
+                    progress.received++;
+                    progress.abort(rowNumber, "Malformed input: " + ex.getOriginalMessage());
+                    break;
+                } catch (JsonProcessingException ex) {
+                    // A well-formed row that does not bind; the reader skips to the end of it and carries on
+                    progress.received++;
+                    progress.fail(rowNumber, null, "Invalid row: " + ex.getOriginalMessage());
+                    continue;
+                }
+                progress.received++;
+                String error = validate(request);
+                if (error != null) {
+                    progress.fail(rowNumber, request.getSlug(), error);
+                    continue;
+                }
+                batch.add(new PendingRow(rowNumber, request));
+                if (batch.size() == size) {
+                    writeBatch(batch, progress);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch, progress);
+        }
+
+        long elapsedNanos = System.nanoTime() - started;
+        return ProductImportResult.builder()
+                .received(progress.received)
+                .imported(progress.imported)
+                .failed(progress.failed)
+                .abortedAtRow(progress.abortedAtRow)
+                .elapsedMillis(elapsedNanos / 1_000_000)
+                .rowsPerSecond(elapsedNanos > 0 ? progress.imported * 1e9 / elapsedNanos : 0)
+                .errors(progress.errors)
+                .build();
+    }
+
+    private RowSource openRows(InputStream in, MediaType contentType) throws IOException {
+        if (TEXT_CSV.isCompatibleWith(contentType)) {
+            MappingIterator<ProductImportCsvRow> csvRows = CSV_MAPPER.readerFor(ProductImportCsvRow.class)
+                    .with(CsvSchema.emptySchema().withHeader())
+                    .readValues(in);
+            return RowSource.of(csvRows, ProductImportServiceImpl::fromCsv);
+        }
+        // A top-level JSON array is unwrapped, so the same reader handles arrays and newline-delimited JSON
+        MappingIterator<ProductRequest> jsonRows = objectMapper.readerFor(ProductRequest.class).readValues(in);
+        return RowSource.of(jsonRows, Function.identity());
+    }
+
+    private String validate(ProductRequest request) {
+        Set<ConstraintViolation<ProductRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (request.getImages() != null) {
+            for (ProductImageRequest image : request.getImages()) {
+                if (image.getImageUrl() == null || image.getImageUrl().isBlank()) {
+                    return "images: Image URL is required";
+                }
+                if (image.getType() != null && Arrays.stream(ImageType.values()).noneMatch(type -> type.name().equals(image.getType()))) {
+                    return "images: Unknown image type " + image.getType();
+                }
+            }
+        }
+        try {
+            referenceData.requireCategory(request.getCategoryId());
+            referenceData.requireManufacturer(request.getManufacturerId());
+            if (request.getSeriesId() != null) {
+                referenceData.requireSeries(request.getSeriesId());
+            }
+        } catch (EntityNotFoundException ex) {
+            return ex.getMessage();
+        }
+        return null;
+    }
+
+    private void writeBatch(List<PendingRow> batch, ImportProgress progress) {
+        try {
+            persist(batch);
+            progress.imported += batch.size();
+        } catch (RuntimeException batchFailure) {
+            // Replay row by row so one bad row only costs itself
+            log.debug("Import batch of {} rows failed, retrying rows individually", batch.size(), batchFailure);
+            for (PendingRow row : batch) {
+                try {
+                    persist(List.of(row));
+                    progress.imported++;
+                } catch (RuntimeException rowFailure) {
+                    String message = ConstraintViolations.isViolationOf(rowFailure, Product.SLUG_CONSTRAINT)
+                            ? "Slug already exists"
+                            : NestedExceptionUtils.getMostSpecificCause(rowFailure).getMessage();
+                    progress.fail(row.number(), row.request().getSlug(), message);
+                }
+            }
+        }
+    }
+
+    private void persist(List<PendingRow> rows) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (PendingRow row : rows) {
+                ProductRequest request = row.request();
+                Product product = productMapper.toEntity(request,
+                        entityManager.getReference(Category.class, request.getCategoryId()),
+                        request.getSeriesId() != null ? entityManager.getReference(Series.class, request.getSeriesId()) : null,
+                        entityManager.getReference(Manufacturer.class, request.getManufacturerId()));
+                entityManager.persist(product);
+                eventPublisher.publishEvent(new ProductChangedEvent(product.getId(), ProductChangedEvent.Type.CREATED));
+            }
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+
+    private record PendingRow(long number, ProductRequest request) {
+    }
+
+    private static final class ImportProgress {
+        private final int maxReportedErrors;
+        private final List<ProductImportError> errors = new ArrayList<>();
+        private long received;
+        private long imported;
+        private long failed;
+        private Long abortedAtRow;
+
+        private ImportProgress(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        private void fail(long row, String slug, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ProductImportError(row, slug, message));
+            }
+        }
+
+        private void abort(long row, String message) {
+            fail(row, null, message + "; this row and everything after it was not read");
+            abortedAtRow = row;
+        }
+    }
+
+    /**
+     * Streaming source of import rows, whatever the wire format.
+     */
+    private interface RowSource extends Closeable {
+        boolean hasNext() throws IOException;
+
+        ProductRequest next() throws IOException;
+
+        static <T> RowSource of(MappingIterator<T> rows, Function<T, ProductRequest> converter) {
+            return new RowSource() {
+                @Override
+                public boolean hasNext() throws IOException {
+                    return rows.hasNextValue();
+                }
+
+                @Override
+                public ProductRequest next() throws IOException {
+                    return converter.apply(rows.nextValue());
+                }
+
+                @Override
+                public void close() throws IOException {
+                    rows.close();
+                }
+            };
+        }
+    }
+
+    private static ProductRequest fromCsv(ProductImportCsvRow row) {
+        ProductRequest request = new ProductRequest();
+        request.setName(row.getName());
+        request.setSlug(row.getSlug());
+        request.setPriceMarket(row.getPriceMarket());
+        request.setReleased(row.isReleased());
+        request.setReleaseDate(row.getReleaseDate());
+        request.setScale(row.getScale());
+        request.setHeight(row.getHeight());
+        request.setMaterial(row.getMaterial());
+        request.setDescription(row.getDescription());
+        request.setCategoryId(row.getCategoryId());
+        request.setManufacturerId(row.getManufacturerId());
+        request.setSeriesId(row.getSeriesId());
+        if (row.getImageUrls() != null && !row.getImageUrls().isBlank()) {
+            List<ProductImageRequest> images = new ArrayList<>();
+            for (String url : row.getImageUrls().split("\\|")) {
+                if (url.isBlank()) {
+                    continue;
+                }
+                ProductImageRequest image = new ProductImageRequest();
+                image.setImageUrl(url.trim());
+                image.setIsThumbnail(images.isEmpty());
+                images.add(image);
+            }
+            request.setImages(images);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,65 @@
+package com.silverviking.service.impl;
+
+import com.silverviking.cache.ProductDetailCache;
+import com.silverviking.domain.Product;
+import com.silverviking.dto.request.ProductSearchRequest;
+import com.silverviking.dto.response.ProductResponse;
+import com.silverviking.dto.response.ProductSearchHit;
+import com.silverviking.dto.response.ProductSearchResponse;
+import com.silverviking.mapper.ProductMapper;
+import com.silverviking.repository.ProductRepository;
+import com.silverviking.search.Bm25Index;
+import com.silverviking.search.ProductSearchIndex;
+import com.silverviking.service.ProductSearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class ProductSearchServiceImpl implements ProductSearchService {
+
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final ProductDetailCache productDetailCache;
+    private final PlatformTransactionManager transactionManager;
+
+    @Override
+    public ProductSearchResponse search(ProductSearchRequest request) {
+        Bm25Index.SearchResult result = productSearchIndex.search(request.getQ(), request.getOffset(), request.getSize());
+        List<UUID> ids = result.hits().stream().map(Bm25Index.SearchHit::id).toList();
+
+        // Hits are hydrated from the detail cache; only the misses are loaded, all in one query
+        Map<UUID, ProductResponse> products = ids.isEmpty() ? Map.of() : productDetailCache.getAll(ids, this::loadProducts);
+
+        List<ProductSearchHit> hits = result.hits().stream()
+                .filter(hit -> products.containsKey(hit.id()))
+                .map(hit -> ProductSearchHit.builder()
+                        .score(hit.score())
+                        .product(products.get(hit.id()))
+                        .build())
+                .collect(Collectors.toList());
+
+        return ProductSearchResponse.builder()
+                .query(request.getQ())
+                .totalHits(result.totalHits())
+                .offset(request.getOffset())
+                .hits(hits)
+                .build();
+    }
+
+    private Map<UUID, ProductResponse> loadProducts(Set<? extends UUID> ids) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        return transaction.execute(status -> productRepository.findAllById(List.copyOf(ids)).stream()
+                .collect(Collectors.toMap(Product::getId, productMapper::toResponse)));
+    }
+}
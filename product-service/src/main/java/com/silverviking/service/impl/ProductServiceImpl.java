@@ -1,29 +1,45 @@
 package com.silverviking.service.impl;
 
+import com.silverviking.cache.CatalogVersionRegistry;
+import com.silverviking.cache.EntityVersion;
+import com.silverviking.cache.ProductDetailCache;
+import com.silverviking.cache.ProductSlugCache;
+import com.silverviking.cache.ReferenceDataRegistry;
+import com.silverviking.cache.ResourceVersion;
 import com.silverviking.domain.Category;
 import com.silverviking.domain.Manufacturer;
 import com.silverviking.domain.Product;
-import com.silverviking.domain.ProductImage;
 import com.silverviking.domain.Series;
+import com.silverviking.dto.request.ProductPageRequest;
 import com.silverviking.dto.request.ProductRequest;
-import com.silverviking.dto.response.CategoryResponse;
-import com.silverviking.dto.response.ManufacturerResponse;
-import com.silverviking.dto.response.ProductImageResponse;
+import com.silverviking.dto.response.CursorPageResponse;
 import com.silverviking.dto.response.ProductResponse;
-import com.silverviking.dto.response.SeriesResponse;
+import com.silverviking.dto.response.ProductSummaryResponse;
+import com.silverviking.enums.ProductSortField;
+import com.silverviking.event.ProductChangedEvent;
+import com.silverviking.exception.ConflictException;
+import com.silverviking.exception.ConstraintViolations;
 import com.silverviking.exception.EntityNotFoundException;
+import com.silverviking.mapper.ProductMapper;
+import com.silverviking.pagination.ProductCursor;
 import com.silverviking.repository.CategoryRepository;
 import com.silverviking.repository.ManufacturerRepository;
+import com.silverviking.repository.ProductKeysetQuery;
 import com.silverviking.repository.ProductRepository;
 import com.silverviking.repository.SeriesRepository;
 import com.silverviking.service.ProductService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -34,66 +50,93 @@ public class ProductServiceImpl implements ProductService {
     private final CategoryRepository categoryRepository;
     private final SeriesRepository seriesRepository;
     private final ManufacturerRepository manufacturerRepository;
+    private final ReferenceDataRegistry referenceData;
+    private final ProductMapper productMapper;
+    private final ProductDetailCache productDetailCache;
+    private final ProductSlugCache productSlugCache;
+    private final CatalogVersionRegistry catalogVersions;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
 
     @Override
     @Transactional(readOnly = true)
-    public List<ProductResponse> getAllProducts() {
-        return productRepository.findAll().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    public CursorPageResponse<ProductResponse> getAllProducts(ProductPageRequest pageRequest) {
+        return findPage(null, null, pageRequest);
     }
 
     @Override
-    @Transactional(readOnly = true)
     public ProductResponse getProductById(UUID id) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Product not found with id: " + id));
-        return mapToResponse(product);
+        // Not @Transactional: a cache hit must not even borrow a connection
+        return productDetailCache.get(id, this::loadProduct);
+    }
+
+    @Override
+    public ProductResponse getProductBySlug(String slug) {
+        UUID id = productSlugCache.get(slug, this::resolveSlug);
+        try {
+            ProductResponse product = productDetailCache.get(id, this::loadProduct);
+            if (slug.equals(product.getSlug())) {
+                return product;
+            }
+        } catch (EntityNotFoundException ex) {
+            // Deleted since the slug was cached; fall through and resolve again
+        }
+        // The cached mapping is stale: the slug was changed or now belongs to another product
+        productSlugCache.invalidate(slug);
+        return productDetailCache.get(productSlugCache.get(slug, this::resolveSlug), this::loadProduct);
+    }
+
+    @Override
+    public ResourceVersion getProductVersion(UUID id) {
+        // A cached response carries the version it was built from; otherwise read just the version columns
+        ProductResponse cached = productDetailCache.getIfPresent(id);
+        EntityVersion version = cached != null
+                ? new EntityVersion(cached.getVersion(), cached.getUpdatedAt())
+                : productRepository.findVersionById(id)
+                        .orElseThrow(() -> new EntityNotFoundException("Product not found with id: " + id));
+        return ResourceVersion.ofProduct(version, catalogVersions.current());
+    }
+
+    @Override
+    public ResourceVersion getProductVersionBySlug(String slug) {
+        return getProductVersion(productSlugCache.get(slug, this::resolveSlug));
+    }
+
+    private UUID resolveSlug(String slug) {
+        return productRepository.findIdBySlug(slug)
+                .orElseThrow(() -> new EntityNotFoundException("Product not found with slug: " + slug));
+    }
+
+    private ProductResponse loadProduct(UUID id) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        return transaction.execute(status -> {
+            Product product = productRepository.findById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Product not found with id: " + id));
+            return mapToResponse(product);
+        });
     }
 
     @Override
     @Transactional
     public ProductResponse createProduct(ProductRequest request) {
-        Category category = categoryRepository.findById(request.getCategoryId())
-                .orElseThrow(() -> new EntityNotFoundException("Category not found with id: " + request.getCategoryId()));
+        // Validated against the in-memory snapshot; the associations are set as unloaded references
+        referenceData.requireCategory(request.getCategoryId());
+        Category category = categoryRepository.getReferenceById(request.getCategoryId());
 
         Series series = null;
         if (request.getSeriesId() != null) {
-            series = seriesRepository.findById(request.getSeriesId())
-                    .orElseThrow(() -> new EntityNotFoundException("Series not found with id: " + request.getSeriesId()));
+            referenceData.requireSeries(request.getSeriesId());
+            series = seriesRepository.getReferenceById(request.getSeriesId());
         }
 
-        Manufacturer manufacturer = manufacturerRepository.findById(request.getManufacturerId())
-                .orElseThrow(() -> new EntityNotFoundException("Manufacturer not found with id: " + request.getManufacturerId()));
-
-        Product product = Product.builder()
-                .name(request.getName())
-                .slug(request.getSlug())
-                .priceMarket(request.getPriceMarket())
-                .isReleased(request.isReleased())
-                .releaseDate(request.getReleaseDate())
-                .scale(request.getScale())
-                .height(request.getHeight())
-                .material(request.getMaterial())
-                .description(request.getDescription())
-                .category(category)
-                .series(series)
-                .manufacturer(manufacturer)
-                .build();
-        
-        if (request.getImages() != null && !request.getImages().isEmpty()) {
-            List<ProductImage> images = request.getImages().stream()
-                    .map(imgRequest -> ProductImage.builder()
-                            .imageUrl(imgRequest.getImageUrl())
-                            .isThumbnail(imgRequest.getIsThumbnail())
-                            .type(imgRequest.getType() != null ? com.silverviking.enums.ImageType.valueOf(imgRequest.getType()) : null)
-                            .product(product)
-                            .build())
-                    .collect(Collectors.toList());
-            product.setImages(images);
-        }
+        referenceData.requireManufacturer(request.getManufacturerId());
+        Manufacturer manufacturer = manufacturerRepository.getReferenceById(request.getManufacturerId());
 
-        Product saved = productRepository.save(product);
+        Product product = productMapper.toEntity(request, category, series, manufacturer);
+
+        Product saved = saveEnforcingUniqueSlug(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(saved.getId(), ProductChangedEvent.Type.CREATED));
         return mapToResponse(saved);
     }
 
@@ -103,17 +146,18 @@ public class ProductServiceImpl implements ProductService {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Product not found with id: " + id));
 
-        Category category = categoryRepository.findById(request.getCategoryId())
-                .orElseThrow(() -> new EntityNotFoundException("Category not found with id: " + request.getCategoryId()));
-        
+        // Validated against the in-memory snapshot; the associations are set as unloaded references
+        referenceData.requireCategory(request.getCategoryId());
+        Category category = categoryRepository.getReferenceById(request.getCategoryId());
+
         Series series = null;
         if (request.getSeriesId() != null) {
-            series = seriesRepository.findById(request.getSeriesId())
-                    .orElseThrow(() -> new EntityNotFoundException("Series not found with id: " + request.getSeriesId()));
+            referenceData.requireSeries(request.getSeriesId());
+            series = seriesRepository.getReferenceById(request.getSeriesId());
         }
 
-        Manufacturer manufacturer = manufacturerRepository.findById(request.getManufacturerId())
-                .orElseThrow(() -> new EntityNotFoundException("Manufacturer not found with id: " + request.getManufacturerId()));
+        referenceData.requireManufacturer(request.getManufacturerId());
+        Manufacturer manufacturer = manufacturerRepository.getReferenceById(request.getManufacturerId());
 
         product.setName(request.getName());
         product.setSlug(request.getSlug());
@@ -131,7 +175,8 @@ public class ProductServiceImpl implements ProductService {
         // I will leave image update to separate image service or basic replacement if list provided.
         // Let's assume basic fields update for now to minimize complexity unless requested.
         
-        Product updated = productRepository.save(product);
+        Product updated = saveEnforcingUniqueSlug(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(id, ProductChangedEvent.Type.UPDATED));
         return mapToResponse(updated);
     }
 
@@ -142,79 +187,94 @@ public class ProductServiceImpl implements ProductService {
             throw new EntityNotFoundException("Product not found with id: " + id);
         }
         productRepository.deleteById(id);
+        eventPublisher.publishEvent(new ProductChangedEvent(id, ProductChangedEvent.Type.DELETED));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ProductResponse> getProductsByCategoryId(Long categoryId) {
-        if (!categoryRepository.existsById(categoryId)) {
-             throw new EntityNotFoundException("Category not found with id: " + categoryId);
-        }
-        return productRepository.findByCategoryId(categoryId).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    public CursorPageResponse<ProductResponse> getProductsByCategoryId(Long categoryId, ProductPageRequest pageRequest) {
+        referenceData.requireCategory(categoryId);
+        return findPage(categoryId, null, pageRequest);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ProductResponse> getProductsBySeriesId(Long seriesId) {
-        if (!seriesRepository.existsById(seriesId)) {
-             throw new EntityNotFoundException("Series not found with id: " + seriesId);
-        }
-        return productRepository.findBySeriesId(seriesId).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    public CursorPageResponse<ProductResponse> getProductsBySeriesId(Long seriesId, ProductPageRequest pageRequest) {
+        referenceData.requireSeries(seriesId);
+        return findPage(null, seriesId, pageRequest);
     }
 
-    private ProductResponse mapToResponse(Product product) {
-        CategoryResponse categoryResponse = CategoryResponse.builder()
-                .id(product.getCategory().getId())
-                .name(product.getCategory().getName())
-                .description(product.getCategory().getDescription())
-                .build();
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<ProductSummaryResponse> getAllProductSummaries(ProductPageRequest pageRequest) {
+        return findSummaryPage(null, null, pageRequest);
+    }
 
-        SeriesResponse seriesResponse = null;
-        if (product.getSeries() != null) {
-            seriesResponse = SeriesResponse.builder()
-                    .id(product.getSeries().getId())
-                    .name(product.getSeries().getName())
-                    .build();
-        }
-        
-        ManufacturerResponse manufacturerResponse = null;
-        if (product.getManufacturer() != null) {
-            manufacturerResponse = ManufacturerResponse.builder()
-                    .id(product.getManufacturer().getId())
-                    .name(product.getManufacturer().getName())
-                    .originCountry(product.getManufacturer().getOriginCountry())
-                    .build();
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<ProductSummaryResponse> getProductSummariesByCategoryId(Long categoryId, ProductPageRequest pageRequest) {
+        referenceData.requireCategory(categoryId);
+        return findSummaryPage(categoryId, null, pageRequest);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<ProductSummaryResponse> getProductSummariesBySeriesId(Long seriesId, ProductPageRequest pageRequest) {
+        referenceData.requireSeries(seriesId);
+        return findSummaryPage(null, seriesId, pageRequest);
+    }
+
+    // The unique index decides; checking for an existing slug first would race with concurrent writers
+    private Product saveEnforcingUniqueSlug(Product product) {
+        try {
+            return productRepository.saveAndFlush(product);
+        } catch (DataIntegrityViolationException ex) {
+            if (ConstraintViolations.isViolationOf(ex, Product.SLUG_CONSTRAINT)) {
+                throw new ConflictException("Product slug already exists: " + product.getSlug());
+            }
+            throw ex;
         }
+    }
+
+    private CursorPageResponse<ProductResponse> findPage(Long categoryId, Long seriesId, ProductPageRequest pageRequest) {
+        return keysetPage(categoryId, seriesId, pageRequest, productRepository::findKeysetPage,
+                ProductCursor::after, this::mapToResponse);
+    }
+
+    private CursorPageResponse<ProductSummaryResponse> findSummaryPage(Long categoryId, Long seriesId, ProductPageRequest pageRequest) {
+        return keysetPage(categoryId, seriesId, pageRequest, productRepository::findKeysetSummaryPage,
+                ProductCursor::after, productMapper::toSummary);
+    }
+
+    private <R, T> CursorPageResponse<T> keysetPage(Long categoryId, Long seriesId, ProductPageRequest pageRequest,
+                                                    Function<ProductKeysetQuery, List<R>> query,
+                                                    CursorFactory<R> cursorFactory, Function<R, T> mapper) {
+        ProductSortField sort = pageRequest.getSort();
+        Sort.Direction direction = pageRequest.getDirection();
+        ProductCursor after = pageRequest.getCursor() != null
+                ? ProductCursor.decode(pageRequest.getCursor(), sort, direction)
+                : null;
 
-        List<ProductImageResponse> imageResponses = product.getImages() != null ? 
-                product.getImages().stream()
-                    .map(img -> ProductImageResponse.builder()
-                            .id(img.getId())
-                            .imageUrl(img.getImageUrl())
-                            .isThumbnail(img.getIsThumbnail())
-                            .type(img.getType() != null ? img.getType().name() : null)
-                            .build())
-                    .collect(Collectors.toList()) : java.util.Collections.emptyList();
-
-        return ProductResponse.builder()
-                .id(product.getId())
-                .name(product.getName())
-                .slug(product.getSlug())
-                .priceMarket(product.getPriceMarket())
-                .isReleased(product.isReleased())
-                .releaseDate(product.getReleaseDate())
-                .scale(product.getScale())
-                .height(product.getHeight())
-                .material(product.getMaterial())
-                .description(product.getDescription())
-                .category(categoryResponse)
-                .series(seriesResponse)
-                .manufacturer(manufacturerResponse)
-                .images(imageResponses)
+        // Fetch one extra row to learn whether another page exists without a count query
+        int size = pageRequest.getSize();
+        List<R> rows = query.apply(new ProductKeysetQuery(categoryId, seriesId, sort, direction, after, size + 1));
+        boolean hasNext = rows.size() > size;
+        List<R> page = hasNext ? rows.subList(0, size) : rows;
+
+        return CursorPageResponse.<T>builder()
+                .items(page.stream().map(mapper).collect(Collectors.toList()))
+                .size(page.size())
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? cursorFactory.after(page.get(size - 1), sort, direction).encode() : null)
                 .build();
     }
+
+    @FunctionalInterface
+    private interface CursorFactory<R> {
+        ProductCursor after(R row, ProductSortField sort, Sort.Direction direction);
+    }
+
+    private ProductResponse mapToResponse(Product product) {
+        return productMapper.toResponse(product);
+    }
 }
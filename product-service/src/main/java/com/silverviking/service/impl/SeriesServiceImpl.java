@@ -3,10 +3,12 @@ package com.silverviking.service.impl;
 import com.silverviking.domain.Series;
 import com.silverviking.dto.request.SeriesRequest;
 import com.silverviking.dto.response.SeriesResponse;
+import com.silverviking.event.ReferenceDataChangedEvent;
 import com.silverviking.exception.EntityNotFoundException;
 import com.silverviking.repository.SeriesRepository;
 import com.silverviking.service.SeriesService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,6 +20,7 @@ import java.util.stream.Collectors;
 public class SeriesServiceImpl implements SeriesService {
 
     private final SeriesRepository seriesRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional(readOnly = true)
@@ -42,6 +45,7 @@ public class SeriesServiceImpl implements SeriesService {
                 .name(request.getName())
                 .build();
         Series saved = seriesRepository.save(series);
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(ReferenceDataChangedEvent.Type.SERIES, saved.getId()));
         return mapToResponse(saved);
     }
 
@@ -54,6 +58,7 @@ public class SeriesServiceImpl implements SeriesService {
         series.setName(request.getName());
         
         Series updated = seriesRepository.save(series);
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(ReferenceDataChangedEvent.Type.SERIES, id));
         return mapToResponse(updated);
     }
 
@@ -64,6 +69,7 @@ public class SeriesServiceImpl implements SeriesService {
             throw new EntityNotFoundException("Series not found with id: " + id);
         }
         seriesRepository.deleteById(id);
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(ReferenceDataChangedEvent.Type.SERIES, id));
     }
 
     @Override
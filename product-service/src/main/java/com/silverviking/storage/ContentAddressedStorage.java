@@ -0,0 +1,184 @@
+package com.silverviking.storage;
+
+import com.silverviking.configuration.ImageUploadProperties;
+import com.silverviking.enums.ImageVariant;
+import com.silverviking.exception.BadRequestException;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Files named by the SHA-256 of the original upload: {@code originals/ab/<hash>.<ext>} and
+ * {@code variants/ab/<hash>/<variant>.jpg}. Identical uploads share one copy, and a name never points
+ * at different bytes, so the files can be served as immutable. Every file is written to a temporary
+ * name first and moved into place, so readers never see a partial file.
+ */
+@Component
+public class ContentAddressedStorage {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path root;
+    private final String publicPath;
+
+    public ContentAddressedStorage(ImageUploadProperties properties) {
+        this.root = properties.getStorageRoot().toAbsolutePath().normalize();
+        this.publicPath = properties.getPublicPath();
+        try {
+            Files.createDirectories(root.resolve("tmp"));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot create image storage at " + root, ex);
+        }
+    }
+
+    public Path root() {
+        return root;
+    }
+
+    public StoredBlob store(InputStream upload) throws IOException {
+        StoredBlob staged = storeTemporary(upload);
+        try {
+            Path target = originalPath(staged.hash(), staged.format());
+            moveIntoPlace(staged.path(), target);
+            return new StoredBlob(staged.hash(), staged.format(), staged.size(), target);
+        } finally {
+            Files.deleteIfExists(staged.path());
+        }
+    }
+
+    /**
+     * Checks and hashes an upload like {@link #store}, but leaves it in {@code tmp/}, which is never
+     * served. The caller deletes the returned file once done with it. Copies in fixed-size chunks while
+     * hashing, so memory use does not depend on the file size.
+     */
+    public StoredBlob storeTemporary(InputStream upload) throws IOException {
+        BufferedInputStream in = new BufferedInputStream(upload, BUFFER_SIZE);
+        in.mark(ImageFormat.SIGNATURE_BYTES);
+        byte[] header = in.readNBytes(ImageFormat.SIGNATURE_BYTES);
+        in.reset();
+        ImageFormat format = ImageFormat.detect(header, header.length)
+                .orElseThrow(() -> new BadRequestException("Unsupported image format, expected JPEG, PNG or WebP"));
+
+        MessageDigest digest = sha256();
+        Path temp = Files.createTempFile(root.resolve("tmp"), "upload-", ".part");
+        long size = 0;
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                for (int read; (read = in.read(buffer)) != -1; ) {
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                    size += read;
+                }
+            }
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(temp);
+            throw ex;
+        }
+        return new StoredBlob(HexFormat.of().formatHex(digest.digest()), format, size, temp);
+    }
+
+    public void writeVariant(String hash, ImageVariant variant, VariantWriter writer) throws IOException {
+        Path temp = Files.createTempFile(root.resolve("tmp"), "variant-", ".part");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                writer.write(out);
+            }
+            moveIntoPlace(temp, variantPath(hash, variant));
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public boolean hasAllVariants(String hash) {
+        for (ImageVariant variant : ImageVariant.values()) {
+            if (!Files.exists(variantPath(hash, variant))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // The original is stored under the extension of its detected format
+    public Optional<ImageFormat> originalFormat(String hash) {
+        for (ImageFormat format : ImageFormat.values()) {
+            if (Files.exists(originalPath(hash, format))) {
+                return Optional.of(format);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public Path originalPath(String hash, ImageFormat format) {
+        return root.resolve(originalName(hash, format));
+    }
+
+    public Path variantPath(String hash, ImageVariant variant) {
+        return root.resolve(variantName(hash, variant));
+    }
+
+    public String originalUrl(String hash, ImageFormat format) {
+        return publicPath + "/" + originalName(hash, format);
+    }
+
+    public String variantUrl(String hash, ImageVariant variant) {
+        return publicPath + "/" + variantName(hash, variant);
+    }
+
+    public Map<String, String> variantUrls(String hash) {
+        Map<String, String> urls = new LinkedHashMap<>();
+        for (ImageVariant variant : ImageVariant.values()) {
+            urls.put(variant.name().toLowerCase(Locale.ROOT), variantUrl(hash, variant));
+        }
+        return urls;
+    }
+
+    private static String originalName(String hash, ImageFormat format) {
+        return "originals/" + hash.substring(0, 2) + "/" + hash + "." + format.getExtension();
+    }
+
+    private static String variantName(String hash, ImageVariant variant) {
+        return "variants/" + hash.substring(0, 2) + "/" + hash + "/" + variant.fileName();
+    }
+
+    // An existing target already holds the same bytes, so the new copy is simply dropped
+    private static void moveIntoPlace(Path temp, Path target) throws IOException {
+        if (Files.exists(target)) {
+            return;
+        }
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException ex) {
+            // A concurrent upload of the same content won the race
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @FunctionalInterface
+    public interface VariantWriter {
+        void write(OutputStream out) throws IOException;
+    }
+}
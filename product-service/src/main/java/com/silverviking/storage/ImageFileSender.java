@@ -0,0 +1,114 @@
+package com.silverviking.storage;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Writes a stored image file to the response without reading it onto the heap. On Tomcat the file is
+ * handed to the connector's sendfile support, which streams it to the socket with
+ * {@link FileChannel#transferTo} after the request thread is released; elsewhere (MockMvc, other
+ * containers) {@code transferTo} writes into the servlet output stream through a small fixed buffer.
+ * <p>
+ * Files are named by their content hash and never change, so the hash is a strong ETag and responses
+ * are cacheable forever. A single byte range is honoured; multi-range requests get the whole file,
+ * which HTTP allows.
+ */
+@Component
+public class ImageFileSender {
+
+    static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final String CACHE_CONTROL = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable().getHeaderValue();
+
+    public void send(HttpServletRequest request, HttpServletResponse response, Path file, String etag,
+                     String contentType) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            send(request, response, channel, file, etag, contentType);
+        }
+    }
+
+    /**
+     * Serves {@code file} through a channel the caller opened and closes. Once open, the file is served in
+     * full even if it is deleted meanwhile; sendfile reopens it by name, though, which is why
+     * {@link VariantDiskCache} delays its deletions.
+     */
+    public void send(HttpServletRequest request, HttpServletResponse response, FileChannel channel, Path file,
+                     String etag, String contentType) throws IOException {
+        long length = channel.size();
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        // Sets the ETag and answers 304 when If-None-Match matches
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return;
+        }
+        response.setContentType(contentType);
+
+        long start = 0;
+        long end = length - 1;
+        HttpRange range = requestedRange(request, etag);
+        if (range != null) {
+            start = range.getRangeStart(length);
+            end = range.getRangeEnd(length);
+            if (start >= length || start > end) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return;
+            }
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if (count == 0 || HttpMethod.HEAD.matches(request.getMethod())) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            // Exclusive, unlike the Content-Range end
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+        for (long sent = 0; sent < count; ) {
+            sent += channel.transferTo(start + sent, count - sent, out);
+        }
+    }
+
+    // The Range header, unless it is malformed, asks for several ranges, or If-Range names another version
+    private static HttpRange requestedRange(HttpServletRequest request, String etag) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        if (header == null) {
+            return null;
+        }
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(etag)) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(header);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+}
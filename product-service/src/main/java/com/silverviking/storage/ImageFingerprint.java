@@ -0,0 +1,18 @@
+package com.silverviking.storage;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Perceptual hashes of one image. Near-identical photos (rescaled, recompressed, lightly edited)
+ * differ in few bits, so similarity is Hamming distance.
+ */
+public record ImageFingerprint(long phash, long dhash) {
+
+    public static ImageFingerprint of(BufferedImage image) {
+        return new ImageFingerprint(PerceptualHash.phash(image), PerceptualHash.dhash(image));
+    }
+
+    public String hex() {
+        return String.format("%016x%016x", phash, dhash);
+    }
+}
@@ -0,0 +1,37 @@
+package com.silverviking.storage;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Optional;
+
+/**
+ * Accepted upload formats, recognised by their leading bytes rather than the client's content type.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ImageFormat {
+    JPEG("jpg", "image/jpeg"),
+    PNG("png", "image/png"),
+    WEBP("webp", "image/webp");
+
+    public static final int SIGNATURE_BYTES = 12;
+
+    private final String extension;
+    private final String contentType;
+
+    public static Optional<ImageFormat> detect(byte[] header, int length) {
+        if (length >= 3 && (header[0] & 0xFF) == 0xFF && (header[1] & 0xFF) == 0xD8 && (header[2] & 0xFF) == 0xFF) {
+            return Optional.of(JPEG);
+        }
+        if (length >= 8 && (header[0] & 0xFF) == 0x89 && header[1] == 'P' && header[2] == 'N' && header[3] == 'G'
+                && header[4] == '\r' && header[5] == '\n' && header[6] == 0x1A && header[7] == '\n') {
+            return Optional.of(PNG);
+        }
+        if (length >= 12 && header[0] == 'R' && header[1] == 'I' && header[2] == 'F' && header[3] == 'F'
+                && header[8] == 'W' && header[9] == 'E' && header[10] == 'B' && header[11] == 'P') {
+            return Optional.of(WEBP);
+        }
+        return Optional.empty();
+    }
+}
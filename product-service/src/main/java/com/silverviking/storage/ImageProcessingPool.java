@@ -0,0 +1,65 @@
+package com.silverviking.storage;
+
+import com.silverviking.configuration.ImageUploadProperties;
+import com.silverviking.configuration.WorkerThreads;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed worker pool for image decoding and resizing. Callers reserve a slot before they accept an
+ * upload; once workers plus queue are all taken, further uploads are refused up front instead of
+ * piling up on disk and in memory.
+ */
+@Slf4j
+@Component
+public class ImageProcessingPool {
+
+    private final ThreadPoolExecutor executor;
+    private final Semaphore slots;
+
+    public ImageProcessingPool(ImageUploadProperties properties, WorkerThreads workerThreads) {
+        int slotCount = properties.getWorkers() + properties.getQueueCapacity();
+        // A slot comes back before its worker polls the queue again, so the queue must hold every slot,
+        // not just queueCapacity; then execute() only rejects after shutdown
+        this.executor = new ThreadPoolExecutor(properties.getWorkers(), properties.getWorkers(), 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(slotCount), workerThreads.factory("image-worker-"));
+        this.slots = new Semaphore(slotCount);
+    }
+
+    public boolean tryReserve(int count) {
+        return slots.tryAcquire(count);
+    }
+
+    public void release(int count) {
+        slots.release(count);
+    }
+
+    // Runs a job for one reserved slot; the slot is returned when the job ends
+    public void submit(Runnable job) {
+        executor.execute(() -> {
+            try {
+                job.run();
+            } finally {
+                slots.release();
+            }
+        });
+    }
+
+    public int pending() {
+        return executor.getQueue().size() + executor.getActiveCount();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Image processing still running at shutdown; {} jobs dropped", executor.shutdownNow().size());
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.silverviking.storage;
+
+import com.silverviking.configuration.ImageUploadProperties;
+import com.silverviking.enums.ImageVariant;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Decodes an original once and writes every {@link ImageVariant} from it, largest first so each
+ * smaller variant is scaled from the previous one instead of from the full image. The perceptual
+ * fingerprint is taken from the thumbnail, so it costs no extra decode.
+ */
+@Component
+@RequiredArgsConstructor
+public class ImageProcessor {
+
+    private static final List<ImageVariant> LARGEST_FIRST = Stream.of(ImageVariant.values())
+            .sorted(Comparator.comparingInt(ImageVariant::getMaxEdge).reversed())
+            .toList();
+
+    private final ContentAddressedStorage storage;
+    private final ImageUploadProperties properties;
+
+    public ProcessedImage process(StoredBlob blob) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(blob.path().toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IOException("No decoder for " + blob.format());
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                // Dimensions come from the header; nothing has been decoded yet
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > properties.getMaxPixels()) {
+                    throw new IOException("Image of " + width + "x" + height + " exceeds " + properties.getMaxPixels() + " pixels");
+                }
+                // A duplicate upload reuses the variants, and its fingerprint is read back from the thumbnail
+                ImageFingerprint fingerprint = storage.hasAllVariants(blob.hash())
+                        ? fingerprint(storage.variantPath(blob.hash(), ImageVariant.THUMBNAIL))
+                        : writeVariants(blob.hash(), decode(reader, width, height));
+                return new ProcessedImage(width, height, fingerprint);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Fingerprints an image that is not stored, such as a query photo, exactly as stored images are:
+     * from a copy scaled to the thumbnail size.
+     */
+    public ImageFingerprint fingerprint(InputStream in) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : Collections.emptyIterator();
+            if (!readers.hasNext()) {
+                throw new IOException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > properties.getMaxPixels()) {
+                    throw new IOException("Image of " + width + "x" + height + " exceeds " + properties.getMaxPixels() + " pixels");
+                }
+                BufferedImage decoded = decode(reader, width, height, ImageVariant.THUMBNAIL.getMaxEdge());
+                return ImageFingerprint.of(scaleToFit(flatten(decoded), ImageVariant.THUMBNAIL.getMaxEdge()));
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Writes {@code source} scaled down to {@code width} pixels wide (never up) in {@code format}, which
+     * must be JPEG or PNG: ImageIO has no WebP encoder.
+     */
+    public void writeResized(Path source, int width, ImageFormat format, OutputStream out) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : Collections.emptyIterator();
+            if (!readers.hasNext()) {
+                throw new IOException("No decoder for " + source);
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int sourceWidth = reader.getWidth(0);
+                int sourceHeight = reader.getHeight(0);
+                if ((long) sourceWidth * sourceHeight > properties.getMaxPixels()) {
+                    throw new IOException("Image of " + sourceWidth + "x" + sourceHeight + " exceeds " + properties.getMaxPixels() + " pixels");
+                }
+                int targetWidth = Math.min(width, sourceWidth);
+                int targetHeight = Math.max(1, (int) Math.round((double) sourceHeight * targetWidth / sourceWidth));
+                BufferedImage decoded = decode(reader, sourceWidth, sourceHeight, Math.max(targetWidth, targetHeight));
+                BufferedImage scaled = scaleToFit(flatten(decoded), Math.max(targetWidth, targetHeight));
+                if (format == ImageFormat.JPEG) {
+                    writeJpeg(scaled, out);
+                } else if (format == ImageFormat.PNG) {
+                    ImageIO.write(scaled, "png", out);
+                } else {
+                    throw new IOException("No encoder for " + format);
+                }
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static ImageFingerprint fingerprint(Path thumbnail) throws IOException {
+        BufferedImage image = ImageIO.read(thumbnail.toFile());
+        if (image == null) {
+            throw new IOException("Unreadable thumbnail " + thumbnail);
+        }
+        return ImageFingerprint.of(image);
+    }
+
+    private static BufferedImage decode(ImageReader reader, int width, int height) throws IOException {
+        return decode(reader, width, height, LARGEST_FIRST.get(0).getMaxEdge());
+    }
+
+    // Subsampled decoding skips whole source rows and columns, but never below the edge that is needed
+    private static BufferedImage decode(ImageReader reader, int width, int height, int minEdge) throws IOException {
+        int subsampling = Math.max(1, Math.max(width, height) / minEdge);
+        ImageReadParam param = reader.getDefaultReadParam();
+        param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+        return reader.read(0, param);
+    }
+
+    // Returns the fingerprint of the smallest variant, which is already in memory at the end
+    private ImageFingerprint writeVariants(String hash, BufferedImage decoded) throws IOException {
+        BufferedImage current = flatten(decoded);
+        for (ImageVariant variant : LARGEST_FIRST) {
+            current = scaleToFit(current, variant.getMaxEdge());
+            BufferedImage image = current;
+            storage.writeVariant(hash, variant, out -> writeJpeg(image, out));
+        }
+        return ImageFingerprint.of(current);
+    }
+
+    // JPEG has no alpha channel; transparent areas become white
+    private static BufferedImage flatten(BufferedImage source) {
+        if (source.getType() == BufferedImage.TYPE_INT_RGB) {
+            return source;
+        }
+        BufferedImage rgb = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = rgb.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, rgb.getWidth(), rgb.getHeight());
+            graphics.drawImage(source, 0, 0, null);
+        } finally {
+            graphics.dispose();
+        }
+        return rgb;
+    }
+
+    // Halving steps before the final bilinear pass avoid the aliasing of one large bilinear reduction
+    private static BufferedImage scaleToFit(BufferedImage source, int maxEdge) {
+        int longest = Math.max(source.getWidth(), source.getHeight());
+        if (longest <= maxEdge) {
+            return source;
+        }
+        double scale = (double) maxEdge / longest;
+        int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        BufferedImage current = source;
+        while (current.getWidth() / 2 >= targetWidth && current.getHeight() / 2 >= targetHeight) {
+            current = resize(current, current.getWidth() / 2, current.getHeight() / 2);
+        }
+        return current.getWidth() == targetWidth && current.getHeight() == targetHeight
+                ? current
+                : resize(current, targetWidth, targetHeight);
+    }
+
+    private static BufferedImage resize(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private void writeJpeg(BufferedImage image, OutputStream out) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(properties.getJpegQuality());
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
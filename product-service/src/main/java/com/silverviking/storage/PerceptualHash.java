@@ -0,0 +1,111 @@
+package com.silverviking.storage;
+
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/**
+ * 64-bit perceptual hashes computed from a box-averaged luminance grid.
+ * <ul>
+ *   <li>pHash: the 8x8 lowest frequencies of a 32x32 DCT, each bit set when the coefficient is above
+ *   their median. Robust to scaling, compression and small colour changes.</li>
+ *   <li>dHash: 9x8 grid, each bit set when a cell is darker than its right neighbour. Cheap, and used
+ *   to order matches of equal pHash distance.</li>
+ * </ul>
+ * Inputs of a few hundred pixels are plenty; the thumbnail variant is used in practice.
+ */
+public final class PerceptualHash {
+
+    private static final int DCT_SIZE = 32;
+    private static final int LOW_FREQUENCIES = 8;
+    private static final double[][] COSINES = new double[DCT_SIZE][DCT_SIZE];
+
+    static {
+        for (int k = 0; k < DCT_SIZE; k++) {
+            for (int n = 0; n < DCT_SIZE; n++) {
+                COSINES[k][n] = Math.cos(Math.PI / DCT_SIZE * (n + 0.5) * k);
+            }
+        }
+    }
+
+    private PerceptualHash() {
+    }
+
+    public static long phash(BufferedImage image) {
+        double[] grid = luminance(image, DCT_SIZE, DCT_SIZE);
+
+        // Separable DCT-II, restricted to the low frequencies that are kept
+        double[] rows = new double[DCT_SIZE * LOW_FREQUENCIES];
+        for (int y = 0; y < DCT_SIZE; y++) {
+            for (int u = 0; u < LOW_FREQUENCIES; u++) {
+                double sum = 0;
+                for (int x = 0; x < DCT_SIZE; x++) {
+                    sum += grid[y * DCT_SIZE + x] * COSINES[u][x];
+                }
+                rows[y * LOW_FREQUENCIES + u] = sum;
+            }
+        }
+        double[] coefficients = new double[LOW_FREQUENCIES * LOW_FREQUENCIES];
+        for (int v = 0; v < LOW_FREQUENCIES; v++) {
+            for (int u = 0; u < LOW_FREQUENCIES; u++) {
+                double sum = 0;
+                for (int y = 0; y < DCT_SIZE; y++) {
+                    sum += rows[y * LOW_FREQUENCIES + u] * COSINES[v][y];
+                }
+                coefficients[v * LOW_FREQUENCIES + u] = sum;
+            }
+        }
+
+        // The DC term only reflects overall brightness, so it is left out of the median
+        double[] ac = Arrays.copyOfRange(coefficients, 1, coefficients.length);
+        Arrays.sort(ac);
+        double median = (ac[ac.length / 2 - 1] + ac[ac.length / 2]) / 2;
+        long hash = 0;
+        for (int i = 0; i < coefficients.length; i++) {
+            if (coefficients[i] > median) {
+                hash |= 1L << i;
+            }
+        }
+        return hash;
+    }
+
+    public static long dhash(BufferedImage image) {
+        double[] grid = luminance(image, 9, 8);
+        long hash = 0;
+        int bit = 0;
+        for (int y = 0; y < 8; y++) {
+            for (int x = 0; x < 8; x++, bit++) {
+                if (grid[y * 9 + x] < grid[y * 9 + x + 1]) {
+                    hash |= 1L << bit;
+                }
+            }
+        }
+        return hash;
+    }
+
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    // Every source pixel contributes to exactly one cell, so no detail is skipped as with point sampling
+    static double[] luminance(BufferedImage image, int columns, int rows) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] argb = image.getRGB(0, 0, width, height, null, 0, width);
+        double[] sums = new double[columns * rows];
+        int[] counts = new int[columns * rows];
+        for (int y = 0; y < height; y++) {
+            int rowOffset = (int) ((long) y * rows / height) * columns;
+            for (int x = 0; x < width; x++) {
+                int pixel = argb[y * width + x];
+                double luma = 0.299 * (pixel >> 16 & 0xFF) + 0.587 * (pixel >> 8 & 0xFF) + 0.114 * (pixel & 0xFF);
+                int cell = rowOffset + (int) ((long) x * columns / width);
+                sums[cell] += luma;
+                counts[cell]++;
+            }
+        }
+        for (int i = 0; i < sums.length; i++) {
+            sums[i] = counts[i] > 0 ? sums[i] / counts[i] : 0;
+        }
+        return sums;
+    }
+}
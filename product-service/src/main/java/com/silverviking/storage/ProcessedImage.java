@@ -0,0 +1,7 @@
+package com.silverviking.storage;
+
+/**
+ * Metadata read while generating the variants of an original.
+ */
+public record ProcessedImage(int width, int height, ImageFingerprint fingerprint) {
+}
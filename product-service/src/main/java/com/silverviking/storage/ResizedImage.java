@@ -0,0 +1,17 @@
+package com.silverviking.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+/**
+ * A file in {@link VariantDiskCache}, already open, with the strong ETag and format it is served with.
+ */
+public record ResizedImage(FileChannel channel, Path path, String etag, ImageFormat format) implements Closeable {
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
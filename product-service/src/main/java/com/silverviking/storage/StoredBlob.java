@@ -0,0 +1,9 @@
+package com.silverviking.storage;
+
+import java.nio.file.Path;
+
+/**
+ * An original as written to {@link ContentAddressedStorage}: its SHA-256, detected format, size and location.
+ */
+public record StoredBlob(String hash, ImageFormat format, long size, Path path) {
+}
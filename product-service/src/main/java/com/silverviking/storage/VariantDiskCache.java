@@ -0,0 +1,251 @@
+package com.silverviking.storage;
+
+import com.silverviking.configuration.VariantCacheProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Stream;
+
+/**
+ * Resized images generated on demand, kept under {@code <storage-root>/cache} within a byte budget.
+ * Recency is tracked in memory in an access-ordered map and the least recently used files are evicted
+ * once the budget is exceeded; the map is rebuilt from the files' modification times at startup.
+ * <p>
+ * Files are written to a temporary name and renamed into place. Concurrent requests for the same
+ * missing file wait for the one generating it instead of resizing it again.
+ * <p>
+ * An evicted file stays on disk for {@code variant-cache.eviction-grace-period} before it is deleted,
+ * because Tomcat's sendfile opens it by name after the request thread has returned. Regenerating the
+ * key within that time cancels the deletion.
+ */
+@Slf4j
+@Component
+public class VariantDiskCache {
+
+    private final Path directory;
+    private final Path temp;
+    private final long maxBytes;
+    private final long gracePeriodNanos;
+    // Key to file size, least recently used first; guarded by this
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(256, 0.75f, true);
+    // Evicted key to the System.nanoTime() after which its file is deleted, oldest first; guarded by this
+    private final LinkedHashMap<String, Long> retired = new LinkedHashMap<>();
+    private final Map<String, CompletableFuture<Path>> loading = new ConcurrentHashMap<>();
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long coalesced;
+    private long evictions;
+
+    public VariantDiskCache(ContentAddressedStorage storage, VariantCacheProperties properties) {
+        this.directory = storage.root().resolve("cache");
+        this.temp = storage.root().resolve("tmp");
+        this.maxBytes = properties.getMaxSize().toBytes();
+        this.gracePeriodNanos = properties.getEvictionGracePeriod().toNanos();
+        try {
+            Files.createDirectories(directory);
+            Files.createDirectories(temp);
+            load();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot open variant cache at " + directory, ex);
+        }
+    }
+
+    /**
+     * The cached file for {@code key}, a relative path such as {@code ab/<hash>/w320.jpg}, written by
+     * {@code writer} first if it is not cached yet.
+     */
+    public Path get(String key, ContentAddressedStorage.VariantWriter writer) throws IOException {
+        Path file = path(key);
+        synchronized (this) {
+            if (entries.get(key) != null) {
+                hits++;
+                return file;
+            }
+        }
+        CompletableFuture<Path> load = new CompletableFuture<>();
+        CompletableFuture<Path> running = loading.putIfAbsent(key, load);
+        if (running != null) {
+            synchronized (this) {
+                coalesced++;
+            }
+            return await(running);
+        }
+        try {
+            synchronized (this) {
+                // Another load may have finished between the lookup and putIfAbsent
+                if (entries.get(key) != null) {
+                    hits++;
+                    load.complete(file);
+                    return file;
+                }
+                misses++;
+            }
+            long size = write(file, writer);
+            admit(key, size);
+            load.complete(file);
+            return file;
+        } catch (IOException | RuntimeException ex) {
+            load.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            loading.remove(key, load);
+        }
+    }
+
+    /**
+     * Like {@link #get}, but opens the file as well. A cached file that has gone missing, deleted by
+     * hand or outliving its grace period, is generated again instead of failing the request.
+     */
+    public FileChannel open(String key, ContentAddressedStorage.VariantWriter writer) throws IOException {
+        try {
+            return FileChannel.open(get(key, writer), StandardOpenOption.READ);
+        } catch (NoSuchFileException ex) {
+            forget(key);
+            return FileChannel.open(get(key, writer), StandardOpenOption.READ);
+        }
+    }
+
+    public Path path(String key) {
+        return directory.resolve(key);
+    }
+
+    public synchronized VariantCacheStats stats() {
+        return new VariantCacheStats(hits, misses, coalesced, evictions, entries.size(), bytes, maxBytes);
+    }
+
+    private long write(Path file, ContentAddressedStorage.VariantWriter writer) throws IOException {
+        Path part = Files.createTempFile(temp, "cache-", ".part");
+        try {
+            try (OutputStream out = Files.newOutputStream(part)) {
+                writer.write(out);
+            }
+            Files.createDirectories(file.getParent());
+            Files.move(part, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return Files.size(file);
+        } finally {
+            Files.deleteIfExists(part);
+        }
+    }
+
+    // Deletes under the lock, so a victim cannot be regenerated and then deleted by a late eviction
+    private synchronized void admit(String key, long size) {
+        Long previous = entries.put(key, size);
+        bytes += size - (previous != null ? previous : 0);
+        // The file was just rewritten in place, so a pending deletion would remove the new one
+        retired.remove(key);
+        evictOver(key);
+        deleteRetired(false);
+    }
+
+    private synchronized void forget(String key) {
+        Long size = entries.remove(key);
+        if (size != null) {
+            bytes -= size;
+        }
+    }
+
+    // Never the entry just admitted, even when it alone exceeds the budget
+    private void evictOver(String keep) {
+        Iterator<Map.Entry<String, Long>> eldest = entries.entrySet().iterator();
+        long deleteAfter = System.nanoTime() + gracePeriodNanos;
+        while (bytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Long> victim = eldest.next();
+            if (victim.getKey().equals(keep)) {
+                continue;
+            }
+            retired.put(victim.getKey(), deleteAfter);
+            bytes -= victim.getValue();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    private void deleteRetired(boolean all) {
+        long now = System.nanoTime();
+        Iterator<Map.Entry<String, Long>> oldest = retired.entrySet().iterator();
+        while (oldest.hasNext()) {
+            Map.Entry<String, Long> victim = oldest.next();
+            if (!all && victim.getValue() - now > 0) {
+                break;
+            }
+            try {
+                Files.deleteIfExists(directory.resolve(victim.getKey()));
+            } catch (IOException ex) {
+                log.warn("Could not evict cached variant {}: {}", victim.getKey(), ex.getMessage());
+            }
+            oldest.remove();
+        }
+    }
+
+    private void load() throws IOException {
+        record CachedFile(String key, long size, long modified) {
+        }
+        List<CachedFile> files = new ArrayList<>();
+        try (Stream<Path> walk = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) walk::iterator) {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                if (attributes.isRegularFile()) {
+                    files.add(new CachedFile(directory.relativize(file).toString().replace('\\', '/'),
+                            attributes.size(), attributes.lastModifiedTime().toMillis()));
+                }
+            }
+        }
+        files.sort(Comparator.comparingLong(CachedFile::modified));
+        synchronized (this) {
+            for (CachedFile file : files) {
+                entries.put(file.key(), file.size());
+                bytes += file.size();
+            }
+            evictOver(null);
+            // Nothing can be serving them yet
+            deleteRetired(true);
+        }
+        log.info("Variant cache holds {} files, {} bytes", entries.size(), bytes);
+    }
+
+    private static Path await(CompletableFuture<Path> load) throws IOException {
+        try {
+            return load.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a variant", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException(ex.getCause());
+        }
+    }
+
+    public record VariantCacheStats(long hits, long misses, long coalesced, long evictions, long entries,
+                                    long bytesOnDisk, long maxBytes) {
+
+        public double hitRatio() {
+            long requests = hits + misses + coalesced;
+            return requests == 0 ? 0 : (double) (hits + coalesced) / requests;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+-- Converts products.id and product_images.product_id from CHAR(36) text UUIDs to BINARY(16).
+--
+-- Only needed for schemas created before ids were mapped as binary; `ddl-auto: update` never changes
+-- a column type. Check first:
+--   SELECT table_name, column_name, column_type FROM information_schema.columns
+--   WHERE table_schema = DATABASE() AND table_name IN ('products', 'product_images')
+--     AND column_name IN ('id', 'product_id');
+-- Skip this script when both already report binary(16).
+--
+-- Existing ids keep their value: UUID_TO_BIN without the swap flag writes the bytes in the order
+-- Hibernate reads them. They stay random version 4 ids; only products created from now on are
+-- time ordered. Stop the service while this runs. The indexes and the foreign key dropped here are
+-- declared on the entities, so Hibernate creates them again on the next start.
+
+DELIMITER //
+CREATE PROCEDURE drop_product_id_dependents()
+BEGIN
+    DECLARE done BOOLEAN DEFAULT FALSE;
+    DECLARE ddl VARCHAR(512);
+    DECLARE dependents CURSOR FOR
+        SELECT CONCAT('ALTER TABLE ', table_name, ' DROP FOREIGN KEY ', constraint_name)
+        FROM information_schema.referential_constraints
+        WHERE constraint_schema = DATABASE() AND referenced_table_name = 'products'
+        UNION ALL
+        SELECT DISTINCT CONCAT('ALTER TABLE ', table_name, ' DROP INDEX ', index_name)
+        FROM information_schema.statistics
+        WHERE table_schema = DATABASE() AND index_name <> 'PRIMARY'
+          AND ((table_name = 'products' AND column_name = 'id')
+            OR (table_name = 'product_images' AND column_name = 'product_id'));
+    DECLARE CONTINUE HANDLER FOR NOT FOUND SET done = TRUE;
+
+    -- Read every statement first; the cursor must not see its own drops
+    CREATE TEMPORARY TABLE pending_ddl (statement VARCHAR(512));
+    OPEN dependents;
+    read_loop: LOOP
+        FETCH dependents INTO ddl;
+        IF done THEN
+            LEAVE read_loop;
+        END IF;
+        INSERT INTO pending_ddl VALUES (ddl);
+    END LOOP;
+    CLOSE dependents;
+
+    -- Foreign keys before the indexes that back them
+    BEGIN
+        DECLARE finished BOOLEAN DEFAULT FALSE;
+        DECLARE queued CURSOR FOR
+            SELECT statement FROM pending_ddl ORDER BY statement LIKE '%DROP FOREIGN KEY%' DESC;
+        DECLARE CONTINUE HANDLER FOR NOT FOUND SET finished = TRUE;
+        OPEN queued;
+        run_loop: LOOP
+            FETCH queued INTO ddl;
+            IF finished THEN
+                LEAVE run_loop;
+            END IF;
+            SET @ddl := ddl;
+            PREPARE statement FROM @ddl;
+            EXECUTE statement;
+            DEALLOCATE PREPARE statement;
+        END LOOP;
+        CLOSE queued;
+    END;
+    DROP TEMPORARY TABLE pending_ddl;
+END //
+DELIMITER ;
+
+CALL drop_product_id_dependents();
+DROP PROCEDURE drop_product_id_dependents;
+
+ALTER TABLE products ADD COLUMN id_bin BINARY(16) NULL;
+UPDATE products SET id_bin = UUID_TO_BIN(id);
+ALTER TABLE product_images ADD COLUMN product_id_bin BINARY(16) NULL;
+UPDATE product_images SET product_id_bin = UUID_TO_BIN(product_id);
+
+ALTER TABLE products
+    DROP PRIMARY KEY,
+    DROP COLUMN id,
+    RENAME COLUMN id_bin TO id,
+    MODIFY id BINARY(16) NOT NULL,
+    ADD PRIMARY KEY (id);
+
+ALTER TABLE product_images
+    DROP COLUMN product_id,
+    RENAME COLUMN product_id_bin TO product_id,
+    MODIFY product_id BINARY(16) NOT NULL;
+
+-- Rebuild the clustered indexes so the converted tables start unfragmented
+OPTIMIZE TABLE products, product_images;
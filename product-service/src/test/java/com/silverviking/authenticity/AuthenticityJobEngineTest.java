@@ -0,0 +1,175 @@
+package com.silverviking.authenticity;
+
+import com.silverviking.configuration.AuthenticityProperties;
+import com.silverviking.configuration.WorkerThreads;
+import com.silverviking.enums.AuthenticityVerdict;
+import com.silverviking.enums.JobPriority;
+import com.silverviking.enums.JobStatus;
+import com.silverviking.exception.ServiceBusyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class AuthenticityJobEngineTest {
+
+    private final UUID productId = UUID.randomUUID();
+    private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private AuthenticityJobEngine engine;
+    @TempDir
+    Path photos;
+
+    @AfterEach
+    void stopEngine() throws InterruptedException {
+        release.countDown();
+        engine.shutdown();
+    }
+
+    @Test
+    void queuedPhotosAreBatchedHighestPriorityFirst() throws Exception {
+        engine = engine(8, 3);
+        AuthenticityJob blocker = engine.submit(productId, JobPriority.NORMAL, List.of("blocker"), () -> checks("blocker"));
+        awaitBatches(1);
+
+        AuthenticityJob low = engine.submit(productId, JobPriority.LOW, List.of("a", "b"), () -> checks("low-1", "low-2"));
+        AuthenticityJob high = engine.submit(productId, JobPriority.HIGH, List.of("c", "d"), () -> checks("high-1", "high-2"));
+        assertThat(low.getStatus()).isEqualTo(JobStatus.QUEUED);
+        release.countDown();
+
+        awaitCompleted(blocker, low, high);
+        assertThat(batches).containsExactly(List.of("blocker"), List.of("high-1", "high-2", "low-1"), List.of("low-2"));
+        assertThat(high.getResults()).extracting(result -> result.score().verdict())
+                .containsOnly(AuthenticityVerdict.GENUINE);
+    }
+
+    @Test
+    void resubmittedPhotosAreAnsweredFromTheCacheWithoutQueueing() throws Exception {
+        engine = engine(8, 4);
+        release.countDown();
+        awaitCompleted(engine.submit(productId, JobPriority.NORMAL, List.of("a", "b"), () -> checks("p-1", "p-2")));
+        int scored = batches.size();
+
+        AuthenticityJob again = engine.submit(productId, JobPriority.NORMAL, List.of("b", "a"), () -> checks("p-2", "p-1"));
+        assertThat(again.getStatus()).isEqualTo(JobStatus.COMPLETED);
+        assertThat(again.getResults()).allMatch(AuthenticityResult::cached);
+        assertThat(batches).hasSize(scored);
+    }
+
+    @Test
+    void aFailingPhotoIsIsolatedFromTheRestOfItsBatch() throws Exception {
+        engine = engine(8, 4);
+        engine.submit(productId, JobPriority.NORMAL, List.of("blocker"), () -> checks("blocker"));
+        awaitBatches(1);
+        AuthenticityJob job = engine.submit(productId, JobPriority.NORMAL, List.of("a", "b", "c"), () -> checks("good", "broken", "fine"));
+        release.countDown();
+
+        awaitCompleted(job);
+        assertThat(job.getResults()).extracting(AuthenticityResult::fileName, result -> result.score() != null)
+                .containsExactly(
+                        tuple("a", true),
+                        tuple("b", false),
+                        tuple("c", true));
+    }
+
+    @Test
+    void aFullQueueRejectsTheJobBeforeItsPhotosAreWritten() throws Exception {
+        engine = engine(2, 4);
+        engine.submit(productId, JobPriority.NORMAL, List.of("blocker"), () -> checks("blocker"));
+        awaitBatches(1);
+        AtomicBoolean staged = new AtomicBoolean();
+
+        assertThatThrownBy(() -> engine.submit(productId, JobPriority.HIGH, List.of("x", "y"), () -> {
+            staged.set(true);
+            return checks("x", "y");
+        })).isInstanceOf(ServiceBusyException.class);
+        assertThat(staged).isFalse();
+    }
+
+    @Test
+    void photosAreDeletedOnceScoredOrAnsweredFromTheCache() throws Exception {
+        engine = engine(8, 4);
+        release.countDown();
+        List<AuthenticityCheck> first = checks("d-1", "d-2");
+        awaitCompleted(engine.submit(productId, JobPriority.NORMAL, List.of("a", "b"), () -> first));
+        awaitDeleted(first);
+
+        List<AuthenticityCheck> again = checks("d-1");
+        engine.submit(productId, JobPriority.NORMAL, List.of("a"), () -> again);
+        assertThat(again.get(0).photo()).doesNotExist();
+    }
+
+    private AuthenticityJobEngine engine(int queueCapacity, int batchSize) {
+        AuthenticityProperties properties = new AuthenticityProperties();
+        properties.setWorkers(1);
+        properties.setQueueCapacity(queueCapacity);
+        properties.setBatchSize(batchSize);
+        // The first batch blocks until the test releases it, so later submissions pile up in the queue
+        AuthenticityScorer scorer = checks -> {
+            batches.add(checks.stream().map(AuthenticityCheck::contentHash).toList());
+            release.await(5, TimeUnit.SECONDS);
+            if (checks.stream().anyMatch(check -> check.contentHash().equals("broken"))) {
+                throw new IOException("Unreadable photo");
+            }
+            return checks.stream().map(check -> new AuthenticityScore(1, AuthenticityVerdict.GENUINE, 1L, 0)).toList();
+        };
+        return new AuthenticityJobEngine(scorer, new AuthenticityResultCache(properties), properties,
+                new WorkerThreads(new MockEnvironment()));
+    }
+
+    private List<AuthenticityCheck> checks(String... hashes) {
+        return IntStream.range(0, hashes.length)
+                .mapToObj(i -> new AuthenticityCheck(productId, hashes[i], photo(hashes[i])))
+                .toList();
+    }
+
+    private Path photo(String hash) {
+        try {
+            return Files.createTempFile(photos, hash + "-", ".jpg");
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static void awaitDeleted(List<AuthenticityCheck> checks) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (checks.stream().anyMatch(check -> Files.exists(check.photo())) && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(checks).allMatch(check -> !Files.exists(check.photo()));
+    }
+
+    private void awaitBatches(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (batches.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(batches).hasSizeGreaterThanOrEqualTo(count);
+    }
+
+    private static void awaitCompleted(AuthenticityJob... jobs) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        for (AuthenticityJob job : jobs) {
+            while (job.getStatus() != JobStatus.COMPLETED && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertThat(job.getStatus()).isEqualTo(JobStatus.COMPLETED);
+        }
+    }
+}
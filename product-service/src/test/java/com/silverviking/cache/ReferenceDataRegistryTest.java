@@ -0,0 +1,70 @@
+package com.silverviking.cache;
+
+import com.silverviking.EcommerceApiApplication;
+import com.silverviking.exception.BadRequestException;
+import com.silverviking.exception.EntityNotFoundException;
+import com.silverviking.monitoring.SqlActivity;
+import com.silverviking.support.QueryCounter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(classes = EcommerceApiApplication.class)
+@ActiveProfiles("test")
+class ReferenceDataRegistryTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private ReferenceDataRegistry referenceDataRegistry;
+
+    @Test
+    void missingIdIsABadRequest() {
+        assertThatThrownBy(() -> referenceDataRegistry.requireCategory(null))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Category id is required");
+    }
+
+    @Test
+    void concurrentMissesRefreshOnce() throws Exception {
+        referenceDataRegistry.refresh();
+        // Past the interval, so the next miss is allowed to refresh
+        Thread.sleep(1_100);
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<SqlActivity.Counts>> misses = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                misses.add(executor.submit(() -> {
+                    start.await();
+                    return QueryCounter.count(() -> {
+                        assertThatThrownBy(() -> referenceDataRegistry.requireCategory(Long.MAX_VALUE))
+                                .isInstanceOf(EntityNotFoundException.class);
+                    });
+                }));
+            }
+            start.countDown();
+            int selects = 0;
+            for (Future<SqlActivity.Counts> miss : misses) {
+                selects += miss.get(10, TimeUnit.SECONDS).selects();
+            }
+            // One category, series and manufacturer read between all of them
+            assertThat(selects).isEqualTo(3);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
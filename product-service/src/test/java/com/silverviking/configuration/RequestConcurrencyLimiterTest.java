@@ -0,0 +1,38 @@
+package com.silverviking.configuration;
+
+import com.silverviking.exception.ServiceBusyException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestConcurrencyLimiterTest {
+
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Test
+    void requestsBeyondTheLimitAreTurnedAwayUntilASlotFrees() throws Exception {
+        RequestExecutionProperties properties = new RequestExecutionProperties();
+        properties.setMaxConcurrentRequests(1);
+        properties.setQueueTimeout(Duration.ofMillis(20));
+        RequestConcurrencyLimiter limiter = new RequestConcurrencyLimiter(properties);
+        MockHttpServletRequest first = new MockHttpServletRequest();
+        MockHttpServletRequest second = new MockHttpServletRequest();
+
+        assertThat(limiter.preHandle(first, response, null)).isTrue();
+        // The async dispatch of the same request does not need a second slot
+        assertThat(limiter.preHandle(first, response, null)).isTrue();
+        assertThatThrownBy(() -> limiter.preHandle(second, response, null))
+                .isInstanceOf(ServiceBusyException.class);
+        assertThat(limiter.inProgress()).isEqualTo(1);
+
+        limiter.afterCompletion(first, response, null, null);
+        limiter.afterCompletion(first, response, null, null);
+        assertThat(limiter.inProgress()).isZero();
+        assertThat(limiter.preHandle(second, response, null)).isTrue();
+    }
+}
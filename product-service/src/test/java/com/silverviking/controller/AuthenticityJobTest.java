@@ -0,0 +1,238 @@
+package com.silverviking.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import com.silverviking.EcommerceApiApplication;
+import com.silverviking.cache.ReferenceDataRegistry;
+import com.silverviking.domain.Category;
+import com.silverviking.domain.Manufacturer;
+import com.silverviking.domain.Product;
+import com.silverviking.dto.response.ProductImageResponse;
+import com.silverviking.enums.AuthenticityVerdict;
+import com.silverviking.enums.ImageStatus;
+import com.silverviking.enums.JobStatus;
+import com.silverviking.repository.CategoryRepository;
+import com.silverviking.repository.ManufacturerRepository;
+import com.silverviking.repository.ProductImageRepository;
+import com.silverviking.repository.ProductRepository;
+import com.silverviking.service.ProductImageService;
+import com.silverviking.service.ProductImageUploadService;
+import com.silverviking.storage.ContentAddressedStorage;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = EcommerceApiApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class AuthenticityJobTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ProductImageUploadService productImageUploadService;
+    @Autowired
+    private ProductImageService productImageService;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private ProductImageRepository productImageRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private ManufacturerRepository manufacturerRepository;
+    @Autowired
+    private ReferenceDataRegistry referenceDataRegistry;
+    @Autowired
+    private ContentAddressedStorage storage;
+
+    private Category category;
+    private Manufacturer manufacturer;
+    private Product product;
+    private BufferedImage reference;
+
+    @BeforeAll
+    void seedCatalog() throws Exception {
+        category = categoryRepository.save(Category.builder().name("Authenticity Figures").build());
+        manufacturer = manufacturerRepository.save(Manufacturer.builder().name("Alter").build());
+        product = productRepository.save(Product.builder()
+                .name("Saber Lily")
+                .slug("saber-lily-authenticity")
+                .priceMarket(BigDecimal.valueOf(4_500_000))
+                .category(category)
+                .manufacturer(manufacturer)
+                .build());
+        referenceDataRegistry.refresh();
+
+        reference = scene(1400, 1050, 21);
+        productImageUploadService.uploadImages(product.getId(),
+                List.of(new MockMultipartFile("files", "official.png", "image/png", encode(reference, "png"))), "FRONT", true);
+        awaitReferenceProcessed();
+    }
+
+    @AfterAll
+    void clearCatalog() {
+        productImageRepository.findAll().stream()
+                .filter(image -> image.getProduct().getId().equals(product.getId()))
+                .forEach(productImageRepository::delete);
+        productRepository.deleteById(product.getId());
+        categoryRepository.delete(category);
+        manufacturerRepository.delete(manufacturer);
+    }
+
+    @Test
+    void photosAreScoredInTheBackgroundAndResubmissionsComeFromTheCache() throws Exception {
+        MockMultipartFile sellerCopy = new MockMultipartFile("files", "seller.jpg", "image/jpeg", encode(resize(reference, 700, 525), "jpeg"));
+        MockMultipartFile otherFigure = new MockMultipartFile("files", "other.jpg", "image/jpeg", encode(scene(1400, 1050, 22), "jpeg"));
+
+        long published = countOriginals();
+        MvcResult submitted = mockMvc.perform(multipart("/api/authenticity/jobs")
+                        .file(sellerCopy)
+                        .file(otherFigure)
+                        .param("productId", product.getId().toString())
+                        .param("priority", "high"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists(HttpHeaders.LOCATION))
+                .andExpect(jsonPath("$.result.total").value(2))
+                .andReturn();
+        String jobId = JsonPath.read(submitted.getResponse().getContentAsString(), "$.result.id");
+
+        awaitCompleted(jobId);
+        mockMvc.perform(get("/api/authenticity/jobs/{id}/result", jobId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result.results[0].fileName").value("seller.jpg"))
+                .andExpect(jsonPath("$.result.results[0].verdict").value(AuthenticityVerdict.GENUINE.name()))
+                .andExpect(jsonPath("$.result.results[1].verdict").value(AuthenticityVerdict.SUSPECT.name()))
+                .andExpect(jsonPath("$.result.results[0].cached").value(false));
+        // Seller photos are scored from private temporary copies, never published under /media
+        assertThat(countOriginals()).isEqualTo(published);
+        awaitNoTemporaryFiles();
+
+        mockMvc.perform(multipart("/api/authenticity/jobs")
+                        .file(sellerCopy)
+                        .param("productId", product.getId().toString()))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.result.status").value(JobStatus.COMPLETED.name()));
+    }
+
+    @Test
+    void invalidSubmissionsAreRejected() throws Exception {
+        mockMvc.perform(multipart("/api/authenticity/jobs")
+                        .file(new MockMultipartFile("files", "notes.txt", "image/jpeg", "not an image".getBytes()))
+                        .param("productId", product.getId().toString()))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(multipart("/api/authenticity/jobs")
+                        .file(new MockMultipartFile("files", "seller.png", "image/png", encode(reference, "png")))
+                        .param("productId", product.getId().toString())
+                        .param("priority", "urgent"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/authenticity/jobs/{id}", "00000000-0000-0000-0000-000000000000"))
+                .andExpect(status().isNotFound());
+    }
+
+    private void awaitCompleted(String jobId) throws Exception {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            String body = mockMvc.perform(get("/api/authenticity/jobs/{id}", jobId))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            if (JobStatus.COMPLETED.name().equals(JsonPath.read(body, "$.result.status"))) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Job did not complete in time");
+    }
+
+    private long countOriginals() throws IOException {
+        Path originals = storage.root().resolve("originals");
+        if (!Files.exists(originals)) {
+            return 0;
+        }
+        try (Stream<Path> files = Files.walk(originals)) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+
+    private void awaitNoTemporaryFiles() throws Exception {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            try (Stream<Path> files = Files.list(storage.root().resolve("tmp"))) {
+                if (files.findAny().isEmpty()) {
+                    return;
+                }
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Authenticity photos were not deleted in time");
+    }
+
+    private void awaitReferenceProcessed() throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            List<ProductImageResponse> images = productImageService.getImagesByProductId(product.getId());
+            if (!images.isEmpty() && ImageStatus.READY.name().equals(images.get(0).getStatus())) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Reference image was not processed in time");
+    }
+
+    private static BufferedImage scene(int width, int height, long seed) {
+        Random random = new Random(seed);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, width, height);
+        for (int i = 0; i < 12; i++) {
+            graphics.setColor(new Color(random.nextInt(0xFFFFFF)));
+            graphics.fillOval(random.nextInt(width), random.nextInt(height), width / 4, height / 3);
+        }
+        graphics.dispose();
+        return image;
+    }
+
+    private static BufferedImage resize(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        graphics.drawImage(source, 0, 0, width, height, null);
+        graphics.dispose();
+        return target;
+    }
+
+    private static byte[] encode(BufferedImage image, String format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+}
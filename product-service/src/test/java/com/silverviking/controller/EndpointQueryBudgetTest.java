@@ -0,0 +1,153 @@
+package com.silverviking.controller;
+
+import com.silverviking.EcommerceApiApplication;
+import com.silverviking.cache.ReferenceDataRegistry;
+import com.silverviking.domain.Category;
+import com.silverviking.domain.Manufacturer;
+import com.silverviking.domain.Product;
+import com.silverviking.domain.ProductImage;
+import com.silverviking.domain.Series;
+import com.silverviking.enums.ImageType;
+import com.silverviking.monitoring.SqlActivity;
+import com.silverviking.repository.CategoryRepository;
+import com.silverviking.repository.ManufacturerRepository;
+import com.silverviking.repository.ProductImageRepository;
+import com.silverviking.repository.ProductRepository;
+import com.silverviking.repository.SeriesRepository;
+import com.silverviking.support.QueryCounter;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.silverviking.support.QueryCounter.assertReadOnly;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement budgets of the read endpoints, measured through the whole MVC stack. Listings must cost
+ * the same number of statements for 5 products as for 50, so a lazy association touched per row
+ * fails here before it reaches production. Catalog versions are held for the whole run so that their
+ * periodic reload does not show up in the counts.
+ */
+@SpringBootTest(classes = EcommerceApiApplication.class, properties = "catalog-version.max-staleness=1h")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EndpointQueryBudgetTest {
+
+    private static final int PRODUCT_COUNT = 50;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private ProductImageRepository productImageRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private SeriesRepository seriesRepository;
+    @Autowired
+    private ManufacturerRepository manufacturerRepository;
+    @Autowired
+    private ReferenceDataRegistry referenceDataRegistry;
+
+    private Category category;
+    private Series series;
+    private Manufacturer manufacturer;
+    private List<Product> products;
+
+    @BeforeAll
+    void seedCatalog() throws Exception {
+        category = categoryRepository.save(Category.builder().name("Budget Scale Figures").build());
+        series = seriesRepository.save(Series.builder().name("Budget Evangelion").build());
+        manufacturer = manufacturerRepository.save(Manufacturer.builder().name("Budget Alter").build());
+        List<Product> drafts = new ArrayList<>();
+        for (int i = 0; i < PRODUCT_COUNT; i++) {
+            Product product = Product.builder()
+                    .name("Budget Figure " + i)
+                    .slug("budget-figure-" + i)
+                    .priceMarket(BigDecimal.valueOf(1_000_000 + i))
+                    .category(category)
+                    .series(series)
+                    .manufacturer(manufacturer)
+                    .build();
+            product.setImages(List.of(
+                    ProductImage.builder().imageUrl("https://img/budget/" + i + "/front.jpg").type(ImageType.FRONT).isThumbnail(true).product(product).build(),
+                    ProductImage.builder().imageUrl("https://img/budget/" + i + "/back.jpg").type(ImageType.BACK).isThumbnail(false).product(product).build()));
+            drafts.add(product);
+        }
+        products = productRepository.saveAll(drafts);
+        referenceDataRegistry.refresh();
+        // Loads the catalog versions once, outside any measured request
+        mockMvc.perform(get("/api/products").param("size", "1")).andExpect(status().isOk());
+    }
+
+    @AfterAll
+    void clearCatalog() {
+        productImageRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+        seriesRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+        manufacturerRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void productListingCostsTheSameForAnyPageSize() throws Exception {
+        SqlActivity.Counts small = request("/api/products?size=5");
+        SqlActivity.Counts large = request("/api/products?size=50");
+
+        assertReadOnly(small, 2);
+        assertReadOnly(large, 2);
+        assertThat(large.rows()).isGreaterThan(small.rows());
+    }
+
+    @Test
+    void summaryListingIsOneStatement() throws Exception {
+        assertReadOnly(request("/api/products?size=50&view=SUMMARY"), 1);
+    }
+
+    @Test
+    void categoryAndSeriesListingsCostTheSameAsTheCatalogListing() throws Exception {
+        assertReadOnly(request("/api/products/category/" + category.getId() + "?size=50"), 2);
+        assertReadOnly(request("/api/products/series/" + series.getId() + "?size=50"), 2);
+        assertReadOnly(request("/api/products/series/" + series.getId() + "?size=50&view=SUMMARY"), 1);
+    }
+
+    @Test
+    void productDetailLoadsItsGraphOnceAndIsThenServedFromCache() throws Exception {
+        String uri = "/api/products/" + products.get(7).getId();
+
+        // Version, product with its references, images
+        assertReadOnly(request(uri), 3);
+        assertReadOnly(request(uri), 0);
+    }
+
+    @Test
+    void imagesOfAProduct() throws Exception {
+        assertReadOnly(request("/api/product-images/product/" + products.get(3).getId()), 3);
+    }
+
+    @Test
+    void referenceDataListingsDoNotTouchTheirProducts() throws Exception {
+        assertReadOnly(request("/api/categories"), 1);
+        assertReadOnly(request("/api/series"), 1);
+    }
+
+    private SqlActivity.Counts request(String uri) throws Exception {
+        return QueryCounter.count(() -> {
+            mockMvc.perform(get(uri)).andExpect(status().isOk());
+        });
+    }
+}
@@ -0,0 +1,164 @@
+package com.silverviking.controller;
+
+import com.silverviking.EcommerceApiApplication;
+import com.silverviking.storage.ContentAddressedStorage;
+import com.silverviking.storage.ImageFileSender;
+import com.silverviking.storage.ImageFormat;
+import com.silverviking.storage.StoredBlob;
+import com.silverviking.storage.VariantDiskCache;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = EcommerceApiApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MediaControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ContentAddressedStorage storage;
+    @Autowired
+    private ImageFileSender imageFileSender;
+    @Autowired
+    private VariantDiskCache variantDiskCache;
+
+    private byte[] bytes;
+    private StoredBlob blob;
+    private String url;
+
+    @BeforeAll
+    void storeImage() throws Exception {
+        // A JPEG signature followed by noise; serving never decodes the file
+        bytes = new byte[100_000];
+        new Random(18).nextBytes(bytes);
+        bytes[0] = (byte) 0xFF;
+        bytes[1] = (byte) 0xD8;
+        bytes[2] = (byte) 0xFF;
+        blob = storage.store(new ByteArrayInputStream(bytes));
+        url = storage.originalUrl(blob.hash(), ImageFormat.JPEG);
+    }
+
+    @Test
+    void storedFilesAreServedWithImmutableCachingAndConditionalRequests() throws Exception {
+        String etag = "\"" + blob.hash() + "\"";
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, bytes.length))
+                .andExpect(content().contentType("image/jpeg"))
+                .andExpect(content().bytes(bytes));
+
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void singleRangesAreServedPartially() throws Exception {
+        mockMvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=1000-1999"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 1000-1999/" + bytes.length))
+                .andExpect(content().bytes(Arrays.copyOfRange(bytes, 1000, 2000)));
+        mockMvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=-10"))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().bytes(Arrays.copyOfRange(bytes, bytes.length - 10, bytes.length)));
+
+        // A range over an older version falls back to the whole file
+        mockMvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=0-9").header(HttpHeaders.IF_RANGE, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(bytes));
+        mockMvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=200000-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */" + bytes.length));
+    }
+
+    @Test
+    void tomcatSendfileIsUsedWhenTheConnectorSupportsIt() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", url);
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        request.addHeader(HttpHeaders.RANGE, "bytes=10-19");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        imageFileSender.send(request, response, blob.path(), "\"" + blob.hash() + "\"", "image/jpeg");
+
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.filename")).isEqualTo(blob.path().toAbsolutePath().toString());
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.start")).isEqualTo(10L);
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo(20L);
+        assertThat(response.getContentLengthLong()).isEqualTo(10);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void resizedImagesAreGeneratedOnceAndServedFromTheDiskCache() throws Exception {
+        BufferedImage photo = new BufferedImage(1000, 500, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = photo.createGraphics();
+        graphics.setColor(Color.ORANGE);
+        graphics.fillOval(100, 50, 600, 400);
+        graphics.dispose();
+        // Unique content per run, since the cache outlives the test context in target/test-media
+        photo.setRGB(0, 0, new Random().nextInt(0xFFFFFF));
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(photo, "png", png);
+        StoredBlob original = storage.store(new ByteArrayInputStream(png.toByteArray()));
+        String resized = "/media/resized/" + original.hash().substring(0, 2) + "/" + original.hash();
+        long missesBefore = variantDiskCache.stats().misses();
+
+        byte[] body = mockMvc.perform(get(resized).param("w", "310"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/jpeg"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + original.hash() + "-w320.jpg\""))
+                .andReturn().getResponse().getContentAsByteArray();
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(body));
+        assertThat(decoded.getWidth()).isEqualTo(320);
+        assertThat(decoded.getHeight()).isEqualTo(160);
+
+        mockMvc.perform(get(resized).param("w", "320").param("fmt", "png"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/png"));
+        mockMvc.perform(get(resized).param("w", "290"))
+                .andExpect(status().isOk());
+        assertThat(variantDiskCache.stats().misses() - missesBefore).isEqualTo(2);
+
+        mockMvc.perform(get(resized).param("w", "320").param("fmt", "webp"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get(resized).param("w", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void unknownOrMalformedNamesAreNotFound() throws Exception {
+        mockMvc.perform(get(storage.originalUrl(blob.hash(), ImageFormat.PNG)))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/media/originals/ab/..%2F..%2Fapplication.yaml"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/media/variants/" + blob.hash().substring(0, 2) + "/" + blob.hash() + "/huge.jpg"))
+                .andExpect(status().isNotFound());
+    }
+}
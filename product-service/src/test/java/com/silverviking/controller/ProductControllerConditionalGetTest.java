@@ -0,0 +1,236 @@
+package com.silverviking.controller;
+
+import com.silverviking.EcommerceApiApplication;
+import com.silverviking.cache.ProductPayloadCache;
+import com.silverviking.cache.ReferenceDataRegistry;
+import com.silverviking.domain.Category;
+import com.silverviking.domain.Manufacturer;
+import com.silverviking.domain.Product;
+import com.silverviking.dto.request.CategoryRequest;
+import com.silverviking.dto.request.ProductRequest;
+import com.silverviking.repository.CategoryRepository;
+import com.silverviking.repository.ManufacturerRepository;
+import com.silverviking.repository.ProductRepository;
+import com.silverviking.service.CategoryService;
+import com.silverviking.service.ProductService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = EcommerceApiApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProductControllerConditionalGetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private CategoryService categoryService;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private ManufacturerRepository manufacturerRepository;
+    @Autowired
+    private ReferenceDataRegistry referenceDataRegistry;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private ProductPayloadCache payloadCache;
+
+    private Category category;
+    private Manufacturer manufacturer;
+    private Product product;
+
+    @BeforeAll
+    void seedCatalog() {
+        category = categoryRepository.save(Category.builder().name("Conditional Figures").build());
+        manufacturer = manufacturerRepository.save(Manufacturer.builder().name("Max Factory").build());
+        product = productRepository.save(Product.builder()
+                .name("Figma Link")
+                .slug("figma-link-conditional")
+                .priceMarket(BigDecimal.valueOf(1_200_000))
+                .description("Fully articulated Link with the Master Sword, Hylian Shield and interchangeable faces. ".repeat(20))
+                .category(category)
+                .manufacturer(manufacturer)
+                .images(List.of())
+                .build());
+        referenceDataRegistry.refresh();
+    }
+
+    @AfterAll
+    void clearCatalog() {
+        productRepository.deleteById(product.getId());
+        categoryRepository.findAll().stream()
+                .filter(existing -> existing.getName().startsWith("Conditional"))
+                .forEach(categoryRepository::delete);
+        manufacturerRepository.delete(manufacturer);
+    }
+
+    @Test
+    void unchangedProductIsAnsweredWith304WithoutLoadingIt() throws Exception {
+        String etag = mockMvc.perform(get("/api/products/{id}", product.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotBlank();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get("/api/products/{id}", product.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/products/slug/{slug}", product.getSlug()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+    }
+
+    @Test
+    void sparseFieldsetKeepsOnlyRequestedProperties() throws Exception {
+        mockMvc.perform(get("/api/products/{id}", product.getId()).param("fields", "name,priceMarket"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result.id").value(product.getId().toString()))
+                .andExpect(jsonPath("$.result.name").exists())
+                .andExpect(jsonPath("$.result.description").doesNotExist())
+                .andExpect(jsonPath("$.result.images").doesNotExist());
+        mockMvc.perform(get("/api/products/{id}", product.getId()).param("fields", "name,secret"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void homePageListingIsServedAsSummaries() throws Exception {
+        // The exact request frontend/src/services/productService.js sends; enum parameters bind case-sensitively
+        mockMvc.perform(get("/api/products?view=SUMMARY"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result.items[0].slug").exists())
+                .andExpect(jsonPath("$.result.items[0].description").doesNotExist())
+                .andExpect(jsonPath("$.result.items[0].images").doesNotExist());
+    }
+
+    @Test
+    void encodedPayloadIsReusedAndServedGzipped() throws Exception {
+        byte[] plain = mockMvc.perform(get("/api/products/{id}", product.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result.name").exists())
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] gzipped = mockMvc.perform(get("/api/products/{id}", product.getId()).header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            assertThat(in.readAllBytes()).isEqualTo(plain);
+        }
+        assertThat(payloadCache.stats().hitCount()).isPositive();
+    }
+
+    @Test
+    void gzipAndIdentityBodiesCarryDifferentEtagsAndBothRevalidate() throws Exception {
+        String identity = mockMvc.perform(get("/api/products/{id}", product.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        MockHttpServletResponse gzipped = mockMvc.perform(get("/api/products/{id}", product.getId())
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse();
+        assertThat(gzipped.getHeaders(HttpHeaders.ETAG)).hasSize(1);
+        String gzip = gzipped.getHeader(HttpHeaders.ETAG);
+        assertThat(gzip).isNotEqualTo(identity);
+
+        mockMvc.perform(get("/api/products/{id}", product.getId()).header(HttpHeaders.IF_NONE_MATCH, identity))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, identity));
+        mockMvc.perform(get("/api/products/slug/{slug}", product.getSlug())
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip").header(HttpHeaders.IF_NONE_MATCH, gzip))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, gzip));
+    }
+
+    @Test
+    void productUpdateChangesTheEtag() throws Exception {
+        String before = mockMvc.perform(get("/api/products/{id}", product.getId()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        ProductRequest request = new ProductRequest();
+        request.setName("Figma Link (Breath of the Wild)");
+        request.setSlug(product.getSlug());
+        request.setPriceMarket(product.getPriceMarket());
+        request.setDescription(product.getDescription());
+        request.setCategoryId(category.getId());
+        request.setManufacturerId(manufacturer.getId());
+        productService.updateProduct(product.getId(), request);
+
+        String after = mockMvc.perform(get("/api/products/{id}", product.getId()).header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(after).isNotEqualTo(before);
+    }
+
+    @Test
+    void catalogWritesInvalidateListEtags() throws Exception {
+        String etag = mockMvc.perform(get("/api/categories"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/categories").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        CategoryRequest request = new CategoryRequest();
+        request.setName("Conditional Statues");
+        categoryService.createCategory(request);
+
+        mockMvc.perform(get("/api/categories").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+    }
+
+    @Test
+    void categoryRenameIsReflectedInTheEncodedProduct() throws Exception {
+        String original = category.getName();
+        mockMvc.perform(get("/api/products/{id}", product.getId()))
+                .andExpect(jsonPath("$.result.category.name").value(original));
+
+        CategoryRequest rename = new CategoryRequest();
+        rename.setName(original + " (Renamed)");
+        categoryService.updateCategory(category.getId(), rename);
+        try {
+            mockMvc.perform(get("/api/products/{id}", product.getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.result.category.name").value(original + " (Renamed)"));
+        } finally {
+            rename.setName(original);
+            categoryService.updateCategory(category.getId(), rename);
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.silverviking.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import com.silverviking.EcommerceApiApplication;
+import com.silverviking.cache.ReferenceDataRegistry;
+import com.silverviking.domain.Category;
+import com.silverviking.domain.Manufacturer;
+import com.silverviking.domain.Product;
+import com.silverviking.dto.response.ProductImageResponse;
+import com.silverviking.enums.ImageStatus;
+import com.silverviking.enums.ImageVariant;
+import com.silverviking.repository.CategoryRepository;
+import com.silverviking.repository.ManufacturerRepository;
+import com.silverviking.repository.ProductImageRepository;
+import com.silverviking.repository.ProductRepository;
+import com.silverviking.service.ProductImageService;
+import com.silverviking.storage.ContentAddressedStorage;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = EcommerceApiApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProductImageUploadTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ProductImageService productImageService;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private ProductImageRepository productImageRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private ManufacturerRepository manufacturerRepository;
+    @Autowired
+    private ReferenceDataRegistry referenceDataRegistry;
+    @Autowired
+    private ContentAddressedStorage storage;
+
+    private Category category;
+    private Manufacturer manufacturer;
+    private Product product;
+
+    @BeforeAll
+    void seedCatalog() {
+        category = categoryRepository.save(Category.builder().name("Upload Figures").build());
+        manufacturer = manufacturerRepository.save(Manufacturer.builder().name("Kotobukiya").build());
+        product = productRepository.save(Product.builder()
+                .name("Bishoujo Statue")
+                .slug("bishoujo-statue-upload")
+                .priceMarket(BigDecimal.valueOf(3_000_000))
+                .category(category)
+                .manufacturer(manufacturer)
+                .build());
+        referenceDataRegistry.refresh();
+    }
+
+    @AfterAll
+    void clearCatalog() {
+        productImageRepository.findAll().stream()
+                .filter(image -> image.getProduct().getId().equals(product.getId()))
+                .forEach(productImageRepository::delete);
+        productRepository.deleteById(product.getId());
+        categoryRepository.delete(category);
+        manufacturerRepository.delete(manufacturer);
+    }
+
+    @Test
+    void uploadIsStoredByContentAndProcessedIntoVariants() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("files", "statue.jpg", "image/jpeg", jpeg(1600, 1000));
+
+        String body = mockMvc.perform(multipart("/api/product-images/upload")
+                        .file(file)
+                        .param("productId", product.getId().toString())
+                        .param("type", "FRONT")
+                        .param("isThumbnail", "true"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.result[0].status").value(ImageStatus.PROCESSING.name()))
+                .andReturn().getResponse().getContentAsString();
+
+        ProductImageResponse image = awaitProcessed(uploadedId(body));
+        assertThat(image.getStatus()).isEqualTo(ImageStatus.READY.name());
+        assertThat(image.getWidth()).isEqualTo(1600);
+        assertThat(image.getHeight()).isEqualTo(1000);
+        assertThat(image.getVariants()).containsKeys("thumbnail", "card", "detail");
+
+        String hash = productImageRepository.findById(image.getId()).orElseThrow().getContentHash();
+        for (ImageVariant variant : ImageVariant.values()) {
+            BufferedImage written = ImageIO.read(storage.variantPath(hash, variant).toFile());
+            assertThat(Math.max(written.getWidth(), written.getHeight())).isEqualTo(variant.getMaxEdge());
+        }
+        assertThat(Files.size(storage.variantPath(hash, ImageVariant.THUMBNAIL)))
+                .isLessThan(Files.size(storage.variantPath(hash, ImageVariant.DETAIL)));
+    }
+
+    @Test
+    void similarPhotoFindsTheUploadedImage() throws Exception {
+        BufferedImage scene = scene(1600, 1200);
+        String body = mockMvc.perform(multipart("/api/product-images/upload")
+                        .file(new MockMultipartFile("files", "scene.png", "image/png", encode(scene, "png")))
+                        .param("productId", product.getId().toString()))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString();
+        Long imageId = uploadedId(body);
+        assertThat(awaitProcessed(imageId).getStatus()).isEqualTo(ImageStatus.READY.name());
+
+        // A smaller, recompressed copy of the same photo, as a shopper's screenshot would be
+        BufferedImage copy = new BufferedImage(640, 480, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = copy.createGraphics();
+        graphics.drawImage(scene, 0, 0, 640, 480, null);
+        graphics.dispose();
+        mockMvc.perform(multipart("/api/product-images/similar")
+                        .file(new MockMultipartFile("file", "copy.jpg", "image/jpeg", encode(copy, "jpeg")))
+                        .param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result.matches[0].imageId").value(imageId))
+                .andExpect(jsonPath("$.result.matches[0].product.id").value(product.getId().toString()));
+
+        mockMvc.perform(multipart("/api/product-images/similar")
+                        .file(new MockMultipartFile("file", "notes.txt", "image/jpeg", "not an image".getBytes())))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void nonImageUploadIsRejected() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("files", "notes.txt", "image/jpeg", "not an image".getBytes());
+
+        mockMvc.perform(multipart("/api/product-images/upload")
+                        .file(file)
+                        .param("productId", product.getId().toString()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void oneUnreadableFileRejectsTheWholeUpload() throws Exception {
+        int before = productImageService.getImagesByProductId(product.getId()).size();
+
+        mockMvc.perform(multipart("/api/product-images/upload")
+                        .file(new MockMultipartFile("files", "front.jpg", "image/jpeg", jpeg(800, 600)))
+                        .file(new MockMultipartFile("files", "notes.txt", "image/jpeg", "not an image".getBytes()))
+                        .param("productId", product.getId().toString()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("notes.txt")));
+
+        assertThat(productImageService.getImagesByProductId(product.getId())).hasSize(before);
+    }
+
+    private ProductImageResponse awaitProcessed(Long imageId) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            ProductImageResponse image = productImageService.getImagesByProductId(product.getId()).stream()
+                    .filter(candidate -> candidate.getId().equals(imageId))
+                    .findFirst()
+                    .orElseThrow();
+            if (!ImageStatus.PROCESSING.name().equals(image.getStatus())) {
+                return image;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Image was not processed in time");
+    }
+
+    private static Long uploadedId(String body) {
+        return ((Number) JsonPath.read(body, "$.result[0].id")).longValue();
+    }
+
+    private static byte[] jpeg(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setPaint(new GradientPaint(0, 0, Color.ORANGE, width, height, Color.BLUE));
+        graphics.fillRect(0, 0, width, height);
+        graphics.dispose();
+        return encode(image, "jpeg");
+    }
+
+    private static BufferedImage scene(int width, int height) {
+        Random random = new Random(11);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, width, height);
+        for (int i = 0; i < 12; i++) {
+            graphics.setColor(new Color(random.nextInt(0xFFFFFF)));
+            graphics.fillOval(random.nextInt(width), random.nextInt(height), width / 4, height / 3);
+        }
+        graphics.dispose();
+        return image;
+    }
+
+    private static byte[] encode(BufferedImage image, String format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+}
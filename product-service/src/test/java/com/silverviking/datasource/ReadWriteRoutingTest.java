@@ -0,0 +1,177 @@
+package com.silverviking.datasource;
+
+import com.silverviking.EcommerceApiApplication;
+import com.silverviking.index.IndexReloader;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = EcommerceApiApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "datasource-routing.enabled=true",
+        "datasource-routing.health-check-interval=1h",
+        "datasource-routing.max-lag=5s",
+        "datasource-routing.lag-query=SELECT seconds_behind_source FROM replica_status",
+        "datasource-routing.lag-column=seconds_behind_source",
+        "datasource-routing.replicas[0].name=replica-1",
+        "datasource-routing.replicas[0].url=" + ReadWriteRoutingTest.REPLICA_1,
+        "datasource-routing.replicas[0].username=sa",
+        "datasource-routing.replicas[1].name=replica-2",
+        "datasource-routing.replicas[1].url=" + ReadWriteRoutingTest.REPLICA_2,
+        "datasource-routing.replicas[1].username=sa"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReadWriteRoutingTest {
+
+    static final String REPLICA_1 = "jdbc:h2:mem:routing-replica-1;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_2 = "jdbc:h2:mem:routing-replica-2;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaRouting;
+
+    @Autowired
+    private IndexReloader indexReloader;
+
+    private final JdbcTemplate replica1 = new JdbcTemplate(new DriverManagerDataSource(REPLICA_1, "sa", ""));
+    private final JdbcTemplate replica2 = new JdbcTemplate(new DriverManagerDataSource(REPLICA_2, "sa", ""));
+
+    @BeforeAll
+    void createMarkers() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS served_by (name VARCHAR(32))");
+        jdbcTemplate.update("INSERT INTO served_by VALUES ('primary')");
+        for (JdbcTemplate replica : new JdbcTemplate[]{replica1, replica2}) {
+            replica.execute("CREATE TABLE IF NOT EXISTS served_by (name VARCHAR(32))");
+            replica.execute("CREATE TABLE IF NOT EXISTS replica_status (seconds_behind_source BIGINT)");
+            replica.update("INSERT INTO replica_status VALUES (0)");
+        }
+        replica1.update("INSERT INTO served_by VALUES ('replica-1')");
+        replica2.update("INSERT INTO served_by VALUES ('replica-2')");
+    }
+
+    @BeforeEach
+    void allReplicasCaughtUp() {
+        replica1.update("UPDATE replica_status SET seconds_behind_source = 0");
+        replica2.update("UPDATE replica_status SET seconds_behind_source = 0");
+        replicaRouting.checkReplicas();
+    }
+
+    @AfterEach
+    void clearRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void readOnlyTransactionsAreSpreadOverTheReplicas() {
+        Set<String> servers = new HashSet<>();
+        for (int i = 0; i < 10; i++) {
+            servers.add(readOnly());
+        }
+        assertThat(servers).containsExactlyInAnyOrder("replica-1", "replica-2");
+        assertThat(readWrite()).isEqualTo("primary");
+    }
+
+    @Test
+    void laggingOrStoppedReplicasGetNoReads() {
+        replica1.update("UPDATE replica_status SET seconds_behind_source = 30");
+        replicaRouting.checkReplicas();
+        for (int i = 0; i < 5; i++) {
+            assertThat(readOnly()).isEqualTo("replica-2");
+        }
+
+        replica2.update("UPDATE replica_status SET seconds_behind_source = NULL");
+        replicaRouting.checkReplicas();
+        assertThat(readOnly()).isEqualTo("primary");
+        assertThat(replicaRouting.status()).noneMatch(ReplicaRoutingDataSource.ReplicaStatus::available);
+
+        replica1.update("UPDATE replica_status SET seconds_behind_source = 2");
+        replicaRouting.checkReplicas();
+        assertThat(readOnly()).isEqualTo("replica-1");
+    }
+
+    @Test
+    void aClientReadsItsOwnWritesFromThePrimary() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+        assertThat(readOnly()).startsWith("replica-");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                jdbcTemplate.update("UPDATE served_by SET name = 'primary'"));
+        assertThat(readOnly()).isEqualTo("primary");
+        Cookie cookie = response.getCookie(ReadYourWrites.COOKIE);
+        assertThat(cookie).isNotNull();
+        assertThat(cookie.isHttpOnly()).isTrue();
+
+        // The next request of the same client still reads from the primary
+        MockHttpServletRequest next = new MockHttpServletRequest();
+        next.setCookies(cookie);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(next, new MockHttpServletResponse()));
+        assertThat(readOnly()).isEqualTo("primary");
+
+        MockHttpServletRequest expired = new MockHttpServletRequest();
+        expired.setCookies(new Cookie(ReadYourWrites.COOKIE, Long.toString(System.currentTimeMillis() - 1)));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(expired, new MockHttpServletResponse()));
+        assertThat(readOnly()).startsWith("replica-");
+    }
+
+    @Test
+    void reloadsAfterACommitReadFromThePrimary() {
+        // A background write: no request, so nothing is pinned by ReadYourWrites
+        RequestContextHolder.resetRequestAttributes();
+        AtomicReference<String> reloadedFrom = new AtomicReference<>();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE served_by SET name = 'primary'");
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reloadedFrom.set(indexReloader.read(() ->
+                            jdbcTemplate.queryForObject("SELECT name FROM served_by", String.class)));
+                }
+            });
+        });
+
+        assertThat(reloadedFrom.get()).isEqualTo("primary");
+        // Outside a reload, and with no request to pin, reads still go to the replicas
+        assertThat(readOnly()).startsWith("replica-");
+    }
+
+    private String readOnly() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        return transaction.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM served_by", String.class));
+    }
+
+    private String readWrite() {
+        return new TransactionTemplate(transactionManager).execute(status ->
+                jdbcTemplate.queryForObject("SELECT name FROM served_by", String.class));
+    }
+}
@@ -0,0 +1,36 @@
+package com.silverviking.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimeOrderedUuidGeneratorTest {
+
+    @Test
+    void idsAreVersionSevenAndCarryTheCreationTime() {
+        long before = System.currentTimeMillis();
+        UUID id = TimeOrderedUuidGenerator.generate();
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        assertThat(TimeOrderedUuidGenerator.timestampMillis(id)).isGreaterThanOrEqualTo(before);
+    }
+
+    @Test
+    void idsIncreaseEvenWithinOneMillisecond() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            ids.add(TimeOrderedUuidGenerator.generate());
+        }
+
+        assertThat(ids).isSorted().doesNotHaveDuplicates();
+        // Unsigned byte order, as BINARY(16) compares them
+        for (int i = 1; i < ids.size(); i++) {
+            assertThat(Long.compareUnsigned(ids.get(i - 1).getMostSignificantBits(), ids.get(i).getMostSignificantBits())).isNegative();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.silverviking.generator;
+
+import com.silverviking.EcommerceApiApplication;
+import com.silverviking.configuration.CatalogGeneratorProperties;
+import com.silverviking.dto.request.ProductImageRequest;
+import com.silverviking.dto.response.ProductImageResponse;
+import com.silverviking.dto.response.ProductResponse;
+import com.silverviking.enums.ImageType;
+import com.silverviking.service.ProductImageService;
+import com.silverviking.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = EcommerceApiApplication.class)
+@ActiveProfiles("test")
+class CatalogGeneratorTest {
+
+    private static final String SYNTHETIC_PRODUCTS = "select id from products where slug like '" + CatalogGenerator.SLUG_PREFIX + "%'";
+
+    @Autowired
+    private CatalogGenerator generator;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private ProductImageService productImageService;
+
+    @AfterEach
+    void removeSyntheticCatalog() {
+        jdbcTemplate.update("delete from product_images where product_id in (" + SYNTHETIC_PRODUCTS + ")");
+        jdbcTemplate.update("delete from products where slug like ?", CatalogGenerator.SLUG_PREFIX + "%");
+        jdbcTemplate.update("delete from categories where name like ?", CatalogGenerator.CATEGORY_PREFIX + "%");
+        jdbcTemplate.update("delete from series where name like ?", CatalogGenerator.SERIES_PREFIX + "%");
+        jdbcTemplate.update("delete from manufacturers where name like ?", CatalogGenerator.MANUFACTURER_PREFIX + "%");
+    }
+
+    @Test
+    void writesTheRequestedVolumesWithProductsSkewedTowardsTheFirstCategories() {
+        CatalogGenerator.Result result = generator.generate(spec(42));
+
+        assertThat(result.products()).isEqualTo(300);
+        assertThat(result.images()).isEqualTo(600);
+        assertThat(count("select count(*) from products where slug like 'synthetic-%'")).isEqualTo(300);
+        assertThat(count("select count(*) from product_images where product_id in (" + SYNTHETIC_PRODUCTS + ")")).isEqualTo(600);
+        List<Long> perCategory = jdbcTemplate.queryForList("select count(*) from products p join categories c on c.id = p.category_id"
+                + " where c.name like 'Synthetic Category %' group by c.name order by c.name", Long.class);
+        // Zipf with exponent 1.1 over three categories puts about 57% of the products in the first one
+        assertThat(perCategory).hasSize(3);
+        assertThat(perCategory.get(0)).isGreaterThan(perCategory.get(1)).isGreaterThan(150L);
+    }
+
+    @Test
+    void sameSeedYieldsTheSameRows() {
+        generator.generate(spec(7));
+        List<String> first = snapshot();
+        removeSyntheticCatalog();
+
+        generator.generate(spec(7));
+
+        assertThat(snapshot()).isEqualTo(first);
+    }
+
+    @Test
+    void generationBumpsTheCatalogVersions() {
+        List<Long> before = catalogVersions();
+
+        generator.generate(spec(42));
+
+        List<Long> after = catalogVersions();
+        assertThat(before).isNotEmpty();
+        assertThat(after).hasSameSizeAs(before);
+        for (int i = 0; i < after.size(); i++) {
+            assertThat(after.get(i)).isGreaterThan(before.get(i));
+        }
+    }
+
+    @Test
+    void generatedProductsAreServedAndAcceptNewImages() {
+        generator.generate(spec(42));
+        byte[] raw = jdbcTemplate.queryForObject("select id from products where slug = 'synthetic-17'", byte[].class);
+        ByteBuffer buffer = ByteBuffer.wrap(raw);
+        UUID id = new UUID(buffer.getLong(), buffer.getLong());
+
+        ProductResponse product = productService.getProductById(id);
+        ProductImageRequest request = new ProductImageRequest();
+        request.setProductId(id);
+        request.setImageUrl("https://img.example.com/synthetic/17/extra.jpg");
+        request.setType(ImageType.BOX.name());
+        request.setIsThumbnail(false);
+        // Hibernate's image id generator must hand out ids past the range the generator wrote
+        ProductImageResponse added = productImageService.addImage(request);
+
+        assertThat(product.getSlug()).isEqualTo("synthetic-17");
+        assertThat(product.getImages()).hasSize(2);
+        assertThat(product.getCategory().getName()).startsWith(CatalogGenerator.CATEGORY_PREFIX);
+        assertThat(productService.getProductById(id).getImages()).extracting(ProductImageResponse::getId).contains(added.getId());
+    }
+
+    private List<String> snapshot() {
+        return jdbcTemplate.query("select p.id, p.name, p.market_price, c.name, m.name from products p"
+                        + " join categories c on c.id = p.category_id join manufacturers m on m.id = p.manufacturer_id"
+                        + " where p.slug like 'synthetic-%' order by p.id",
+                (rs, row) -> UUID.nameUUIDFromBytes(rs.getBytes(1)) + "|" + rs.getString(2) + "|" + rs.getBigDecimal(3)
+                        + "|" + rs.getString(4) + "|" + rs.getString(5));
+    }
+
+    private List<Long> catalogVersions() {
+        return jdbcTemplate.queryForList("select version from catalog_versions order by scope", Long.class);
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+    private static CatalogGeneratorProperties spec(long seed) {
+        CatalogGeneratorProperties spec = new CatalogGeneratorProperties();
+        spec.setSeed(seed);
+        spec.setCategories(3);
+        spec.setSeries(5);
+        spec.setManufacturers(2);
+        spec.setProducts(300);
+        spec.setImagesPerProduct(2);
+        spec.setBatchSize(64);
+        return spec;
+    }
+}
@@ -0,0 +1,53 @@
+package com.silverviking.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RebuildCoordinatorTest {
+
+    @Test
+    void updatesDuringARebuildAreNotBlockedAndAreReplayedAfterTheSwap() throws Exception {
+        RebuildCoordinator coordinator = new RebuildCoordinator();
+        CountDownLatch building = new CountDownLatch(1);
+        CountDownLatch finishBuild = new CountDownLatch(1);
+        List<String> steps = new ArrayList<>();
+        UUID changed = new UUID(0, 1);
+
+        CompletableFuture<String> rebuild = CompletableFuture.supplyAsync(() -> coordinator.rebuild(() -> {
+            building.countDown();
+            await(finishBuild);
+            return "rebuilt";
+        }, rebuilt -> steps.add("swap " + rebuilt), ids -> steps.add("replay " + ids)));
+
+        assertThat(building.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture.runAsync(() -> coordinator.update(Set.of(changed), () -> steps.add("update")))
+                .get(5, TimeUnit.SECONDS);
+        finishBuild.countDown();
+
+        assertThat(rebuild.get(5, TimeUnit.SECONDS)).isEqualTo("rebuilt");
+        assertThat(steps).containsExactly("update", "swap rebuilt", "replay " + Set.of(changed));
+
+        // Nothing is recorded once the rebuild is over
+        steps.clear();
+        coordinator.update(Set.of(changed), () -> steps.add("update"));
+        coordinator.rebuild(() -> "again", rebuilt -> steps.add("swap " + rebuilt), ids -> steps.add("replay " + ids));
+        assertThat(steps).containsExactly("update", "swap again");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
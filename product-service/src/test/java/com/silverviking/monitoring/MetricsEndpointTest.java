@@ -0,0 +1,50 @@
+package com.silverviking.monitoring;
+
+import com.silverviking.EcommerceApiApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = EcommerceApiApplication.class)
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+class MetricsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void prometheusEndpointReportsLatencySqlAndCacheMeters() throws Exception {
+        mockMvc.perform(get("/api/products").param("page", "0").param("size", "5"))
+                .andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape)
+                .contains("http_server_requests_seconds_bucket{")
+                .containsPattern("service_method_seconds_count\\{class=\"ProductServiceImpl\",exception=\"none\",method=\"[a-zA-Z]+\"")
+                .containsPattern("cache_gets_total\\{cache=\"product-detail\",result=\"hit\"")
+                .containsPattern("cache_gets_total\\{cache=\"image-variant\",result=\"miss\"")
+                .contains("hibernate_sessions_open_total")
+                .contains("hikaricp_connections_acquire_seconds_bucket{")
+                .contains("http_server_requests_admitted");
+        Matcher statements = Pattern.compile("request_sql_statements_sum\\{method=\"GET\",uri=\"/api/products\"} (\\S+)")
+                .matcher(scrape);
+        assertThat(statements.find()).as("SQL statements of GET /api/products").isTrue();
+        assertThat(Double.parseDouble(statements.group(1))).isPositive();
+    }
+}
@@ -0,0 +1,153 @@
+package com.silverviking.pricing;
+
+import com.silverviking.EcommerceApiApplication;
+import com.silverviking.cache.ReferenceDataRegistry;
+import com.silverviking.domain.Category;
+import com.silverviking.domain.Manufacturer;
+import com.silverviking.domain.Series;
+import com.silverviking.dto.request.ProductRequest;
+import com.silverviking.dto.response.PriceRangeResponse;
+import com.silverviking.dto.response.PriceSuggestionResponse;
+import com.silverviking.enums.PriceDimension;
+import com.silverviking.repository.CategoryRepository;
+import com.silverviking.repository.ManufacturerRepository;
+import com.silverviking.repository.SeriesRepository;
+import com.silverviking.service.PriceSuggestionService;
+import com.silverviking.service.ProductService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@SpringBootTest(classes = EcommerceApiApplication.class)
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PriceAggregateIndexTest {
+
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private PriceSuggestionService priceSuggestionService;
+    @Autowired
+    private PriceAggregateIndex priceAggregateIndex;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private SeriesRepository seriesRepository;
+    @Autowired
+    private ManufacturerRepository manufacturerRepository;
+    @Autowired
+    private ReferenceDataRegistry referenceDataRegistry;
+
+    private final List<UUID> createdProducts = new ArrayList<>();
+    private Category category;
+    private Series series;
+    // Only used by the update/delete test, so other tests' products do not change its counts
+    private Series tracked;
+    private Manufacturer manufacturer;
+
+    @BeforeAll
+    void seedCatalog() {
+        category = categoryRepository.save(Category.builder().name("Price Figures").build());
+        series = seriesRepository.save(Series.builder().name("Fate/Grand Order").build());
+        tracked = seriesRepository.save(Series.builder().name("Fate/Zero").build());
+        manufacturer = manufacturerRepository.save(Manufacturer.builder().name("Aniplex").build());
+        referenceDataRegistry.refresh();
+    }
+
+    @AfterAll
+    void clearCatalog() {
+        createdProducts.forEach(productService::deleteProduct);
+        categoryRepository.delete(category);
+        seriesRepository.delete(series);
+        seriesRepository.delete(tracked);
+        manufacturerRepository.delete(manufacturer);
+    }
+
+    @Test
+    void suggestionFollowsCreatesUpdatesAndDeletes() {
+        UUID cheapest = create("Mash", tracked, "1/7", 1_000_000);
+        create("Altria", tracked, "1/7", 2_000_000);
+        UUID dearest = create("Jeanne", tracked, "1/7", 3_000_000);
+
+        PriceRangeResponse range = priceSuggestionService.getSuggestedPrice(cheapest).getSuggestedPriceRange();
+        assertThat(range.getDimension()).isEqualTo(PriceDimension.SERIES.name());
+        assertThat(range.getCount()).isEqualTo(3);
+        assertClose(range.getMin(), 1_000_000);
+        assertClose(range.getMedian(), 2_000_000);
+        assertClose(range.getMax(), 3_000_000);
+        assertClose(range.getMean(), 2_000_000);
+
+        productService.updateProduct(dearest, request("Jeanne", tracked, "1/7", 6_000_000));
+        assertClose(priceSuggestionService.getSuggestedPrice(cheapest).getSuggestedPriceRange().getMax(), 6_000_000);
+
+        productService.deleteProduct(dearest);
+        createdProducts.remove(dearest);
+        // Two products are below min-samples, so the suggestion itself moves on to the scale group
+        PriceSuggestionResponse suggestion = priceSuggestionService.getSuggestedPrice(cheapest);
+        range = suggestion.getGroups().get(0);
+        assertThat(range.getDimension()).isEqualTo(PriceDimension.SERIES.name());
+        assertThat(range.getCount()).isEqualTo(2);
+        assertClose(range.getMax(), 2_000_000);
+        assertThat(suggestion.getSuggestedPriceRange().getDimension()).isEqualTo(PriceDimension.SCALE.name());
+    }
+
+    @Test
+    void smallGroupsFallBackToABroaderOne() {
+        create("Gudao", series, "1/8", 1_200_000);
+        create("Merlin", series, "1/8", 1_800_000);
+        UUID loner = create("Gilgamesh", null, "1/3 price", 9_000_000);
+
+        PriceSuggestionResponse suggestion = priceSuggestionService.getSuggestedPrice(loner);
+        assertThat(suggestion.getGroups()).extracting(PriceRangeResponse::getDimension)
+                .containsExactly(PriceDimension.SCALE.name(), PriceDimension.MANUFACTURER.name());
+        assertThat(suggestion.getSuggestedPriceRange().getDimension()).isEqualTo(PriceDimension.MANUFACTURER.name());
+        assertThat(suggestion.getSuggestedPriceRange().getCount()).isGreaterThanOrEqualTo(3);
+    }
+
+    @Test
+    void parallelRebuildMatchesIncrementalState() {
+        create("Ishtar", series, "1/7", 2_500_000);
+        PriceSummary before = priceAggregateIndex.summary(PriceDimension.MANUFACTURER, manufacturer.getId().toString()).orElseThrow();
+
+        priceAggregateIndex.rebuild();
+
+        PriceSummary after = priceAggregateIndex.summary(PriceDimension.MANUFACTURER, manufacturer.getId().toString()).orElseThrow();
+        assertThat(after.count()).isEqualTo(before.count());
+        assertThat(after.median()).isEqualTo(before.median());
+        assertThat(after.mean()).isCloseTo(before.mean(), within(1e-6));
+    }
+
+    private static void assertClose(BigDecimal actual, double expected) {
+        assertThat(actual.doubleValue()).isCloseTo(expected, within(expected * 0.01));
+    }
+
+    private UUID create(String name, Series series, String scale, long price) {
+        UUID id = productService.createProduct(request(name, series, scale, price)).getId();
+        createdProducts.add(id);
+        return id;
+    }
+
+    private ProductRequest request(String name, Series series, String scale, long price) {
+        ProductRequest request = new ProductRequest();
+        request.setName(name);
+        request.setSlug("price-" + name.toLowerCase());
+        request.setPriceMarket(BigDecimal.valueOf(price));
+        request.setScale(scale);
+        request.setCategoryId(category.getId());
+        request.setSeriesId(series != null ? series.getId() : null);
+        request.setManufacturerId(manufacturer.getId());
+        return request;
+    }
+}
@@ -0,0 +1,53 @@
+package com.silverviking.pricing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class PriceSketchTest {
+
+    @Test
+    void quantilesStayWithinTheRelativeError() {
+        Random random = new Random(3);
+        double[] prices = new double[50_000];
+        PriceSketch sketch = new PriceSketch(0.01);
+        for (int i = 0; i < prices.length; i++) {
+            // Log-normal around 1.5M VND, as figure prices are
+            prices[i] = Math.round(Math.exp(14.2 + random.nextGaussian()));
+            sketch.add(prices[i]);
+        }
+        Arrays.sort(prices);
+
+        for (double quantile : new double[]{0, 0.1, 0.5, 0.9, 0.99, 1}) {
+            double exact = prices[(int) Math.floor(quantile * (prices.length - 1))];
+            assertThat(sketch.quantile(quantile)).isCloseTo(exact, within(exact * 0.01));
+        }
+        assertThat(sketch.mean()).isCloseTo(Arrays.stream(prices).average().orElseThrow(), within(1e-3));
+    }
+
+    @Test
+    void removingValuesUndoesTheirAdditionAndMergingEqualsAddingEverything() {
+        PriceSketch whole = new PriceSketch(0.01);
+        PriceSketch left = new PriceSketch(0.01);
+        PriceSketch right = new PriceSketch(0.01);
+        for (int price = 100_000; price <= 5_000_000; price += 100_000) {
+            whole.add(price);
+            (price % 200_000 == 0 ? left : right).add(price);
+        }
+        left.merge(right);
+        assertThat(left.count()).isEqualTo(whole.count());
+        assertThat(left.quantile(0.5)).isEqualTo(whole.quantile(0.5));
+
+        whole.add(90_000_000);
+        whole.add(10);
+        whole.remove(90_000_000);
+        whole.remove(10);
+        assertThat(whole.quantile(1)).isEqualTo(left.quantile(1));
+        assertThat(whole.quantile(0)).isEqualTo(left.quantile(0));
+        assertThat(whole.count()).isEqualTo(50);
+    }
+}
@@ -0,0 +1,49 @@
+package com.silverviking.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class Bm25IndexTest {
+
+    @Test
+    void documentsMatchingMoreTermsRankFirstAndPagesDoNotOverlap() {
+        Bm25Index index = new Bm25Index();
+        for (int i = 0; i < 200; i++) {
+            UUID id = new UUID(0, i);
+            index.put(id, i % 10 == 0 ? Map.of("miku", 1f, "nendoroid", 1f) : Map.of("figure", 1f, "miku", 1f));
+        }
+
+        Bm25Index.SearchResult first = index.search(List.of("miku", "nendoroid"), 0, 15);
+        Bm25Index.SearchResult second = index.search(List.of("miku", "nendoroid"), 15, 15);
+
+        assertThat(first.totalHits()).isEqualTo(200);
+        assertThat(first.hits()).hasSize(15);
+        // Twenty documents hold both terms
+        assertThat(first.hits()).extracting(Bm25Index.SearchHit::id).allMatch(id -> id.getLeastSignificantBits() % 10 == 0);
+        assertThat(first.hits().get(0).score()).isGreaterThan(second.hits().get(14).score());
+        assertThat(second.hits()).extracting(Bm25Index.SearchHit::id)
+                .doesNotContainAnyElementsOf(first.hits().stream().map(Bm25Index.SearchHit::id).toList());
+    }
+
+    @Test
+    void rareTermOnlyScoresItsOwnDocumentsAfterSlotsAreReused() {
+        Bm25Index index = new Bm25Index();
+        for (int i = 0; i < 1000; i++) {
+            index.put(new UUID(0, i), Map.of("figure", 1f));
+        }
+        index.remove(new UUID(0, 3));
+        UUID rare = new UUID(1, 1);
+        index.put(rare, Map.of("figure", 1f, "garage-kit", 2f));
+
+        Bm25Index.SearchResult result = index.search(List.of("garage-kit", "unknown"), 0, 10);
+
+        assertThat(result.totalHits()).isEqualTo(1);
+        assertThat(result.hits()).extracting(Bm25Index.SearchHit::id).containsExactly(rare);
+        assertThat(index.search(List.of("unknown"), 0, 10)).isEqualTo(Bm25Index.SearchResult.EMPTY);
+    }
+}
@@ -0,0 +1,120 @@
+package com.silverviking.search;
+
+import com.silverviking.storage.ImageFingerprint;
+import com.silverviking.storage.PerceptualHash;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HammingIndexTest {
+
+    @Test
+    void multiIndexSearchFindsExactlyWhatABruteForceScanFinds() {
+        Random random = new Random(42);
+        HammingIndex index = new HammingIndex();
+        List<HammingIndex.Entry> entries = new ArrayList<>();
+        long[] seeds = random.longs(200).toArray();
+        for (long id = 0; id < 20_000; id++) {
+            // Clusters of near-duplicates around a few seeds, plus unrelated hashes
+            long primary = id % 2 == 0 ? flip(seeds[(int) (id % seeds.length)], random, random.nextInt(12)) : random.nextLong();
+            HammingIndex.Entry entry = new HammingIndex.Entry(id, UUID.randomUUID(), primary, random.nextLong());
+            entries.add(entry);
+            index.put(entry.id(), entry.owner(), entry.primary(), entry.secondary());
+        }
+
+        for (int query = 0; query < 200; query++) {
+            long primary = flip(seeds[query % seeds.length], random, random.nextInt(6));
+            long secondary = random.nextLong();
+            for (int maxDistance : new int[]{0, 5, 12, 20}) {
+                List<HammingIndex.Match> expected = entries.stream()
+                        .map(entry -> new HammingIndex.Match(entry.id(), entry.owner(),
+                                Long.bitCount(entry.primary() ^ primary), Long.bitCount(entry.secondary() ^ secondary)))
+                        .filter(match -> match.distance() <= maxDistance)
+                        .sorted(Comparator.comparingInt(HammingIndex.Match::distance)
+                                .thenComparingInt(HammingIndex.Match::secondaryDistance)
+                                .thenComparingLong(HammingIndex.Match::id))
+                        .limit(10)
+                        .toList();
+                assertThat(index.search(primary, secondary, 10, maxDistance)).isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    void replacingAnOwnerDropsItsPreviousImages() {
+        HammingIndex index = new HammingIndex();
+        UUID owner = UUID.randomUUID();
+        index.put(1, owner, 0xF0F0L, 0);
+        index.put(2, owner, 0x0F0FL, 0);
+        index.put(3, UUID.randomUUID(), 0xF0F0L, 0);
+
+        index.replaceOwner(owner, List.of(new HammingIndex.Entry(4, owner, 0xFFFFL, 0)));
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.search(0xF0F0L, 0, 10, 0)).extracting(HammingIndex.Match::id).containsExactly(3L);
+
+        index.replaceOwner(owner, List.of());
+        assertThat(index.search(0xFFFFL, 0, 10, 0)).isEmpty();
+    }
+
+    @Test
+    void perceptualHashSurvivesResizingAndRecompressionButSeparatesDifferentImages() throws IOException {
+        BufferedImage original = scene(1200, 900, 7);
+        ImageFingerprint fingerprint = ImageFingerprint.of(original);
+        ImageFingerprint resized = ImageFingerprint.of(recompress(resize(original, 200, 150)));
+        ImageFingerprint other = ImageFingerprint.of(scene(1200, 900, 8));
+
+        assertThat(PerceptualHash.distance(fingerprint.phash(), resized.phash())).isLessThanOrEqualTo(6);
+        assertThat(PerceptualHash.distance(fingerprint.dhash(), resized.dhash())).isLessThanOrEqualTo(8);
+        assertThat(PerceptualHash.distance(fingerprint.phash(), other.phash())).isGreaterThan(16);
+    }
+
+    private static long flip(long hash, Random random, int bits) {
+        for (int i = 0; i < bits; i++) {
+            hash ^= 1L << random.nextInt(64);
+        }
+        return hash;
+    }
+
+    private static BufferedImage scene(int width, int height, long seed) {
+        Random random = new Random(seed);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, width, height);
+        for (int i = 0; i < 12; i++) {
+            graphics.setColor(new Color(random.nextInt(0xFFFFFF)));
+            graphics.fillOval(random.nextInt(width), random.nextInt(height), width / 4, height / 3);
+        }
+        graphics.dispose();
+        return image;
+    }
+
+    private static BufferedImage resize(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.drawImage(source, 0, 0, width, height, null);
+        graphics.dispose();
+        return target;
+    }
+
+    private static BufferedImage recompress(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpeg", out);
+        return ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+    }
+}
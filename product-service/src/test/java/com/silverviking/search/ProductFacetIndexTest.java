@@ -0,0 +1,168 @@
+package com.silverviking.search;
+
+import com.silverviking.EcommerceApiApplication;
+import com.silverviking.cache.ReferenceDataRegistry;
+import com.silverviking.domain.Category;
+import com.silverviking.domain.Manufacturer;
+import com.silverviking.dto.request.ProductFilterRequest;
+import com.silverviking.dto.request.ProductRequest;
+import com.silverviking.dto.response.FacetCountResponse;
+import com.silverviking.dto.response.ProductFilterResponse;
+import com.silverviking.enums.ProductFacet;
+import com.silverviking.repository.CategoryRepository;
+import com.silverviking.repository.ManufacturerRepository;
+import com.silverviking.service.ProductFacetService;
+import com.silverviking.service.ProductService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+@SpringBootTest(classes = EcommerceApiApplication.class)
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProductFacetIndexTest {
+
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private ProductFacetService productFacetService;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private ManufacturerRepository manufacturerRepository;
+    @Autowired
+    private ReferenceDataRegistry referenceDataRegistry;
+
+    private final List<UUID> createdProducts = new ArrayList<>();
+    private Category scaleFigures;
+    private Category statues;
+    private Manufacturer manufacturer;
+    private UUID unreleased;
+
+    @BeforeAll
+    void seedCatalog() {
+        scaleFigures = categoryRepository.save(Category.builder().name("Facet Scale Figures").build());
+        statues = categoryRepository.save(Category.builder().name("Facet Statues").build());
+        manufacturer = manufacturerRepository.save(Manufacturer.builder().name("Alter").build());
+        referenceDataRegistry.refresh();
+
+        create("Rem", scaleFigures, "PVC, ABS", "1/7", true, 400_000);
+        unreleased = create("Emilia", scaleFigures, "pvc", "1/7", false, 1_500_000);
+        create("Ram", statues, "Resin", "1/4", true, 6_000_000);
+    }
+
+    @AfterAll
+    void clearCatalog() {
+        createdProducts.forEach(productService::deleteProduct);
+        categoryRepository.delete(scaleFigures);
+        categoryRepository.delete(statues);
+        manufacturerRepository.delete(manufacturer);
+    }
+
+    @Test
+    void countsEveryFacetValue() {
+        ProductFilterResponse response = filter(new ProductFilterRequest());
+
+        assertThat(response.getTotal()).isEqualTo(3);
+        assertThat(response.getIds()).containsExactlyInAnyOrderElementsOf(createdProducts);
+        assertThat(labelledCounts(response, ProductFacet.CATEGORY))
+                .containsOnly(entry("Facet Scale Figures", 2), entry("Facet Statues", 1));
+        assertThat(counts(response, ProductFacet.MATERIAL)).containsOnly(entry("pvc", 2), entry("abs", 1), entry("resin", 1));
+        assertThat(counts(response, ProductFacet.PRICE))
+                .containsOnly(entry("0-500000", 1), entry("1000000-2000000", 1), entry("5000000+", 1));
+        assertThat(counts(response, ProductFacet.SERIES)).containsOnly(entry(ProductFacetIndex.NO_SERIES, 3));
+    }
+
+    @Test
+    void selectedFacetKeepsCountsForItsAlternatives() {
+        ProductFilterRequest request = new ProductFilterRequest();
+        request.setCategoryId(List.of(scaleFigures.getId()));
+
+        ProductFilterResponse response = filter(request);
+
+        assertThat(response.getTotal()).isEqualTo(2);
+        assertThat(counts(response, ProductFacet.CATEGORY))
+                .containsOnly(entry(scaleFigures.getId().toString(), 2), entry(statues.getId().toString(), 1));
+        assertThat(counts(response, ProductFacet.MATERIAL)).containsOnly(entry("pvc", 2), entry("abs", 1));
+        assertThat(counts(response, ProductFacet.RELEASED)).containsOnly(entry("true", 1), entry("false", 1));
+    }
+
+    @Test
+    void valuesWithinAFacetAreOredAndFacetsAreAnded() {
+        ProductFilterRequest request = new ProductFilterRequest();
+        request.setCategoryId(List.of(scaleFigures.getId(), statues.getId()));
+        request.setMaterial(List.of("ABS", "Resin"));
+        request.setReleased(true);
+
+        assertThat(filter(request).getTotal()).isEqualTo(2);
+
+        request.setPriceBand(List.of("5000000+"));
+        assertThat(filter(request).getTotal()).isEqualTo(1);
+    }
+
+    @Test
+    void writesAreReflectedAfterCommit() {
+        ProductRequest update = request("Emilia", statues, "pvc", "1/7", false, 1_500_000);
+        productService.updateProduct(unreleased, update);
+        assertThat(labelledCounts(filter(new ProductFilterRequest()), ProductFacet.CATEGORY))
+                .containsOnly(entry("Facet Scale Figures", 1), entry("Facet Statues", 2));
+
+        UUID extra = create("Beatrice", statues, "PVC", "1/8", true, 900_000);
+        assertThat(filter(new ProductFilterRequest()).getTotal()).isEqualTo(4);
+
+        productService.deleteProduct(extra);
+        createdProducts.remove(extra);
+        assertThat(counts(filter(new ProductFilterRequest()), ProductFacet.SCALE)).doesNotContainKey("1/8");
+
+        productService.updateProduct(unreleased, request("Emilia", scaleFigures, "pvc", "1/7", false, 1_500_000));
+    }
+
+    // Every query is narrowed to this test's manufacturer so products from other tests do not count
+    private ProductFilterResponse filter(ProductFilterRequest request) {
+        request.setManufacturerId(List.of(manufacturer.getId()));
+        return productFacetService.filter(request);
+    }
+
+    private static Map<String, Integer> counts(ProductFilterResponse response, ProductFacet facet) {
+        return response.getFacets().get(facet).stream()
+                .collect(Collectors.toMap(FacetCountResponse::getValue, FacetCountResponse::getCount));
+    }
+
+    private static Map<String, Integer> labelledCounts(ProductFilterResponse response, ProductFacet facet) {
+        return response.getFacets().get(facet).stream()
+                .collect(Collectors.toMap(FacetCountResponse::getLabel, FacetCountResponse::getCount));
+    }
+
+    private UUID create(String name, Category category, String material, String scale, boolean released, long price) {
+        UUID id = productService.createProduct(request(name, category, material, scale, released, price)).getId();
+        createdProducts.add(id);
+        return id;
+    }
+
+    private ProductRequest request(String name, Category category, String material, String scale, boolean released, long price) {
+        ProductRequest request = new ProductRequest();
+        request.setName(name);
+        request.setSlug(name.toLowerCase());
+        request.setPriceMarket(BigDecimal.valueOf(price));
+        request.setReleased(released);
+        request.setMaterial(material);
+        request.setScale(scale);
+        request.setCategoryId(category.getId());
+        request.setManufacturerId(manufacturer.getId());
+        return request;
+    }
+}
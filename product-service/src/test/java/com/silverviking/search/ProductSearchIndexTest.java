@@ -0,0 +1,143 @@
+package com.silverviking.search;
+
+import com.silverviking.EcommerceApiApplication;
+import com.silverviking.cache.ReferenceDataRegistry;
+import com.silverviking.domain.Category;
+import com.silverviking.domain.Manufacturer;
+import com.silverviking.domain.Series;
+import com.silverviking.dto.request.ProductRequest;
+import com.silverviking.dto.request.ProductSearchRequest;
+import com.silverviking.dto.response.ProductResponse;
+import com.silverviking.dto.response.ProductSearchHit;
+import com.silverviking.dto.response.ProductSearchResponse;
+import com.silverviking.repository.CategoryRepository;
+import com.silverviking.repository.ManufacturerRepository;
+import com.silverviking.repository.SeriesRepository;
+import com.silverviking.service.ProductSearchService;
+import com.silverviking.service.ProductService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = EcommerceApiApplication.class)
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProductSearchIndexTest {
+
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private ProductSearchService productSearchService;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private SeriesRepository seriesRepository;
+    @Autowired
+    private ManufacturerRepository manufacturerRepository;
+    @Autowired
+    private ReferenceDataRegistry referenceDataRegistry;
+
+    private final List<UUID> createdProducts = new ArrayList<>();
+    private Category category;
+    private Series series;
+    private Manufacturer manufacturer;
+
+    @BeforeAll
+    void seedReferenceData() {
+        category = categoryRepository.save(Category.builder().name("Search Scale").build());
+        series = seriesRepository.save(Series.builder().name("Tsukihime").build());
+        manufacturer = manufacturerRepository.save(Manufacturer.builder().name("Kotobukiya").build());
+        referenceDataRegistry.refresh();
+    }
+
+    @AfterAll
+    void clearCatalog() {
+        createdProducts.forEach(productService::deleteProduct);
+        categoryRepository.delete(category);
+        seriesRepository.delete(series);
+        manufacturerRepository.delete(manufacturer);
+    }
+
+    @Test
+    void vietnameseDiacriticsAreIgnored() {
+        UUID id = create("Mô hình Đức Phật bằng gỗ", null, "Gỗ hương");
+
+        assertThat(idsFor("mo hinh duc phat")).containsExactly(id);
+        assertThat(idsFor("GO HUONG")).containsExactly(id);
+    }
+
+    @Test
+    void japaneseRomanizationVariantsMatch() {
+        UUID id = create("Tōkyō Ryūjin Shimbun edition", series.getId(), null);
+
+        assertThat(idsFor("toukyou")).contains(id);
+        assertThat(idsFor("Tohkyoh ryuujin")).first().isEqualTo(id);
+        assertThat(idsFor("shinbun")).contains(id);
+        // Kunrei spelling of the series name
+        assertThat(idsFor("tukihime")).contains(id);
+    }
+
+    @Test
+    void nameMatchesOutrankDescriptionMatches() {
+        UUID inDescription = create("Plain statue", null, null, "A companion piece to the Saber Alter figure");
+        UUID inName = create("Saber Alter", null, null, "Standing pose");
+
+        assertThat(idsFor("saber alter")).containsSubsequence(inName, inDescription);
+    }
+
+    @Test
+    void writesAreReflectedAfterCommit() {
+        UUID id = create("Hatsune Miku Racing", null, null);
+        assertThat(idsFor("racing")).containsExactly(id);
+
+        ProductRequest update = request("Hatsune Miku Snow", null, null, null);
+        productService.updateProduct(id, update);
+        assertThat(idsFor("racing")).isEmpty();
+        assertThat(idsFor("snow")).containsExactly(id);
+
+        productService.deleteProduct(id);
+        createdProducts.remove(id);
+        assertThat(idsFor("snow")).isEmpty();
+    }
+
+    private List<UUID> idsFor(String query) {
+        ProductSearchRequest request = new ProductSearchRequest();
+        request.setQ(query);
+        ProductSearchResponse response = productSearchService.search(request);
+        return response.getHits().stream().map(ProductSearchHit::getProduct).map(ProductResponse::getId).toList();
+    }
+
+    private UUID create(String name, Long seriesId, String material) {
+        return create(name, seriesId, material, null);
+    }
+
+    private UUID create(String name, Long seriesId, String material, String description) {
+        UUID id = productService.createProduct(request(name, seriesId, material, description)).getId();
+        createdProducts.add(id);
+        return id;
+    }
+
+    private ProductRequest request(String name, Long seriesId, String material, String description) {
+        ProductRequest request = new ProductRequest();
+        request.setName(name);
+        request.setSlug(name.toLowerCase().replace(' ', '-'));
+        request.setPriceMarket(BigDecimal.TEN);
+        request.setMaterial(material);
+        request.setDescription(description);
+        request.setCategoryId(category.getId());
+        request.setSeriesId(seriesId);
+        request.setManufacturerId(manufacturer.getId());
+        return request;
+    }
+}
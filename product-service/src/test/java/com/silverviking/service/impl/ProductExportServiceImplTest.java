@@ -0,0 +1,156 @@
+package com.silverviking.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.silverviking.EcommerceApiApplication;
+import com.silverviking.dto.request.CategoryRequest;
+import com.silverviking.dto.request.ManufacturerRequest;
+import com.silverviking.dto.request.ProductExportFilter;
+import com.silverviking.dto.request.ProductImageRequest;
+import com.silverviking.dto.request.ProductRequest;
+import com.silverviking.dto.request.SeriesRequest;
+import com.silverviking.dto.response.ProductImportResult;
+import com.silverviking.enums.ImageType;
+import com.silverviking.service.CategoryService;
+import com.silverviking.service.ManufacturerService;
+import com.silverviking.service.ProductExportService;
+import com.silverviking.service.ProductImportService;
+import com.silverviking.service.ProductService;
+import com.silverviking.service.SeriesService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = EcommerceApiApplication.class)
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProductExportServiceImplTest {
+
+    // More than one chunk at the test chunk size of 7
+    private static final int PRODUCTS = 10;
+
+    @Autowired
+    private ProductExportService productExportService;
+    @Autowired
+    private ProductImportService productImportService;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private CategoryService categoryService;
+    @Autowired
+    private SeriesService seriesService;
+    @Autowired
+    private ManufacturerService manufacturerService;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long categoryId;
+    private long seriesId;
+    private long manufacturerId;
+
+    @BeforeAll
+    void seedCatalog() {
+        CategoryRequest category = new CategoryRequest();
+        category.setName("Export Category");
+        categoryId = categoryService.createCategory(category).getId();
+        SeriesRequest series = new SeriesRequest();
+        series.setName("Export Series");
+        seriesId = seriesService.createSeries(series).getId();
+        ManufacturerRequest manufacturer = new ManufacturerRequest();
+        manufacturer.setName("Export Manufacturer");
+        manufacturerId = manufacturerService.createManufacturer(manufacturer).getId();
+
+        for (int i = 0; i < PRODUCTS; i++) {
+            ProductRequest request = new ProductRequest();
+            request.setName("Export Figure " + i);
+            request.setSlug("export-" + i);
+            request.setPriceMarket(new BigDecimal(100 + i));
+            request.setReleased(i % 2 == 0);
+            request.setCategoryId(categoryId);
+            request.setManufacturerId(manufacturerId);
+            request.setSeriesId(i % 3 == 0 ? null : seriesId);
+            request.setImages(List.of(image(i, "front", ImageType.FRONT, true), image(i, "box", ImageType.BOX, false)));
+            productService.createProduct(request);
+        }
+    }
+
+    @AfterAll
+    void removeCatalog() {
+        deleteProducts();
+        jdbcTemplate.update("delete from categories where id = ?", categoryId);
+        jdbcTemplate.update("delete from series where id = ?", seriesId);
+        jdbcTemplate.update("delete from manufacturers where id = ?", manufacturerId);
+    }
+
+    @Test
+    void exportCanBeImportedBackUnchanged() throws Exception {
+        String exported = export();
+        JsonNode first = objectMapper.readTree(exported.substring(0, exported.indexOf('\n')));
+        assertThat(first.path("version").isNumber()).isTrue();
+        assertThat(first.path("updatedAt").isTextual()).isTrue();
+        assertThat(first.path("images")).hasSize(2);
+        Map<String, JsonNode> before = bySlug(exported);
+        assertThat(before).hasSize(PRODUCTS);
+
+        deleteProducts();
+        ProductImportResult result = productImportService.importProducts(
+                new ByteArrayInputStream(exported.getBytes(StandardCharsets.UTF_8)), MediaType.APPLICATION_JSON, null);
+
+        assertThat(result.getErrors()).isEmpty();
+        assertThat(result.getImported()).isEqualTo(PRODUCTS);
+        assertThat(bySlug(export())).isEqualTo(before);
+    }
+
+    private String export() throws Exception {
+        ProductExportFilter filter = new ProductExportFilter();
+        filter.setCategoryId(categoryId);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long exported = productExportService.exportProducts(filter, out);
+        assertThat(exported).isEqualTo(PRODUCTS);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    // Ids, versions and timestamps are assigned anew on import, so only the content is compared
+    private Map<String, JsonNode> bySlug(String ndjson) throws Exception {
+        Map<String, JsonNode> products = new TreeMap<>();
+        for (String line : ndjson.split("\n")) {
+            ObjectNode product = (ObjectNode) objectMapper.readTree(line);
+            product.remove(List.of("id", "version", "updatedAt"));
+            product.withArray("images").forEach(image -> ((ObjectNode) image).remove("id"));
+            products.put(product.get("slug").asText(), product);
+        }
+        return products;
+    }
+
+    private void deleteProducts() {
+        jdbcTemplate.update("delete from product_images where product_id in (select id from products where slug like 'export-%')");
+        jdbcTemplate.update("delete from products where slug like 'export-%'");
+    }
+
+    private static ProductImageRequest image(int product, String name, ImageType type, boolean thumbnail) {
+        ProductImageRequest image = new ProductImageRequest();
+        image.setImageUrl("https://img.example.com/export/" + product + "/" + name + ".jpg");
+        image.setType(type.name());
+        image.setIsThumbnail(thumbnail);
+        return image;
+    }
+}
@@ -0,0 +1,144 @@
+package com.silverviking.service.impl;
+
+import com.silverviking.EcommerceApiApplication;
+import com.silverviking.domain.Category;
+import com.silverviking.domain.Manufacturer;
+import com.silverviking.domain.Product;
+import com.silverviking.domain.ProductImage;
+import com.silverviking.dto.request.ProductImageRequest;
+import com.silverviking.dto.response.ProductImageResponse;
+import com.silverviking.enums.ImageType;
+import com.silverviking.monitoring.SqlActivity;
+import com.silverviking.repository.CategoryRepository;
+import com.silverviking.repository.ManufacturerRepository;
+import com.silverviking.repository.ProductImageRepository;
+import com.silverviking.repository.ProductRepository;
+import com.silverviking.service.ProductImageService;
+import com.silverviking.support.QueryCounter;
+import com.silverviking.support.QueryCounter.Counted;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.silverviking.support.QueryCounter.assertReadOnly;
+import static com.silverviking.support.QueryCounter.assertStatements;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = EcommerceApiApplication.class)
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProductImageServiceImplQueryCountTest {
+
+    private static final int IMAGE_COUNT = 12;
+
+    @Autowired
+    private ProductImageService productImageService;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private ProductImageRepository productImageRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private ManufacturerRepository manufacturerRepository;
+
+    private Category category;
+    private Manufacturer manufacturer;
+    private Product product;
+
+    @BeforeAll
+    void seedProduct() {
+        category = categoryRepository.save(Category.builder().name("Image Budget Figures").build());
+        manufacturer = manufacturerRepository.save(Manufacturer.builder().name("Kotobukiya").build());
+        Product draft = Product.builder()
+                .name("ARTFX J Asuka")
+                .slug("artfx-j-asuka-image-budget")
+                .priceMarket(BigDecimal.valueOf(3_500_000))
+                .category(category)
+                .manufacturer(manufacturer)
+                .build();
+        List<ProductImage> images = new ArrayList<>();
+        for (int i = 0; i < IMAGE_COUNT; i++) {
+            images.add(ProductImage.builder().imageUrl("https://img/asuka/" + i + ".jpg").type(ImageType.LEFT)
+                    .isThumbnail(i == 0).product(draft).build());
+        }
+        draft.setImages(images);
+        product = productRepository.save(draft);
+    }
+
+    @AfterAll
+    void clearProduct() {
+        productImageRepository.deleteAll(productImageRepository.findAll().stream()
+                .filter(image -> image.getProduct().getId().equals(product.getId()))
+                .toList());
+        productRepository.deleteById(product.getId());
+        categoryRepository.delete(category);
+        manufacturerRepository.delete(manufacturer);
+    }
+
+    @Test
+    void imagesOfAProductAreReadWithoutAStatementPerImage() throws Exception {
+        Counted<List<ProductImageResponse>> images = QueryCounter.count(() -> productImageService.getImagesByProductId(product.getId()));
+
+        assertThat(images.value()).hasSize(IMAGE_COUNT);
+        assertReadOnly(images.counts(), 3);
+        assertThat(images.counts().rows()).isEqualTo(IMAGE_COUNT + 2);
+    }
+
+    @Test
+    void addingAnImageInsertsItAndTouchesTheProduct() throws Exception {
+        Counted<ProductImageResponse> added = QueryCounter.count(() -> productImageService.addImage(request("https://img/asuka/box.jpg")));
+        try {
+            assertStatements(added.counts(), SqlActivity.StatementType.SELECT, 2);
+            assertStatements(added.counts(), SqlActivity.StatementType.INSERT, 1);
+            // The product's updated_at and the catalog version
+            assertStatements(added.counts(), SqlActivity.StatementType.UPDATE, 2);
+        } finally {
+            productImageService.deleteImage(added.value().getId());
+        }
+    }
+
+    @Test
+    void updatingAnImageDoesNotLoadItsSiblings() throws Exception {
+        ProductImageResponse added = productImageService.addImage(request("https://img/asuka/stand.jpg"));
+        try {
+            SqlActivity.Counts counts = QueryCounter.count(() ->
+                    productImageService.updateImage(added.getId(), request("https://img/asuka/stand-v2.jpg"))).counts();
+
+            assertStatements(counts, SqlActivity.StatementType.SELECT, 3);
+            assertStatements(counts, SqlActivity.StatementType.UPDATE, 3);
+            assertStatements(counts, SqlActivity.StatementType.INSERT, 0);
+        } finally {
+            productImageService.deleteImage(added.getId());
+        }
+    }
+
+    @Test
+    void deletingAnImageRemovesOneRow() throws Exception {
+        ProductImageResponse added = productImageService.addImage(request("https://img/asuka/extra.jpg"));
+
+        SqlActivity.Counts counts = QueryCounter.count(() -> productImageService.deleteImage(added.getId()));
+
+        assertStatements(counts, SqlActivity.StatementType.SELECT, 3);
+        assertStatements(counts, SqlActivity.StatementType.DELETE, 1);
+        assertStatements(counts, SqlActivity.StatementType.UPDATE, 2);
+        assertThat(productImageRepository.existsById(added.getId())).isFalse();
+    }
+
+    private ProductImageRequest request(String url) {
+        ProductImageRequest request = new ProductImageRequest();
+        request.setProductId(product.getId());
+        request.setImageUrl(url);
+        request.setType(ImageType.BOX.name());
+        request.setIsThumbnail(false);
+        return request;
+    }
+}
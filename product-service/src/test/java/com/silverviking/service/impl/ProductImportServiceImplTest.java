@@ -0,0 +1,117 @@
+package com.silverviking.service.impl;
+
+import com.silverviking.EcommerceApiApplication;
+import com.silverviking.dto.request.CategoryRequest;
+import com.silverviking.dto.request.ManufacturerRequest;
+import com.silverviking.dto.response.ProductImportError;
+import com.silverviking.dto.response.ProductImportResult;
+import com.silverviking.service.CategoryService;
+import com.silverviking.service.ManufacturerService;
+import com.silverviking.service.ProductImportService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = EcommerceApiApplication.class)
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProductImportServiceImplTest {
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    @Autowired
+    private ProductImportService productImportService;
+    @Autowired
+    private CategoryService categoryService;
+    @Autowired
+    private ManufacturerService manufacturerService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long categoryId;
+    private long manufacturerId;
+
+    @BeforeAll
+    void seedReferenceData() {
+        CategoryRequest category = new CategoryRequest();
+        category.setName("Import Category");
+        categoryId = categoryService.createCategory(category).getId();
+        ManufacturerRequest manufacturer = new ManufacturerRequest();
+        manufacturer.setName("Import Manufacturer");
+        manufacturerId = manufacturerService.createManufacturer(manufacturer).getId();
+    }
+
+    @AfterAll
+    void removeImportedRows() {
+        jdbcTemplate.update("delete from products where slug like 'import-%'");
+        jdbcTemplate.update("delete from categories where id = ?", categoryId);
+        jdbcTemplate.update("delete from manufacturers where id = ?", manufacturerId);
+    }
+
+    @Test
+    void rowsThatDoNotBindAreSkippedAndTheRestIsImported() throws Exception {
+        String body = row("import-json-1", "120") + "\n"
+                + row("import-json-2", "\"not a price\"") + "\n"
+                + row("import-json-3", "130") + "\n";
+
+        ProductImportResult result = importBody(body, MediaType.APPLICATION_JSON);
+
+        assertThat(result.getReceived()).isEqualTo(3);
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getAbortedAtRow()).isNull();
+        assertThat(result.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getRow()).isEqualTo(2);
+            assertThat(error.getMessage()).startsWith("Invalid row");
+        });
+    }
+
+    @Test
+    void csvRowsThatDoNotBindAreSkipped() throws Exception {
+        String body = "name,slug,priceMarket,categoryId,manufacturerId\n"
+                + "CSV Figure 1,import-csv-1,99," + categoryId + "," + manufacturerId + "\n"
+                + "CSV Figure 2,import-csv-2,cheap," + categoryId + "," + manufacturerId + "\n"
+                + "CSV Figure 3,import-csv-3,101," + categoryId + "," + manufacturerId + "\n";
+
+        ProductImportResult result = importBody(body, TEXT_CSV);
+
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(ProductImportError::getRow).containsExactly(2L);
+    }
+
+    @Test
+    void brokenSyntaxStopsTheImportAndReportsWhere() throws Exception {
+        String body = row("import-broken-1", "120") + "\n"
+                + "{\"name\": \"Broken\" \"slug\": \"import-broken-2\"}\n"
+                + row("import-broken-3", "130") + "\n";
+
+        ProductImportResult result = importBody(body, MediaType.APPLICATION_JSON);
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getAbortedAtRow()).isEqualTo(2);
+        assertThat(result.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getRow()).isEqualTo(2);
+            assertThat(error.getMessage()).startsWith("Malformed input").contains("not read");
+        });
+    }
+
+    private ProductImportResult importBody(String body, MediaType contentType) throws Exception {
+        return productImportService.importProducts(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), contentType, null);
+    }
+
+    private String row(String slug, String price) {
+        return "{\"name\": \"Figure " + slug + "\", \"slug\": \"" + slug + "\", \"priceMarket\": " + price
+                + ", \"categoryId\": " + categoryId + ", \"manufacturerId\": " + manufacturerId + "}";
+    }
+}
@@ -0,0 +1,405 @@
+package com.silverviking.service.impl;
+
+import com.silverviking.EcommerceApiApplication;
+import com.silverviking.cache.ProductDetailCache;
+import com.silverviking.cache.ReferenceDataRegistry;
+import com.silverviking.domain.Category;
+import com.silverviking.domain.Manufacturer;
+import com.silverviking.domain.Product;
+import com.silverviking.domain.ProductImage;
+import com.silverviking.domain.Series;
+import com.silverviking.dto.request.CategoryRequest;
+import com.silverviking.dto.request.ProductImageRequest;
+import com.silverviking.dto.request.ProductPageRequest;
+import com.silverviking.dto.request.ProductRequest;
+import com.silverviking.dto.response.CursorPageResponse;
+import com.silverviking.dto.response.ProductImageResponse;
+import com.silverviking.dto.response.ProductResponse;
+import com.silverviking.dto.response.ProductSummaryResponse;
+import com.silverviking.enums.ImageType;
+import com.silverviking.enums.ProductSortField;
+import com.silverviking.exception.ConflictException;
+import com.silverviking.exception.EntityNotFoundException;
+import com.silverviking.monitoring.SqlActivity;
+import com.silverviking.repository.CategoryRepository;
+import com.silverviking.repository.ManufacturerRepository;
+import com.silverviking.repository.ProductImageRepository;
+import com.silverviking.repository.ProductRepository;
+import com.silverviking.repository.SeriesRepository;
+import com.silverviking.service.CategoryService;
+import com.silverviking.service.ProductImageService;
+import com.silverviking.service.ProductService;
+import com.silverviking.support.QueryCounter;
+import com.silverviking.support.QueryCounter.Counted;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+import static com.silverviking.support.QueryCounter.assertReadOnly;
+import static com.silverviking.support.QueryCounter.assertStatements;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(classes = EcommerceApiApplication.class)
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProductServiceImplQueryCountTest {
+
+    private static final int PRODUCT_COUNT = 30;
+
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private ProductImageRepository productImageRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private SeriesRepository seriesRepository;
+    @Autowired
+    private ManufacturerRepository manufacturerRepository;
+    @Autowired
+    private ProductImageService productImageService;
+    @Autowired
+    private CategoryService categoryService;
+    @Autowired
+    private ProductDetailCache productDetailCache;
+    @Autowired
+    private ReferenceDataRegistry referenceDataRegistry;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Category category;
+    private Series series;
+    private Manufacturer manufacturer;
+    private Product anyProduct;
+
+    @BeforeAll
+    void seedCatalog() {
+        category = categoryRepository.save(Category.builder().name("Scale Figure").build());
+        Category otherCategory = categoryRepository.save(Category.builder().name("Nendoroid").build());
+        series = seriesRepository.save(Series.builder().name("Frieren").build());
+        Series otherSeries = seriesRepository.save(Series.builder().name("Steins;Gate").build());
+        manufacturer = manufacturerRepository.save(Manufacturer.builder().name("Good Smile Company").build());
+
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCT_COUNT; i++) {
+            Product product = Product.builder()
+                    .name("Figure " + i)
+                    .slug("figure-" + i)
+                    .priceMarket(BigDecimal.valueOf(100 + i))
+                    .category(i % 2 == 0 ? category : otherCategory)
+                    .series(i % 3 == 0 ? null : (i % 3 == 1 ? series : otherSeries))
+                    .manufacturer(manufacturer)
+                    .build();
+            product.setImages(List.of(
+                    ProductImage.builder().imageUrl("https://img/" + i + "/front.jpg").type(ImageType.FRONT).isThumbnail(true).product(product).build(),
+                    ProductImage.builder().imageUrl("https://img/" + i + "/back.jpg").type(ImageType.BACK).isThumbnail(false).product(product).build()));
+            products.add(product);
+        }
+        anyProduct = productRepository.saveAll(products).get(0);
+        referenceDataRegistry.refresh();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterAll
+    void clearCatalog() {
+        productImageRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+        seriesRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+        manufacturerRepository.deleteAllInBatch();
+    }
+
+    @BeforeEach
+    void resetStatistics() {
+        statistics.clear();
+    }
+
+    @Test
+    void listingPageLoadsProductsAndImagesInTwoStatements() throws Exception {
+        Counted<CursorPageResponse<ProductResponse>> listing = QueryCounter.count(() -> productService.getAllProducts(pageOf(25, null)));
+        CursorPageResponse<ProductResponse> page = listing.value();
+
+        assertThat(page.getItems()).hasSize(25);
+        assertThat(page.getItems()).allSatisfy(product -> {
+            assertThat(product.getCategory().getName()).isNotNull();
+            assertThat(product.getManufacturer().getName()).isEqualTo("Good Smile Company");
+            assertThat(product.getImages()).hasSize(2);
+        });
+        assertReadOnly(listing.counts(), 2);
+    }
+
+    @Test
+    void followingCursorKeepsStatementCountFlat() throws Exception {
+        CursorPageResponse<ProductResponse> first = productService.getAllProducts(pageOf(20, null));
+
+        Counted<CursorPageResponse<ProductResponse>> next = QueryCounter.count(() -> productService.getAllProducts(pageOf(20, first.getNextCursor())));
+        CursorPageResponse<ProductResponse> second = next.value();
+
+        assertThat(second.getItems()).hasSize(PRODUCT_COUNT - 20);
+        assertThat(second.isHasNext()).isFalse();
+        assertThat(second.getItems()).extracting(ProductResponse::getId)
+                .doesNotContainAnyElementsOf(first.getItems().stream().map(ProductResponse::getId).toList());
+        assertReadOnly(next.counts(), 2);
+    }
+
+    @Test
+    void categoryListingValidatesAgainstReferenceSnapshot() throws Exception {
+        Counted<CursorPageResponse<ProductResponse>> listing = QueryCounter.count(() ->
+                productService.getProductsByCategoryId(category.getId(), pageOf(100, null)));
+        CursorPageResponse<ProductResponse> page = listing.value();
+
+        assertThat(page.getItems()).hasSize(PRODUCT_COUNT / 2);
+        assertThat(page.getItems()).allSatisfy(product -> assertThat(product.getCategory().getName()).isEqualTo("Scale Figure"));
+        assertReadOnly(listing.counts(), 2);
+    }
+
+    @Test
+    void seriesListingValidatesAgainstReferenceSnapshot() throws Exception {
+        Counted<CursorPageResponse<ProductResponse>> listing = QueryCounter.count(() ->
+                productService.getProductsBySeriesId(series.getId(), pageOf(100, null)));
+        CursorPageResponse<ProductResponse> page = listing.value();
+
+        assertThat(page.getItems()).hasSize(PRODUCT_COUNT / 3);
+        assertThat(page.getItems()).allSatisfy(product -> assertThat(product.getSeries().getName()).isEqualTo("Frieren"));
+        assertReadOnly(listing.counts(), 2);
+    }
+
+    @Test
+    void summaryPageReadsProjectionAndThumbnailInOneStatement() throws Exception {
+        Counted<CursorPageResponse<ProductSummaryResponse>> listing = QueryCounter.count(() -> productService.getAllProductSummaries(pageOf(25, null)));
+        CursorPageResponse<ProductSummaryResponse> page = listing.value();
+
+        assertThat(page.getItems()).hasSize(25);
+        assertThat(page.getItems()).allSatisfy(product -> assertThat(product.getThumbnailUrl()).endsWith("/front.jpg"));
+        assertThat(page.getItems()).filteredOn(product -> product.getSeries() != null)
+                .allSatisfy(product -> assertThat(product.getSeries().getName()).isIn("Frieren", "Steins;Gate"));
+        assertReadOnly(listing.counts(), 1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void summaryCursorWalksTheSameOrderAsTheFullListing() {
+        CursorPageResponse<ProductSummaryResponse> first = productService.getAllProductSummaries(pageOf(20, null));
+        CursorPageResponse<ProductSummaryResponse> second = productService.getAllProductSummaries(pageOf(20, first.getNextCursor()));
+
+        List<UUID> summaryIds = new ArrayList<>();
+        first.getItems().forEach(product -> summaryIds.add(product.getId()));
+        second.getItems().forEach(product -> summaryIds.add(product.getId()));
+        assertThat(summaryIds).containsExactlyElementsOf(
+                productService.getAllProducts(pageOf(100, null)).getItems().stream().map(ProductResponse::getId).toList());
+    }
+
+    @Test
+    void releaseDateCursorWalksDatedProductsThenUndatedOnes() {
+        List<Product> dated = productRepository.findAll().subList(0, 12);
+        for (int i = 0; i < dated.size(); i++) {
+            // Pairs share a date, so the id tie-breaker is exercised too
+            dated.get(i).setReleaseDate(Date.valueOf(LocalDate.of(2024, 1, 1).plusDays(i / 2)));
+        }
+        List<Product> saved = productRepository.saveAll(dated);
+        try {
+            List<ProductSummaryResponse> ascending = walk(Sort.Direction.ASC);
+            List<ProductSummaryResponse> descending = walk(Sort.Direction.DESC);
+
+            assertThat(ascending).hasSize(PRODUCT_COUNT).extracting(ProductSummaryResponse::getId).doesNotHaveDuplicates();
+            assertThat(ascending.subList(0, dated.size())).extracting(ProductSummaryResponse::getReleaseDate)
+                    .allMatch(Objects::nonNull)
+                    .isSortedAccordingTo(Comparator.naturalOrder());
+            assertThat(ascending.subList(dated.size(), PRODUCT_COUNT)).extracting(ProductSummaryResponse::getReleaseDate)
+                    .containsOnlyNulls();
+            List<UUID> reversed = new ArrayList<>(ascending.stream().map(ProductSummaryResponse::getId).toList());
+            Collections.reverse(reversed);
+            assertThat(descending).extracting(ProductSummaryResponse::getId).containsExactlyElementsOf(reversed);
+        } finally {
+            saved.forEach(product -> product.setReleaseDate(null));
+            productRepository.saveAll(saved);
+        }
+    }
+
+    @Test
+    void detailLoadsProductAndImagesInTwoStatements() throws Exception {
+        productDetailCache.invalidate(anyProduct.getId());
+
+        Counted<ProductResponse> detail = QueryCounter.count(() -> productService.getProductById(anyProduct.getId()));
+
+        assertThat(detail.value().getImages()).hasSize(2);
+        assertReadOnly(detail.counts(), 2);
+    }
+
+    @Test
+    void cachedDetailIsServedWithoutStatements() throws Exception {
+        ProductResponse first = productService.getProductById(anyProduct.getId());
+
+        Counted<ProductResponse> second = QueryCounter.count(() -> productService.getProductById(anyProduct.getId()));
+
+        assertThat(second.value()).isSameAs(first);
+        assertThat(second.counts().statements()).isZero();
+    }
+
+    @Test
+    void imageMutationEvictsCachedDetail() {
+        Product product = productRepository.findAll().get(1);
+        ProductResponse before = productService.getProductById(product.getId());
+
+        ProductImageRequest request = new ProductImageRequest();
+        request.setProductId(product.getId());
+        request.setImageUrl("https://img/extra/box.jpg");
+        request.setType(ImageType.BOX.name());
+        request.setIsThumbnail(false);
+        ProductImageResponse added = productImageService.addImage(request);
+        try {
+            ProductResponse after = productService.getProductById(product.getId());
+
+            assertThat(after).isNotSameAs(before);
+            assertThat(after.getImages()).hasSize(before.getImages().size() + 1);
+        } finally {
+            productImageService.deleteImage(added.getId());
+        }
+        assertThat(productService.getProductById(product.getId()).getImages()).hasSize(before.getImages().size());
+    }
+
+    @Test
+    void renamedCategoryEvictsCachedDetailsThatEmbedIt() {
+        ProductResponse before = productService.getProductById(anyProduct.getId());
+        assertThat(before.getCategory().getName()).isEqualTo("Scale Figure");
+
+        CategoryRequest rename = new CategoryRequest();
+        rename.setName("Scale Figures");
+        categoryService.updateCategory(category.getId(), rename);
+        try {
+            assertThat(productDetailCache.getIfPresent(anyProduct.getId())).isNull();
+            assertThat(productService.getProductById(anyProduct.getId()).getCategory().getName()).isEqualTo("Scale Figures");
+        } finally {
+            rename.setName("Scale Figure");
+            categoryService.updateCategory(category.getId(), rename);
+        }
+    }
+
+    @Test
+    void slugLookupIsServedFromCachesWithoutStatements() throws Exception {
+        ProductResponse first = productService.getProductBySlug(anyProduct.getSlug());
+
+        Counted<ProductResponse> second = QueryCounter.count(() -> productService.getProductBySlug(anyProduct.getSlug()));
+
+        assertThat(second.value()).isSameAs(first);
+        assertThat(second.value().getId()).isEqualTo(anyProduct.getId());
+        assertThat(second.counts().statements()).isZero();
+    }
+
+    @Test
+    void createInsertsTheProductAndBumpsTheCatalogVersion() throws Exception {
+        ProductRequest request = requestFor(anyProduct, "Budget Figure");
+        request.setSlug("budget-figure");
+
+        Counted<ProductResponse> created = QueryCounter.count(() -> productService.createProduct(request));
+        try {
+            assertStatements(created.counts(), SqlActivity.StatementType.SELECT, 3);
+            assertStatements(created.counts(), SqlActivity.StatementType.INSERT, 1);
+            assertStatements(created.counts(), SqlActivity.StatementType.UPDATE, 1);
+        } finally {
+            productService.deleteProduct(created.value().getId());
+        }
+    }
+
+    @Test
+    void updateWritesOnlyTheProductAndTheCatalogVersion() throws Exception {
+        // One that requestFor leaves in its category and series
+        Product product = productRepository.findAll().stream()
+                .filter(candidate -> candidate.getCategory().getId().equals(category.getId()) && candidate.getSeries() == null)
+                .findFirst().orElseThrow();
+        ProductRequest request = requestFor(product, product.getName() + " (Reissue)");
+
+        SqlActivity.Counts counts = QueryCounter.count(() -> productService.updateProduct(product.getId(), request)).counts();
+        try {
+            assertStatements(counts, SqlActivity.StatementType.SELECT, 5);
+            assertStatements(counts, SqlActivity.StatementType.UPDATE, 2);
+            assertStatements(counts, SqlActivity.StatementType.INSERT, 0);
+        } finally {
+            productService.updateProduct(product.getId(), requestFor(product, product.getName()));
+        }
+    }
+
+    @Test
+    void duplicateSlugIsRejectedAsConflict() {
+        ProductRequest request = requestFor(anyProduct, "Duplicate");
+        request.setSlug(anyProduct.getSlug());
+
+        assertThatThrownBy(() -> productService.createProduct(request))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining(anyProduct.getSlug());
+    }
+
+    @Test
+    void changedSlugNoLongerResolves() {
+        Product product = productRepository.findAll().get(2);
+        assertThat(productService.getProductBySlug(product.getSlug()).getId()).isEqualTo(product.getId());
+
+        ProductRequest request = requestFor(product, product.getName());
+        request.setSlug(product.getSlug() + "-renamed");
+        productService.updateProduct(product.getId(), request);
+        try {
+            assertThatThrownBy(() -> productService.getProductVersionBySlug(product.getSlug()))
+                    .isInstanceOf(EntityNotFoundException.class);
+            assertThatThrownBy(() -> productService.getProductBySlug(product.getSlug()))
+                    .isInstanceOf(EntityNotFoundException.class);
+            assertThat(productService.getProductBySlug(request.getSlug()).getId()).isEqualTo(product.getId());
+        } finally {
+            productService.updateProduct(product.getId(), requestFor(product, product.getName()));
+        }
+    }
+
+    private ProductRequest requestFor(Product product, String name) {
+        ProductRequest request = new ProductRequest();
+        request.setName(name);
+        request.setSlug(product.getSlug());
+        request.setPriceMarket(product.getPriceMarket());
+        request.setCategoryId(category.getId());
+        request.setManufacturerId(manufacturer.getId());
+        return request;
+    }
+
+    // Pages of 7, so pages straddle the boundary between dated and undated products
+    private List<ProductSummaryResponse> walk(Sort.Direction direction) {
+        List<ProductSummaryResponse> rows = new ArrayList<>();
+        String cursor = null;
+        do {
+            ProductPageRequest request = pageOf(7, cursor);
+            request.setSort(ProductSortField.RELEASE_DATE);
+            request.setDirection(direction);
+            CursorPageResponse<ProductSummaryResponse> page = productService.getAllProductSummaries(request);
+            rows.addAll(page.getItems());
+            cursor = page.isHasNext() ? page.getNextCursor() : null;
+        } while (cursor != null);
+        return rows;
+    }
+
+    private static ProductPageRequest pageOf(int size, String cursor) {
+        ProductPageRequest request = new ProductPageRequest();
+        request.setSize(size);
+        request.setCursor(cursor);
+        return request;
+    }
+}
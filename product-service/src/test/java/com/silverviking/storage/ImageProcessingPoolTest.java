@@ -0,0 +1,64 @@
+package com.silverviking.storage;
+
+import com.silverviking.configuration.ImageUploadProperties;
+import com.silverviking.configuration.WorkerThreads;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageProcessingPoolTest {
+
+    private ImageProcessingPool pool;
+
+    @AfterEach
+    void stopPool() throws InterruptedException {
+        pool.shutdown();
+    }
+
+    @Test
+    void everyReservedSlotCanBeSubmittedWhileThePoolIsFull() throws Exception {
+        pool = pool(1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        assertThat(pool.tryReserve(2)).isTrue();
+        pool.submit(() -> await(release));
+        pool.submit(() -> await(release));
+        assertThat(pool.tryReserve(1)).isFalse();
+        release.countDown();
+
+        // A slot comes back while its worker is still finishing; the next job must queue, not be rejected
+        int jobs = 5_000;
+        AtomicInteger finished = new AtomicInteger();
+        for (int i = 0; i < jobs; i++) {
+            while (!pool.tryReserve(1)) {
+                Thread.onSpinWait();
+            }
+            pool.submit(finished::incrementAndGet);
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (finished.get() < jobs && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(finished).hasValue(jobs);
+    }
+
+    private static ImageProcessingPool pool(int workers, int queueCapacity) {
+        ImageUploadProperties properties = new ImageUploadProperties();
+        properties.setWorkers(workers);
+        properties.setQueueCapacity(queueCapacity);
+        return new ImageProcessingPool(properties, new WorkerThreads(new MockEnvironment()));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
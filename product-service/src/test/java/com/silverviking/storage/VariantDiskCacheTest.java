@@ -0,0 +1,173 @@
+package com.silverviking.storage;
+
+import com.silverviking.configuration.ImageUploadProperties;
+import com.silverviking.configuration.VariantCacheProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class VariantDiskCacheTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    void leastRecentlyUsedFilesAreEvictedOverTheBudget() throws IOException {
+        VariantDiskCache cache = cache(2_500);
+        Path a = cache.get("aa/a/w40.jpg", out -> out.write(new byte[1000]));
+        cache.get("bb/b/w40.jpg", out -> out.write(new byte[1000]));
+        // Touching a makes b the least recently used
+        cache.get("aa/a/w40.jpg", out -> {
+            throw new AssertionError("a is cached");
+        });
+        cache.get("cc/c/w40.jpg", out -> out.write(new byte[1000]));
+
+        assertThat(a).exists().hasSize(1000);
+        assertThat(root.resolve("cache/bb/b/w40.jpg")).doesNotExist();
+        VariantDiskCache.VariantCacheStats stats = cache.stats();
+        assertThat(stats.hits()).isEqualTo(1);
+        assertThat(stats.misses()).isEqualTo(3);
+        assertThat(stats.evictions()).isEqualTo(1);
+        assertThat(stats.entries()).isEqualTo(2);
+        assertThat(stats.bytesOnDisk()).isEqualTo(2000);
+        assertThat(root.resolve("tmp")).isEmptyDirectory();
+    }
+
+    @Test
+    void concurrentMissesForOneKeyGenerateItOnce() throws Exception {
+        VariantDiskCache cache = cache(1_000_000);
+        AtomicInteger generated = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Path>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> cache.get("dd/d/w80.png", out -> {
+                    generated.incrementAndGet();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                    out.write(new byte[500]);
+                })));
+            }
+            Thread.sleep(200);
+            release.countDown();
+            for (Future<Path> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).hasSize(500);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(generated).hasValue(1);
+        assertThat(cache.stats().misses()).isEqualTo(1);
+        assertThat(cache.stats().hitRatio()).isEqualTo(7 / 8.0);
+    }
+
+    @Test
+    void aFailedGenerationLeavesNothingBehindAndIsRetried() throws IOException {
+        VariantDiskCache cache = cache(1_000_000);
+        assertThatThrownBy(() -> cache.get("ee/e/w40.jpg", out -> {
+            out.write(new byte[10]);
+            throw new IOException("Corrupt original");
+        })).isInstanceOf(IOException.class);
+        assertThat(root.resolve("cache/ee/e/w40.jpg")).doesNotExist();
+        assertThat(root.resolve("tmp")).isEmptyDirectory();
+
+        assertThat(cache.get("ee/e/w40.jpg", out -> out.write(new byte[10]))).hasSize(10);
+    }
+
+    @Test
+    void cachedFilesSurviveARestartWithinTheBudget() throws IOException {
+        VariantDiskCache cache = cache(10_000);
+        cache.get("ff/f/w40.jpg", out -> out.write(new byte[3000]));
+        Path newer = cache.get("gg/g/w40.jpg", out -> out.write(new byte[3000]));
+        Files.setLastModifiedTime(root.resolve("cache/ff/f/w40.jpg"),
+                FileTime.fromMillis(Files.getLastModifiedTime(newer).toMillis() - 60_000));
+
+        VariantDiskCache restarted = cache(4_000);
+        assertThat(restarted.stats().entries()).isEqualTo(1);
+        assertThat(restarted.stats().bytesOnDisk()).isEqualTo(3000);
+        assertThat(newer).exists();
+        assertThat(root.resolve("cache/ff/f/w40.jpg")).doesNotExist();
+    }
+
+    @Test
+    void evictedFilesOutliveTheirEntryForTheGracePeriod() throws Exception {
+        VariantDiskCache cache = cache(1_500, Duration.ofMillis(300));
+        Path a = cache.get("aa/a/w40.jpg", out -> out.write(new byte[1000]));
+        cache.get("bb/b/w40.jpg", out -> out.write(new byte[1000]));
+
+        assertThat(cache.stats().evictions()).isEqualTo(1);
+        assertThat(cache.stats().bytesOnDisk()).isEqualTo(1000);
+        // Still there for a response that looked it up just before the eviction
+        assertThat(a).exists().hasSize(1000);
+
+        Thread.sleep(400);
+        cache.get("cc/c/w40.jpg", out -> out.write(new byte[1000]));
+        assertThat(a).doesNotExist();
+    }
+
+    @Test
+    void regeneratingAnEvictedKeyCancelsItsDeletion() throws Exception {
+        VariantDiskCache cache = cache(1_500, Duration.ofMillis(300));
+        cache.get("aa/a/w40.jpg", out -> out.write(new byte[1000]));
+        cache.get("bb/b/w40.jpg", out -> out.write(new byte[1000]));
+        Path a = cache.get("aa/a/w40.jpg", out -> out.write(new byte[1000]));
+
+        Thread.sleep(400);
+        cache.get("aa/a/w40.jpg", out -> {
+            throw new AssertionError("a is cached");
+        });
+        cache.get("cc/c/w40.jpg", out -> out.write(new byte[100]));
+        assertThat(a).exists().hasSize(1000);
+    }
+
+    @Test
+    void openRegeneratesAFileThatWentMissing() throws IOException {
+        VariantDiskCache cache = cache(1_000_000);
+        AtomicInteger generated = new AtomicInteger();
+        ContentAddressedStorage.VariantWriter writer = out -> {
+            generated.incrementAndGet();
+            out.write(new byte[10]);
+        };
+        Files.delete(cache.get("hh/h/w40.jpg", writer));
+
+        try (FileChannel channel = cache.open("hh/h/w40.jpg", writer)) {
+            assertThat(channel.size()).isEqualTo(10);
+        }
+        assertThat(generated).hasValue(2);
+    }
+
+    private VariantDiskCache cache(long maxBytes) {
+        return cache(maxBytes, Duration.ZERO);
+    }
+
+    private VariantDiskCache cache(long maxBytes, Duration gracePeriod) {
+        ImageUploadProperties uploadProperties = new ImageUploadProperties();
+        uploadProperties.setStorageRoot(root);
+        VariantCacheProperties properties = new VariantCacheProperties();
+        properties.setMaxSize(DataSize.ofBytes(maxBytes));
+        properties.setEvictionGracePeriod(gracePeriod);
+        return new VariantDiskCache(new ContentAddressedStorage(uploadProperties), properties);
+    }
+}
@@ -0,0 +1,60 @@
+package com.silverviking.support;
+
+import com.silverviking.monitoring.SqlActivity;
+
+import java.util.concurrent.Callable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the SQL a block of test code causes on the calling thread, whether it comes from Hibernate
+ * or JdbcTemplate. MockMvc runs the controller on the test thread, so endpoint calls count too.
+ * Connections already held when the block starts, such as one bound to an enclosing transaction,
+ * are not counted.
+ * <pre>
+ * Counted&lt;CursorPageResponse&lt;ProductResponse&gt;&gt; listing = QueryCounter.count(() -&gt; productService.getAllProducts(page));
+ * QueryCounter.assertReadOnly(listing.counts(), 2);
+ * </pre>
+ */
+public final class QueryCounter {
+
+    private QueryCounter() {
+    }
+
+    @FunctionalInterface
+    public interface Block {
+        void run() throws Exception;
+    }
+
+    public record Counted<T>(T value, SqlActivity.Counts counts) {
+    }
+
+    public static SqlActivity.Counts count(Block block) throws Exception {
+        SqlActivity.Counts counts = SqlActivity.begin();
+        try {
+            block.run();
+        } finally {
+            SqlActivity.end();
+        }
+        return counts;
+    }
+
+    public static <T> Counted<T> count(Callable<T> block) throws Exception {
+        SqlActivity.Counts counts = SqlActivity.begin();
+        try {
+            return new Counted<>(block.call(), counts);
+        } finally {
+            SqlActivity.end();
+        }
+    }
+
+    // Exactly this many SELECTs and no writes: a read path that starts updating rows is as much a regression as one more query
+    public static void assertReadOnly(SqlActivity.Counts counts, int selects) {
+        assertThat(counts.selects()).as("SELECT statements, %s", counts).isEqualTo(selects);
+        assertThat(counts.writes()).as("write statements, %s", counts).isZero();
+    }
+
+    public static void assertStatements(SqlActivity.Counts counts, SqlActivity.StatementType type, int expected) {
+        assertThat(counts.statements(type)).as("%s statements, %s", type, counts).isEqualTo(expected);
+    }
+}
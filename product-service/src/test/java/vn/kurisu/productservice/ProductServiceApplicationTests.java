@@ -1,9 +1,12 @@
 package vn.kurisu.productservice;
 
+import com.silverviking.EcommerceApiApplication;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
 
-@SpringBootTest
+@SpringBootTest(classes = EcommerceApiApplication.class)
+@ActiveProfiles("test")
 class ProductServiceApplicationTests {
 
 	@Test